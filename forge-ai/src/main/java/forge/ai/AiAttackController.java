@@ -840,6 +840,15 @@ public class AiAttackController {
      * @return a {@link forge.game.combat.Combat} object.
      */
     public final int declareAttackers(final Combat combat) {
+        final AiProfiler.Probe probe = AiProfiler.start(AiProfiler.Section.ATTACK, "", "");
+        try {
+            return declareAttackersAgainst(combat);
+        } finally {
+            AiProfiler.finish(probe);
+        }
+    }
+
+    private int declareAttackersAgainst(final Combat combat) {
         // something prevents attacking, try another
         if (this.attackers.isEmpty() && ai.getOpponents().size() > 1) {
             final PlayerCollection opps = ai.getOpponents();
@@ -881,9 +890,11 @@ public class AiAttackController {
         boolean tradeIfLowerLifePressure = false;
         boolean predictEvasion = false;
         boolean simAI = false;
+        boolean useCombatSolver = false;
         if (ai.getController().isAI()) {
             AiController aic = ((PlayerControllerAi) ai.getController()).getAi();
             simAI = aic.usesSimulation();
+            useCombatSolver = !nextTurn && aic.getBooleanProperty(AiProps.USE_COMBAT_SOLVER);
             if (!simAI) {
                 playAggro = aic.getBooleanProperty(AiProps.PLAY_AGGRO);
                 chanceToAttackToTrade = aic.getIntProperty(AiProps.CHANCE_TO_ATTACK_INTO_TRADE);
@@ -1285,6 +1296,9 @@ public class AiAttackController {
         if ( LOG_AI_ATTACKS )
             System.out.println("Normal attack");
 
+        // the solver makes its own judgement of which creatures are needed as blockers
+        final List<Card> solverCandidates = new ArrayList<>(attackersLeft);
+
         attackersLeft = notNeededAsBlockers(combat.getAttackers(), attackersLeft);
         attackersLeft = sortAttackers(attackersLeft);
 
@@ -1348,9 +1362,56 @@ public class AiAttackController {
             }
         }
 
+        // let the combat solver look for a better attack on the defending player
+        if (useCombatSolver) {
+            makeSolvedAttack(combat, solverCandidates);
+        }
+
         return aiAggression;
     }
 
+    /** Replace the attackers chosen so far by the ones of the combat solver if it finds a better attack. */
+    private void makeSolvedAttack(final Combat combat, final List<Card> potentialAttackers) {
+        final List<Card> candidates = new ArrayList<>();
+        final List<Card> current = new ArrayList<>();
+        for (final Card attacker : potentialAttackers) {
+            if (combat.isAttacking(attacker)) {
+                // attacks on planeswalkers and battles aren't searched
+                if (combat.getDefenderByAttacker(attacker) != defendingOpponent) {
+                    return;
+                }
+                current.add(attacker);
+            } else if (!canAttackWrapper(attacker, defendingOpponent)) {
+                continue;
+            }
+            candidates.add(attacker);
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+        final List<Card> fixed = new ArrayList<>(combat.getAttackers());
+        fixed.removeAll(candidates);
+
+        final AiController aic = ((PlayerControllerAi) ai.getController()).getAi();
+        final List<Card> solved = new AiCombatSolver(aic).solveAttack(ai, defendingOpponent, combat, fixed,
+                candidates, this.blockers, current);
+        if (solved == null) {
+            return;
+        }
+        if (LOG_AI_ATTACKS)
+            System.out.println("Solved attack: " + solved + " instead of " + current);
+        for (final Card attacker : current) {
+            if (!solved.contains(attacker)) {
+                combat.removeFromCombat(attacker);
+            }
+        }
+        for (final Card attacker : solved) {
+            if (!combat.isAttacking(attacker)) {
+                combat.addAttacker(attacker, defendingOpponent);
+            }
+        }
+    }
+
     /**
      * <p>
      * shouldAttack.
@@ -982,6 +982,71 @@ public class AiBlockController {
         }
     }
 
+    /** Replace the blocks made so far by the ones of the combat solver if it finds better ones. */
+    private void makeSolvedBlocks(final Combat combat, final List<Card> possibleBlockers) {
+        final List<Card> blockable = new ArrayList<>();
+        for (final Card attacker : attackers) {
+            if (CombatUtil.canBeBlocked(attacker, null, ai)) {
+                blockable.add(attacker);
+            }
+        }
+        if (blockable.isEmpty()) {
+            return;
+        }
+
+        // the solver needs every blocker to be free, so remember the blocks made so far
+        final Map<Card, CardCollection> madeBlocks = new LinkedHashMap<>();
+        for (final Card blocker : CardLists.filterControlledBy(combat.getAllBlockers(), ai)) {
+            madeBlocks.put(blocker, new CardCollection(combat.getAttackersBlockedBy(blocker)));
+        }
+        final List<Card> oldAttackersLeft = attackersLeft;
+        final List<Card> oldBlockersLeft = blockersLeft;
+        final List<Card> oldBlockedButUnkilled = blockedButUnkilled;
+        clearBlockers(combat, possibleBlockers);
+
+        final List<Card> blockers = new ArrayList<>();
+        for (final Card blocker : possibleBlockers) {
+            if (CombatUtil.canBlock(blocker, combat)) {
+                blockers.add(blocker);
+            }
+        }
+        final Card[] current = new Card[blockers.size()];
+        for (int i = 0; i < current.length; i++) {
+            final CardCollection blocked = madeBlocks.get(blockers.get(i));
+            current[i] = blocked == null || blocked.isEmpty() ? null : blocked.getFirst();
+        }
+        final AiController aic = ((PlayerControllerAi) ai.getController()).getAi();
+        final Card[] solved = new AiCombatSolver(aic).solveBlocks(ai, combat, blockable, blockers, current);
+
+        if (solved == null) {
+            for (final Map.Entry<Card, CardCollection> e : madeBlocks.entrySet()) {
+                for (final Card attacker : e.getValue()) {
+                    combat.addBlocker(attacker, e.getKey());
+                }
+            }
+            attackersLeft = oldAttackersLeft;
+            blockersLeft = oldBlockersLeft;
+            blockedButUnkilled = oldBlockedButUnkilled;
+            return;
+        }
+
+        attackersLeft = new ArrayList<>(blockable);
+        blockersLeft = new ArrayList<>(blockers);
+        for (int i = 0; i < solved.length; i++) {
+            if (solved[i] != null) {
+                combat.addBlocker(solved[i], blockers.get(i));
+                attackersLeft.remove(solved[i]);
+                blockersLeft.remove(blockers.get(i));
+            }
+        }
+        for (final Card attacker : blockable) {
+            if (combat.isBlocked(attacker) && !ComputerUtilCombat.attackerWouldBeDestroyed(ai, attacker, combat)) {
+                blockedButUnkilled.add(attacker);
+            }
+        }
+        lifeInDanger = ComputerUtilCombat.lifeInDanger(ai, combat);
+    }
+
     private void makeRequiredBlocks(Combat combat) {
         // assign blockers that have to block
         final CardCollection chumpBlockers = new CardCollection();
@@ -1076,6 +1141,15 @@ public class AiBlockController {
         if (attackers.isEmpty()) {
             return;
         }
+        final AiProfiler.Probe probe = AiProfiler.start(AiProfiler.Section.BLOCK, "", "");
+        try {
+            assignBlockersOf(combat, possibleBlockers);
+        } finally {
+            AiProfiler.finish(probe);
+        }
+    }
+
+    private void assignBlockersOf(final Combat combat, List<Card> possibleBlockers) {
 
         clearBlockers(combat, possibleBlockers);
 
@@ -1181,6 +1255,11 @@ public class AiBlockController {
             }
         }
 
+        // == 4. Let the combat solver look for better blocks than the ones above ==
+        if (ai.getController().isAI() && ((PlayerControllerAi) ai.getController()).getAi().getBooleanProperty(AiProps.USE_COMBAT_SOLVER)) {
+            makeSolvedBlocks(combat, possibleBlockers);
+        }
+
         // block requirements
         // TODO because this isn't done earlier, sometimes a good block will enforce a restriction that prevents another for the requirement
         makeRequiredBlocks(combat);
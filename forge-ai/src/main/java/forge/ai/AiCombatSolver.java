@@ -0,0 +1,617 @@
+package forge.ai;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import forge.game.GameEntity;
+import forge.game.card.Card;
+import forge.game.combat.Combat;
+import forge.game.combat.CombatUtil;
+import forge.game.keyword.Keyword;
+import forge.game.player.Player;
+
+/**
+ * Searches the attack and block assignments of a combat as a whole instead of one creature at a time.
+ * <br><br>
+ * The combatants are put into primitive arrays once: their power, the damage it takes to kill them,
+ * first strike, double strike, trample and deathtouch, and for each blocker and attacker it can
+ * block the damage it deals and whether either would destroy the other, as predicted by
+ * {@link ComputerUtilCombat}. An assignment of blockers is then valued by the creatures dying on
+ * both sides and the life lost, without touching the game, and a beam search looks for the best
+ * one. Sets of attackers are searched the same way, each valued by the best blocks the defending
+ * player could make against it and the damage the AI would be open to on the next turn.
+ * <br><br>
+ * The search stops at the time limit of the AI profile, and the AI only goes with what it found if
+ * that is better than the assignment of its regular attack or block logic, see
+ * {@link AiProps#USE_COMBAT_SOLVER}.
+ */
+final class AiCombatSolver {
+    // about a point of power or toughness, see ComputerUtilCard.evaluateCreature()
+    private static final int LIFE_VALUE = 12;
+    private static final int LETHAL = 1000000;
+    private static final int MAX_ATTACK_CANDIDATES = 30;
+
+    private final int beamWidth;
+    private final int dangerLife;
+    private final long deadlineNanos;
+    private boolean expired;
+
+    AiCombatSolver(final AiController aic) {
+        beamWidth = Math.max(1, aic.getIntProperty(AiProps.COMBAT_SOLVER_BEAM_WIDTH));
+        dangerLife = aic.getIntProperty(AiProps.AI_IN_DANGER_THRESHOLD);
+        final long budget = Math.min(aic.getIntProperty(AiProps.COMBAT_SOLVER_TIME_LIMIT_MS), AiDeadline.getRemainingMillis());
+        deadlineNanos = System.nanoTime() + budget * 1000000L;
+    }
+
+    private boolean isExpired() {
+        if (!expired && System.nanoTime() - deadlineNanos >= 0) {
+            expired = true;
+        }
+        return expired;
+    }
+
+    /**
+     * Search blocks of the attackers by the blockers of the defending player.
+     * @param current the attacker each blocker blocks now (or null), as chosen by the regular logic
+     * @return the attacker each blocker should block (or null), or null if nothing better than the
+     * current blocks was found
+     */
+    Card[] solveBlocks(final Player defender, final Combat combat, final List<Card> attackers,
+            final List<Card> blockers, final Card[] current) {
+        final Model m = new Model(defender, defender, combat, attackers, blockers, null, dangerLife);
+        final int[] currentAssignment = new int[m.nB];
+        for (int b = 0; b < m.nB; b++) {
+            currentAssignment[b] = current[b] == null ? -1 : attackers.indexOf(current[b]);
+        }
+        final int currentScore = m.evaluate(currentAssignment);
+        final int[] best = searchBlocks(m, beamWidth);
+        if (best == null || m.evaluate(best) <= currentScore) {
+            return null;
+        }
+        final Card[] result = new Card[m.nB];
+        for (int b = 0; b < m.nB; b++) {
+            result[b] = best[b] < 0 ? null : attackers.get(best[b]);
+        }
+        return result;
+    }
+
+    /**
+     * Search sets of attackers against the defending player.
+     * @param fixed attackers already declared that must stay
+     * @param candidates creatures which may attack the defender
+     * @param current the candidates attacking now, as chosen by the regular logic
+     * @return the candidates which should attack, or null if nothing better than the current
+     * attack was found or the search ran out of time
+     */
+    List<Card> solveAttack(final Player ai, final Player defender, final Combat combat, final List<Card> fixed,
+            final List<Card> candidates, final List<Card> blockers, final List<Card> current) {
+        final List<Card> sorted = new ArrayList<>(candidates);
+        // the strongest first, so those decisions are made while the beam is still wide
+        Collections.sort(sorted, new Comparator<Card>() {
+            @Override
+            public int compare(Card c1, Card c2) {
+                return c2.getNetCombatDamage() - c1.getNetCombatDamage();
+            }
+        });
+        while (sorted.size() > MAX_ATTACK_CANDIDATES) {
+            sorted.remove(sorted.size() - 1);
+        }
+        final List<Card> attackers = new ArrayList<>(fixed);
+        attackers.addAll(sorted);
+        final Model m = new Model(defender, ai, combat, attackers, blockers, defender, dangerLife);
+        final CounterAttack counter = new CounterAttack(ai, defender, attackers, blockers, dangerLife);
+        final int nFixed = fixed.size();
+        final int blockBeam = Math.max(2, beamWidth / 4);
+
+        final boolean[] currentSet = new boolean[m.nA];
+        for (int a = 0; a < m.nA; a++) {
+            currentSet[a] = a < nFixed || current.contains(attackers.get(a));
+        }
+        final int currentScore = evaluateAttack(m, counter, currentSet, blockBeam);
+
+        // each state decides on the candidates in order, the undecided ones stay home
+        List<AttackState> beam = new ArrayList<>();
+        final boolean[] none = new boolean[m.nA];
+        Arrays.fill(none, 0, nFixed, true);
+        beam.add(new AttackState(none, evaluateAttack(m, counter, none, blockBeam)));
+        AttackState best = beam.get(0);
+        for (int a = nFixed; a < m.nA && !beam.isEmpty(); a++) {
+            final List<AttackState> next = new ArrayList<>();
+            for (final AttackState s : beam) {
+                next.add(s);
+                final boolean[] set = s.attacking.clone();
+                set[a] = true;
+                final AttackState child = new AttackState(set, evaluateAttack(m, counter, set, blockBeam));
+                if (isExpired()) {
+                    return null; // the blocks found for the last sets may be far from the best
+                }
+                next.add(child);
+                if (child.score > best.score) {
+                    best = child;
+                }
+            }
+            beam = prune(next);
+        }
+        if (best.score <= currentScore) {
+            return null;
+        }
+        final List<Card> result = new ArrayList<>();
+        for (int a = nFixed; a < m.nA; a++) {
+            if (best.attacking[a]) {
+                result.add(attackers.get(a));
+            }
+        }
+        return result;
+    }
+
+    private List<AttackState> prune(final List<AttackState> states) {
+        if (states.size() <= beamWidth) {
+            return states;
+        }
+        Collections.sort(states, new Comparator<AttackState>() {
+            @Override
+            public int compare(AttackState s1, AttackState s2) {
+                return Integer.compare(s2.score, s1.score);
+            }
+        });
+        return new ArrayList<>(states.subList(0, beamWidth));
+    }
+
+    /**
+     * The value of an attack for the attacking player: what the defending player loses with its
+     * best blocks, less what the attacking player would lose to the counter attack next turn.
+     */
+    private int evaluateAttack(final Model m, final CounterAttack counter, final boolean[] attacking, final int blockBeam) {
+        System.arraycopy(attacking, 0, m.atkActive, 0, m.nA);
+        final int[] blocks = searchBlocks(m, blockBeam);
+        final int defenderScore = m.evaluate(blocks);
+        if (defenderScore <= -LETHAL) {
+            return -defenderScore;
+        }
+        return -defenderScore - counter.evaluate(attacking, m.atkDead, m.blkDead);
+    }
+
+    /**
+     * Beam search over the blockers in order, each either blocking one of the active attackers it
+     * can block or not blocking. Every state is a complete assignment, the blockers not decided on
+     * yet don't block.
+     */
+    private int[] searchBlocks(final Model m, final int width) {
+        final int[] none = new int[m.nB];
+        Arrays.fill(none, -1);
+        List<BlockState> beam = new ArrayList<>();
+        beam.add(new BlockState(none, m.evaluate(none)));
+        BlockState best = beam.get(0);
+        for (int i = 0; i < m.nB && !isExpired(); i++) {
+            final int b = m.blockerOrder[i];
+            final List<BlockState> next = new ArrayList<>();
+            for (final BlockState s : beam) {
+                next.add(s);
+                for (int a = 0; a < m.nA; a++) {
+                    if (!m.atkActive[a] || !m.canBlock[b][a]) {
+                        continue;
+                    }
+                    final int[] assignment = s.assignment.clone();
+                    assignment[b] = a;
+                    final BlockState child = new BlockState(assignment, m.evaluate(assignment));
+                    next.add(child);
+                    if (child.score > best.score) {
+                        best = child;
+                    }
+                }
+            }
+            if (next.size() > width) {
+                Collections.sort(next, new Comparator<BlockState>() {
+                    @Override
+                    public int compare(BlockState s1, BlockState s2) {
+                        return Integer.compare(s2.score, s1.score);
+                    }
+                });
+                beam = new ArrayList<>(next.subList(0, width));
+            } else {
+                beam = next;
+            }
+        }
+        return best.assignment;
+    }
+
+    private static int lifeCost(final Player p, final int life, final int damage, final int poison, final int dangerLife) {
+        int cost = 0;
+        if (poison > 0) {
+            if (p.getPoisonCounters() + poison >= 10 && !p.cantLose()) {
+                return LETHAL;
+            }
+            cost += poison * LIFE_VALUE * 2;
+        }
+        if (damage > 0 && p.canLoseLife()) {
+            final int remaining = life - damage;
+            if (remaining <= 0 && !p.cantLoseForZeroOrLessLife() && !p.cantLose()) {
+                return LETHAL;
+            }
+            cost += damage * LIFE_VALUE;
+            // the life below the danger threshold counts double
+            if (remaining < dangerLife) {
+                cost += Math.min(damage, dangerLife - remaining) * LIFE_VALUE;
+            }
+        }
+        return cost;
+    }
+
+    private static final class BlockState {
+        private final int[] assignment;
+        private final int score;
+
+        private BlockState(final int[] assignment0, final int score0) {
+            assignment = assignment0;
+            score = score0;
+        }
+    }
+
+    private static final class AttackState {
+        private final boolean[] attacking;
+        private final int score;
+
+        private AttackState(final boolean[] attacking0, final int score0) {
+            attacking = attacking0;
+            score = score0;
+        }
+    }
+
+    /**
+     * The combatants of one combat, and the evaluation of block assignments from the point of view
+     * of the defending player.
+     */
+    private static final class Model {
+        private final Player defender;
+        private final int dangerLife;
+        private final int nA;
+        private final int nB;
+
+        private final boolean[] atkActive;
+        private final int[] atkPower;
+        private final int[] atkToKill;
+        private final int[] atkValue;
+        private final int[] atkUnblocked;
+        private final int[] atkPoison;
+        private final int[] atkMinBlockers;
+        private final int[] atkMaxBlockers;
+        private final boolean[] atkFirstStrike;
+        private final boolean[] atkDoubleStrike;
+        private final boolean[] atkTrample;
+        private final boolean[] atkDeathtouch;
+        private final boolean[] atkCantDie;
+
+        private final int[] blkValue;
+        private final boolean[] blkFirstStrike;
+        private final boolean[] blkCantDie;
+        private final int[] blockerOrder;
+
+        // indexed by blocker, then attacker
+        private final boolean[][] canBlock;
+        private final int[][] blkDamage;
+        private final int[][] blkToKill;
+        private final boolean[][] killsAttacker;
+        private final boolean[][] killsBlocker;
+
+        // results of the last evaluation
+        private final boolean[] atkDead;
+        private final boolean[] blkDead;
+        private final int[] numBlockers;
+        private final int[] group;
+
+        /**
+         * @param perspective the player the destruction predictions are made for
+         * @param attacked the player attacked by the attackers not declared yet, null if all are
+         */
+        private Model(final Player defender0, final Player perspective, final Combat combat, final List<Card> attackers,
+                final List<Card> blockers, final Player attacked, final int dangerLife0) {
+            defender = defender0;
+            dangerLife = dangerLife0;
+            nA = attackers.size();
+            nB = blockers.size();
+
+            atkActive = new boolean[nA];
+            atkPower = new int[nA];
+            atkToKill = new int[nA];
+            atkValue = new int[nA];
+            atkUnblocked = new int[nA];
+            atkPoison = new int[nA];
+            atkMinBlockers = new int[nA];
+            atkMaxBlockers = new int[nA];
+            atkFirstStrike = new boolean[nA];
+            atkDoubleStrike = new boolean[nA];
+            atkTrample = new boolean[nA];
+            atkDeathtouch = new boolean[nA];
+            atkCantDie = new boolean[nA];
+            for (int a = 0; a < nA; a++) {
+                final Card attacker = attackers.get(a);
+                atkActive[a] = true;
+                atkPower[a] = attacker.getNetCombatDamage() + ComputerUtilCombat.predictPowerBonusOfAttacker(attacker, null, combat, false);
+                atkToKill[a] = ComputerUtilCombat.getDamageToKill(attacker, false)
+                        + ComputerUtilCombat.predictToughnessBonusOfAttacker(attacker, null, combat, false);
+                atkValue[a] = ComputerUtilCard.evaluateCreature(attacker);
+                final GameEntity target = combat.isAttacking(attacker) ? combat.getDefenderByAttacker(attacker) : attacked;
+                // damage to planeswalkers and battles isn't weighed
+                if (target == defender) {
+                    atkUnblocked[a] = ComputerUtilCombat.damageIfUnblocked(attacker, defender, combat, false);
+                    atkPoison[a] = ComputerUtilCombat.poisonIfUnblocked(attacker, defender);
+                }
+                atkMinBlockers[a] = Integer.MAX_VALUE;
+                for (int n = 1; n <= nB; n++) {
+                    if (CombatUtil.canAttackerBeBlockedWithAmount(attacker, n, combat)) {
+                        atkMinBlockers[a] = Math.min(atkMinBlockers[a], n);
+                        atkMaxBlockers[a] = n;
+                    }
+                }
+                atkFirstStrike[a] = attacker.hasFirstStrike();
+                atkDoubleStrike[a] = attacker.hasDoubleStrike();
+                atkTrample[a] = attacker.hasKeyword(Keyword.TRAMPLE);
+                atkDeathtouch[a] = attacker.hasKeyword(Keyword.DEATHTOUCH);
+                atkCantDie[a] = ComputerUtilCombat.combatantCantBeDestroyed(perspective, attacker);
+            }
+
+            blkValue = new int[nB];
+            blkFirstStrike = new boolean[nB];
+            blkCantDie = new boolean[nB];
+            canBlock = new boolean[nB][nA];
+            blkDamage = new int[nB][nA];
+            blkToKill = new int[nB][nA];
+            killsAttacker = new boolean[nB][nA];
+            killsBlocker = new boolean[nB][nA];
+            final Integer[] order = new Integer[nB];
+            for (int b = 0; b < nB; b++) {
+                final Card blocker = blockers.get(b);
+                order[b] = b;
+                blkValue[b] = ComputerUtilCard.evaluateCreature(blocker);
+                blkFirstStrike[b] = blocker.hasFirstStrike() || blocker.hasDoubleStrike();
+                blkCantDie[b] = ComputerUtilCombat.combatantCantBeDestroyed(perspective, blocker);
+                final int toKill = ComputerUtilCombat.getDamageToKill(blocker, false);
+                for (int a = 0; a < nA; a++) {
+                    final Card attacker = attackers.get(a);
+                    canBlock[b][a] = attacked == null ? CombatUtil.canBlock(attacker, blocker, combat) : CombatUtil.canBlock(attacker, blocker);
+                    if (!canBlock[b][a]) {
+                        continue;
+                    }
+                    blkDamage[b][a] = ComputerUtilCombat.dealsDamageAsBlocker(attacker, blocker);
+                    blkToKill[b][a] = Math.max(1, toKill + ComputerUtilCombat.predictToughnessBonusOfBlocker(attacker, blocker, false));
+                    killsAttacker[b][a] = ComputerUtilCombat.canDestroyAttacker(perspective, attacker, blocker, combat, false);
+                    killsBlocker[b][a] = ComputerUtilCombat.canDestroyBlocker(perspective, blocker, attacker, combat, false);
+                }
+            }
+            // the most valuable blockers first
+            Arrays.sort(order, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer b1, Integer b2) {
+                    return blkValue[b2] - blkValue[b1];
+                }
+            });
+            blockerOrder = new int[nB];
+            for (int i = 0; i < nB; i++) {
+                blockerOrder[i] = order[i];
+            }
+
+            atkDead = new boolean[nA];
+            blkDead = new boolean[nB];
+            numBlockers = new int[nA];
+            group = new int[nB];
+        }
+
+        /**
+         * The value of the blocks for the defending player: the attackers destroyed, less the
+         * blockers destroyed and the cost of the life and poison it would lose.
+         * @param assignment the attacker each blocker blocks, -1 for none
+         */
+        private int evaluate(final int[] assignment) {
+            Arrays.fill(atkDead, false);
+            Arrays.fill(blkDead, false);
+            Arrays.fill(numBlockers, 0);
+            for (int b = 0; b < nB; b++) {
+                if (assignment[b] >= 0) {
+                    numBlockers[assignment[b]]++;
+                }
+            }
+            int score = 0;
+            int damage = 0;
+            int poison = 0;
+            for (int a = 0; a < nA; a++) {
+                if (!atkActive[a]) {
+                    continue;
+                }
+                final int k = numBlockers[a];
+                if (k < atkMinBlockers[a] || k > atkMaxBlockers[a]) {
+                    // not blocked, or not in a legal way
+                    damage += atkUnblocked[a];
+                    poison += atkPoison[a];
+                    continue;
+                }
+                int n = 0;
+                for (int b = 0; b < nB; b++) {
+                    if (assignment[b] == a) {
+                        group[n++] = b;
+                    }
+                }
+                damage += n == 1 ? resolveBlock(a, group[0]) : resolveGangBlock(a, n);
+                if (atkDead[a]) {
+                    score += atkValue[a];
+                }
+            }
+            for (int b = 0; b < nB; b++) {
+                if (blkDead[b]) {
+                    score -= blkValue[b];
+                }
+            }
+            return score - lifeCost(defender, defender.getLife(), damage, poison, dangerLife);
+        }
+
+        /** @return the damage trampling over the blocker */
+        private int resolveBlock(final int a, final int b) {
+            atkDead[a] = killsAttacker[b][a];
+            blkDead[b] = killsBlocker[b][a];
+            final boolean strikesFirst = atkFirstStrike[a] || atkDoubleStrike[a];
+            if (!atkTrample[a] || atkDead[a] && blkFirstStrike[b] && !strikesFirst) {
+                return 0;
+            }
+            final int power = atkDoubleStrike[a] ? 2 * atkPower[a] : atkPower[a];
+            return Math.max(0, power - (atkDeathtouch[a] ? 1 : blkToKill[b][a]));
+        }
+
+        /**
+         * Plays out the first strike and regular combat damage steps between an attacker and
+         * its blockers, the attacker dealing lethal damage to the blockers easiest to kill first.
+         * @return the damage trampling over the blockers
+         */
+        private int resolveGangBlock(final int a, final int n) {
+            // by the damage needed to kill them
+            for (int i = 1; i < n; i++) {
+                final int b = group[i];
+                int j = i - 1;
+                while (j >= 0 && blkToKill[group[j]][a] > blkToKill[b][a]) {
+                    group[j + 1] = group[j];
+                    j--;
+                }
+                group[j + 1] = b;
+            }
+            final boolean strikesFirst = atkFirstStrike[a] || atkDoubleStrike[a];
+            int taken = 0;
+            boolean killed = false;
+            int trampled = 0;
+            for (int i = 0; i < n; i++) {
+                final int b = group[i];
+                if (blkFirstStrike[b]) {
+                    taken += blkDamage[b][a];
+                    killed |= killsAttacker[b][a];
+                }
+            }
+            if (strikesFirst) {
+                trampled += assignDamage(a, n);
+            }
+            atkDead[a] = !atkCantDie[a] && (killed || taken >= atkToKill[a]);
+            if (atkDead[a]) {
+                return trampled;
+            }
+            for (int i = 0; i < n; i++) {
+                final int b = group[i];
+                if (!blkFirstStrike[b] && !blkDead[b]) {
+                    taken += blkDamage[b][a];
+                    killed |= killsAttacker[b][a];
+                }
+            }
+            if (!strikesFirst || atkDoubleStrike[a]) {
+                trampled += assignDamage(a, n);
+            }
+            atkDead[a] = !atkCantDie[a] && (killed || taken >= atkToKill[a]);
+            return trampled;
+        }
+
+        private int assignDamage(final int a, final int n) {
+            int damage = atkPower[a];
+            for (int i = 0; i < n; i++) {
+                final int b = group[i];
+                if (blkDead[b]) {
+                    continue;
+                }
+                final int lethal = atkDeathtouch[a] ? 1 : blkToKill[b][a];
+                if (damage < lethal) {
+                    return 0;
+                }
+                damage -= lethal;
+                blkDead[b] = !blkCantDie[b];
+            }
+            return atkTrample[a] ? damage : 0;
+        }
+    }
+
+    /**
+     * The damage the defending player could deal back on its next turn, with the creatures of the
+     * attacking player that stayed home (or have vigilance) each blocking one of its creatures.
+     */
+    private static final class CounterAttack {
+        private final Player ai;
+        private final int dangerLife;
+        // creatures of the defending player able to attack next turn, by decreasing damage
+        private final int[] counterDamage;
+        // the index of each of them among the blockers of the model, -1 if not a blocker
+        private final int[] counterBlockerIndex;
+        // creatures of the attacking player, and their index among the attackers of the model
+        private final int[] ownAttackerIndex;
+        private final boolean[] ownVigilant;
+        private final boolean[] ownUntapped;
+        // indexed by own creature, then counter attacker
+        private final boolean[][] canBlockBack;
+        private final boolean[] used;
+
+        private CounterAttack(final Player ai0, final Player defender, final List<Card> attackers,
+                final List<Card> blockers, final int dangerLife0) {
+            ai = ai0;
+            dangerLife = dangerLife0;
+            final List<Card> counterAttackers = new ArrayList<>();
+            for (final Card c : defender.getCreaturesInPlay()) {
+                if (c.getNetCombatDamage() > 0 && ComputerUtilCombat.canAttackNextTurn(c, ai)) {
+                    counterAttackers.add(c);
+                }
+            }
+            Collections.sort(counterAttackers, new Comparator<Card>() {
+                @Override
+                public int compare(Card c1, Card c2) {
+                    return c2.getNetCombatDamage() - c1.getNetCombatDamage();
+                }
+            });
+            final int nC = counterAttackers.size();
+            counterDamage = new int[nC];
+            counterBlockerIndex = new int[nC];
+            for (int c = 0; c < nC; c++) {
+                counterDamage[c] = ComputerUtilCombat.damageIfUnblocked(counterAttackers.get(c), ai, null, false);
+                counterBlockerIndex[c] = blockers.indexOf(counterAttackers.get(c));
+            }
+
+            final List<Card> own = ai.getCreaturesInPlay();
+            final int nO = own.size();
+            ownAttackerIndex = new int[nO];
+            ownVigilant = new boolean[nO];
+            ownUntapped = new boolean[nO];
+            canBlockBack = new boolean[nO][nC];
+            for (int o = 0; o < nO; o++) {
+                final Card c = own.get(o);
+                ownAttackerIndex[o] = attackers.indexOf(c);
+                ownVigilant[o] = c.hasKeyword(Keyword.VIGILANCE);
+                ownUntapped[o] = c.isUntapped();
+                for (int i = 0; i < nC; i++) {
+                    canBlockBack[o][i] = CombatUtil.canBlock(counterAttackers.get(i), c, true);
+                }
+            }
+            used = new boolean[nO];
+        }
+
+        /**
+         * The cost of the life the attacking player would be open to losing next turn.
+         */
+        private int evaluate(final boolean[] attacking, final boolean[] atkDead, final boolean[] blkDead) {
+            Arrays.fill(used, false);
+            int damage = 0;
+            for (int c = 0; c < counterDamage.length; c++) {
+                if (counterBlockerIndex[c] >= 0 && blkDead[counterBlockerIndex[c]]) {
+                    continue;
+                }
+                boolean blocked = false;
+                for (int o = 0; o < used.length && !blocked; o++) {
+                    final int a = ownAttackerIndex[o];
+                    final boolean available = a < 0 ? ownUntapped[o]
+                            : !atkDead[a] && (!attacking[a] || ownVigilant[o]);
+                    if (!used[o] && available && canBlockBack[o][c]) {
+                        used[o] = true;
+                        blocked = true;
+                    }
+                }
+                if (!blocked) {
+                    damage += counterDamage[c];
+                }
+            }
+            final int cost = lifeCost(ai, ai.getLife(), damage, 0, dangerLife);
+            // it's only a threat, the defending player may not attack with everything
+            return cost >= LETHAL ? LETHAL / 2 : cost / 2;
+        }
+    }
+}
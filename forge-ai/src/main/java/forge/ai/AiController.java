@@ -25,6 +25,7 @@ import com.google.common.collect.Lists;
 import forge.ai.ability.ChangeZoneAi;
 import forge.ai.ability.ExploreAi;
 import forge.ai.ability.LearnAi;
+import forge.ai.simulation.MonteCarloTreeSearch;
 import forge.ai.simulation.SpellAbilityPicker;
 import forge.card.CardStateName;
 import forge.card.CardType;
@@ -88,13 +89,48 @@ public class AiController {
     private boolean cheatShuffle;
     private boolean useSimulation;
     private SpellAbilityPicker simPicker;
+    private boolean useMcts;
+    private MonteCarloTreeSearch mcts;
     private int lastAttackAggression;
+    // kept here rather than in static caches so that they go with the game
+    private final AiPlayableAbilities playableAbilities;
+    private final AiManaAvailability manaAvailability;
+    private final CombatPredictionCache combatPredictions;
 
     public AiController(final Player computerPlayer, final Game game0) {
         player = computerPlayer;
         game = game0;
         memory = new AiCardMemory();
         simPicker = new SpellAbilityPicker(game, player);
+        playableAbilities = new AiPlayableAbilities(player);
+        manaAvailability = new AiManaAvailability(player);
+        combatPredictions = new CombatPredictionCache(game);
+    }
+
+    /**
+     * The AI playing the player, unless the player isn't played by an AI or is controlled by another player.
+     */
+    static AiController getOwnAi(final Player p) {
+        if (p.getController() instanceof PlayerControllerAi) {
+            final AiController aic = ((PlayerControllerAi) p.getController()).getAi();
+            if (aic.getPlayer() == p) {
+                return aic;
+            }
+        }
+        return null;
+    }
+
+    AiManaAvailability getManaAvailability() {
+        return manaAvailability;
+    }
+
+    CombatPredictionCache getCombatPredictions() {
+        return combatPredictions;
+    }
+
+    private AiPlayableAbilities getPlayableAbilities() {
+        playableAbilities.validate();
+        return playableAbilities;
     }
 
     public boolean canCheatShuffle() {
@@ -113,6 +149,14 @@ public class AiController {
         this.useSimulation = value;
     }
 
+    public boolean usesMcts() {
+        return this.useMcts;
+    }
+
+    public void setUseMcts(boolean value) {
+        this.useMcts = value;
+    }
+
     public int getAttackAggression() {
         return lastAttackAggression;
     }
@@ -620,10 +664,14 @@ public class AiController {
         int bestRestriction = Integer.MIN_VALUE;
 
         for (final SpellAbility sa : ComputerUtilAbility.getOriginalAndAltCostAbilities(possibleCounters, player)) {
+            if (AiDeadline.isExpired()) {
+                break; // go with the best counter found so far
+            }
             SpellAbility currentSA = sa;
             sa.setActivatingPlayer(player, true);
             // check everything necessary
 
+            AiDeadline.evaluating(sa);
             AiPlayDecision opinion = canPlayAndPayFor(currentSA);
             //PhaseHandler ph = game.getPhaseHandler();
             // System.out.printf("Ai thinks '%s' of %s @ %s %s >>> \n", opinion, sa, Lang.getPossesive(ph.getPlayerTurn().getName()), ph.getPhase());
@@ -1350,6 +1398,21 @@ public class AiController {
         // Reset priority mana reservation that's meant to work for one spell only
         memory.clearMemorySet(AiCardMemory.MemorySet.HELD_MANA_SOURCES_FOR_NEXT_SPELL);
 
+        final AiDeadline deadline = AiDeadline.start(getIntProperty(AiProps.DECISION_TIME_BUDGET_MS));
+        try {
+            return chooseSpellAbilityToPlayBeforeDeadline();
+        } finally {
+            deadline.finish();
+        }
+    }
+
+    private List<SpellAbility> chooseSpellAbilityToPlayBeforeDeadline() {
+        if (useMcts) {
+            if (mcts == null) {
+                mcts = new MonteCarloTreeSearch(this);
+            }
+            return singleSpellAbilityList(mcts.chooseSpellAbilityToPlay());
+        }
         if (useSimulation) {
             return singleSpellAbilityList(simPicker.chooseSpellAbilityToPlay(null));
         }
@@ -1530,8 +1593,20 @@ public class AiController {
     }
 
     private final SpellAbility getSpellAbilityToPlay() {
-        CardCollection cards = ComputerUtilAbility.getAvailableCards(game, player);
-        cards = ComputerUtilCard.dedupeCards(cards);
+        final AiPlayableAbilities playable = getPlayableAbilities();
+        if (playable.isNothingToPlay()) {
+            // nothing changed since deciding to pass
+            return null;
+        }
+        final SpellAbility chosen = getSpellAbilityToPlay(playable);
+        if (chosen == null && !AiDeadline.isExpired()) {
+            playable.setNothingToPlay();
+        }
+        return chosen;
+    }
+
+    private SpellAbility getSpellAbilityToPlay(final AiPlayableAbilities playable) {
+        final CardCollection cards = playable.getCards();
         List<SpellAbility> saList = Lists.newArrayList();
 
         SpellAbility top = null;
@@ -1546,7 +1621,7 @@ public class AiController {
             // in a scripted timed fashion.
 
             if (!mustRespond) {
-                saList = ComputerUtilAbility.getSpellAbilities(cards, player); // get the SA list early to check for copy SAs
+                saList = playable.getSpellAbilities(); // get the SA list early to check for copy SAs
                 if (ComputerUtilAbility.getFirstCopySASpell(saList) == null) {
                     // Nothing to copy the spell with, so do nothing.
                     return null;
@@ -1564,7 +1639,7 @@ public class AiController {
         }
 
         if (saList.isEmpty()) {
-            saList = ComputerUtilAbility.getSpellAbilities(cards, player);
+            saList = playable.getSpellAbilities();
         }
 
         Iterables.removeIf(saList, new Predicate<SpellAbility>() {
@@ -1597,7 +1672,12 @@ public class AiController {
             Sentry.captureMessage(ex.getMessage() + "\nAssertionError [verifyTransitivity]: " + assertex);
         }
 
+        final AiPlayableAbilities playable = getPlayableAbilities();
         for (final SpellAbility sa : ComputerUtilAbility.getOriginalAndAltCostAbilities(all, player)) {
+            if (AiDeadline.isExpired()) {
+                // out of time, and nothing so far was worth playing
+                break;
+            }
             // Don't add Counterspells to the "normal" playcard lookups
             if (skipCounter && sa.getApi() == ApiType.Counter) {
                 continue;
@@ -1620,7 +1700,16 @@ public class AiController {
                 sa.setLastStateGraveyard(game.getLastStateGraveyard());
             }
 
+            AiDeadline.evaluating(sa);
+            if (playable.getUnplayable(sa) != null) {
+                continue;
+            }
             AiPlayDecision opinion = canPlayAndPayFor(sa);
+            // whether an X cost can be paid depends on the targets chosen
+            if (opinion == AiPlayDecision.CantPlaySa || opinion == AiPlayDecision.CantAfford
+                    && !sa.costHasX() && !sa.getHostCard().hasStartOfKeyword("Strive")) {
+                playable.setUnplayable(sa, opinion);
+            }
 
             // reset LastStateBattlefield
             sa.clearLastState();
@@ -1951,7 +2040,7 @@ public class AiController {
     public Map<DeckSection, List<? extends PaperCard>> complainCardsCantPlayWell(Deck myDeck) {
         Map<DeckSection, List<? extends PaperCard>> complaints = new HashMap<>();
         // When using simulation, AI should be able to figure out most cards.
-        if (!useSimulation) {
+        if (!useSimulation && !useMcts) {
             complaints = myDeck.getUnplayableAICards().unplayable;
         }
         return complaints;
@@ -2066,7 +2155,7 @@ public class AiController {
 
     public Card chooseCardToHiddenOriginChangeZone(ZoneType destination, List<ZoneType> origin, SpellAbility sa,
                                                    CardCollection fetchList, Player player2, Player decider) {
-        if (useSimulation) {
+        if (useSimulation || useMcts) {
             return simPicker.chooseCardToHiddenOriginChangeZone(destination, origin, sa, fetchList, player2, decider);
         }
 
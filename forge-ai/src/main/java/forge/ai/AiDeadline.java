@@ -0,0 +1,152 @@
+package forge.ai;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import forge.game.ability.ApiType;
+import forge.game.spellability.SpellAbility;
+
+/**
+ * The time the AI has left for the decision it is making on this thread.
+ * <br><br>
+ * A decision is started with {@link #start(long)} and finished with {@link #finish()}. Long
+ * evaluations check {@link #isExpired()} between steps, and once it returns true they stop and
+ * go with the best they found so far. Decisions made while another one is running, e.g. by the
+ * players of a simulated game, get at most the time left for the outer one.
+ * <br><br>
+ * When a decision takes longer than its budget anyway, the overrun is counted against the
+ * {@link ApiType} of the last ability evaluated, see {@link #getOverruns()}.
+ */
+public final class AiDeadline {
+    private static final ThreadLocal<AiDeadline> CURRENT = new ThreadLocal<>();
+    // keyed by null for decisions that ran out before evaluating an ability with an api
+    private static final Map<ApiType, Overruns> OVERRUNS = new HashMap<>();
+
+    private final AiDeadline outer;
+    private final long startNanos;
+    private final long budgetNanos;
+    private final long deadlineNanos;
+    private ApiType evaluatedApi;
+    private boolean expired;
+
+    private AiDeadline(final AiDeadline outer0, final long budgetMillis) {
+        outer = outer0;
+        startNanos = System.nanoTime();
+        budgetNanos = budgetMillis > 0 ? budgetMillis * 1000000L : Long.MAX_VALUE;
+        long deadline = budgetMillis > 0 ? startNanos + budgetNanos : Long.MAX_VALUE;
+        if (outer != null && outer.deadlineNanos - deadline < 0) {
+            deadline = outer.deadlineNanos;
+        }
+        deadlineNanos = deadline;
+    }
+
+    /**
+     * Start a decision the AI may spend the given time on, or as long as it takes if not positive.
+     * The returned deadline must be finished, best in a finally block.
+     */
+    public static AiDeadline start(final long budgetMillis) {
+        final AiDeadline deadline = new AiDeadline(CURRENT.get(), budgetMillis);
+        CURRENT.set(deadline);
+        return deadline;
+    }
+
+    public void finish() {
+        CURRENT.set(outer);
+        final long elapsed = System.nanoTime() - startNanos;
+        if (budgetNanos != Long.MAX_VALUE && elapsed > budgetNanos) {
+            synchronized (OVERRUNS) {
+                Overruns o = OVERRUNS.get(evaluatedApi);
+                if (o == null) {
+                    o = new Overruns();
+                    OVERRUNS.put(evaluatedApi, o);
+                }
+                o.count++;
+                o.excessMillis += (elapsed - budgetNanos) / 1000000L;
+            }
+        }
+    }
+
+    /**
+     * Whether the decision being made ran out of time. False if there is none.
+     */
+    public static boolean isExpired() {
+        final AiDeadline deadline = CURRENT.get();
+        if (deadline == null || deadline.deadlineNanos == Long.MAX_VALUE) {
+            return false;
+        }
+        if (!deadline.expired && System.nanoTime() - deadline.deadlineNanos >= 0) {
+            deadline.expired = true;
+        }
+        return deadline.expired;
+    }
+
+    /**
+     * The time left for the decision being made, Long.MAX_VALUE if it isn't limited.
+     */
+    public static long getRemainingMillis() {
+        final AiDeadline deadline = CURRENT.get();
+        if (deadline == null || deadline.deadlineNanos == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, (deadline.deadlineNanos - System.nanoTime()) / 1000000L);
+    }
+
+    /**
+     * Note the ability being evaluated, to know what to blame if the decision runs over.
+     */
+    public static void evaluating(final SpellAbility sa) {
+        final AiDeadline deadline = CURRENT.get();
+        if (deadline != null && sa.getApi() != null) {
+            for (AiDeadline d = deadline; d != null; d = d.outer) {
+                d.evaluatedApi = sa.getApi();
+            }
+        }
+    }
+
+    public static Map<ApiType, Overruns> getOverruns() {
+        final Map<ApiType, Overruns> result = new HashMap<>();
+        synchronized (OVERRUNS) {
+            for (final Entry<ApiType, Overruns> e : OVERRUNS.entrySet()) {
+                final Overruns copy = new Overruns();
+                copy.count = e.getValue().count;
+                copy.excessMillis = e.getValue().excessMillis;
+                result.put(e.getKey(), copy);
+            }
+        }
+        return result;
+    }
+
+    public static void resetOverruns() {
+        synchronized (OVERRUNS) {
+            OVERRUNS.clear();
+        }
+    }
+
+    public static String getOverrunReport() {
+        final StringBuilder sb = new StringBuilder();
+        for (final Entry<ApiType, Overruns> e : getOverruns().entrySet()) {
+            sb.append(e.getKey() == null ? "(none)" : e.getKey().name()).append(": ").append(e.getValue()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    public static final class Overruns {
+        private int count;
+        private long excessMillis;
+
+        public int getCount() {
+            return count;
+        }
+
+        /** The total time spent over budget. */
+        public long getExcessMillis() {
+            return excessMillis;
+        }
+
+        @Override
+        public String toString() {
+            return count + " overruns, " + excessMillis + " ms over budget";
+        }
+    }
+}
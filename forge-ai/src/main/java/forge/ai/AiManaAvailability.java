@@ -0,0 +1,169 @@
+package forge.ai;
+
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Multimaps;
+
+import forge.card.mana.ManaAtom;
+import forge.card.mana.ManaCostShard;
+import forge.game.Game;
+import forge.game.card.CardCollection;
+import forge.game.card.CardCollectionView;
+import forge.game.mana.ManaCostBeingPaid;
+import forge.game.mana.ManaPool;
+import forge.game.phase.PhaseHandler;
+import forge.game.phase.PhaseType;
+import forge.game.player.Player;
+import forge.game.spellability.SpellAbility;
+
+/**
+ * The mana a player has available during the current priority window.
+ * <br><br>
+ * Finding the mana sources of a player and grouping their abilities by the colors they produce
+ * means checking every mana ability of every card in play and in hand, and the AI does that for
+ * each spell it considers. The results only change when the board does, so they are kept here
+ * until a card is tapped, untapped, moved or changes controller (see {@link Game#getBoardVersion()}),
+ * an effect gets a new timestamp, the phase, priority or stack changes, or the player's life changes.
+ */
+final class AiManaAvailability {
+    private final Player player;
+    // indexed by checkPlayable
+    private final Snapshot[] snapshots = new Snapshot[2];
+
+    private int boardVersion;
+    private long timestamp;
+    private int turn;
+    private PhaseType phase;
+    private Player priorityPlayer;
+    private int stackSize;
+    private int life;
+
+    AiManaAvailability(final Player player0) {
+        player = player0;
+    }
+
+    /**
+     * The model is kept by the AI controller of the player, so it goes with the game. A player
+     * not played by its own AI, such as a human opponent, gets a new one each time.
+     */
+    static AiManaAvailability of(final Player player) {
+        final AiController aic = AiController.getOwnAi(player);
+        final AiManaAvailability model = aic == null ? new AiManaAvailability(player) : aic.getManaAvailability();
+        model.validate();
+        return model;
+    }
+
+    private void validate() {
+        final Game game = player.getGame();
+        final PhaseHandler ph = game.getPhaseHandler();
+        // attacking creatures aren't used for mana while attackers are being declared,
+        // and declaring doesn't tap vigilant ones, so don't keep anything during that step
+        final boolean cacheable = !(ph.is(PhaseType.COMBAT_DECLARE_ATTACKERS) && game.getCombat() != null);
+        if (cacheable && boardVersion == game.getBoardVersion() && timestamp == game.getTimestamp()
+                && turn == ph.getTurn() && phase == ph.getPhase() && priorityPlayer == ph.getPriorityPlayer()
+                && stackSize == game.getStack().size() && life == player.getLife()) {
+            return;
+        }
+        boardVersion = game.getBoardVersion();
+        timestamp = game.getTimestamp();
+        turn = ph.getTurn();
+        phase = ph.getPhase();
+        priorityPlayer = ph.getPriorityPlayer();
+        stackSize = game.getStack().size();
+        life = player.getLife();
+        snapshots[0] = null;
+        snapshots[1] = null;
+    }
+
+    private Snapshot getSnapshot(final boolean checkPlayable) {
+        final int index = checkPlayable ? 1 : 0;
+        if (snapshots[index] == null) {
+            snapshots[index] = new Snapshot();
+        }
+        return snapshots[index];
+    }
+
+    /**
+     * The cards able to produce mana, in the order the AI prefers to use them.
+     */
+    CardCollectionView getSources(final boolean checkPlayable) {
+        final Snapshot snapshot = getSnapshot(checkPlayable);
+        if (snapshot.sources == null) {
+            snapshot.sources = ComputerUtilMana.findAvailableManaSources(player, checkPlayable);
+        }
+        return snapshot.sources;
+    }
+
+    /**
+     * The usable mana abilities of the sources, grouped by the colors they may produce.
+     */
+    ListMultimap<Integer, SpellAbility> getSourcesByColor(final boolean checkPlayable) {
+        final Snapshot snapshot = getSnapshot(checkPlayable);
+        if (snapshot.sourcesByColor == null) {
+            snapshot.sourcesByColor = Multimaps.unmodifiableListMultimap(
+                    ComputerUtilMana.groupSourcesByManaColor(player, getSources(checkPlayable), checkPlayable));
+        }
+        else {
+            // another player may have looked at these abilities since
+            for (final SpellAbility m : snapshot.sourcesByColor.get(ManaAtom.GENERIC)) {
+                m.setActivatingPlayer(player, true);
+            }
+        }
+        return snapshot.sourcesByColor;
+    }
+
+    /**
+     * The mana the sources on the battlefield can produce, not counting the mana pool.
+     */
+    int getEstimate(final boolean checkPlayable) {
+        final Snapshot snapshot = getSnapshot(checkPlayable);
+        if (snapshot.estimate == null) {
+            snapshot.estimate = ComputerUtilMana.estimateManaFromSources(player, checkPlayable);
+        }
+        return snapshot.estimate;
+    }
+
+    /**
+     * Quick check whether each colored shard of the cost has at least one source producing a
+     * color that can pay it. If not the cost can't be paid and there is no need to search for a
+     * payment. Passing this check doesn't mean the cost can be paid.
+     */
+    boolean canProduceShards(final ManaCostBeingPaid cost, final boolean checkPlayable) {
+        final ListMultimap<Integer, SpellAbility> byColor = getSourcesByColor(checkPlayable);
+        if (byColor.isEmpty()) {
+            return cost.containsOnlyPhyrexianMana();
+        }
+        final ManaPool pool = player.getManaPool();
+        final boolean lifeInsteadOfBlack = player.hasKeyword("PayLifeInsteadOf:B");
+        for (final ManaCostShard shard : cost.getDistinctShards()) {
+            if (shard == ManaCostShard.GENERIC || shard == ManaCostShard.X || shard.isPhyrexian() || shard.isOr2Generic()) {
+                continue;
+            }
+            if (shard == ManaCostShard.S) {
+                if (!byColor.containsKey(ManaAtom.IS_SNOW)) {
+                    return false;
+                }
+                continue;
+            }
+            if (lifeInsteadOfBlack && shard.isBlack()) {
+                continue;
+            }
+            boolean found = false;
+            for (final Integer color : byColor.keySet()) {
+                if (pool.canPayForShardWithColor(shard, color.byteValue())) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Snapshot {
+        private CardCollection sources;
+        private ListMultimap<Integer, SpellAbility> sourcesByColor;
+        private Integer estimate;
+    }
+}
@@ -0,0 +1,146 @@
+package forge.ai;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import forge.game.Game;
+import forge.game.card.Card;
+import forge.game.card.CardCollection;
+import forge.game.card.CardCollectionView;
+import forge.game.phase.PhaseHandler;
+import forge.game.phase.PhaseType;
+import forge.game.player.Player;
+import forge.game.spellability.SpellAbility;
+import forge.game.zone.ZoneType;
+
+/**
+ * The spells and abilities a player might play, and what the AI found out about them during the
+ * current priority window.
+ * <br><br>
+ * Collecting the cards and abilities available to a player means going through hand, graveyard,
+ * exile and the battlefield and making copies for every alternative cost, and the AI did that
+ * each time it got priority. The abilities are kept here, without checking whether they can be
+ * played right now since the AI does that for each one anyway, until a card moves, is tapped or
+ * untapped or changes controller (see {@link Game#getBoardVersion()}), an effect gets a new
+ * timestamp, the turn, the top of a library or the life of a player changes.
+ * <br><br>
+ * The abilities found not to be playable or affordable, and whether the AI already decided to
+ * pass, are also forgotten once the phase, priority, stack or a mana pool change.
+ */
+final class AiPlayableAbilities {
+    private final Player player;
+    private CardCollection cards;
+    private List<SpellAbility> abilities;
+    // abilities found to be restricted or too expensive, not including those with X costs
+    private final Map<SpellAbility, AiPlayDecision> unplayable = new IdentityHashMap<>();
+    private boolean nothingToPlay;
+
+    private int boardVersion;
+    private long timestamp;
+    private int turn;
+    private int libraryTops;
+    private int lifeTotals;
+
+    private PhaseType phase;
+    private Player priorityPlayer;
+    private int stackSize;
+    private SpellAbility stackTop;
+    private int manaPools;
+
+    // kept by the AI controller of the player, see AiController#getPlayableAbilities
+    AiPlayableAbilities(final Player player0) {
+        player = player0;
+    }
+
+    void validate() {
+        final Game game = player.getGame();
+        final PhaseHandler ph = game.getPhaseHandler();
+        int libraries = 0;
+        int life = 0;
+        int mana = 0;
+        for (final Player p : game.getPlayers()) {
+            final CardCollectionView library = p.getCardsIn(ZoneType.Library);
+            libraries = 31 * libraries + (library.isEmpty() ? 0 : System.identityHashCode(library.get(0)));
+            life = 31 * life + p.getLife();
+            mana = 31 * mana + p.getManaPool().totalMana();
+        }
+        if (boardVersion != game.getBoardVersion() || timestamp != game.getTimestamp() || turn != ph.getTurn()
+                || libraryTops != libraries || lifeTotals != life) {
+            boardVersion = game.getBoardVersion();
+            timestamp = game.getTimestamp();
+            turn = ph.getTurn();
+            libraryTops = libraries;
+            lifeTotals = life;
+            cards = null;
+            abilities = null;
+            clearDecisions();
+        }
+
+        final SpellAbility top = game.getStack().isEmpty() ? null : game.getStack().peekAbility();
+        if (phase != ph.getPhase() || priorityPlayer != ph.getPriorityPlayer() || stackSize != game.getStack().size()
+                || stackTop != top || manaPools != mana) {
+            phase = ph.getPhase();
+            priorityPlayer = ph.getPriorityPlayer();
+            stackSize = game.getStack().size();
+            stackTop = top;
+            manaPools = mana;
+            clearDecisions();
+        }
+    }
+
+    private void clearDecisions() {
+        unplayable.clear();
+        nothingToPlay = false;
+    }
+
+    /**
+     * The cards the player might play or activate abilities of, one of each name and state.
+     */
+    CardCollection getCards() {
+        if (cards == null) {
+            cards = ComputerUtilCard.dedupeCards(ComputerUtilAbility.getAvailableCards(player.getGame(), player));
+        }
+        return cards;
+    }
+
+    /**
+     * The abilities of {@link #getCards()}, including those that can't be played right now, in a
+     * new list the caller may change.
+     */
+    List<SpellAbility> getSpellAbilities() {
+        if (abilities == null) {
+            abilities = new ArrayList<>();
+            for (final Card c : getCards()) {
+                abilities.addAll(c.getAbilitiesWithAlternativeCosts(player));
+            }
+        }
+        for (final SpellAbility sa : abilities) {
+            sa.setActivatingPlayer(player);
+        }
+        return new ArrayList<>(abilities);
+    }
+
+    /**
+     * Whether the ability was found not to be playable or affordable already, null if not.
+     */
+    AiPlayDecision getUnplayable(final SpellAbility sa) {
+        return unplayable.get(sa);
+    }
+
+    void setUnplayable(final SpellAbility sa, final AiPlayDecision decision) {
+        unplayable.put(sa, decision);
+    }
+
+    /**
+     * Whether the AI went through all of the abilities and decided to pass.
+     */
+    boolean isNothingToPlay() {
+        return nothingToPlay;
+    }
+
+    void setNothingToPlay() {
+        nothingToPlay = true;
+    }
+}
@@ -0,0 +1,377 @@
+package forge.ai;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import forge.game.card.Card;
+import forge.game.spellability.SpellAbility;
+
+/**
+ * Opt-in profiling of the time the AI spends thinking, to find the apis and cards worth optimizing.
+ * <br><br>
+ * While enabled, the AI decisions of each {@link Section} are timed: the number of calls, the wall
+ * time and the bytes allocated on the calling thread (where the JVM can tell) are summed up by
+ * section, {@link forge.game.ability.ApiType} and card name. Sections nest, e.g. paying mana while
+ * checking whether a spell can be played, so besides the totals the time and bytes of each are also
+ * kept without those of the sections called from it.
+ * <br><br>
+ * When disabled, which is the default, each probe costs a single check.
+ */
+public final class AiProfiler {
+    public enum Section {
+        CAN_PLAY,
+        DRAWBACK,
+        TRIGGER,
+        MANA_PAYMENT,
+        ATTACK,
+        BLOCK
+    }
+
+    private static volatile boolean enabled = false;
+    private static volatile boolean noAllocationCounter = false;
+
+    private static final ThreadLocal<Probe> CURRENT = new ThreadLocal<>();
+    private static final Map<Key, Stats> STATS = new ConcurrentHashMap<>();
+
+    private AiProfiler() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(final boolean enabled0) {
+        enabled = enabled0;
+    }
+
+    public static void reset() {
+        STATS.clear();
+    }
+
+    /**
+     * Start timing a section for the given ability, which may be null. Returns null when the
+     * profiler isn't enabled; either way the result must be passed to {@link #finish(Probe)}.
+     */
+    public static Probe start(final Section section, final SpellAbility sa) {
+        if (!enabled) {
+            return null;
+        }
+        final String api = sa == null || sa.getApi() == null ? "" : sa.getApi().name();
+        final Card host = sa == null ? null : sa.getHostCard();
+        return start(section, api, host == null ? "" : host.getName());
+    }
+
+    public static Probe start(final Section section, final String api, final String cardName) {
+        if (!enabled) {
+            return null;
+        }
+        final Probe probe = new Probe(CURRENT.get(), new Key(section, api, cardName));
+        CURRENT.set(probe);
+        return probe;
+    }
+
+    public static void finish(final Probe probe) {
+        if (probe == null) {
+            return;
+        }
+        final long nanos = System.nanoTime() - probe.startNanos;
+        final long startBytes = probe.startBytes;
+        final long bytes = startBytes < 0 ? 0 : Math.max(0, allocatedBytes() - startBytes);
+        CURRENT.set(probe.parent);
+        if (probe.parent != null) {
+            probe.parent.childNanos += nanos;
+            probe.parent.childBytes += bytes;
+        }
+
+        Stats stats = STATS.get(probe.key);
+        if (stats == null) {
+            final Stats created = new Stats(probe.key);
+            stats = STATS.putIfAbsent(probe.key, created);
+            if (stats == null) {
+                stats = created;
+            }
+        }
+        synchronized (stats) {
+            stats.calls++;
+            stats.totalNanos += nanos;
+            stats.selfNanos += nanos - probe.childNanos;
+            stats.totalBytes += bytes;
+            stats.selfBytes += bytes - probe.childBytes;
+        }
+    }
+
+    /**
+     * Whether the allocated bytes are measured, which depends on the JVM.
+     */
+    public static boolean isMeasuringAllocations() {
+        return allocatedBytes() >= 0;
+    }
+
+    /**
+     * The statistics by section, api and card name, those taking the most time first.
+     */
+    public static List<Stats> getStats() {
+        final List<Stats> result = new ArrayList<>();
+        for (final Stats s : STATS.values()) {
+            synchronized (s) {
+                result.add(s.copy());
+            }
+        }
+        Collections.sort(result, new Comparator<Stats>() {
+            @Override
+            public int compare(Stats s1, Stats s2) {
+                return Long.compare(s2.selfNanos, s1.selfNanos);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * The statistics summed up by section and api, those taking the most time first.
+     */
+    public static List<Stats> getStatsByApi() {
+        final Map<Key, Stats> byApi = new HashMap<>();
+        for (final Stats s : getStats()) {
+            final Key key = new Key(s.key.section, s.key.api, "");
+            Stats sum = byApi.get(key);
+            if (sum == null) {
+                sum = new Stats(key);
+                byApi.put(key, sum);
+            }
+            sum.add(s);
+        }
+        final List<Stats> result = new ArrayList<>(byApi.values());
+        Collections.sort(result, new Comparator<Stats>() {
+            @Override
+            public int compare(Stats s1, Stats s2) {
+                return Long.compare(s2.selfNanos, s1.selfNanos);
+            }
+        });
+        return result;
+    }
+
+    public static void writeCsv(final Writer out) throws IOException {
+        out.write("section,api,card,calls,total_ms,self_ms,total_bytes,self_bytes\n");
+        for (final Stats s : getStats()) {
+            out.write(s.key.section.name());
+            out.write(',');
+            out.write(csv(s.key.api));
+            out.write(',');
+            out.write(csv(s.key.cardName));
+            out.write(String.format(Locale.ROOT, ",%d,%.3f,%.3f,%d,%d\n", s.calls, s.getTotalMillis(), s.getSelfMillis(),
+                    s.totalBytes, s.selfBytes));
+        }
+        out.flush();
+    }
+
+    public static void writeJson(final Writer out) throws IOException {
+        out.write("[\n");
+        boolean first = true;
+        for (final Stats s : getStats()) {
+            if (!first) {
+                out.write(",\n");
+            }
+            first = false;
+            out.write(String.format(Locale.ROOT,
+                    "  {\"section\": \"%s\", \"api\": %s, \"card\": %s, \"calls\": %d, \"totalMs\": %.3f, \"selfMs\": %.3f, \"totalBytes\": %d, \"selfBytes\": %d}",
+                    s.key.section.name(), json(s.key.api), json(s.key.cardName), s.calls, s.getTotalMillis(), s.getSelfMillis(),
+                    s.totalBytes, s.selfBytes));
+        }
+        out.write("\n]\n");
+        out.flush();
+    }
+
+    /**
+     * A summary of the apis taking the most time, for printing to the console.
+     */
+    public static String getReport(final int maxLines) {
+        final StringBuilder sb = new StringBuilder();
+        int lines = 0;
+        for (final Stats s : getStatsByApi()) {
+            if (lines++ >= maxLines) {
+                break;
+            }
+            sb.append(String.format(Locale.ROOT, "%-12s %-24s %8d calls %10.1f ms self %10.1f ms total %8d KB self%n",
+                    s.key.section.name(), s.key.api.isEmpty() ? "-" : s.key.api, s.calls, s.getSelfMillis(),
+                    s.getTotalMillis(), s.selfBytes / 1024));
+        }
+        return sb.toString();
+    }
+
+    private static long allocatedBytes() {
+        if (noAllocationCounter) {
+            return -1;
+        }
+        try {
+            return AllocationCounter.getAllocatedBytes();
+        } catch (final LinkageError e) {
+            noAllocationCounter = true;
+            return -1;
+        }
+    }
+
+    private static String csv(final String s) {
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0) {
+            return s;
+        }
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+    private static String json(final String s) {
+        final StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < ' ') {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    public static final class Probe {
+        private final Probe parent;
+        private final Key key;
+        private final long startNanos;
+        private final long startBytes;
+        private long childNanos;
+        private long childBytes;
+
+        private Probe(final Probe parent0, final Key key0) {
+            parent = parent0;
+            key = key0;
+            startBytes = allocatedBytes();
+            startNanos = System.nanoTime();
+        }
+    }
+
+    private static final class Key {
+        private final Section section;
+        private final String api;
+        private final String cardName;
+
+        private Key(final Section section0, final String api0, final String cardName0) {
+            section = section0;
+            api = api0;
+            cardName = cardName0;
+        }
+
+        @Override
+        public int hashCode() {
+            return (section.hashCode() * 31 + api.hashCode()) * 31 + cardName.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key k = (Key) obj;
+            return section == k.section && api.equals(k.api) && cardName.equals(k.cardName);
+        }
+    }
+
+    public static final class Stats {
+        private final Key key;
+        private long calls;
+        private long totalNanos;
+        private long selfNanos;
+        private long totalBytes;
+        private long selfBytes;
+
+        private Stats(final Key key0) {
+            key = key0;
+        }
+
+        private Stats copy() {
+            final Stats copy = new Stats(key);
+            copy.add(this);
+            return copy;
+        }
+
+        private void add(final Stats s) {
+            calls += s.calls;
+            totalNanos += s.totalNanos;
+            selfNanos += s.selfNanos;
+            totalBytes += s.totalBytes;
+            selfBytes += s.selfBytes;
+        }
+
+        public Section getSection() {
+            return key.section;
+        }
+
+        /** The api name, empty for sections not about an ability. */
+        public String getApi() {
+            return key.api;
+        }
+
+        /** The card name, empty for sections not about a card or summed up by api. */
+        public String getCardName() {
+            return key.cardName;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public double getTotalMillis() {
+            return totalNanos / 1000000.0;
+        }
+
+        /** The time spent in this section, not counting the sections called from it. */
+        public double getSelfMillis() {
+            return selfNanos / 1000000.0;
+        }
+
+        public long getTotalBytes() {
+            return totalBytes;
+        }
+
+        public long getSelfBytes() {
+            return selfBytes;
+        }
+    }
+
+    /**
+     * Reads the bytes allocated by the current thread through the HotSpot extension of the
+     * thread management bean. Kept in its own class, so JVMs without it (e.g. on Android) only
+     * fail to load this one.
+     */
+    private static final class AllocationCounter {
+        private static final com.sun.management.ThreadMXBean BEAN = findBean();
+
+        private static com.sun.management.ThreadMXBean findBean() {
+            try {
+                final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+                if (bean instanceof com.sun.management.ThreadMXBean) {
+                    final com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+                    if (sunBean.isThreadAllocatedMemorySupported()) {
+                        sunBean.setThreadAllocatedMemoryEnabled(true);
+                        return sunBean;
+                    }
+                }
+            } catch (final Throwable e) {
+                // not available on this JVM
+            }
+            return null;
+        }
+
+        /** The bytes allocated by the current thread so far, or -1 if not known. */
+        private static long getAllocatedBytes() {
+            return BEAN == null ? -1 : BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+    }
+}
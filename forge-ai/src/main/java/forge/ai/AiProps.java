@@ -134,9 +134,17 @@ public enum AiProps { /** */
     FLASH_BUFF_AURA_CHANCE_TO_RESPOND_TO_STACK("100"),
     BLINK_RELOAD_PLANESWALKER_CHANCE("30"), /** */
     BLINK_RELOAD_PLANESWALKER_MAX_LOYALTY("2"), /** */
-    BLINK_RELOAD_PLANESWALKER_LOYALTY_DIFF("2"); /** */
+    BLINK_RELOAD_PLANESWALKER_LOYALTY_DIFF("2"), /** */
+    DECISION_TIME_BUDGET_MS("5000"), /** */
     // Experimental features, must be promoted or removed after extensive testing and, ideally, defaulting
-    // <-- There are no experimental options here -->
+    USE_MCTS_SIMULATION("false"), /** */
+    MCTS_MAX_ITERATIONS("200"), /** */
+    MCTS_TIME_LIMIT_MS("3000"), /** */
+    MCTS_ROLLOUT_PHASES("8"), /** */
+    MCTS_EXPLORATION_PERCENT("141"), /** */
+    USE_COMBAT_SOLVER("false"), /** */
+    COMBAT_SOLVER_BEAM_WIDTH("32"), /** */
+    COMBAT_SOLVER_TIME_LIMIT_MS("500"); /** */
 
 
     private final String strDefaultVal;
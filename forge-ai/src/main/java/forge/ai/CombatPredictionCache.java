@@ -0,0 +1,192 @@
+package forge.ai;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import forge.game.Game;
+import forge.game.card.Card;
+import forge.game.combat.Combat;
+import forge.game.phase.PhaseHandler;
+import forge.game.phase.PhaseType;
+import forge.game.player.Player;
+
+/**
+ * Results of the combat predictions of {@link ComputerUtilCombat} for a game.
+ * <br><br>
+ * Predicting the bonuses of an attacker or blocker and whether one would destroy the other
+ * means going through the triggers, static abilities and keywords of every card in play, and
+ * the AI does that for the same pairs over and over while it tries out attacks and blocks.
+ * The results are kept here by attacker, blocker and the version of the combat they were
+ * predicted for (see {@link Combat#getVersion()}), so any change to that combat makes them
+ * miss. Everything is dropped once the board changes (see {@link Game#getBoardVersion()}), an
+ * effect gets a new timestamp, the phase, stack or the combat of the game change, or a player's
+ * life changes.
+ */
+final class CombatPredictionCache {
+    enum Prediction {
+        POWER_BONUS_OF_BLOCKER,
+        TOUGHNESS_BONUS_OF_BLOCKER,
+        POWER_BONUS_OF_ATTACKER,
+        TOUGHNESS_BONUS_OF_ATTACKER,
+        CAN_DESTROY_ATTACKER,
+        CAN_DESTROY_BLOCKER,
+        ATTACKER_WOULD_BE_DESTROYED,
+        COMBAT_TRIGGER_WILL_TRIGGER
+    }
+
+    // a wide board with many blockers to try stays well below this
+    private static final int MAX_ENTRIES = 50000;
+
+    private static final AtomicLong totalHits = new AtomicLong();
+    private static final AtomicLong totalMisses = new AtomicLong();
+
+    private final Game game;
+    private final Map<Key, Integer> results = new HashMap<>();
+
+    private int boardVersion;
+    private long timestamp;
+    private int turn;
+    private PhaseType phase;
+    private int stackSize;
+    private Combat combat;
+    private int combatVersion;
+    private int lifeTotals;
+
+    CombatPredictionCache(final Game game0) {
+        game = game0;
+    }
+
+    /**
+     * The cache is kept by the AI controller of the first player of the game played by its own AI,
+     * so it goes with the game. In a game without one, nothing is kept between predictions.
+     */
+    static CombatPredictionCache of(final Game game) {
+        CombatPredictionCache cache = null;
+        for (final Player p : game.getPlayers()) {
+            final AiController aic = AiController.getOwnAi(p);
+            if (aic != null) {
+                cache = aic.getCombatPredictions();
+                break;
+            }
+        }
+        if (cache == null) {
+            cache = new CombatPredictionCache(game);
+        }
+        cache.validate();
+        return cache;
+    }
+
+    private void validate() {
+        final PhaseHandler ph = game.getPhaseHandler();
+        final Combat gameCombat = game.getCombat();
+        final int gameCombatVersion = gameCombat == null ? 0 : gameCombat.getVersion();
+        int life = 0;
+        for (final Player p : game.getPlayers()) {
+            life = 31 * life + p.getLife();
+        }
+        if (boardVersion == game.getBoardVersion() && timestamp == game.getTimestamp() && turn == ph.getTurn()
+                && phase == ph.getPhase() && stackSize == game.getStack().size() && combat == gameCombat
+                && combatVersion == gameCombatVersion && lifeTotals == life && results.size() < MAX_ENTRIES) {
+            return;
+        }
+        boardVersion = game.getBoardVersion();
+        timestamp = game.getTimestamp();
+        turn = ph.getTurn();
+        phase = ph.getPhase();
+        stackSize = game.getStack().size();
+        combat = gameCombat;
+        combatVersion = gameCombatVersion;
+        lifeTotals = life;
+        results.clear();
+    }
+
+    static Key key(final Prediction prediction, final Card attacker, final Card blocker, final Object other,
+            final Combat combat, final boolean flag1, final boolean flag2) {
+        return new Key(prediction, attacker, blocker, other, combat, flag1, flag2);
+    }
+
+    Integer get(final Key key) {
+        final Integer result = results.get(key);
+        if (result == null) {
+            totalMisses.incrementAndGet();
+        } else {
+            totalHits.incrementAndGet();
+        }
+        return result;
+    }
+
+    void put(final Key key, final int result) {
+        results.put(key, result);
+    }
+
+    Boolean getBoolean(final Key key) {
+        final Integer result = get(key);
+        return result == null ? null : result != 0;
+    }
+
+    void putBoolean(final Key key, final boolean result) {
+        put(key, result ? 1 : 0);
+    }
+
+    /**
+     * The share of predictions answered from the caches of all games so far.
+     */
+    static String getHitRateReport() {
+        final long hits = totalHits.get();
+        final long lookups = hits + totalMisses.get();
+        if (lookups == 0) {
+            return "no combat predictions";
+        }
+        return String.format("%d of %d combat predictions cached (%.1f%%)", hits, lookups, 100.0 * hits / lookups);
+    }
+
+    static final class Key {
+        private final Prediction prediction;
+        private final Card attacker;
+        private final Card blocker;
+        private final Object other;
+        private final Combat combat;
+        private final int combatVersion;
+        private final boolean flag1;
+        private final boolean flag2;
+        private final int hash;
+
+        private Key(final Prediction prediction0, final Card attacker0, final Card blocker0, final Object other0,
+                final Combat combat0, final boolean flag10, final boolean flag20) {
+            prediction = prediction0;
+            attacker = attacker0;
+            blocker = blocker0;
+            other = other0;
+            combat = combat0;
+            combatVersion = combat0 == null ? 0 : combat0.getVersion();
+            flag1 = flag10;
+            flag2 = flag20;
+            int h = prediction.ordinal();
+            h = 31 * h + System.identityHashCode(attacker);
+            h = 31 * h + System.identityHashCode(blocker);
+            h = 31 * h + System.identityHashCode(other);
+            h = 31 * h + System.identityHashCode(combat);
+            h = 31 * h + combatVersion;
+            h = 4 * h + (flag1 ? 2 : 0) + (flag2 ? 1 : 0);
+            hash = h;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        // cards are compared by identity, last known information copies are different cards here
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key k = (Key) obj;
+            return hash == k.hash && prediction == k.prediction && attacker == k.attacker && blocker == k.blocker
+                    && other == k.other && combat == k.combat && combatVersion == k.combatVersion
+                    && flag1 == k.flag1 && flag2 == k.flag2;
+        }
+    }
+}
@@ -988,57 +988,59 @@ public class ComputerUtil {
         }
 
         boolean canRegen = false;
-        ComputerUtilCombat.setCombatRegenTestSuppression(true); // do not check canRegenerate recursively from combat code
-
-        final Player controller = card.getController();
-        final Game game = controller.getGame();
-        final CardCollectionView l = controller.getCardsIn(ZoneType.Battlefield);
-        for (final Card c : l) {
-            for (final SpellAbility sa : c.getSpellAbilities()) {
-                // This try/catch should fix the "computer is thinking" bug
-                try {
-
-                    if (!sa.isActivatedAbility() || sa.getApi() != ApiType.Regenerate) {
-                        continue; // Not a Regenerate ability
-                    }
-                    sa.setActivatingPlayer(controller, true);
-                    if (!(sa.canPlay() && ComputerUtilCost.canPayCost(sa, controller, false))) {
-                        continue; // Can't play ability
-                    }
+        // do not check canRegenerate recursively from combat code
+        final boolean wasSuppressed = ComputerUtilCombat.setCombatRegenTestSuppression(true);
+        try {
+            final Player controller = card.getController();
+            final Game game = controller.getGame();
+            final CardCollectionView l = controller.getCardsIn(ZoneType.Battlefield);
+            for (final Card c : l) {
+                for (final SpellAbility sa : c.getSpellAbilities()) {
+                    // This try/catch should fix the "computer is thinking" bug
+                    try {
+
+                        if (!sa.isActivatedAbility() || sa.getApi() != ApiType.Regenerate) {
+                            continue; // Not a Regenerate ability
+                        }
+                        sa.setActivatingPlayer(controller, true);
+                        if (!(sa.canPlay() && ComputerUtilCost.canPayCost(sa, controller, false))) {
+                            continue; // Can't play ability
+                        }
 
-                    if (controller == ai) {
-                        final Cost abCost = sa.getPayCosts();
-                        if (abCost != null) {
-                            if (!ComputerUtilCost.checkLifeCost(controller, abCost, c, 4, sa)) {
-                                continue; // Won't play ability
-                            }
+                        if (controller == ai) {
+                            final Cost abCost = sa.getPayCosts();
+                            if (abCost != null) {
+                                if (!ComputerUtilCost.checkLifeCost(controller, abCost, c, 4, sa)) {
+                                    continue; // Won't play ability
+                                }
 
-                            if (!ComputerUtilCost.checkSacrificeCost(controller, abCost, c, sa)) {
-                                continue; // Won't play ability
-                            }
+                                if (!ComputerUtilCost.checkSacrificeCost(controller, abCost, c, sa)) {
+                                    continue; // Won't play ability
+                                }
 
-                            if (!ComputerUtilCost.checkCreatureSacrificeCost(controller, abCost, c, sa)) {
-                                continue; // Won't play ability
+                                if (!ComputerUtilCost.checkCreatureSacrificeCost(controller, abCost, c, sa)) {
+                                    continue; // Won't play ability
+                                }
                             }
                         }
-                    }
 
-                    final TargetRestrictions tgt = sa.getTargetRestrictions();
-                    if (tgt != null) {
-                        if (CardLists.getValidCards(game.getCardsIn(ZoneType.Battlefield), tgt.getValidTgts(), controller, sa.getHostCard(), sa).contains(card)) {
+                        final TargetRestrictions tgt = sa.getTargetRestrictions();
+                        if (tgt != null) {
+                            if (CardLists.getValidCards(game.getCardsIn(ZoneType.Battlefield), tgt.getValidTgts(), controller, sa.getHostCard(), sa).contains(card)) {
+                                canRegen = true;
+                            }
+                        } else if (AbilityUtils.getDefinedCards(sa.getHostCard(), sa.getParam("Defined"), sa).contains(card)) {
                             canRegen = true;
                         }
-                    } else if (AbilityUtils.getDefinedCards(sa.getHostCard(), sa.getParam("Defined"), sa).contains(card)) {
-                        canRegen = true;
-                    }
 
-                } catch (final Exception ex) {
-                    throw new RuntimeException(TextUtil.concatNoSpace("There is an error in the card code for ", c.getName(), ":", ex.getMessage()), ex);
+                    } catch (final Exception ex) {
+                        throw new RuntimeException(TextUtil.concatNoSpace("There is an error in the card code for ", c.getName(), ":", ex.getMessage()), ex);
+                    }
                 }
             }
+        } finally {
+            ComputerUtilCombat.setCombatRegenTestSuppression(wasSuppressed);
         }
-
-        ComputerUtilCombat.setCombatRegenTestSuppression(false);
         return canRegen;
     }
 
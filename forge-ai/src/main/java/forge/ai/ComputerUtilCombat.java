@@ -21,6 +21,8 @@ import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+
+import forge.ai.CombatPredictionCache.Prediction;
 import forge.game.Game;
 import forge.game.GameEntity;
 import forge.game.ability.AbilityKey;
@@ -62,10 +64,33 @@ import java.util.Map;
  */
 public class ComputerUtilCombat {
 
-    // A special flag used in ComputerUtil#canRegenerate to avoid recursive reentry and stack overflow
-    private static boolean dontTestRegen = false;
-    public static void setCombatRegenTestSuppression(boolean shouldSuppress) {
-        dontTestRegen = shouldSuppress;
+    // A special flag used in ComputerUtil#canRegenerate to avoid recursive reentry and stack overflow,
+    // kept per thread since each game is played by one thread
+    private static final ThreadLocal<Boolean> dontTestRegen = new ThreadLocal<>();
+
+    /**
+     * Set whether regeneration is considered by the combat predictions of the current thread.
+     * @return whether it was suppressed before, to restore it afterwards
+     */
+    public static boolean setCombatRegenTestSuppression(boolean shouldSuppress) {
+        final boolean previous = isCombatRegenTestSuppressed();
+        if (shouldSuppress) {
+            dontTestRegen.set(Boolean.TRUE);
+        } else {
+            dontTestRegen.remove();
+        }
+        return previous;
+    }
+
+    private static boolean isCombatRegenTestSuppressed() {
+        return Boolean.TRUE.equals(dontTestRegen.get());
+    }
+
+    /**
+     * How many of the combat predictions were answered from cache so far, for profiling.
+     */
+    public static String getPredictionCacheHitRate() {
+        return CombatPredictionCache.getHitRateReport();
     }
 
     /**
@@ -714,6 +739,18 @@ public class ComputerUtilCombat {
      * @return a boolean.
      */
     public static boolean attackerWouldBeDestroyed(Player ai, final Card attacker, Combat combat) {
+        final CombatPredictionCache cache = CombatPredictionCache.of(attacker.getGame());
+        final CombatPredictionCache.Key key = CombatPredictionCache.key(Prediction.ATTACKER_WOULD_BE_DESTROYED,
+                attacker, null, ai, combat, false, false);
+        Boolean result = cache.getBoolean(key);
+        if (result == null) {
+            result = attackerWouldBeDestroyedImpl(ai, attacker, combat);
+            cache.putBoolean(key, result);
+        }
+        return result;
+    }
+
+    private static boolean attackerWouldBeDestroyedImpl(Player ai, final Card attacker, Combat combat) {
         final List<Card> blockers = combat.getBlockers(attacker);
         int firstStrikeBlockerDmg = 0;
 
@@ -756,6 +793,22 @@ public class ComputerUtilCombat {
     }
     public static boolean combatTriggerWillTrigger(final Card attacker, final Card defender, final Trigger trigger,
             Combat combat, final List<Card> plannedAttackers) {
+        if (plannedAttackers != null) {
+            return combatTriggerWillTriggerImpl(attacker, defender, trigger, combat, plannedAttackers);
+        }
+        final CombatPredictionCache cache = CombatPredictionCache.of(attacker.getGame());
+        final CombatPredictionCache.Key key = CombatPredictionCache.key(Prediction.COMBAT_TRIGGER_WILL_TRIGGER,
+                attacker, defender, trigger, combat, false, false);
+        Boolean result = cache.getBoolean(key);
+        if (result == null) {
+            result = combatTriggerWillTriggerImpl(attacker, defender, trigger, combat, null);
+            cache.putBoolean(key, result);
+        }
+        return result;
+    }
+
+    private static boolean combatTriggerWillTriggerImpl(final Card attacker, final Card defender, final Trigger trigger,
+            Combat combat, final List<Card> plannedAttackers) {
         final Game game = attacker.getGame();
         boolean willTrigger = false;
         final Card source = trigger.getHostCard();
@@ -887,6 +940,18 @@ public class ComputerUtilCombat {
      * @return a int.
      */
     public static int predictPowerBonusOfBlocker(final Card attacker, final Card blocker, boolean withoutAbilities) {
+        final CombatPredictionCache cache = CombatPredictionCache.of(attacker.getGame());
+        final CombatPredictionCache.Key key = CombatPredictionCache.key(Prediction.POWER_BONUS_OF_BLOCKER,
+                attacker, blocker, null, null, withoutAbilities, false);
+        Integer result = cache.get(key);
+        if (result == null) {
+            result = predictPowerBonusOfBlockerImpl(attacker, blocker, withoutAbilities);
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    private static int predictPowerBonusOfBlockerImpl(final Card attacker, final Card blocker, boolean withoutAbilities) {
         int power = 0;
 
         // Serene Master switches power with attacker
@@ -1033,6 +1098,18 @@ public class ComputerUtilCombat {
      * @return a int.
      */
     public static int predictToughnessBonusOfBlocker(final Card attacker, final Card blocker, boolean withoutAbilities) {
+        final CombatPredictionCache cache = CombatPredictionCache.of(attacker.getGame());
+        final CombatPredictionCache.Key key = CombatPredictionCache.key(Prediction.TOUGHNESS_BONUS_OF_BLOCKER,
+                attacker, blocker, null, null, withoutAbilities, false);
+        Integer result = cache.get(key);
+        if (result == null) {
+            result = predictToughnessBonusOfBlockerImpl(attacker, blocker, withoutAbilities);
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    private static int predictToughnessBonusOfBlockerImpl(final Card attacker, final Card blocker, boolean withoutAbilities) {
         int toughness = 0;
 
         if (blocker.getName().equals("Shape Stealer")) {
@@ -1170,6 +1247,18 @@ public class ComputerUtilCombat {
         return predictPowerBonusOfAttacker(attacker, blocker, combat, withoutAbilities, false);
     }
     public static int predictPowerBonusOfAttacker(final Card attacker, final Card blocker, final Combat combat, boolean withoutAbilities, boolean withoutCombatStaticAbilities) {
+        final CombatPredictionCache cache = CombatPredictionCache.of(attacker.getGame());
+        final CombatPredictionCache.Key key = CombatPredictionCache.key(Prediction.POWER_BONUS_OF_ATTACKER,
+                attacker, blocker, null, combat, withoutAbilities, withoutCombatStaticAbilities);
+        Integer result = cache.get(key);
+        if (result == null) {
+            result = predictPowerBonusOfAttackerImpl(attacker, blocker, combat, withoutAbilities, withoutCombatStaticAbilities);
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    private static int predictPowerBonusOfAttackerImpl(final Card attacker, final Card blocker, final Combat combat, boolean withoutAbilities, boolean withoutCombatStaticAbilities) {
         int power = 0;
 
         // Serene Master switches power with attacker
@@ -1363,6 +1452,19 @@ public class ComputerUtilCombat {
     }
     public static int predictToughnessBonusOfAttacker(final Card attacker, final Card blocker, final Combat combat
             , boolean withoutAbilities, boolean withoutCombatStaticAbilities) {
+        final CombatPredictionCache cache = CombatPredictionCache.of(attacker.getGame());
+        final CombatPredictionCache.Key key = CombatPredictionCache.key(Prediction.TOUGHNESS_BONUS_OF_ATTACKER,
+                attacker, blocker, null, combat, withoutAbilities, withoutCombatStaticAbilities);
+        Integer result = cache.get(key);
+        if (result == null) {
+            result = predictToughnessBonusOfAttackerImpl(attacker, blocker, combat, withoutAbilities, withoutCombatStaticAbilities);
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    private static int predictToughnessBonusOfAttackerImpl(final Card attacker, final Card blocker, final Combat combat
+            , boolean withoutAbilities, boolean withoutCombatStaticAbilities) {
         int toughness = 0;
 
         if (blocker != null && attacker.getName().equals("Shape Stealer")) {
@@ -1660,6 +1762,19 @@ public class ComputerUtilCombat {
     }
     public static boolean canDestroyAttacker(Player ai, Card attacker, Card blocker, final Combat combat,
             final boolean withoutAbilities, final boolean withoutAttackerStaticAbilities) {
+        final CombatPredictionCache cache = CombatPredictionCache.of(attacker.getGame());
+        final CombatPredictionCache.Key key = CombatPredictionCache.key(Prediction.CAN_DESTROY_ATTACKER,
+                attacker, blocker, ai, combat, withoutAbilities, withoutAttackerStaticAbilities);
+        Boolean result = cache.getBoolean(key);
+        if (result == null) {
+            result = canDestroyAttackerImpl(ai, attacker, blocker, combat, withoutAbilities, withoutAttackerStaticAbilities);
+            cache.putBoolean(key, result);
+        }
+        return result;
+    }
+
+    private static boolean canDestroyAttackerImpl(Player ai, Card attacker, Card blocker, final Combat combat,
+            final boolean withoutAbilities, final boolean withoutAttackerStaticAbilities) {
         // Can activate transform ability
         if (!withoutAbilities) {
             attacker = canTransform(attacker);
@@ -1822,7 +1937,7 @@ public class ComputerUtilCombat {
             }
         } // flanking
 
-        if (blocker.hasKeyword(Keyword.INDESTRUCTIBLE) || dontTestRegen
+        if (blocker.hasKeyword(Keyword.INDESTRUCTIBLE) || isCombatRegenTestSuppressed()
                 || ComputerUtil.canRegenerate(blocker.getController(), blocker)) {
             return false;
         }
@@ -1890,6 +2005,23 @@ public class ComputerUtilCombat {
     }
     public static boolean canDestroyBlocker(Player ai, Card blocker, Card attacker, final Combat combat,
             final boolean withoutAbilities, final boolean withoutAttackerStaticAbilities) {
+        if (isCombatRegenTestSuppressed()) {
+            // regeneration of the blocker isn't considered then, don't mix that up with the usual results
+            return canDestroyBlockerImpl(ai, blocker, attacker, combat, withoutAbilities, withoutAttackerStaticAbilities);
+        }
+        final CombatPredictionCache cache = CombatPredictionCache.of(attacker.getGame());
+        final CombatPredictionCache.Key key = CombatPredictionCache.key(Prediction.CAN_DESTROY_BLOCKER,
+                attacker, blocker, ai, combat, withoutAbilities, withoutAttackerStaticAbilities);
+        Boolean result = cache.getBoolean(key);
+        if (result == null) {
+            result = canDestroyBlockerImpl(ai, blocker, attacker, combat, withoutAbilities, withoutAttackerStaticAbilities);
+            cache.putBoolean(key, result);
+        }
+        return result;
+    }
+
+    private static boolean canDestroyBlockerImpl(Player ai, Card blocker, Card attacker, final Combat combat,
+            final boolean withoutAbilities, final boolean withoutAttackerStaticAbilities) {
         // Can activate transform ability
         if (!withoutAbilities) {
             attacker = canTransform(attacker);
@@ -598,7 +598,7 @@ public class ComputerUtilMana {
         }
 
         // arrange all mana abilities by color produced.
-        final ListMultimap<Integer, SpellAbility> manaAbilityMap = groupSourcesByManaColor(ai, true);
+        final ListMultimap<Integer, SpellAbility> manaAbilityMap = AiManaAvailability.of(ai).getSourcesByColor(true);
         if (manaAbilityMap.isEmpty()) {
             ManaPool.refundMana(manaSpentToPay, ai, sa);
             CostPayment.handleOfferings(sa, true, cost.isPaid());
@@ -654,6 +654,14 @@ public class ComputerUtilMana {
     }
 
     private static boolean payManaCost(final ManaCostBeingPaid cost, final SpellAbility sa, final Player ai, final boolean test, boolean checkPlayable, boolean effect) {
+        final AiProfiler.Probe probe = AiProfiler.start(AiProfiler.Section.MANA_PAYMENT, sa);
+        try {
+            return payManaCostWithSources(cost, sa, ai, test, checkPlayable, effect);
+        } finally {
+            AiProfiler.finish(probe);
+        }
+    }
+    private static boolean payManaCostWithSources(final ManaCostBeingPaid cost, final SpellAbility sa, final Player ai, final boolean test, boolean checkPlayable, boolean effect) {
         AiCardMemory.clearMemorySet(ai, MemorySet.PAYS_TAP_COST);
         AiCardMemory.clearMemorySet(ai, MemorySet.PAYS_SAC_COST);
         adjustManaCostToAvoidNegEffects(cost, sa.getHostCard(), ai);
@@ -678,6 +686,13 @@ public class ComputerUtilMana {
             return true;    // paid all from floating mana
         }
 
+        if (test && manapool.isEmpty() && !AiManaAvailability.of(ai).canProduceShards(cost, checkPlayable)) {
+            // no source produces a color some shard needs, so there's no payment to search for
+            CostPayment.handleOfferings(sa, test, false);
+            ManaPool.refundMana(manaSpentToPay, ai, sa);
+            return false;
+        }
+
         boolean purePhyrexian = cost.containsOnlyPhyrexianMana();
         boolean hasConverge = sa.getHostCard().hasConverge();
         ListMultimap<ManaCostShard, SpellAbility> sourcesForShards = getSourcesForShards(cost, sa, ai, test,
@@ -880,7 +895,7 @@ public class ComputerUtilMana {
             final SpellAbility sa, final Player ai, final boolean test, final boolean checkPlayable,
             final boolean hasConverge) {
         // arrange all mana abilities by color produced.
-        final ListMultimap<Integer, SpellAbility> manaAbilityMap = groupSourcesByManaColor(ai, checkPlayable);
+        final ListMultimap<Integer, SpellAbility> manaAbilityMap = AiManaAvailability.of(ai).getSourcesByColor(checkPlayable);
         if (manaAbilityMap.isEmpty()) {
             // no mana abilities, bailing out
             return null;
@@ -1376,6 +1391,11 @@ public class ComputerUtilMana {
         return getAvailableManaEstimate(p, true);
     }
     public static int getAvailableManaEstimate(final Player p, final boolean checkPlayable) {
+        return AiManaAvailability.of(p).getEstimate(checkPlayable) + p.getManaPool().totalMana();
+    }
+
+    // Estimate of the mana produced by the battlefield, without the mana pool
+    static int estimateManaFromSources(final Player p, final boolean checkPlayable) {
         int availableMana = 0;
 
         final List<Card> srcs = CardLists.filter(p.getCardsIn(ZoneType.Battlefield), new Predicate<Card>() {
@@ -1416,8 +1436,6 @@ public class ComputerUtilMana {
             availableMana += maxProduced;
         }
 
-        availableMana += p.getManaPool().totalMana();
-
         if (producedWithCost > 0 && !hasSourcesWithNoManaCost) {
             availableMana -= producedWithCost; // probably can't activate them, no other mana available
         }
@@ -1427,6 +1445,10 @@ public class ComputerUtilMana {
 
     //This method is currently used by AI to estimate available mana
     public static CardCollection getAvailableManaSources(final Player ai, final boolean checkPlayable) {
+        return new CardCollection(AiManaAvailability.of(ai).getSources(checkPlayable));
+    }
+
+    static CardCollection findAvailableManaSources(final Player ai, final boolean checkPlayable) {
         final CardCollectionView list = CardCollection.combine(ai.getCardsIn(ZoneType.Battlefield), ai.getCardsIn(ZoneType.Hand));
         final List<Card> manaSources = CardLists.filter(list, new Predicate<Card>() {
             @Override
@@ -1560,12 +1582,12 @@ public class ComputerUtilMana {
     }
 
     //This method is currently used by AI to estimate mana available
-    private static ListMultimap<Integer, SpellAbility> groupSourcesByManaColor(final Player ai, boolean checkPlayable) {
+    static ListMultimap<Integer, SpellAbility> groupSourcesByManaColor(final Player ai, final Iterable<Card> sources, boolean checkPlayable) {
         final ListMultimap<Integer, SpellAbility> manaMap = ArrayListMultimap.create();
         final Game game = ai.getGame();
 
         // Loop over all current available mana sources
-        for (final Card sourceCard : getAvailableManaSources(ai, checkPlayable)) {
+        for (final Card sourceCard : sources) {
             if (DEBUG_MANA_PAYMENT) {
                 System.out.println("DEBUG_MANA_PAYMENT: groupSourcesByManaColor sourceCard = " + sourceCard);
             }
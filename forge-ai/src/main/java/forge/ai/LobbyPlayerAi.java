@@ -7,6 +7,7 @@ import forge.game.Game;
 import forge.game.player.IGameEntitiesFactory;
 import forge.game.player.Player;
 import forge.game.player.PlayerController;
+import forge.game.replay.GameReplay;
 
 public class LobbyPlayerAi extends LobbyPlayer implements IGameEntitiesFactory {
 
@@ -14,12 +15,17 @@ public class LobbyPlayerAi extends LobbyPlayer implements IGameEntitiesFactory {
     private boolean rotateProfileEachGame;
     private boolean allowCheatShuffle;
     private boolean useSimulation;
+    private boolean useMcts;
+    private GameReplay replay;
 
     public LobbyPlayerAi(String name, Set<AIOption> options) {
         super(name);
         if (options != null && options.contains(AIOption.USE_SIMULATION)) {
             this.useSimulation = true;
         }
+        if (options != null && options.contains(AIOption.USE_MCTS)) {
+            this.useMcts = true;
+        }
     }
 
     public boolean isAllowCheatShuffle() {
@@ -40,9 +46,18 @@ public class LobbyPlayerAi extends LobbyPlayer implements IGameEntitiesFactory {
         this.rotateProfileEachGame = rotateProfileEachGame;
     }
 
+    /**
+     * Follow the decisions of a recorded game in the games to come.
+     */
+    public void setReplay(GameReplay replay) {
+        this.replay = replay;
+    }
+
     private PlayerControllerAi createControllerFor(Player ai) {
-        PlayerControllerAi result = new PlayerControllerAi(ai.getGame(), ai, this);
+        PlayerControllerAi result = replay == null ? new PlayerControllerAi(ai.getGame(), ai, this)
+                : new PlayerControllerAiReplay(ai.getGame(), ai, this, replay);
         result.setUseSimulation(useSimulation);
+        result.setUseMcts(useMcts || Boolean.parseBoolean(AiProfileUtil.getAIProp(this, AiProps.USE_MCTS_SIMULATION)));
         result.allowCheatShuffle(allowCheatShuffle);
         return result;
     }
@@ -0,0 +1,227 @@
+package forge.ai;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import com.google.common.collect.Lists;
+
+import forge.LobbyPlayer;
+import forge.game.Game;
+import forge.game.GameEntity;
+import forge.game.GameObject;
+import forge.game.card.Card;
+import forge.game.combat.Combat;
+import forge.game.player.Player;
+import forge.game.replay.GameRecorder;
+import forge.game.replay.GameReplay;
+import forge.game.spellability.LandAbility;
+import forge.game.spellability.SpellAbility;
+
+/**
+ * An AI player following the decisions of a recorded game.
+ * <br><br>
+ * The AI still makes each decision on its own, so it draws the same random numbers and runs into
+ * the same problems as when the game was recorded. Where it decides differently, that is noted
+ * in the replay and the recorded decision is made instead: the recorded spells and abilities are
+ * played with their recorded targets, and the recorded attackers and blockers declared.
+ */
+public class PlayerControllerAiReplay extends PlayerControllerAi {
+    private final GameReplay replay;
+    private int mulligans;
+
+    public PlayerControllerAiReplay(Game game, Player p, LobbyPlayer lp, GameReplay replay0) {
+        super(game, p, lp);
+        replay = replay0;
+    }
+
+    @Override
+    public Player chooseStartingPlayer(boolean isFirstgame) {
+        final Player first = replay.getFirstPlayer();
+        return first == null ? super.chooseStartingPlayer(isFirstgame) : first;
+    }
+
+    @Override
+    public boolean mulliganKeepHand(Player firstPlayer, int cardsToReturn) {
+        final boolean keep = super.mulliganKeepHand(firstPlayer, cardsToReturn);
+        final boolean recordedKeep = mulligans >= replay.getMulligans(player);
+        if (keep != recordedKeep) {
+            replay.diverged(player + (recordedKeep ? " took a mulligan instead of keeping" : " kept instead of taking a mulligan"));
+        }
+        if (!recordedKeep) {
+            mulligans++;
+        }
+        return recordedKeep;
+    }
+
+    @Override
+    public List<SpellAbility> chooseSpellAbilityToPlay() {
+        final List<SpellAbility> chosen = super.chooseSpellAbilityToPlay();
+        final int priority = replay.getPriority();
+        final List<GameReplay.Decision> recorded = Lists.newArrayList(replay.getDecisions(priority, player, GameReplay.PLAY));
+        recorded.addAll(replay.getDecisions(priority, player, GameReplay.LAND));
+        if (isRecorded(chosen, recorded)) {
+            return chosen;
+        }
+
+        replay.diverged(player + " chose " + (chosen == null || chosen.isEmpty() ? "to pass" : chosen) + " instead of "
+                + (recorded.isEmpty() ? "passing" : recorded));
+        if (recorded.isEmpty()) {
+            return null;
+        }
+        final List<SpellAbility> result = Lists.newArrayListWithCapacity(recorded.size());
+        for (final GameReplay.Decision d : recorded) {
+            final SpellAbility sa = findRecorded(d);
+            if (sa == null) {
+                replay.diverged(player + " can't " + d);
+                return chosen;
+            }
+            result.add(sa);
+        }
+        return result;
+    }
+
+    private static boolean isRecorded(final List<SpellAbility> chosen, final List<GameReplay.Decision> recorded) {
+        final int size = chosen == null ? 0 : chosen.size();
+        if (size != recorded.size()) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            final SpellAbility sa = chosen.get(i);
+            final GameReplay.Decision d = recorded.get(i);
+            if (!GameRecorder.ref(sa.getHostCard()).equals(d.getCard())) {
+                return false;
+            }
+            if (GameReplay.LAND.equals(d.getType()) ? !(sa instanceof LandAbility) : !sa.getDescription().equals(d.getDescription())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private SpellAbility findRecorded(final GameReplay.Decision d) {
+        final Card host = replay.findCard(d.getCard());
+        if (host == null) {
+            return null;
+        }
+        for (final SpellAbility sa : host.getAllPossibleAbilities(player, true)) {
+            if (GameReplay.LAND.equals(d.getType())) {
+                if (sa instanceof LandAbility) {
+                    return sa;
+                }
+            } else if (!(sa instanceof LandAbility) && sa.getDescription().equals(d.getDescription())) {
+                setTargets(sa, d.getTargets());
+                return sa;
+            }
+        }
+        return null;
+    }
+
+    private void setTargets(final SpellAbility sa, final List<List<String>> targets) {
+        SpellAbility node = sa;
+        for (final List<String> nodeTargets : targets) {
+            if (node == null) {
+                break;
+            }
+            if (node.usesTargeting()) {
+                node.resetTargets();
+                for (final String ref : nodeTargets) {
+                    final GameObject target = replay.findEntity(ref);
+                    if (target != null) {
+                        node.getTargets().add(target);
+                    }
+                }
+            }
+            node = node.getSubAbility();
+        }
+    }
+
+    @Override
+    public void declareAttackers(Player attacker, Combat combat) {
+        super.declareAttackers(attacker, combat);
+        final GameReplay.Decision recorded = replay.getDecision(replay.getPriority(), attacker, GameReplay.ATTACK);
+        final Map<String, Set<String>> expected = toSets(recorded);
+        final Map<String, Set<String>> actual = new HashMap<>();
+        for (final GameEntity defender : combat.getDefenders()) {
+            addAll(actual, defender, combat.getAttackersOf(defender));
+        }
+        if (actual.equals(expected)) {
+            return;
+        }
+
+        replay.diverged(attacker + " attacked with " + actual + " instead of " + expected);
+        for (final Card c : Lists.newArrayList(combat.getAttackers())) {
+            combat.removeFromCombat(c);
+        }
+        for (final Entry<String, Set<String>> e : expected.entrySet()) {
+            final GameEntity defender = replay.findEntity(e.getKey());
+            for (final String ref : e.getValue()) {
+                final Card c = replay.findCard(ref);
+                if (defender != null && c != null) {
+                    combat.addAttacker(c, defender);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void declareBlockers(Player defender, Combat combat) {
+        super.declareBlockers(defender, combat);
+        final GameReplay.Decision recorded = replay.getDecision(replay.getPriority(), defender, GameReplay.BLOCK);
+        final Map<String, Set<String>> expected = toSets(recorded);
+        final Map<String, Set<String>> actual = new HashMap<>();
+        for (final GameEntity ge : combat.getDefendersControlledBy(defender)) {
+            for (final Card attacker : combat.getAttackersOf(ge)) {
+                addAll(actual, attacker, combat.getBlockers(attacker));
+            }
+        }
+        if (actual.equals(expected)) {
+            return;
+        }
+
+        replay.diverged(defender + " blocked with " + actual + " instead of " + expected);
+        for (final GameEntity ge : combat.getDefendersControlledBy(defender)) {
+            for (final Card attacker : combat.getAttackersOf(ge)) {
+                for (final Card blocker : Lists.newArrayList(combat.getBlockers(attacker))) {
+                    combat.removeBlockAssignment(attacker, blocker);
+                }
+            }
+        }
+        for (final Entry<String, Set<String>> e : expected.entrySet()) {
+            final Card attacker = replay.findCard(e.getKey());
+            for (final String ref : e.getValue()) {
+                final Card blocker = replay.findCard(ref);
+                if (attacker != null && blocker != null) {
+                    combat.addBlocker(attacker, blocker);
+                }
+            }
+        }
+    }
+
+    private static Map<String, Set<String>> toSets(final GameReplay.Decision recorded) {
+        final Map<String, Set<String>> result = new HashMap<>();
+        if (recorded != null) {
+            for (final Entry<String, List<String>> e : recorded.getCombat().entrySet()) {
+                if (!e.getValue().isEmpty()) {
+                    result.put(e.getKey(), new HashSet<>(e.getValue()));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void addAll(final Map<String, Set<String>> refs, final GameEntity key, final Collection<Card> cards) {
+        if (cards.isEmpty()) {
+            return;
+        }
+        final Set<String> cardRefs = new HashSet<>();
+        for (final Card c : cards) {
+            cardRefs.add(GameRecorder.ref(c));
+        }
+        refs.put(GameRecorder.ref(key), cardRefs);
+    }
+}
@@ -34,8 +34,13 @@ import java.util.Map;
 public abstract class SpellAbilityAi {
 
     public final boolean canPlayAIWithSubs(final Player aiPlayer, final SpellAbility sa) {
-        if (!canPlayAI(aiPlayer, sa)) {
-            return false;
+        final AiProfiler.Probe probe = AiProfiler.start(AiProfiler.Section.CAN_PLAY, sa);
+        try {
+            if (!canPlayAI(aiPlayer, sa)) {
+                return false;
+            }
+        } finally {
+            AiProfiler.finish(probe);
         }
         final AbilitySub subAb = sa.getSubAbility();
         return subAb == null || chkDrawbackWithSubs(aiPlayer,  subAb);
@@ -168,6 +173,15 @@ public abstract class SpellAbilityAi {
     }
     
     public final boolean doTriggerAI(final Player aiPlayer, final SpellAbility sa, final boolean mandatory) {
+        final AiProfiler.Probe probe = AiProfiler.start(AiProfiler.Section.TRIGGER, sa);
+        try {
+            return doTriggerAIWithCost(aiPlayer, sa, mandatory);
+        } finally {
+            AiProfiler.finish(probe);
+        }
+    }
+
+    private boolean doTriggerAIWithCost(final Player aiPlayer, final SpellAbility sa, final boolean mandatory) {
         // this evaluation order is currently intentional as it does more stuff that helps avoiding some crashes
         if (!ComputerUtilCost.canPayCost(sa, aiPlayer, true) && !mandatory) {
             return false;
@@ -302,7 +316,15 @@ public abstract class SpellAbilityAi {
      */
     public boolean chkDrawbackWithSubs(Player aiPlayer, AbilitySub ab) {
         final AbilitySub subAb = ab.getSubAbility();
-        return SpellApiToAi.Converter.get(ab.getApi()).chkAIDrawback(ab, aiPlayer) && (subAb == null || chkDrawbackWithSubs(aiPlayer, subAb));  
+        final AiProfiler.Probe probe = AiProfiler.start(AiProfiler.Section.DRAWBACK, ab);
+        try {
+            if (!SpellApiToAi.Converter.get(ab.getApi()).chkAIDrawback(ab, aiPlayer)) {
+                return false;
+            }
+        } finally {
+            AiProfiler.finish(probe);
+        }
+        return subAb == null || chkDrawbackWithSubs(aiPlayer, subAb);
     }
 
     public boolean confirmAction(Player player, SpellAbility sa, PlayerActionConfirmMode mode, String message, Map<String, Object> params) {
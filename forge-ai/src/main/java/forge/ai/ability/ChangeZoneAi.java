@@ -47,8 +47,14 @@ public class ChangeZoneAi extends SpellAbilityAi {
      */
 
     // multipleCardsToChoose is used by Intuition and can be adapted to be used by other
-    // cards where multiple cards are fetched at once and they need to be coordinated
-    private static CardCollection multipleCardsToChoose = new CardCollection();
+    // cards where multiple cards are fetched at once and they need to be coordinated,
+    // kept per thread since each game is played by one thread
+    private static final ThreadLocal<CardCollection> multipleCardsToChoose = new ThreadLocal<CardCollection>() {
+        @Override
+        protected CardCollection initialValue() {
+            return new CardCollection();
+        }
+    };
 
     @Override
     protected boolean checkAiLogic(final Player ai, final SpellAbility sa, final String aiLogic) {
@@ -112,7 +118,7 @@ public class ChangeZoneAi extends SpellAbilityAi {
     protected boolean checkApiLogic(Player aiPlayer, SpellAbility sa) {
         // Checks for "return true" unlike checkAiLogic()
 
-        multipleCardsToChoose.clear();
+        multipleCardsToChoose.get().clear();
         String aiLogic = sa.getParam("AILogic");
         if (aiLogic != null) {
             if (aiLogic.equals("Always")) {
@@ -134,7 +140,7 @@ public class ChangeZoneAi extends SpellAbilityAi {
             } else if (aiLogic.equals("Intuition")) {
                 // This logic only fills the multiple cards array, the decision to play is made
                 // separately in hiddenOriginCanPlayAI later.
-                multipleCardsToChoose = SpecialCardAi.Intuition.considerMultiple(aiPlayer, sa);
+                multipleCardsToChoose.set(SpecialCardAi.Intuition.considerMultiple(aiPlayer, sa));
             } else if (aiLogic.equals("MazesEnd")) {
                 return SpecialCardAi.MazesEnd.consider(aiPlayer, sa);
             } else if (aiLogic.equals("Pongify")) {
@@ -1568,9 +1574,10 @@ public class ChangeZoneAi extends SpellAbilityAi {
             } else if ("MazesEnd".equals(logic)) {
                 return SpecialCardAi.MazesEnd.considerCardToGet(decider, sa);
             } else if ("Intuition".equals(logic)) {
-                if (!multipleCardsToChoose.isEmpty()) {
-                    Card choice = multipleCardsToChoose.get(0);
-                    multipleCardsToChoose.remove(0);
+                final CardCollection multipleCards = multipleCardsToChoose.get();
+                if (!multipleCards.isEmpty()) {
+                    Card choice = multipleCards.get(0);
+                    multipleCards.remove(0);
                     return choice;
                 }
             } else if (logic.startsWith("ExilePreference")) {
@@ -41,6 +41,7 @@ import forge.game.trigger.TriggerType;
 import forge.game.zone.PlayerZoneBattlefield;
 import forge.game.zone.ZoneType;
 import forge.item.PaperCard;
+import forge.util.MyRandom;
 
 public class GameCopier {
     private static final ZoneType[] ZONES = new ZoneType[] {
@@ -83,6 +84,9 @@ public class GameCopier {
         GameRules currentRules = origGame.getRules();
         Match newMatch = new Match(currentRules, newPlayers, origGame.getView().getTitle());
         Game newGame = new Game(newPlayers, currentRules, newMatch);
+        // draw from the random numbers of the simulation, see SpellAbilityPicker.evaluateSa()
+        newGame.setSeed(MyRandom.getRandom().nextLong());
+        newGame.disableEvents(); //nobody watches a simulated game, so don't build or deliver its events
 
         for (int i = 0; i < origGame.getPlayers().size(); i++) {
             Player origPlayer = origGame.getPlayers().get(i);
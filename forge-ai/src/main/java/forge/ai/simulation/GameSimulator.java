@@ -20,7 +20,11 @@ import forge.game.spellability.TargetChoices;
 import forge.util.collect.FCollectionView;
 
 public class GameSimulator {
-    public static boolean COPY_STACK = false;
+    public static final boolean COPY_STACK = false;
+    // set to print the evaluations of the simulations
+    private static final boolean DEBUG_PRINT = false;
+    // the lines of the evaluation being compared, not printed but kept per thread since simulations may run in parallel
+    private static final ThreadLocal<List<String>> debugLines = new ThreadLocal<>();
     final private SimulationController controller;
     private GameCopier copier;
     private Game simGame;
@@ -39,9 +43,8 @@ public class GameSimulator {
         eval = new GameStateEvaluator();
 
         origLines = new ArrayList<>();
-        debugLines = origLines;
+        debugLines.set(origLines);
 
-        debugPrint = false;
         origScore = eval.getScoreForGameState(origGame, origAiPlayer);
 
         if (advanceToPhase == null) {
@@ -53,26 +56,25 @@ public class GameSimulator {
         // want to compare to the eval score after simulating.
         if (COPY_STACK && !origGame.getStackZone().isEmpty()) {
             origLines = new ArrayList<>();
-            debugLines = origLines;
+            debugLines.set(origLines);
             Game copyOrigGame = copier.makeCopy();
             Player copyOrigAiPlayer = copyOrigGame.getPlayers().get(1);
             resolveStack(copyOrigGame, copyOrigGame.getPlayers().get(0));
             origScore = eval.getScoreForGameState(copyOrigGame, copyOrigAiPlayer);
         }
 
-        debugPrint = false;
-        debugLines = null;
+        debugLines.remove();
     }
 
     private void ensureGameCopyScoreMatches(Game origGame, Player origAiPlayer) {
         eval.setDebugging(true);
         List<String> simLines = new ArrayList<>();
-        debugLines = simLines;
+        debugLines.set(simLines);
         Score simScore = eval.getScoreForGameState(simGame, aiPlayer);
         if (!simScore.equals(origScore)) {
             // Re-eval orig with debug printing.
             origLines = new ArrayList<>();
-            debugLines = origLines;
+            debugLines.set(origLines);
             eval.getScoreForGameState(origGame, origAiPlayer);
             // Print debug info.
             printDiff(origLines, simLines);
@@ -115,15 +117,13 @@ public class GameSimulator {
         }
     }
 
-    public static boolean debugPrint;
-    public static List<String> debugLines;
     public static void debugPrint(String str) {
-        if (debugPrint) {
+        final List<String> lines = debugLines.get();
+        if (lines != null) {
+            lines.add(str);
+        } else if (DEBUG_PRINT) {
             System.out.println(str);
         }
-        if (debugLines != null) {
-            debugLines.add(str);
-        }
     }
 
     private SpellAbility findSaInSimGame(final SpellAbility sa) {
@@ -188,7 +188,7 @@ public class GameSimulator {
                 saOrSubSa = saOrSubSa.getSubAbility();
             } while (saOrSubSa != null);
 
-            if (debugPrint && !sa.getAllTargetChoices().isEmpty()) {
+            if (DEBUG_PRINT && !sa.getAllTargetChoices().isEmpty()) {
                 debugPrint("Targets: ");
                 for (TargetChoices target : sa.getAllTargetChoices()) {
                     System.out.print(target);
@@ -217,16 +217,14 @@ public class GameSimulator {
         // we should simulate how combat will resolve and evaluate that
         // state instead!
         List<String> simLines = null;
-        if (debugPrint) {
+        if (DEBUG_PRINT) {
             debugPrint("SimGame:");
             simLines = new ArrayList<>();
-            debugLines = simLines;
-            debugPrint = false;
+            debugLines.set(simLines);
         }
         Score score = eval.getScoreForGameState(simGame, aiPlayer);
         if (simLines != null) {
-            debugLines = null;
-            debugPrint = true;
+            debugLines.remove();
             printDiff(origLines, simLines);
         }
         controller.possiblyCacheResult(score, origSa);
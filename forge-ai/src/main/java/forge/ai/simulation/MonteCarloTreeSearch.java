@@ -0,0 +1,336 @@
+package forge.ai.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import forge.ai.AiController;
+import forge.ai.AiDeadline;
+import forge.ai.AiProps;
+import forge.ai.PlayerControllerAi;
+import forge.ai.simulation.GameStateEvaluator.Score;
+import forge.game.Game;
+import forge.game.phase.PhaseHandler;
+import forge.game.player.Player;
+import forge.game.player.PlayerController;
+import forge.game.spellability.SpellAbility;
+import forge.util.MyRandom;
+
+/**
+ * Chooses the spell or ability to play with a Monte Carlo tree search over simulated games.
+ * <br><br>
+ * Each node of the tree is a simulated game after the AI played some spells and abilities during
+ * the current priority window, its children are the ones it may play next (one child for each
+ * choice of modes, targets and cards made by {@link SpellAbilityChoicesIterator}) or passing.
+ * Children are picked by UCT, and each new node is valued by a rollout: a copy of its game is
+ * played on by the regular AI for a few phases and the resulting game state is scored.
+ * <br><br>
+ * The search stops after a number of iterations or some time, both set by the AI profile. The
+ * subtree of the chosen decision is kept, so the next decision in the same priority window
+ * continues from it instead of starting over.
+ */
+public class MonteCarloTreeSearch {
+    // rewards are squashed from score differences on this scale, about a small creature
+    private static final double SCORE_SCALE = 100.0;
+    private static final int MAX_ROLLOUT_ACTIONS_PER_PHASE = 5;
+    private static final boolean DEBUG_PRINT = false;
+
+    private final AiController aic;
+    private final Game game;
+    private final Player player;
+    private final GameStateEvaluator evaluator = new GameStateEvaluator();
+
+    private Node reusableRoot;
+    private int reusableTurn;
+    private int numIterations;
+
+    public MonteCarloTreeSearch(AiController aic) {
+        this.aic = aic;
+        this.game = aic.getGame();
+        this.player = aic.getPlayer();
+    }
+
+    public SpellAbility chooseSpellAbilityToPlay() {
+        final SpellAbilityPicker picker = aic.getSimulationPicker();
+
+        // Pass if top of stack is owned by me.
+        if (!game.getStack().isEmpty() && game.getStack().peekAbility().getActivatingPlayer().equals(player)) {
+            return null;
+        }
+
+        final Score origScore = evaluator.getScoreForGameState(game, player);
+        final List<SpellAbility> candidateSAs = picker.getCandidateSpellsAndAbilities();
+        if (candidateSAs.isEmpty()) {
+            reusableRoot = null;
+            return null;
+        }
+
+        Node root = reuseRoot(origScore);
+        if (root == null) {
+            root = new Node(null, game, player, null, origScore);
+            root.candidates = candidateSAs;
+        }
+
+        final long startTime = System.currentTimeMillis();
+        final long deadline = startTime + Math.min(aic.getIntProperty(AiProps.MCTS_TIME_LIMIT_MS), AiDeadline.getRemainingMillis());
+        final int maxIterations = aic.getIntProperty(AiProps.MCTS_MAX_ITERATIONS);
+        final int rolloutPhases = aic.getIntProperty(AiProps.MCTS_ROLLOUT_PHASES);
+        final double exploration = aic.getIntProperty(AiProps.MCTS_EXPLORATION_PERCENT) / 100.0;
+
+        int iterations = 0;
+        while (iterations < maxIterations && System.currentTimeMillis() < deadline) {
+            final Node leaf = select(root, exploration);
+            if (leaf == null) {
+                break; // nothing left to try
+            }
+            backPropagate(leaf, rollout(leaf, origScore, rolloutPhases, deadline));
+            iterations++;
+        }
+        numIterations += iterations;
+
+        final Node best = root.getMostVisitedChild();
+        if (DEBUG_PRINT) {
+            System.out.println("MCTS: " + iterations + " iterations in " + (System.currentTimeMillis() - startTime)
+                    + " ms, best: " + (best == null ? "N/A" : best + " (" + best.visits + " visits, "
+                    + String.format("%.3f", best.reward / best.visits) + ")"));
+        }
+
+        if (best == null || best.decision == null) {
+            reusableRoot = null;
+            return null;
+        }
+        best.parent = null;
+        reusableRoot = best;
+        reusableTurn = game.getPhaseHandler().getTurn();
+
+        final ArrayList<Plan.Decision> decisions = new ArrayList<>();
+        decisions.add(best.decision);
+        return picker.chooseSpellAbilityFromPlan(new Plan(decisions, best.score), origScore, candidateSAs);
+    }
+
+    private Node reuseRoot(Score origScore) {
+        final Node root = reusableRoot;
+        reusableRoot = null;
+        if (root == null || root.state.isGameOver() || reusableTurn != game.getPhaseHandler().getTurn()
+                || root.state.getPhaseHandler().getPhase() != game.getPhaseHandler().getPhase()) {
+            return null;
+        }
+        // the decision may have played out differently than simulated, e.g. due to hidden information
+        if (!root.score.equals(origScore)) {
+            return null;
+        }
+        return root;
+    }
+
+    private Node select(Node node, double exploration) {
+        while (true) {
+            if (node.decision == null && node.parent != null || node.state.isGameOver()) {
+                return node; // passing ends the priority window
+            }
+            final Node expanded = expand(node);
+            if (expanded != null) {
+                return expanded;
+            }
+            if (node.children.isEmpty()) {
+                return node.parent == null ? null : node;
+            }
+            node = node.getBestChild(exploration);
+        }
+    }
+
+    private Node expand(Node node) {
+        if (node.expansions == null) {
+            if (node.candidates == null) {
+                node.candidates = new SpellAbilityPicker(node.state, node.player).getCandidateSpellsAndAbilities();
+            }
+            node.expansions = new ArrayList<>();
+            for (int i = 0; i < node.candidates.size(); i++) {
+                node.expansions.add(new Expansion(node, i));
+            }
+            // passing is always an option
+            final Node pass = new Node(node, node.state, node.player, null, node.score);
+            node.children.add(pass);
+            return pass;
+        }
+        while (!node.expansions.isEmpty()) {
+            final Expansion expansion = node.expansions.get(0);
+            final Node child = expansion.expandNext();
+            if (expansion.exhausted) {
+                node.expansions.remove(0);
+            }
+            if (child != null) {
+                node.children.add(child);
+                return child;
+            }
+        }
+        return null;
+    }
+
+    private double rollout(Node leaf, Score origScore, int rolloutPhases, long deadline) {
+        if (leaf.state.isGameOver()) {
+            return getReward(leaf.state, leaf.player, origScore);
+        }
+        final GameCopier copier = new GameCopier(leaf.state);
+        final Game simGame = copier.makeCopy(null, leaf.player);
+        final Player aiPlayer = (Player) copier.find(leaf.player);
+        // everyone plays by the regular AI logic, a rollout must be fast
+        for (Player p : simGame.getPlayers()) {
+            final PlayerController pc = p.getController();
+            if (pc instanceof PlayerControllerAi) {
+                ((PlayerControllerAi) pc).setUseSimulation(false);
+                ((PlayerControllerAi) pc).setUseMcts(false);
+            }
+        }
+
+        final PhaseHandler ph = simGame.getPhaseHandler();
+        final Runnable resolver = new Runnable() {
+            @Override
+            public void run() {
+                GameSimulator.resolveStack(simGame, ph.getPlayerTurn().getWeakestOpponent());
+            }
+        };
+        // a phase of a big board can take the regular AI a while, so the playout is cut short
+        // at the deadline and the game evaluated as it is then
+        for (int i = 0; i < rolloutPhases && !simGame.isGameOver() && System.currentTimeMillis() < deadline; i++) {
+            if (!ph.devAdvanceOnePhase(resolver)) {
+                break;
+            }
+            if (ph.getPhase().isMain()) {
+                playMainPhase(simGame, ph.getPlayerTurn(), deadline);
+            }
+        }
+        return getReward(simGame, aiPlayer, origScore);
+    }
+
+    private static void playMainPhase(Game simGame, Player active, long deadline) {
+        simGame.getPhaseHandler().setPriority(active);
+        for (int i = 0; i < MAX_ROLLOUT_ACTIONS_PER_PHASE && !simGame.isGameOver() && System.currentTimeMillis() < deadline; i++) {
+            final List<SpellAbility> chosen = active.getController().chooseSpellAbilityToPlay();
+            if (chosen == null || chosen.isEmpty()) {
+                break;
+            }
+            for (SpellAbility sa : chosen) {
+                active.getController().playChosenSpellAbility(sa);
+            }
+            GameSimulator.resolveStack(simGame, active.getWeakestOpponent());
+        }
+    }
+
+    private double getReward(Game simGame, Player aiPlayer, Score origScore) {
+        final Score score = evaluator.getScoreForGameState(simGame, aiPlayer);
+        if (score.value == Integer.MAX_VALUE) {
+            return 1.0;
+        }
+        if (score.value == Integer.MIN_VALUE) {
+            return 0.0;
+        }
+        return 1.0 / (1.0 + Math.exp((origScore.value - score.value) / SCORE_SCALE));
+    }
+
+    private static void backPropagate(Node node, double reward) {
+        for (; node != null; node = node.parent) {
+            node.visits++;
+            node.reward += reward;
+        }
+    }
+
+    public int getNumIterations() {
+        return numIterations;
+    }
+
+    /**
+     * The choices of one spell or ability at a node, simulated one at a time as the node gets expanded.
+     */
+    private final class Expansion {
+        private final Node node;
+        private final int saIndex;
+        private final SimulationController controller;
+        private final SpellAbilityChoicesIterator choices;
+        // the same seed for each choice, see SpellAbilityPicker.evaluateSa()
+        private final long randomSeed = MyRandom.getRandom().nextLong();
+        private boolean exhausted;
+
+        private Expansion(Node node, int saIndex) {
+            this.node = node;
+            this.saIndex = saIndex;
+            // no recursion, deeper decisions are separate nodes of the tree
+            this.controller = new SimulationController(node.score, 0);
+            this.controller.evaluateSpellAbility(node.candidates, saIndex);
+            this.choices = new SpellAbilityChoicesIterator(controller);
+        }
+
+        private Node expandNext() {
+            final Random origRandom = MyRandom.getRandom();
+            try {
+                MyRandom.setRandom(new Random(randomSeed));
+                final GameSimulator simulator = new GameSimulator(controller, node.state, node.player, null);
+                simulator.setInterceptor(choices);
+                final Score score = simulator.simulateSpellAbility(node.candidates.get(saIndex));
+                final Plan.Decision decision = controller.getLastMergedDecision();
+                exhausted = !choices.advance(score);
+
+                final Game simGame = simulator.getSimulatedGameState();
+                if (score.value == Integer.MIN_VALUE && !simGame.isGameOver()) {
+                    return null; // couldn't be played
+                }
+                return new Node(node, simGame, (Player) simulator.getGameCopier().find(node.player), decision, score);
+            } finally {
+                MyRandom.setRandom(origRandom);
+            }
+        }
+    }
+
+    private static final class Node {
+        private Node parent;
+        private final Game state;
+        private final Player player;
+        // null for the root and for passing
+        private final Plan.Decision decision;
+        private final Score score;
+
+        private final List<Node> children = new ArrayList<>();
+        private List<SpellAbility> candidates;
+        private List<Expansion> expansions;
+        private int visits;
+        private double reward;
+
+        private Node(Node parent, Game state, Player player, Plan.Decision decision, Score score) {
+            this.parent = parent;
+            this.state = state;
+            this.player = player;
+            this.decision = decision;
+            this.score = score;
+        }
+
+        private Node getBestChild(double exploration) {
+            final double logVisits = Math.log(Math.max(1, visits));
+            Node best = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (Node child : children) {
+                final double value = child.visits == 0 ? Double.POSITIVE_INFINITY
+                        : child.reward / child.visits + exploration * Math.sqrt(logVisits / child.visits);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        private Node getMostVisitedChild() {
+            Node best = null;
+            for (Node child : children) {
+                if (best == null || child.visits > best.visits
+                        || child.visits == best.visits && child.reward > best.reward) {
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        @Override
+        public String toString() {
+            return decision == null ? "pass" : decision.toString(true);
+        }
+    }
+}
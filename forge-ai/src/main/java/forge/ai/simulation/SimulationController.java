@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import forge.ai.AiDeadline;
 import forge.ai.simulation.GameStateEvaluator.Score;
 import forge.game.GameObject;
 import forge.game.card.Card;
@@ -13,6 +14,8 @@ import forge.game.spellability.SpellAbility;
 public class SimulationController {
     private static int MAX_DEPTH = 3;
 
+    private final int maxDepth;
+
     private List<Plan.Decision> currentStack;
     private List<Score> scoreStack;
     private List<GameSimulator> simulatorStack;
@@ -38,6 +41,11 @@ public class SimulationController {
     }
 
     public SimulationController(Score score) {
+        this(score, MAX_DEPTH);
+    }
+
+    public SimulationController(Score score, int maxDepth) {
+        this.maxDepth = maxDepth;
         bestScore = score;
         scoreStack = new ArrayList<>();
         scoreStack.add(score);
@@ -50,7 +58,7 @@ public class SimulationController {
     }
 
     public boolean shouldRecurse() {
-        return bestScore.value != Integer.MAX_VALUE && getRecursionDepth() < MAX_DEPTH;
+        return bestScore.value != Integer.MAX_VALUE && getRecursionDepth() < maxDepth && !AiDeadline.isExpired();
     }
 
     public Plan.Decision getLastDecision() {
@@ -130,7 +138,7 @@ public class SimulationController {
         return new Plan(sequence, getBestScore());
     }
 
-    private Plan.Decision getLastMergedDecision() {
+    Plan.Decision getLastMergedDecision() {
         MultiTargetSelector.Targets targets = null;
         List<String> choices = new ArrayList<>();
         int[] modes = null;
@@ -161,18 +161,7 @@ public class SpellAbilityChoicesIterator {
     }
 
     public boolean advance(Score lastScore) {
-        cpIndex = -1;
-        for (ChoicePoint cp : choicePoints) {
-            if (lastScore.value > cp.bestScoreForChoice.value) {
-                cp.bestScoreForChoice = lastScore;
-            }
-        }
-        if (lastScore.value > bestScoreForTarget.value) {
-            bestScoreForTarget = lastScore;
-        }
-        if (lastScore.value > bestScoreForMode.value) {
-            bestScoreForMode = lastScore;
-        }
+        recordScore(lastScore);
 
         if (!choicePoints.isEmpty()) {
             for (int i = choicePoints.size() - 1; i >= 0; i--) {
@@ -223,6 +212,45 @@ public class SpellAbilityChoicesIterator {
         return false;
     }
 
+    /**
+     * Stop trying choices after the last one, e.g. when out of time, finishing the evaluation
+     * of the choices tried so far as {@link #advance(Score)} does when there are no more.
+     */
+    public void stop(Score lastScore) {
+        recordScore(lastScore);
+        for (int i = choicePoints.size() - 1; i >= 0; i--) {
+            doneEvaluating(choicePoints.get(i).bestScoreForChoice);
+        }
+        choicePoints.clear();
+        if (cachedTargetScores != null) {
+            doneEvaluating(bestScoreForTarget);
+            nextTarget = -1;
+            cachedTargetScores = null;
+        }
+        if (modeIterator != null) {
+            doneEvaluating(bestScoreForMode);
+            modeIterator = null;
+        }
+        if (evalDepth != 0) {
+            throw new RuntimeException("" + evalDepth);
+        }
+    }
+
+    private void recordScore(Score lastScore) {
+        cpIndex = -1;
+        for (ChoicePoint cp : choicePoints) {
+            if (lastScore.value > cp.bestScoreForChoice.value) {
+                cp.bestScoreForChoice = lastScore;
+            }
+        }
+        if (lastScore.value > bestScoreForTarget.value) {
+            bestScoreForTarget = lastScore;
+        }
+        if (lastScore.value > bestScoreForMode.value) {
+            bestScoreForMode = lastScore;
+        }
+    }
+
     private void doneEvaluating(Score bestScore) {
         controller.doneEvaluating(bestScore);
         evalDepth--;
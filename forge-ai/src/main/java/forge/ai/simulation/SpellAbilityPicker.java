@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Random;
 import java.util.Set;
 
+import forge.ai.AiDeadline;
 import forge.ai.AiPlayDecision;
 import forge.ai.ComputerUtil;
 import forge.ai.ComputerUtilAbility;
@@ -122,6 +123,15 @@ public class SpellAbilityPicker {
         return getPlannedSpellAbility(origGameScore, candidateSAs);
     }
 
+    /**
+     * Follow a plan found elsewhere, e.g. by {@link MonteCarloTreeSearch}, instead of searching for one.
+     */
+    public SpellAbility chooseSpellAbilityFromPlan(Plan newPlan, Score origGameScore, List<SpellAbility> candidateSAs) {
+        printOutput = false;
+        plan = newPlan;
+        return getPlannedSpellAbility(origGameScore, candidateSAs);
+    }
+
     private Plan formulatePlanWithPhase(Score origGameScore, List<SpellAbility> candidateSAs, PhaseType phase) {
         SimulationController controller = new SimulationController(origGameScore);
         SpellAbility sa = chooseSpellAbilityToPlayImpl(controller, candidateSAs, origGameScore, phase);
@@ -196,6 +206,10 @@ public class SpellAbilityPicker {
         Score bestSaValue = origGameScore;
         print("Evaluating as " + player + "... (orig score = " + origGameScore + ")");
         for (int i = 0; i < candidateSAs.size(); i++) {
+            if (AiDeadline.isExpired()) {
+                print("Out of time, " + (candidateSAs.size() - i) + " candidates not evaluated");
+                break;
+            }
             Score value = evaluateSa(controller, phase, candidateSAs, i);
             if (value.value > bestSaValue.value) {
                 bestSaValue = value;
@@ -361,6 +375,7 @@ public class SpellAbilityPicker {
     public Score evaluateSa(final SimulationController controller, PhaseType phase, List<SpellAbility> saList, int saIndex) {
         controller.evaluateSpellAbility(saList, saIndex);
         SpellAbility sa = saList.get(saIndex);
+        AiDeadline.evaluating(sa);
 
         // Use a deterministic random seed when evaluating different choices of a spell ability.
         // This is needed as otherwise random effects may result in a different number of choices
@@ -372,8 +387,7 @@ public class SpellAbilityPicker {
         final SpellAbilityChoicesIterator choicesIterator = new SpellAbilityChoicesIterator(controller);
         Score lastScore;
         do {
-            // TODO: MyRandom should be an instance on the game object, so that we could do
-            // simulations in parallel without messing up global state.
+            // only changes the random numbers of this thread, the copied game is seeded from them
             MyRandom.setRandom(new Random(randomSeedToUse));
             GameSimulator simulator = new GameSimulator(controller, game, player, phase);
             simulator.setInterceptor(choicesIterator);
@@ -382,6 +396,10 @@ public class SpellAbilityPicker {
             if (lastScore.value > bestScore.value) {
                 bestScore = lastScore;
             }
+            if (AiDeadline.isExpired()) {
+                choicesIterator.stop(lastScore);
+                break;
+            }
         } while (choicesIterator.advance(lastScore));
         controller.doneEvaluating(bestScore);
         MyRandom.setRandom(origRandom);
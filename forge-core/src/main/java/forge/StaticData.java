@@ -59,7 +59,7 @@ public class StaticData {
     private final Map<String, List<String>> setLookup = new HashMap<>();
     private List<String> blocksLandCodes = new ArrayList<>();
 
-    private static StaticData lastInstance = null;
+    private static volatile StaticData lastInstance = null;
 
     public StaticData(CardStorageReader cardReader, CardStorageReader customCardReader, String editionFolder, String customEditionsFolder, String blockDataFolder, String cardArtPreference, boolean enableUnknownCards, boolean loadNonLegalCards) {
         this(cardReader, null, customCardReader, null, editionFolder, customEditionsFolder, blockDataFolder, "", cardArtPreference, enableUnknownCards, loadNonLegalCards, false, false);
@@ -215,8 +215,13 @@ public class StaticData {
     public PaperCard getOrLoadCommonCard(String cardName, String setCode, int artIndex, boolean foil) {
         PaperCard card = commonCards.getCard(cardName, setCode, artIndex);
         if (card == null) {
-            attemptToLoadCard(cardName, setCode);
-            card = commonCards.getCard(cardName, setCode, artIndex);
+            synchronized (this) {
+                card = commonCards.getCard(cardName, setCode, artIndex);
+                if (card == null) {
+                    attemptToLoadCard(cardName, setCode);
+                    card = commonCards.getCard(cardName, setCode, artIndex);
+                }
+            }
         }
         if (card == null)
             card = commonCards.getCard(cardName, setCode);
@@ -228,7 +233,11 @@ public class StaticData {
     public void attemptToLoadCard(String cardName) {
         this.attemptToLoadCard(cardName, null);
     }
-    public void attemptToLoadCard(String cardName, String setCode) {
+    /**
+     * Load a card not loaded yet when loading card scripts lazily. The databases aren't safe to
+     * read while a card is loaded, so games played at the same time should load them eagerly.
+     */
+    public synchronized void attemptToLoadCard(String cardName, String setCode) {
         CardRules rules = cardReader.attemptToLoadCard(cardName);
         if (rules != null) {
             if (rules.isVariant()) {
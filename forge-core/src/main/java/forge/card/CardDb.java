@@ -34,6 +34,8 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.Map.Entry;
 
 public final class CardDb implements ICardDatabase, IDeckGenPool {
@@ -45,6 +47,13 @@ public final class CardDb implements ICardDatabase, IDeckGenPool {
     // need this to obtain cardReference by name+set+artindex
     private final ListMultimap<String, PaperCard> allCardsByName = Multimaps.newListMultimap(new TreeMap<>(String.CASE_INSENSITIVE_ORDER), CollectionSuppliers.arrayLists());
     private final Map<String, PaperCard> uniqueCardsByName = Maps.newTreeMap(String.CASE_INSENSITIVE_ORDER);
+    // the printings of each name (in lower case) by edition code, in the order they were added
+    private final Map<String, Map<String, List<PaperCard>>> printingsByNameAndEdition = Maps.newHashMap();
+    // the printings picked for a request so far, preferring those with an image
+    private final Map<String, PaperCard> preferredPrintings = new ConcurrentHashMap<>();
+    private volatile int preferredPrintingsImageChanges = PaperCard.getImageChanges();
+    // how often printings were added, for those keeping what they found out about the cards
+    private final AtomicInteger modifications = new AtomicInteger();
     private final Map<String, CardRules> rulesByName;
     private final Map<String, ICardFace> facesByName = Maps.newTreeMap(String.CASE_INSENSITIVE_ORDER);
     private static Map<String, String> artPrefs = Maps.newHashMap();
@@ -392,7 +401,9 @@ public final class CardDb implements ICardDatabase, IDeckGenPool {
         if (excludeCard(paperCard.getName(), paperCard.getEdition()))
             return;
 
-        allCardsByName.put(paperCard.getName(), paperCard);
+        preferredPrintings.clear();
+        modifications.incrementAndGet();
+        putPrinting(paperCard.getName(), paperCard);
 
         if (paperCard.getRules().getSplitType() == CardSplitType.None) {
             return;
@@ -400,14 +411,77 @@ public final class CardDb implements ICardDatabase, IDeckGenPool {
 
         if (paperCard.getRules().getOtherPart() != null) {
             //allow looking up card by the name of other faces
-            allCardsByName.put(paperCard.getRules().getOtherPart().getName(), paperCard);
+            putPrinting(paperCard.getRules().getOtherPart().getName(), paperCard);
         }
         if (paperCard.getRules().getSplitType() == CardSplitType.Split) {
             //also include main part for split cards
-            allCardsByName.put(paperCard.getRules().getMainPart().getName(), paperCard);
+            putPrinting(paperCard.getRules().getMainPart().getName(), paperCard);
         }
     }
 
+    /**
+     * How often printings were added so far, changes whenever a lookup by name could find more printings.
+     */
+    public int getModificationCount() {
+        return modifications.get();
+    }
+
+    private void putPrinting(String name, PaperCard paperCard) {
+        allCardsByName.put(name, paperCard);
+
+        final String nameKey = name.toLowerCase(Locale.ROOT);
+        Map<String, List<PaperCard>> byEdition = printingsByNameAndEdition.get(nameKey);
+        if (byEdition == null) {
+            byEdition = Maps.newHashMap();
+            printingsByNameAndEdition.put(nameKey, byEdition);
+        }
+        final String editionKey = paperCard.getEdition().toUpperCase(Locale.ROOT);
+        List<PaperCard> printings = byEdition.get(editionKey);
+        if (printings == null) {
+            printings = new ArrayList<>(1);
+            byEdition.put(editionKey, printings);
+        }
+        printings.add(paperCard);
+    }
+
+    /**
+     * The printings of a card in an edition, by either of its codes, in the order they were added.
+     */
+    private List<PaperCard> getPrintingsInSet(final String cardName, final CardEdition edition) {
+        final Map<String, List<PaperCard>> byEdition = printingsByNameAndEdition.get(cardName.toLowerCase(Locale.ROOT));
+        if (byEdition == null)
+            return Collections.emptyList();
+        final String code = edition.getCode();
+        final String code2 = edition.getCode2();
+        final List<PaperCard> byCode = byEdition.get(code.toUpperCase(Locale.ROOT));
+        final List<PaperCard> byCode2 = code2 == null || code2.equalsIgnoreCase(code) ? null : byEdition.get(code2.toUpperCase(Locale.ROOT));
+        if (byCode2 == null)
+            return byCode == null ? Collections.<PaperCard>emptyList() : byCode;
+        if (byCode == null)
+            return byCode2;
+        // printed under both codes, keep the order of all printings
+        return getAllCards(cardName, new Predicate<PaperCard>() {
+            @Override
+            public boolean apply(PaperCard c) {
+                return c.getEdition().equalsIgnoreCase(code) || c.getEdition().equalsIgnoreCase(code2);
+            }
+        });
+    }
+
+    /**
+     * The printing picked for the request before, if no card was added and no image was found or
+     * lost since.
+     */
+    private PaperCard getPreferredPrinting(final String request) {
+        final int imageChanges = PaperCard.getImageChanges();
+        if (preferredPrintingsImageChanges != imageChanges) {
+            preferredPrintings.clear();
+            preferredPrintingsImageChanges = imageChanges;
+            return null;
+        }
+        return preferredPrintings.get(request);
+    }
+
     private boolean excludeCard(String cardName, String cardEdition) {
         if (filtered.isEmpty())
             return false;
@@ -586,34 +660,35 @@ public final class CardDb implements ICardDatabase, IDeckGenPool {
         cardName = cardNameRequest.cardName;
         isFoil = isFoil || cardNameRequest.isFoil;
 
-        List<PaperCard> candidates = getAllCards(cardName, new Predicate<PaperCard>() {
-            @Override
-            public boolean apply(PaperCard c) {
-                boolean artIndexFilter = true;
-                boolean collectorNumberFilter = true;
-                boolean setFilter = c.getEdition().equalsIgnoreCase(edition.getCode()) ||
-                        c.getEdition().equalsIgnoreCase(edition.getCode2());
-                if (artIndex > 0)
-                    artIndexFilter = (c.getArtIndex() == artIndex);
-                if ((collectorNumber != null) && (collectorNumber.length() > 0)
-                        && !(collectorNumber.equals(IPaperCard.NO_COLLECTOR_NUMBER)))
-                    collectorNumberFilter = (c.getCollectorNumber().equals(collectorNumber));
-                return setFilter && artIndexFilter && collectorNumberFilter;
+        final boolean anyCollectorNumber = collectorNumber == null || collectorNumber.length() == 0
+                || collectorNumber.equals(IPaperCard.NO_COLLECTOR_NUMBER);
+        final String request = cardName.toLowerCase(Locale.ROOT) + NameSetSeparator + edition.getCode() + NameSetSeparator
+                + Math.max(artIndex, 0) + NameSetSeparator + (anyCollectorNumber ? "" : collectorNumber);
+        PaperCard candidate = getPreferredPrinting(request);
+        if (candidate == null) {
+            List<PaperCard> candidates = new ArrayList<>();
+            for (PaperCard c : getPrintingsInSet(cardName, edition)) {
+                if (artIndex > 0 && c.getArtIndex() != artIndex)
+                    continue;
+                if (!anyCollectorNumber && !c.getCollectorNumber().equals(collectorNumber))
+                    continue;
+                candidates.add(c);
             }
-        });
-        if (candidates.isEmpty())
-            return null;
+            if (candidates.isEmpty())
+                return null;
 
-        Iterator<PaperCard> candidatesIterator = candidates.iterator();
-        PaperCard candidate = candidatesIterator.next();
-        // Before returning make sure that actual candidate has Image.
-        // If not, try to replace current candidate with one having image,
-        // so to align this implementation with old one.
-        // If none will have image, the original candidate will be retained!
-        PaperCard firstCandidate = candidate;
-        while (!candidate.hasImage() && candidatesIterator.hasNext())
+            Iterator<PaperCard> candidatesIterator = candidates.iterator();
             candidate = candidatesIterator.next();
-        candidate = candidate.hasImage() ? candidate : firstCandidate;
+            // Before returning make sure that actual candidate has Image.
+            // If not, try to replace current candidate with one having image,
+            // so to align this implementation with old one.
+            // If none will have image, the original candidate will be retained!
+            PaperCard firstCandidate = candidate;
+            while (!candidate.hasImage() && candidatesIterator.hasNext())
+                candidate = candidatesIterator.next();
+            candidate = candidate.hasImage() ? candidate : firstCandidate;
+            preferredPrintings.put(request, candidate);
+        }
         return isFoil ? candidate.getFoiled() : candidate;
     }
 
@@ -740,6 +815,15 @@ public final class CardDb implements ICardDatabase, IDeckGenPool {
         if (cr.artIndex != artIndex && artIndex > IPaperCard.DEFAULT_ART_INDEX )
             cr.artIndex = artIndex;  // 2nd cond. is to verify that some actual value has been passed in.
 
+        // only requests without a filter or date are kept, those are the ones repeated most
+        final String request = releaseDate == null && filter == null
+                ? cr.cardName.toLowerCase(Locale.ROOT) + NameSetSeparator + artPref + NameSetSeparator + cr.artIndex : null;
+        if (request != null) {
+            final PaperCard preferred = getPreferredPrinting(request);
+            if (preferred != null)
+                return cr.isFoil ? preferred.getFoiled() : preferred;
+        }
+
         List<PaperCard> cards;
         Predicate<PaperCard> cardQueryFilter;
         filter = (filter != null) ? filter : Predicates.alwaysTrue();
@@ -767,8 +851,11 @@ public final class CardDb implements ICardDatabase, IDeckGenPool {
         cardQueryFilter = Predicates.and(cardQueryFilter, filter);
         cards = getAllCards(cr.cardName, cardQueryFilter);
         // Note: No need to check whether "cards" is empty; the next for loop will validate condition at L699
-        if (cards.size() == 1)  // if only one candidate, there much else we should do
+        if (cards.size() == 1) {  // if only one candidate, there much else we should do
+            if (request != null)
+                preferredPrintings.put(request, cards.get(0));
             return cr.isFoil ? cards.get(0).getFoiled() : cards.get(0);
+        }
 
         /* 2. Retrieve cards based of [Frame]Set Preference
            ================================================ */
@@ -823,6 +910,8 @@ public final class CardDb implements ICardDatabase, IDeckGenPool {
             candidate = candidatesCard.get(ed.getCode());
         }
         candidate = candidate.hasImage() ? candidate : firstCandidate;
+        if (request != null)
+            preferredPrintings.put(request, candidate);
         //If any, we're sure that at least one candidate is always returned despite it having any image
         return cr.isFoil ? candidate.getFoiled() : candidate;
     }
@@ -22,6 +22,7 @@ import forge.StaticData;
 import forge.card.CardDb;
 import forge.card.CardEdition;
 import forge.card.CardType;
+import forge.card.ICardFace;
 import forge.card.MagicColor;
 import forge.item.IPaperCard;
 import forge.item.PaperCard;
@@ -195,6 +196,16 @@ public class DeckRecognizer {
             this(type1, 0, message);
         }
 
+        private Token(final Token token) {
+            this.number = token.number;
+            this.type = token.type;
+            this.text = token.text;
+            this.card = token.card;
+            this.tokenSection = token.tokenSection;
+            this.limitedCardType = token.limitedCardType;
+            this.cardRequestHasSetCode = token.cardRequestHasSetCode;
+        }
+
         public final String getText() {
             if (this.isCardToken())
                 return String.format("%s [%s] #%s",
@@ -379,6 +390,9 @@ public class DeckRecognizer {
     }
 
     // Utility Constants
+    private static final Pattern URL_PATTERN = Pattern.compile(
+            "(?<protocol>((https|ftp|file|http):))(?<sep>((//|\\\\)+))(?<url>([\\w\\d:#@%/;$~_?+-=\\\\.&]*))",
+            Pattern.CASE_INSENSITIVE);
     private static final Pattern SEARCH_SINGLE_SLASH = Pattern.compile("(?<=[^/])\\s*/\\s*(?=[^/])");
     private static final String DOUBLE_SLASH = "//";
     private static final String LINE_COMMENT_DELIMITER_OR_MD_HEADER = "#";
@@ -497,13 +511,43 @@ public class DeckRecognizer {
     private boolean includeBannedAndRestricted = false;
     private DeckFormat deckFormat = null;
     private CardDb.CardArtPreference artPreference = StaticData.instance().getCardArtPreference();  // init as default
+    private int releaseYear = -1;
+    private int releaseMonth = -1;
+
+    // Tokens of the lines recognised in the last parse, by line and by the deck section the line was in.
+    // Parsing the list again after it has been edited only needs to recognise the lines that changed.
+    private Map<Pair<String, DeckSection>, Token> recognisedLines = new HashMap<>();
+    private int cardModifications = -1;
+
+    // Card names by their letters and digits only, for the names written without accents or with a
+    // different punctuation. Made once for all recognizers, and again when cards are added.
+    private static volatile Map<String, String> cardNamesIndex = null;
+    private static volatile int cardNamesModifications = -1;
 
     public List<Token> parseCardList(String[] cardList) {
+        return parseCardList(Arrays.asList(cardList));
+    }
+
+    /**
+     * Parse the lines one at a time, so that a long card list can be read as it comes (e.g. from a
+     * file) with no need to split it first. Lines already recognised in the previous parse of this
+     * recognizer, with the same settings, are not recognised again.
+     */
+    public List<Token> parseCardList(Iterable<String> cardList) {
         List<Token> tokens = new ArrayList<>();
         DeckSection referenceDeckSectionInParsing = null;  // default
-        
+
+        int modifications = getCardModificationCount();
+        Map<Pair<String, DeckSection>, Token> lastRecognisedLines = this.recognisedLines;
+        if (modifications != this.cardModifications) {
+            lastRecognisedLines = new HashMap<>();
+            this.cardModifications = modifications;
+        }
+        // only keep the lines of this list, so that edited lines don't pile up
+        Map<Pair<String, DeckSection>, Token> recognisedNow = new HashMap<>();
+
         for (String line : cardList) {
-            Token token = this.recognizeLine(line, referenceDeckSectionInParsing);
+            Token token = this.recognizeLine(line, referenceDeckSectionInParsing, lastRecognisedLines, recognisedNow);
             if (token == null)
                 continue;
 
@@ -551,9 +595,36 @@ public class DeckRecognizer {
                     token.getQuantity());
             tokens.add(unsupportedCard);
         }
+        this.recognisedLines = recognisedNow;
         return tokens;
     }
 
+    private Token recognizeLine(final String rawLine, final DeckSection referenceSection,
+                                final Map<Pair<String, DeckSection>, Token> lastRecognisedLines,
+                                final Map<Pair<String, DeckSection>, Token> recognisedNow) {
+        if (rawLine == null)
+            return null;
+        Pair<String, DeckSection> key = Pair.of(rawLine, referenceSection);
+        Token token = recognisedNow.get(key);
+        if (token == null && !recognisedNow.containsKey(key)) {
+            token = lastRecognisedLines.get(key);
+            if (token == null && !lastRecognisedLines.containsKey(key))
+                token = this.recognizeLine(rawLine, referenceSection);
+            recognisedNow.put(key, token);
+        }
+        // tokens may be changed once parsed (e.g. their card art), so each parse gets its own
+        return token == null ? null : new Token(token);
+    }
+
+    private static int getCardModificationCount() {
+        StaticData data = StaticData.instance();
+        return data.getCommonCards().getModificationCount() + data.getVariantCards().getModificationCount();
+    }
+
+    private void clearRecognisedLines() {
+        this.recognisedLines = new HashMap<>();
+    }
+
     private boolean isAllowed(DeckSection tokenSection) {
         return this.allowedDeckSections == null || this.allowedDeckSections.contains(tokenSection);
     }
@@ -599,9 +670,7 @@ public class DeckRecognizer {
     }
 
     public static String purgeAllLinks(String line){
-        String urlPattern = "(?<protocol>((https|ftp|file|http):))(?<sep>((//|\\\\)+))(?<url>([\\w\\d:#@%/;$~_?+-=\\\\.&]*))";
-        Pattern p = Pattern.compile(urlPattern, Pattern.CASE_INSENSITIVE);
-        Matcher m = p.matcher(line);
+        Matcher m = URL_PATTERN.matcher(line);
 
         while (m.find()) {
             line = line.replaceAll(m.group(), "").trim();
@@ -623,8 +692,11 @@ public class DeckRecognizer {
             cardName = cardName.trim();
             //Avoid hit the DB - check whether cardName is contained in the DB
             if (!data.isMTGCard(cardName)){
-                // check the case for double-sided cards
-                cardName = checkDoubleSidedCard(cardName);
+                // check the case for double-sided cards, then for names written a bit differently
+                String requestedName = cardName;
+                cardName = checkDoubleSidedCard(requestedName);
+                if (cardName == null)
+                    cardName = lookUpCardName(requestedName);
             }
             String ccount = getRexGroup(matcher, REGRP_CARDNO);
             String setCode = getRexGroup(matcher, REGRP_SET);
@@ -708,6 +780,51 @@ public class DeckRecognizer {
         return null;
     }
 
+    /**
+     * The card name written the same but for accents, case, spaces and punctuation,
+     * e.g. "Jace Vryns Prodigy" for "Jace, Vryn's Prodigy", or null if there's none.
+     */
+    private static String lookUpCardName(final String cardName) {
+        String key = getCardNameKey(cardName);
+        if (key.isEmpty())
+            return null;
+        String name = getCardNamesIndex().get(key);
+        return name == null || name.isEmpty() ? null : name;
+    }
+
+    private static String getCardNameKey(final String cardName) {
+        String name = StringUtils.stripAccents(cardName).toLowerCase();
+        StringBuilder key = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c))
+                key.append(c);
+        }
+        return key.toString();
+    }
+
+    private static Map<String, String> getCardNamesIndex() {
+        int modifications = getCardModificationCount();
+        Map<String, String> index = cardNamesIndex;
+        if (index == null || modifications != cardNamesModifications) {
+            index = new HashMap<>();
+            StaticData data = StaticData.instance();
+            for (CardDb cardDb : new CardDb[] { data.getCommonCards(), data.getVariantCards() }) {
+                for (ICardFace face : cardDb.getAllFaces()) {
+                    String name = face.getName();
+                    if (!data.isMTGCard(name))
+                        continue;
+                    String previous = index.put(getCardNameKey(name), name);
+                    if (previous != null && !previous.equals(name))
+                        index.put(getCardNameKey(name), "");  // two names are written alike: keep none
+                }
+            }
+            cardNamesIndex = index;
+            cardNamesModifications = modifications;
+        }
+        return index;
+    }
+
     private Token checkAndSetCardToken(final PaperCard pc, final CardEdition edition, final int cardCount,
                                        final String deckSecFromCardLine, final DeckSection referenceSection,
                                        final boolean cardRequestHasSetCode) {
@@ -1118,14 +1235,32 @@ public class DeckRecognizer {
         return "";
     }
 
+    // Setters only forget the lines recognised so far when the constraint actually changes,
+    // so that the same recognizer can be set up again before each parse.
     public void setDateConstraint(int year, int month) {
+        if (this.releaseDateConstraint != null && year == this.releaseYear && month == this.releaseMonth)
+            return;
         Calendar ca = Calendar.getInstance();
         ca.set(year, month, 1);
         releaseDateConstraint = ca.getTime();
+        this.releaseYear = year;
+        this.releaseMonth = month;
+        clearRecognisedLines();
+    }
+
+    public void clearDateConstraint() {
+        if (this.releaseDateConstraint == null)
+            return;
+        this.releaseDateConstraint = null;
+        clearRecognisedLines();
     }
 
     public void setGameFormatConstraint(List<String> allowedSetCodes,
                                         List<String> bannedCards, List<String> restrictedCards){
+        List<String> allowedSetCodes0 = this.allowedSetCodes;
+        List<String> bannedCards0 = this.gameFormatBannedCards;
+        List<String> restrictedCards0 = this.gameFormatRestrictedCards;
+
         if (allowedSetCodes != null && !allowedSetCodes.isEmpty())
             this.allowedSetCodes = allowedSetCodes;
         else
@@ -1141,15 +1276,37 @@ public class DeckRecognizer {
         else
             this.gameFormatRestrictedCards = null;
 
+        if (!Objects.equals(allowedSetCodes0, this.allowedSetCodes) ||
+                !Objects.equals(bannedCards0, this.gameFormatBannedCards) ||
+                !Objects.equals(restrictedCards0, this.gameFormatRestrictedCards))
+            clearRecognisedLines();
     }
 
     public void setDeckFormatConstraint(DeckFormat deckFormat0){
+        if (this.deckFormat == deckFormat0)
+            return;
         this.deckFormat = deckFormat0;
+        clearRecognisedLines();
     }
 
-    public void setArtPreference(CardDb.CardArtPreference artPref){ this.artPreference = artPref; }
+    public void setArtPreference(CardDb.CardArtPreference artPref){
+        if (this.artPreference == artPref)
+            return;
+        this.artPreference = artPref;
+        clearRecognisedLines();
+    }
 
-    public void setAllowedDeckSections(List<DeckSection> deckSections){ this.allowedDeckSections = deckSections; }
+    public void setAllowedDeckSections(List<DeckSection> deckSections){
+        if (Objects.equals(this.allowedDeckSections, deckSections))
+            return;
+        // a copy, as the list given may still change
+        this.allowedDeckSections = deckSections == null ? null : new ArrayList<>(deckSections);
+        clearRecognisedLines();
+    }
 
     public void forceImportBannedAndRestrictedCards() { this.includeBannedAndRestricted = true; }
+
+    public void forceImportBannedAndRestrictedCards(boolean includeBannedAndRestricted) {
+        this.includeBannedAndRestricted = includeBannedAndRestricted;
+    }
 }
@@ -29,6 +29,7 @@ import forge.util.TextUtil;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A lightweight version of a card that matches real-world cards, to use outside of games (eg. inventory, decks, trade).
@@ -55,6 +56,7 @@ public class PaperCard implements Comparable<IPaperCard>, InventoryItemFromSet,
     private final int artIndex;
     private final boolean foil;
     private Boolean hasImage;
+    private static final AtomicInteger imageChanges = new AtomicInteger();
     private String sortableName;
 
     // Calculated fields are below:
@@ -149,11 +151,23 @@ public class PaperCard implements Comparable<IPaperCard>, InventoryItemFromSet,
     }
     public boolean hasImage(boolean update) {
         if (hasImage == null || update) { //cache value since it's not free to calculate
-            hasImage = ImageKeys.hasImage(this, update);
+            final boolean found = ImageKeys.hasImage(this, update);
+            if (hasImage != null && hasImage != found) {
+                imageChanges.incrementAndGet();
+            }
+            hasImage = found;
         }
         return hasImage;
     }
 
+    /**
+     * How often a card was found to have an image it didn't have before or the other way round, so
+     * the lookups preferring cards with an image know when to look again.
+     */
+    public static int getImageChanges() {
+        return imageChanges.get();
+    }
+
     /**
      * Lambda to get rules for selects from list of printed cards.
      */
@@ -31,6 +31,7 @@ import org.apache.commons.lang3.StringUtils;
 
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Table;
+import com.google.common.collect.Tables;
 
 /**
  * TODO: Write javadoc for this type.
@@ -68,7 +69,8 @@ public class FileSection {
 
     private static final String BAR_PAIR_SPLITTER = Pattern.quote("|");
 
-    private static Table<String, Pattern, Map<String, String>> parseToMapCache = HashBasedTable.create();
+    // filled while cards are created, which several games may do at the same time
+    private static final Table<String, Pattern, Map<String, String>> parseToMapCache = Tables.synchronizedTable(HashBasedTable.<String, Pattern, Map<String, String>>create());
 
     public static Map<String, String> parseToMap(final String line, final Pattern kvSeparator) {
         Map<String, String> result = parseToMapCache.get(line, kvSeparator);
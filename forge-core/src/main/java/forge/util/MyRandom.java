@@ -25,6 +25,8 @@ import java.util.Random;
  * MyRandom class.<br>
  * Preferably all Random numbers should be retrieved using this wrapper class
  * </p>
+ * A thread running a game draws from the random numbers of that game instead, see
+ * {@link #bindToThread(Random)}, so games can run in parallel and be played again from their seed.
  * 
  * @author Forge
  * @version $Id$
@@ -32,6 +34,7 @@ import java.util.Random;
 public class MyRandom {
     /** Constant <code>random</code>. */
     private static Random random = new SecureRandom();
+    private static final ThreadLocal<Random> threadRandom = new ThreadLocal<>();
 
     /**
      * <p>
@@ -52,22 +55,44 @@ public class MyRandom {
      * @return the random
      */
     public static Random getRandom() {
-        return MyRandom.random;
+        final Random bound = threadRandom.get();
+        return bound != null ? bound : MyRandom.random;
     }
 
     /**
      * Sets the random provider. Used for deterministic simulation.
+     * Only changes the provider of the current thread if one is bound to it.
      * @param random the random
      */
     public static void setRandom(Random random) {
-        MyRandom.random = random;
+        if (threadRandom.get() != null) {
+            threadRandom.set(random);
+        } else {
+            MyRandom.random = random;
+        }
+    }
+
+    /**
+     * Makes the current thread draw its random numbers from the given provider, or from the
+     * shared one again if null.
+     * @param random the random
+     * @return the provider bound to the thread before, null if none
+     */
+    public static Random bindToThread(Random random) {
+        final Random previous = threadRandom.get();
+        if (random != null) {
+            threadRandom.set(random);
+        } else {
+            threadRandom.remove();
+        }
+        return previous;
     }
 
     public static int[] splitIntoRandomGroups(final int value, final int numGroups) {
         int[] groups = new int[numGroups];
         
         for (int i = 0; i < value; i++) {
-            groups[random.nextInt(numGroups)]++;
+            groups[getRandom().nextInt(numGroups)]++;
         }
 
         return groups;
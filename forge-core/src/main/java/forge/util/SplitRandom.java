@@ -0,0 +1,71 @@
+package forge.util;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * A {@link Random} drawing its numbers from a {@link SplittableRandom}, so it can be passed
+ * wherever a Random is expected while being faster and not synchronized on every draw.
+ * <br><br>
+ * Not thread safe, each thread should draw from its own instance, see {@link #split()}.
+ */
+public class SplitRandom extends Random {
+    private static final long serialVersionUID = -2866127325624330479L;
+
+    private transient SplittableRandom source;
+
+    public SplitRandom(final long seed) {
+        super(seed);
+    }
+
+    private SplitRandom(final SplittableRandom source0) {
+        super(0);
+        source = source0;
+    }
+
+    /**
+     * Restart the numbers from the given seed.
+     */
+    @Override
+    public void setSeed(final long seed) {
+        // also called by the constructor of Random before this class is initialized
+        source = new SplittableRandom(seed);
+    }
+
+    /**
+     * A new generator with numbers independent of the numbers of this one, advancing this one.
+     */
+    public SplitRandom split() {
+        return new SplitRandom(source.split());
+    }
+
+    @Override
+    protected int next(final int bits) {
+        return source.nextInt() >>> (32 - bits);
+    }
+
+    @Override
+    public int nextInt() {
+        return source.nextInt();
+    }
+
+    @Override
+    public int nextInt(final int bound) {
+        return source.nextInt(bound);
+    }
+
+    @Override
+    public long nextLong() {
+        return source.nextLong();
+    }
+
+    @Override
+    public double nextDouble() {
+        return source.nextDouble();
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return source.nextBoolean();
+    }
+}
@@ -17,17 +17,34 @@ public class ThreadUtil {
     private static class WorkerThreadFactory implements ThreadFactory {
         private int countr = 0;
         private String prefix = "";
+        private final boolean runsGames;
 
         public WorkerThreadFactory(String prefix) {
+            this(prefix, false);
+        }
+
+        public WorkerThreadFactory(String prefix, boolean runsGames) {
             this.prefix = prefix;
+            this.runsGames = runsGames;
         }
 
-        public Thread newThread(Runnable r) {
-            return new Thread(r, prefix + "-" + countr++);
+        public Thread newThread(final Runnable r) {
+            if (!runsGames) {
+                return new Thread(r, prefix + "-" + countr++);
+            }
+            return new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    setGameThread(true);
+                    r.run();
+                }
+            }, prefix + "-" + countr++);
         }
     }
 
-    private final static ExecutorService gameThreadPool = Executors.newCachedThreadPool(new WorkerThreadFactory("Game"));
+    private static final ThreadLocal<Boolean> gameThread = new ThreadLocal<>();
+
+    private final static ExecutorService gameThreadPool = Executors.newCachedThreadPool(new WorkerThreadFactory("Game", true));
     private static ExecutorService getGameThreadPool() { return gameThreadPool; }
     private final static ScheduledExecutorService scheduledPool = Executors.newScheduledThreadPool(2, new WorkerThreadFactory("Delayed"));
     private static ScheduledExecutorService getScheduledPool() { return scheduledPool; }
@@ -49,8 +66,27 @@ public class ThreadUtil {
         return getScheduledPool().schedule(inputUpdater, milliseconds, TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * Whether the current thread is one of the game thread pool or is playing a game, see
+     * {@link #setGameThread(boolean)}.
+     */
     public static boolean isGameThread() {
-        return Thread.currentThread().getName().startsWith("Game");
+        return Boolean.TRUE.equals(gameThread.get());
+    }
+
+    /**
+     * Mark the current thread as playing a game or not, so several games can be played by threads
+     * of any pool in the same JVM.
+     * @return whether it was marked as playing a game before
+     */
+    public static boolean setGameThread(boolean isGameThread) {
+        final boolean previous = isGameThread();
+        if (isGameThread) {
+            gameThread.set(Boolean.TRUE);
+        } else {
+            gameThread.remove();
+        }
+        return previous;
     }
 
     private static ExecutorService service = Executors.newWorkStealingPool();
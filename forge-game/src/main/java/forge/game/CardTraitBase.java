@@ -7,6 +7,7 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 
 import forge.card.CardStateName;
@@ -105,6 +106,25 @@ public abstract class CardTraitBase extends GameObject implements IHasCardView,
     public final Map<String, String> getOriginalMapParams() {
         return this.originalMapParams;
     }
+
+    /**
+     * The original params made from the same script may be shared by several card traits (see
+     * {@link #setOriginalMapParams(Map)}), get them with this to change them.
+     */
+    public final Map<String, String> getChangeableOriginalMapParams() {
+        if (this.originalMapParams instanceof ImmutableMap) {
+            this.originalMapParams = Maps.newHashMap(this.originalMapParams);
+        }
+        return this.originalMapParams;
+    }
+
+    /**
+     * Params that can't be changed are shared instead of copied, such as those of an ability
+     * template, which saves a copy for each card trait made from the same script.
+     */
+    protected final void setOriginalMapParams(final Map<String, String> params) {
+        this.originalMapParams = params instanceof ImmutableMap ? params : Maps.newHashMap(params);
+    }
     /**
      * Checks if is intrinsic.
      *
@@ -695,7 +715,7 @@ public abstract class CardTraitBase extends GameObject implements IHasCardView,
     }
 
     protected void copyHelper(CardTraitBase copy, Card host) {
-        copy.originalMapParams = Maps.newHashMap(originalMapParams);
+        copy.setOriginalMapParams(originalMapParams);
         copy.mapParams = Maps.newHashMap(originalMapParams);
         copy.setSVars(sVars);
         copy.setCardState(cardState);
@@ -20,7 +20,6 @@ package forge.game;
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
 import com.google.common.collect.*;
-import com.google.common.eventbus.EventBus;
 import forge.GameCommand;
 import forge.card.CardRarity;
 import forge.card.CardStateName;
@@ -29,6 +28,8 @@ import forge.game.ability.AbilityKey;
 import forge.game.card.*;
 import forge.game.combat.Combat;
 import forge.game.event.Event;
+import forge.game.event.EventDispatcher;
+import forge.game.event.GameEvent;
 import forge.game.event.GameEventDayTimeChanged;
 import forge.game.event.GameEventGameOutcome;
 import forge.game.phase.Phase;
@@ -47,24 +48,29 @@ import forge.game.zone.Zone;
 import forge.game.zone.ZoneType;
 import forge.trackable.Tracker;
 import forge.util.Aggregates;
-import forge.util.MyRandom;
+import forge.util.SplitRandom;
 import forge.util.Visitor;
 import forge.util.collect.FCollection;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents the state of a <i>single game</i>, a new instance is created for each game.
  */
 public class Game {
 
-    private static int maxId = 0;
-    private static int nextId() { return ++maxId; }
+    private static final AtomicInteger maxId = new AtomicInteger();
+    private static int nextId() { return maxId.incrementAndGet(); }
 
     /** The ID. */
     private int id;
     private final GameRules rules;
+    // mixed into the seed for the numbers drawn once the game starts
+    private static final long PLAY_SEED_MIX = 0x9E3779B97F4A7C15L;
+    private long seed;
+    private final SplitRandom random;
     private final PlayerCollection allPlayers = new PlayerCollection();
     private final PlayerCollection ingamePlayers = new PlayerCollection();
     private final PlayerCollection lostPlayers = new PlayerCollection();
@@ -84,7 +90,7 @@ public class Game {
     private final StaticEffects staticEffects = new StaticEffects();
     private final TriggerHandler triggerHandler = new TriggerHandler(this);
     private final ReplacementHandler replacementHandler = new ReplacementHandler(this);
-    private final EventBus events = new EventBus("game events");
+    private final EventDispatcher events = new EventDispatcher("game events");
     private final GameLog gameLog = new GameLog();
 
     private final Zone stackZone = new Zone(ZoneType.Stack, this);
@@ -113,6 +119,7 @@ public class Game {
     private Boolean daytime = null;
 
     private long timestamp = 0;
+    private int boardVersion = 0;
     public final GameAction action;
     private final Match match;
     private GameStage age = GameStage.BeforeMulligan;
@@ -248,6 +255,9 @@ public class Game {
         match = match0;
         maingame = maingame0;
         this.id = nextId();
+        // a subgame draws from the main game so the games of the match keep their seeds
+        seed = maingame0 != null ? maingame0.getRandom().nextLong() : match0.nextGameSeed();
+        random = new SplitRandom(seed);
 
         int highestTeam = -1;
         for (RegisteredPlayer psc : players0) {
@@ -304,7 +314,9 @@ public class Game {
         // update players
         view.updatePlayers(this);
 
-        subscribeToEvents(gameLog.getEventVisitor());
+        for (final Class<? extends GameEvent> eventClass : GameLogFormatter.getLoggedEvents()) {
+            subscribeToEvents(eventClass, gameLog.getEventVisitor());
+        }
     }
 
     public GameView getView() {
@@ -473,6 +485,19 @@ public class Game {
         return timestamp;
     }
 
+    /**
+     * Changes whenever a card is tapped or untapped, changes zone or controller or has an ability
+     * activated, whenever a card or player gets or loses counters and whenever damage is marked
+     * on a card or removed from it. Anything computed from
+     * those, such as the mana the AI has available, may be reused while this doesn't change.
+     */
+    public final int getBoardVersion() {
+        return boardVersion;
+    }
+    public final void updateBoardVersion() {
+        boardVersion++;
+    }
+
     public final GameOutcome getOutcome() {
         return outcome;
     }
@@ -501,6 +526,7 @@ public class Game {
 
         final GameOutcome result = new GameOutcome(reason, getRegisteredPlayers());
         result.setTurnsPlayed(getPhaseHandler().getTurn());
+        result.setSeed(seed);
 
         outcome = result;
         if (maingame == null) {
@@ -519,7 +545,7 @@ public class Game {
         return card.getLastKnownZone();
     }
 
-    public synchronized CardCollectionView getCardsIn(final ZoneType zone) {
+    public CardCollectionView getCardsIn(final ZoneType zone) {
         if (zone == ZoneType.Stack) {
             return getStackZone().getCards();
         }
@@ -885,11 +911,60 @@ public class Game {
     public void subscribeToEvents(final Object subscriber) {
         events.register(subscriber);
     }
+    public <E extends Event> void subscribeToEvents(final Class<E> eventClass, final EventDispatcher.IEventListener<? super E> listener) {
+        events.subscribe(eventClass, listener);
+    }
+
+    /**
+     * Whether fired events of the given class reach anyone. Events that are costly to build may be skipped if not.
+     */
+    public boolean hasEventSubscribers(final Class<? extends Event> eventClass) {
+        return events.hasSubscribers(eventClass);
+    }
+
+    /**
+     * Stop firing events, for copies of a game made for simulation that nobody watches.
+     */
+    public void disableEvents() {
+        events.disable();
+    }
 
     public GameRules getRules() {
         return rules;
     }
 
+    /**
+     * The seed the random numbers of this game are drawn from, given by the match it's part of.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Draw the random numbers of this game from the start of the given seed from now on.
+     */
+    public void setSeed(long seed0) {
+        seed = seed0;
+        random.setSeed(seed0);
+    }
+
+    /**
+     * Draw the random numbers of the game played from here on from a stream of their own, derived
+     * from the seed but independent of the numbers the libraries were shuffled with, so the game
+     * plays the same from its libraries whatever drew random numbers before, as when it's replayed.
+     */
+    public void startPlayRandom() {
+        random.setSeed(seed ^ PLAY_SEED_MIX);
+    }
+
+    /**
+     * The random numbers of this game. While the game runs, {@link forge.util.MyRandom} hands
+     * them out on its thread too.
+     */
+    public SplitRandom getRandom() {
+        return random;
+    }
+
     public List<Card> getActivePlanes() {
         return activePlanes;
     }
@@ -973,7 +1048,7 @@ public class Game {
                 onePlayerHasTimeShifted = false;
             }
 
-            CardRarity anteRarity = validRarities.get(MyRandom.getRandom().nextInt(validRarities.size()));
+            CardRarity anteRarity = validRarities.get(random.nextInt(validRarities.size()));
 
             System.out.println("Rarity chosen for ante: " + anteRarity.name());
 
@@ -1003,7 +1078,7 @@ public class Game {
                 library.removeAll(toRemove);
 
                 if (library.size() > 0) { //Make sure that matches were found. If not, use the original method to choose antes
-                    Card ante = library.get(MyRandom.getRandom().nextInt(library.size()));
+                    Card ante = library.get(random.nextInt(library.size()));
                     anteed.put(player, ante);
                 } else {
                     chooseRandomCardsForAnte(player, anteed);
@@ -1208,7 +1208,7 @@ public class GameAction {
 
         // TODO filter out old copies from zone change
 
-        if (runEvents && !affectedCards.isEmpty()) {
+        if (runEvents && !affectedCards.isEmpty() && game.hasEventSubscribers(GameEventCardStatsChanged.class)) {
             game.fireEvent(new GameEventCardStatsChanged(affectedCards));
         }
         game.getTracker().unfreeze();
@@ -1448,7 +1448,7 @@ public class GameAction {
 
         game.getTracker().unfreeze();
 
-        if (runEvents && !affectedCards.isEmpty()) {
+        if (runEvents && !affectedCards.isEmpty() && game.hasEventSubscribers(GameEventCardStatsChanged.class)) {
             game.fireEvent(new GameEventCardStatsChanged(affectedCards));
         }
 
@@ -2056,6 +2056,9 @@ public class GameAction {
     public void startGame(GameOutcome lastGameOutcome, Runnable startGameHook) {
         Player first = determineFirstTurnPlayer(lastGameOutcome);
 
+        // a stream of its own, starting the seed again would shuffle the mulligans as the libraries were
+        game.startPlayRandom();
+
         GameType gameType = game.getRules().getGameType();
         do {
             if (game.isGameOver()) { break; } // conceded during "play or draw"
@@ -2137,7 +2140,7 @@ public class GameAction {
 
         if (!powerPlayers.isEmpty()) {
             List<Player> players = Lists.newArrayList(powerPlayers);
-            Collections.shuffle(players, MyRandom.getRandom());
+            Collections.shuffle(players, game.getRandom());
             return players.get(0);
         }
 
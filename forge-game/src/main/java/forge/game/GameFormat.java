@@ -88,8 +88,15 @@ public class GameFormat implements Comparable<GameFormat> {
     protected final transient List<String> restrictedCardNames_ro;
     protected final transient List<String> additionalCardNames_ro;
 
+    protected final transient Predicate<PaperCard> filterCard; // the rules not about sets
     protected final transient Predicate<PaperCard> filterRules;
     protected final transient Predicate<PaperCard> filterPrinted;
+    private final transient Predicate<PaperCard> legalRules;
+    private final transient Predicate<PaperCard> legalPrinted;
+
+    // set once the format is part of a collection
+    private volatile GameFormatLegality legality;
+    private int legalityIndex;
 
     private final int index;
 
@@ -135,10 +142,44 @@ public class GameFormat implements Comparable<GameFormat> {
         this.restrictedCardNames_ro = Collections.unmodifiableList(restrictedCardNames);
         this.additionalCardNames_ro = Collections.unmodifiableList(additionalCardNames);
 
-        this.filterRules = this.buildFilterRules();
-        this.filterPrinted = this.buildFilterPrinted();
+        this.filterCard = this.buildFilterCard();
+        this.filterRules = this.buildFilter(this.filterCard, false);
+        this.filterPrinted = this.buildFilter(this.filterCard, true);
+        this.legalRules = new Predicate<PaperCard>() {
+            @Override
+            public boolean apply(PaperCard card) {
+                GameFormatLegality l = legality;
+                return l == null ? filterRules.apply(card) : l.isLegal(card, legalityIndex);
+            }
+        };
+        this.legalPrinted = new Predicate<PaperCard>() {
+            @Override
+            public boolean apply(PaperCard card) {
+                GameFormatLegality l = legality;
+                return l == null ? filterPrinted.apply(card) : l.isLegalAsPrinted(card, legalityIndex);
+            }
+        };
     }
     protected Predicate<PaperCard> buildFilter(boolean printed) {
+        return buildFilter(buildFilterCard(), printed);
+    }
+
+    private Predicate<PaperCard> buildFilter(Predicate<PaperCard> p, boolean printed) {
+        if (!this.getAllowedSetCodes().isEmpty()) {
+            p = Predicates.and(p, printed ?
+                    IPaperCard.Predicates.printedInSets(this.getAllowedSetCodes(), printed) :
+                    StaticData.instance().getCommonCards().wasPrintedInSets(this.getAllowedSetCodes()));
+        }
+        if (!this.getAdditionalCards().isEmpty()) {
+            p = Predicates.or(p, IPaperCard.Predicates.names(this.getAdditionalCards()));
+        }
+        return p;
+    }
+
+    /**
+     * The banned cards, rebalanced cards and rarities, which only depend on the name of a card.
+     */
+    private Predicate<PaperCard> buildFilterCard() {
         Predicate<PaperCard> p = Predicates.not(IPaperCard.Predicates.names(this.getBannedCardNames()));
 
         if (FormatSubType.ARENA.equals(this.getFormatSubType())) {
@@ -147,11 +188,6 @@ public class GameFormat implements Comparable<GameFormat> {
             p = Predicates.and(p, Predicates.not(IPaperCard.Predicates.Presets.IS_REBALANCED));
         }
 
-        if (!this.getAllowedSetCodes().isEmpty()) {
-            p = Predicates.and(p, printed ?
-                    IPaperCard.Predicates.printedInSets(this.getAllowedSetCodes(), printed) :
-                    StaticData.instance().getCommonCards().wasPrintedInSets(this.getAllowedSetCodes()));
-        }
         if (!this.getAllowedRarities().isEmpty()) {
             List<Predicate<? super PaperCard>> crp = Lists.newArrayList();
             for (CardRarity cr: this.getAllowedRarities()) {
@@ -159,18 +195,19 @@ public class GameFormat implements Comparable<GameFormat> {
             }
             p = Predicates.and(p, Predicates.or(crp));
         }
-        if (!this.getAdditionalCards().isEmpty()) {
-            p = Predicates.or(p, IPaperCard.Predicates.names(this.getAdditionalCards()));
-        }
         return p;
     }
 
-    private Predicate<PaperCard> buildFilterPrinted() {
-        return buildFilter(true);
+    void setLegality(GameFormatLegality legality0, int index) {
+        legalityIndex = index;
+        legality = legality0;
     }
 
-    private Predicate<PaperCard> buildFilterRules() {
-        return buildFilter(false);
+    /**
+     * The bit of this format in the given legality, or -1 if it has none there.
+     */
+    int getLegalityIndex(GameFormatLegality legality0) {
+        return legality == legality0 ? legalityIndex : -1;
     }
 
     public String getName() {
@@ -241,11 +278,11 @@ public class GameFormat implements Comparable<GameFormat> {
     }
 
     public Predicate<PaperCard> getFilterRules() {
-        return this.filterRules;
+        return this.legalRules;
     }
 
     public Predicate<PaperCard> getFilterPrinted() {
-        return this.filterPrinted;
+        return this.legalPrinted;
     }
 
     public boolean isSetLegal(final String setCode) {
@@ -277,6 +314,10 @@ public class GameFormat implements Comparable<GameFormat> {
                 return sb.toString();
             }
         }
+        return getRestrictedProblem(allCards);
+    }
+
+    private String getRestrictedProblem(final CardPool allCards) {
         // Check number of restricted and legendary-restricted cards
         if(!getRestrictedCards().isEmpty() || isRestrictedLegendary() ) {
             final List<PaperCard> erroneousRestricted = new ArrayList<>();
@@ -472,6 +513,7 @@ public class GameFormat implements Comparable<GameFormat> {
     public static class Collection extends StorageBase<GameFormat> {
         private List<GameFormat> naturallyOrdered;
         private List<GameFormat> reverseDateOrdered;
+        private GameFormatLegality legality;
         
         public Collection(GameFormat.Reader reader) {
             super("Format collections", reader);
@@ -480,6 +522,7 @@ public class GameFormat implements Comparable<GameFormat> {
             Collections.sort(naturallyOrdered);
             //Why this refactor doesnt work on some android phones? -> reverseDateOrdered.sort(new InverseDateComparator());
             Collections.sort(reverseDateOrdered, new InverseDateComparator());
+            legality = new GameFormatLegality(naturallyOrdered);
         }
 
         public Iterable<GameFormat> getOrderedList() {
@@ -617,20 +660,17 @@ public class GameFormat implements Comparable<GameFormat> {
         }
 
         public GameFormat getFormatOfDeck(Deck deck) {
+            CardPool allCards = deck.getAllCardsInASinglePool();
+            long[] legalFormats = legality.getLegalFormats(allCards);
             for(GameFormat gf : reverseDateOrdered) {
-                if ( gf.isDeckLegal(deck) )
+                if (legality.isSet(legalFormats, gf) && gf.getRestrictedProblem(allCards) == null)
                     return gf;
             }
             return NoFormat;
         }
 
         public Set<GameFormat> getAllFormatsOfCard(PaperCard card) {
-            Set<GameFormat> result = new HashSet<>();
-            for (GameFormat gf : naturallyOrdered) {
-                if (gf.getFilterRules().apply(card)) {
-                    result.add(gf);
-                }
-            }
+            Set<GameFormat> result = new HashSet<>(legality.getLegalFormats(card));
             if (result.isEmpty()) {
                 result.add(NoFormat);
             }
@@ -645,6 +685,7 @@ public class GameFormat implements Comparable<GameFormat> {
             SortedSet<GameFormat> result = new TreeSet<>();
             Set<FormatSubType> coveredTypes = new HashSet<>();
             CardPool allCards = deck.getAllCardsInASinglePool();
+            long[] legalFormats = legality.getLegalFormats(allCards);
             for (GameFormat gf : reverseDateOrdered) {
                 if (gf.getFormatType().equals(FormatType.DIGITAL) && !exhaustive){
                     //exclude Digital formats from lists for now
@@ -659,7 +700,7 @@ public class GameFormat implements Comparable<GameFormat> {
                     //exclude duplicate formats - only keep first of e.g. Standard archived
                     continue;
                 }
-                if (gf.isPoolLegal(allCards)) {
+                if (legality.isSet(legalFormats, gf) && gf.getRestrictedProblem(allCards) == null) {
                     result.add(gf);
                     coveredTypes.add(gf.getFormatSubType());
                 }
@@ -670,9 +711,44 @@ public class GameFormat implements Comparable<GameFormat> {
             return result;
         }
 
+        /**
+         * A filter accepting the cards legal in any of the formats, as the rules filters of them
+         * combined with or.
+         */
+        public Predicate<PaperCard> getFilterRules(Iterable<GameFormat> formats) {
+            final long[] mask = legality.newMask();
+            final List<Predicate<? super PaperCard>> others = Lists.newArrayList();
+            for (GameFormat format : formats) {
+                if (!legality.addToMask(mask, format)) {
+                    others.add(format.getFilterRules());
+                }
+            }
+            final GameFormatLegality legality0 = legality;
+            final Predicate<PaperCard> inMask = new Predicate<PaperCard>() {
+                @Override
+                public boolean apply(PaperCard card) {
+                    return legality0.isLegalInAny(card, mask);
+                }
+            };
+            if (others.isEmpty()) {
+                return inMask;
+            }
+            others.add(0, inMask);
+            return Predicates.or(others);
+        }
+
+        /**
+         * The cards legal in the format, one printing of each, or none if the format isn't part of
+         * this collection.
+         */
+        public List<PaperCard> getLegalCards(GameFormat format) {
+            return legality.getLegalCards(format);
+        }
+
         @Override
         public void add(GameFormat item) {
             naturallyOrdered.add(item);
+            legality = new GameFormatLegality(naturallyOrdered);
         }
     }
 
@@ -0,0 +1,196 @@
+package forge.game;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.collect.ImmutableList;
+
+import forge.StaticData;
+import forge.card.CardDb;
+import forge.deck.CardPool;
+import forge.item.PaperCard;
+
+/**
+ * Which formats of a {@link GameFormat.Collection} each card is legal in, kept as bits. Each format
+ * has its own bit, and the bits of a card are worked out for all formats at once the first time the
+ * card is asked about. After that, the filters of the formats, the deck checks and the lookups of
+ * the formats of a card or a deck only combine bits.
+ * <br><br>
+ * Legality only depends on the name of a card and on which sets it was printed in, so the bits are
+ * kept by card name. They are worked out again once more printings are added to the common cards.
+ */
+final class GameFormatLegality {
+    private final List<GameFormat> formats;
+    private final List<Set<String>> printedSets = new ArrayList<>();
+    private final int words;
+
+    // by card name: the formats the card is legal in, then the formats whose rules other than the
+    // sets allow it, then the formats listing it as an additional card, each in as many words
+    private final Map<String, long[]> bitsByName = new ConcurrentHashMap<>();
+    private volatile int cardModifications = -1;
+    private volatile Map<GameFormat, List<PaperCard>> legalCards;
+
+    GameFormatLegality(final List<GameFormat> formats0) {
+        formats = ImmutableList.copyOf(formats0);
+        words = (formats.size() + 63) >>> 6;
+        for (int i = 0; i < formats.size(); i++) {
+            final GameFormat format = formats.get(i);
+            // as filterPrinted does, the sets allowed when the format was made
+            printedSets.add(new HashSet<>(format.getAllowedSetCodes()));
+            format.setLegality(this, i);
+        }
+    }
+
+    private long[] getBits(final PaperCard card) {
+        final CardDb commonCards = StaticData.instance().getCommonCards();
+        final int modifications = commonCards.getModificationCount();
+        if (modifications != cardModifications) {
+            bitsByName.clear();
+            legalCards = null;
+            cardModifications = modifications;
+        }
+        long[] bits = bitsByName.get(card.getName());
+        if (bits == null) {
+            bits = new long[3 * words];
+            for (int i = 0; i < formats.size(); i++) {
+                final GameFormat format = formats.get(i);
+                final long bit = 1L << i;
+                if (format.filterRules.apply(card)) {
+                    bits[i >>> 6] |= bit;
+                }
+                if (format.filterCard.apply(card)) {
+                    bits[words + (i >>> 6)] |= bit;
+                }
+                if (format.getAdditionalCards().contains(card.getName())) {
+                    bits[2 * words + (i >>> 6)] |= bit;
+                }
+            }
+            bitsByName.put(card.getName(), bits);
+        }
+        return bits;
+    }
+
+    private static boolean isSet(final long[] bits, final int offset, final int index) {
+        return (bits[offset + (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    /**
+     * What the rules filter of the format with the given index says of the card.
+     */
+    boolean isLegal(final PaperCard card, final int index) {
+        return isSet(getBits(card), 0, index);
+    }
+
+    /**
+     * What the printed filter of the format with the given index says of the card, which has to be
+     * legal in the format as printed in the edition of the card.
+     */
+    boolean isLegalAsPrinted(final PaperCard card, final int index) {
+        final long[] bits = getBits(card);
+        if (isSet(bits, 2 * words, index)) {
+            return true;
+        }
+        if (!isSet(bits, words, index)) {
+            return false;
+        }
+        final Set<String> sets = printedSets.get(index);
+        return sets.isEmpty() || sets.contains(card.getEdition());
+    }
+
+    /**
+     * The formats all cards of the pool are legal in, as a mask for {@link #isSet(long[], GameFormat)} and
+     * {@link #isLegalInAny(PaperCard, long[])}.
+     */
+    long[] getLegalFormats(final CardPool cards) {
+        final long[] mask = newMask();
+        for (int w = 0; w < words; w++) {
+            mask[w] = -1L;
+        }
+        for (final Map.Entry<PaperCard, Integer> e : cards) {
+            final long[] bits = getBits(e.getKey());
+            for (int w = 0; w < words; w++) {
+                mask[w] &= bits[w];
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * The formats the card is legal in, in the order of the collection.
+     */
+    List<GameFormat> getLegalFormats(final PaperCard card) {
+        final long[] bits = getBits(card);
+        final List<GameFormat> result = new ArrayList<>();
+        for (int i = 0; i < formats.size(); i++) {
+            if (isSet(bits, 0, i)) {
+                result.add(formats.get(i));
+            }
+        }
+        return result;
+    }
+
+    long[] newMask() {
+        return new long[words];
+    }
+
+    /**
+     * Add the format to the mask, if it has a bit here.
+     */
+    boolean addToMask(final long[] mask, final GameFormat format) {
+        final int index = format.getLegalityIndex(this);
+        if (index < 0) {
+            return false;
+        }
+        mask[index >>> 6] |= 1L << index;
+        return true;
+    }
+
+    boolean isSet(final long[] mask, final GameFormat format) {
+        final int index = format.getLegalityIndex(this);
+        return index >= 0 && isSet(mask, 0, index);
+    }
+
+    boolean isLegalInAny(final PaperCard card, final long[] mask) {
+        final long[] bits = getBits(card);
+        for (int w = 0; w < words; w++) {
+            if ((bits[w] & mask[w]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The cards legal in the format, one printing of each, from the common cards. The lists of all
+     * formats are made together on the first call.
+     */
+    List<PaperCard> getLegalCards(final GameFormat format) {
+        Map<GameFormat, List<PaperCard>> result = legalCards;
+        if (result == null) {
+            result = new HashMap<>();
+            for (final GameFormat f : formats) {
+                result.put(f, new ArrayList<>());
+            }
+            for (final PaperCard card : StaticData.instance().getCommonCards().getUniqueCards()) {
+                final long[] bits = getBits(card);
+                for (int i = 0; i < formats.size(); i++) {
+                    if (isSet(bits, 0, i)) {
+                        result.get(formats.get(i)).add(card);
+                    }
+                }
+            }
+            for (final Map.Entry<GameFormat, List<PaperCard>> e : result.entrySet()) {
+                e.setValue(Collections.unmodifiableList(e.getValue()));
+            }
+            legalCards = result;
+        }
+        final List<PaperCard> cards = result.get(format);
+        return cards == null ? Collections.<PaperCard>emptyList() : cards;
+    }
+}
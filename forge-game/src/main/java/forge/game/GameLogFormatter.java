@@ -1,12 +1,14 @@
 package forge.game;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map.Entry;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
-import com.google.common.eventbus.Subscribe;
 
 import forge.LobbyPlayer;
 import forge.game.card.Card;
@@ -22,13 +24,35 @@ import forge.util.Localizer;
 import forge.util.TextUtil;
 import forge.util.maps.MapOfLists;
 
-public class GameLogFormatter extends IGameEventVisitor.Base<GameLogEntry> {
+public class GameLogFormatter extends IGameEventVisitor.Base<GameLogEntry> implements EventDispatcher.IEventListener<GameEvent> {
+    private static final List<Class<? extends GameEvent>> loggedEvents = findLoggedEvents();
+
     private final Localizer localizer = Localizer.getInstance();
     private final GameLog log;
     public GameLogFormatter(GameLog gameLog) {
         log = gameLog;
     }
 
+    /**
+     * The classes of the events that make entries in the log, those this has a visit method for.
+     * The log only subscribes to these, so that games don't build the other events for it.
+     */
+    public static List<Class<? extends GameEvent>> getLoggedEvents() {
+        return loggedEvents;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Class<? extends GameEvent>> findLoggedEvents() {
+        final List<Class<? extends GameEvent>> result = new ArrayList<>();
+        for (final Method m : GameLogFormatter.class.getDeclaredMethods()) {
+            if (m.getName().equals("visit") && !m.isBridge() && m.getParameterTypes().length == 1
+                    && GameEvent.class.isAssignableFrom(m.getParameterTypes()[0])) {
+                result.add((Class<? extends GameEvent>) m.getParameterTypes()[0]);
+            }
+        }
+        return ImmutableList.copyOf(result);
+    }
+
     @Override
     public GameLogEntry visit(GameEventGameOutcome ev) {
         // Turn number counted from the starting player
@@ -297,8 +321,8 @@ public class GameLogFormatter extends IGameEventVisitor.Base<GameLogEntry> {
         return new GameLogEntry(GameLogEntryType.MULLIGAN, message);
     }
 
-    @Subscribe
-    public void recieve(GameEvent ev) {
+    @Override
+    public void receive(GameEvent ev) {
         GameLogEntry le = ev.visit(this);
         if (le != null) {
             log.add(le);
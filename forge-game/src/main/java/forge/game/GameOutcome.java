@@ -66,6 +66,7 @@ public final class GameOutcome implements Iterable<Entry<RegisteredPlayer, Playe
     }
 
     private int lastTurnNumber = 0;
+    private long seed;
     private int lifeDelta = 0;
     private int winningTeam = -1;
 
@@ -216,6 +217,17 @@ public final class GameOutcome implements Iterable<Entry<RegisteredPlayer, Playe
         lastTurnNumber = turnNumber;
     }
 
+    /**
+     * The seed the random numbers of the game were drawn from, see {@link Game#getSeed()}.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed0) {
+        seed = seed0;
+    }
+
     public HashMap<RegisteredPlayer, String> getPlayerNames() {
         return playerNames;
     }
@@ -1,5 +1,6 @@
 package forge.game;
 
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.Set;
 
@@ -13,6 +14,8 @@ public class GameRules {
     private boolean matchAnteRarity = false;
     private boolean sideboardForAI = false;
     private final Set<GameType> appliedVariants = EnumSet.noneOf(GameType.class);
+    // the random numbers of a match are drawn from this if set, see Match
+    private Long seed;
 
     // it's a preference, not rule... but I could hardly find a better place for it
     private boolean canCloneUseTargetsImage;
@@ -79,6 +82,22 @@ public class GameRules {
         sideboardForAI = sideboard;
     }
 
+    public boolean hasSeed() {
+        return seed != null;
+    }
+
+    public long getSeed() {
+        return seed == null ? 0 : seed;
+    }
+
+    /**
+     * Draw the random numbers of the matches played with these rules from the given seed, so the
+     * same decks and decisions play the same games again.
+     */
+    public void setSeed(final long seed0) {
+        seed = seed0;
+    }
+
     public int getGamesToWinMatch() {
         return gamesToWinMatch;
     }
@@ -88,6 +107,10 @@ public class GameRules {
             this.appliedVariants.addAll(appliedVariants);
     }
 
+    public Set<GameType> getAppliedVariants() {
+        return Collections.unmodifiableSet(appliedVariants);
+    }
+
     public boolean hasAppliedVariant(final GameType variant) {
         return appliedVariants.contains(variant);
     }
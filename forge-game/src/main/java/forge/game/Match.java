@@ -1,7 +1,6 @@
 package forge.game;
 
 import com.google.common.collect.*;
-import com.google.common.eventbus.EventBus;
 import forge.LobbyPlayer;
 import forge.deck.CardPool;
 import forge.deck.Deck;
@@ -11,6 +10,7 @@ import forge.game.ability.AbilityKey;
 import forge.game.card.Card;
 import forge.game.card.CardCollectionView;
 import forge.game.event.Event;
+import forge.game.event.EventDispatcher;
 import forge.game.event.GameEventAnteCardsSelected;
 import forge.game.event.GameEventGameFinished;
 import forge.game.player.Player;
@@ -22,26 +22,37 @@ import forge.game.zone.ZoneType;
 import forge.item.PaperCard;
 import forge.util.Localizer;
 import forge.util.MyRandom;
+import forge.util.ThreadUtil;
 import forge.util.collect.FCollectionView;
 
 import java.util.*;
 import java.util.Map.Entry;
 
 public class Match {
-    private static List<PaperCard> removedCards = Lists.newArrayList();
     private final List<RegisteredPlayer> players;
     private final GameRules rules;
     private final String title;
+    private final List<PaperCard> removedCards = Lists.newArrayList();
+    private final SplittableRandom seeds;
 
-    private final EventBus events = new EventBus("match events");
+    private final EventDispatcher events = new EventDispatcher("match events");
     private final Map<Integer, GameOutcome> gameOutcomes = Maps.newHashMap();
 
     private GameOutcome lastOutcome = null;
 
     public Match(final GameRules rules0, final List<RegisteredPlayer> players0, final String title) {
+        this(rules0, players0, title, rules0.hasSeed() ? rules0.getSeed() : MyRandom.getRandom().nextLong());
+    }
+
+    /**
+     * A match drawing the seeds of its games from the given seed rather than the one of the rules,
+     * for matches played at the same time with the same rules.
+     */
+    public Match(final GameRules rules0, final List<RegisteredPlayer> players0, final String title, final long seed) {
         players = Collections.unmodifiableList(Lists.newArrayList(players0));
         rules = rules0;
         this.title = title;
+        seeds = new SplittableRandom(seed);
     }
 
     public GameRules getRules() {
@@ -67,6 +78,13 @@ public class Match {
         gameOutcomes.put(finished.getId(), finished.getOutcome());
     }
 
+    /**
+     * The seed of the next game of the match, see {@link GameRules#setSeed(long)}.
+     */
+    long nextGameSeed() {
+        return seeds.nextLong();
+    }
+
     public Game createGame() {
         return new Game(players, rules, this);
     }
@@ -76,6 +94,20 @@ public class Match {
     }
 
     public void startGame(final Game game, Runnable startGameHook) {
+        final Random previousRandom = MyRandom.bindToThread(game.getRandom());
+        final boolean wasGameThread = ThreadUtil.setGameThread(true);
+        try {
+            playGame(game, startGameHook);
+        } finally {
+            ThreadUtil.setGameThread(wasGameThread);
+            MyRandom.bindToThread(previousRandom);
+        }
+
+        //run GC after game is finished
+        System.gc();
+    }
+
+    private void playGame(final Game game, Runnable startGameHook) {
         prepareAllZones(game);
         if (rules.useAnte()) {  // Deciding which cards go to ante
             Multimap<Player, Card> list = game.chooseCardsForAnte(rules.getMatchAnteRarity());
@@ -97,9 +129,6 @@ public class Match {
 
         // will pull UI dialog, when the UI is listening
         game.fireEvent(new GameEventGameFinished());
-
-        //run GC after game is finished
-        System.gc();
     }
 
     public GameOutcome getOutcomeById(int id) {
@@ -186,7 +215,7 @@ public class Match {
         return myRemovedAnteCards;
     }
 
-    public static List<PaperCard> getRemovedCards() { return removedCards; }
+    public List<PaperCard> getRemovedCards() { return removedCards; }
 
     public void removeCard(PaperCard c) {
         removedCards.add(c);
@@ -201,7 +230,7 @@ public class Match {
                 final Card card = Card.fromPaperCard(cp, player);
 
                 // Assign card-specific foiling or random foiling on approximately 1:20 cards if enabled
-                if (cp.isFoil() || (canRandomFoil && MyRandom.percentTrue(5))) {
+                if (cp.isFoil() || (canRandomFoil && player.getGame().getRandom().nextInt(100) < 5)) {
                     card.setRandomFoil();
                 }
 
@@ -427,5 +456,8 @@ public class Match {
     public void subscribeToEvents(final Object subscriber) {
         events.register(subscriber);
     }
+    public <E extends Event> void subscribeToEvents(final Class<E> eventClass, final EventDispatcher.IEventListener<? super E> listener) {
+        events.subscribe(eventClass, listener);
+    }
 
 }
@@ -42,7 +42,7 @@ public enum PlanarDice {
         List<PlanarDice> results = Lists.newArrayList();
         for (int r = 0; r < rolls; r++) {
             PlanarDice thisRoll = Blank;
-            int i = forge.util.MyRandom.getRandom().nextInt(6);
+            int i = roller.getGame().getRandom().nextInt(6);
             roller.roll();
             if (riggedResult != null)
                 thisRoll = riggedResult;
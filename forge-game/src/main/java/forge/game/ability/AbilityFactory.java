@@ -20,8 +20,10 @@ package forge.game.ability;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.common.base.Function;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
@@ -34,6 +36,7 @@ import forge.game.ability.effects.RollDiceEffect;
 import forge.game.card.Card;
 import forge.game.card.CardState;
 import forge.game.cost.Cost;
+import forge.game.cost.CostPartWithList;
 import forge.game.spellability.*;
 import forge.game.zone.ZoneType;
 import forge.util.FileSection;
@@ -50,6 +53,9 @@ import io.sentry.Sentry;
  */
 public final class AbilityFactory {
 
+    // scripts read so far, cards made from the same scripts only bind the templates to their host
+    private static final Map<String, AbilityTemplate> templates = new ConcurrentHashMap<>();
+
     public static final List<String> additionalAbilityKeys = Lists.newArrayList(
             "WinSubAbility", "OtherwiseSubAbility", // Clash
             "BidSubAbility", // BidLifeEffect
@@ -132,33 +138,67 @@ public final class AbilityFactory {
     }
 
     private static final SpellAbility getAbility(final String abString, final CardState state, final IHasSVars sVarHolder) {
-        Map<String, String> mapParams;
-        try {
-            mapParams = AbilityFactory.getMapParams(abString);
-        }
-        catch (RuntimeException ex) {
-            throw new RuntimeException(state.getName() + ": " + ex.getMessage());
-        }
-        // parse universal parameters
-        AbilityRecordType type = AbilityRecordType.getRecordType(mapParams);
-        if (null == type) {
-            String source = state.getName().isEmpty() ? abString : state.getName();
-            throw new RuntimeException("AbilityFactory : getAbility -- no API in " + source + ": " + abString);
+        AbilityTemplate template = templates.get(abString);
+        if (template == null) {
+            Map<String, String> mapParams;
+            try {
+                mapParams = AbilityFactory.getMapParams(abString);
+            }
+            catch (RuntimeException ex) {
+                throw new RuntimeException(state.getName() + ": " + ex.getMessage());
+            }
+            // parse universal parameters
+            AbilityRecordType type = AbilityRecordType.getRecordType(mapParams);
+            if (null == type) {
+                String source = state.getName().isEmpty() ? abString : state.getName();
+                throw new RuntimeException("AbilityFactory : getAbility -- no API in " + source + ": " + abString);
+            }
+            try {
+                template = makeTemplate(mapParams, type);
+            } catch (Error | Exception ex) {
+                throw crashed(abString, state, ex);
+            }
+            templates.put(abString, template);
         }
         try {
-            return getAbility(mapParams, type, state, sVarHolder);
+            Cost abCost = template.copyCost();
+            if (abCost == null) {
+                abCost = parseAbilityCost(state, template.getParams(), template.getType());
+            }
+            return getAbility(template, abCost, state, sVarHolder);
         } catch (Error | Exception ex) {
-            String msg = "AbilityFactory:getAbility: crash when trying to create ability ";
-            
-            Breadcrumb bread = new Breadcrumb(msg);
-            bread.setData("Card", state.getName());
-            bread.setData("Ability", abString);
-            
-            Sentry.addBreadcrumb(bread);
-            throw new RuntimeException(msg + " of card: " + state.getName(), ex);
+            throw crashed(abString, state, ex);
         }
     }
 
+    private static RuntimeException crashed(final String abString, final CardState state, final Throwable ex) {
+        String msg = "AbilityFactory:getAbility: crash when trying to create ability ";
+
+        Breadcrumb bread = new Breadcrumb(msg);
+        bread.setData("Card", state.getName());
+        bread.setData("Ability", abString);
+
+        Sentry.addBreadcrumb(bread);
+        return new RuntimeException(msg + " of card: " + state.getName(), ex);
+    }
+
+    /**
+     * Read what doesn't depend on the card from the params of a script. The cost is left out if
+     * it's the mana cost of the card or paid with cards.
+     */
+    private static AbilityTemplate makeTemplate(final Map<String, String> mapParams, final AbilityRecordType type) {
+        Cost abCost = null;
+        if (type != AbilityRecordType.SubAbility && mapParams.containsKey("Cost")) {
+            abCost = new Cost(mapParams.get("Cost"), type == AbilityRecordType.Ability);
+            // the copies of those would share the list of cards paid with
+            if (abCost.hasSpecificCostType(CostPartWithList.class)) {
+                abCost = null;
+            }
+        }
+        TargetRestrictions abTgt = mapParams.containsKey("ValidTgts") ? readTarget(mapParams) : null;
+        return new AbilityTemplate(type, type.getApiTypeOf(mapParams), mapParams, ImmutableMap.copyOf(mapParams), abCost, abTgt);
+    }
+
     public static final SpellAbility getAbility(final Card hostCard, final String svar) {
         return getAbility(hostCard, svar, hostCard.getCurrentState());
     }
@@ -205,8 +245,16 @@ public final class AbilityFactory {
 
     public static final SpellAbility getAbility(AbilityRecordType type, ApiType api, Map<String, String> mapParams,
             Cost abCost, final CardState state, final IHasSVars sVarHolder) {
-        final Card hostCard = state.getCard();
         TargetRestrictions abTgt = mapParams.containsKey("ValidTgts") ? readTarget(mapParams) : null;
+        return getAbility(new AbilityTemplate(type, api, mapParams, mapParams, null, abTgt), abCost, state, sVarHolder);
+    }
+
+    private static SpellAbility getAbility(final AbilityTemplate template, Cost abCost, final CardState state, final IHasSVars sVarHolder) {
+        final AbilityRecordType type = template.getType();
+        final ApiType api = template.getApi();
+        final Map<String, String> mapParams = template.getParams();
+        final Card hostCard = state.getCard();
+        TargetRestrictions abTgt = template.copyTarget();
 
         if (api == ApiType.CopySpellAbility || api == ApiType.Counter || api == ApiType.ChangeTargets || api == ApiType.ControlSpell) {
             // Since all "CopySpell" ABs copy things on the Stack no need for it to be everywhere
@@ -226,7 +274,7 @@ public final class AbilityFactory {
             }
         }
 
-        SpellAbility spellAbility = type.buildSpellAbility(api, hostCard, abCost, abTgt, mapParams);
+        SpellAbility spellAbility = type.buildSpellAbility(api, hostCard, abCost, abTgt, template.getAbilityParams());
 
         if (spellAbility == null) {
             final StringBuilder msg = new StringBuilder();
@@ -273,8 +321,8 @@ public final class AbilityFactory {
             spellAbility.setSubAbility(getSubAbility(state, name, sVarHolder));
         }
 
-        for (final String key : additionalAbilityKeys) {
-            if (mapParams.containsKey(key) && spellAbility.getAdditionalAbility(key) == null) {
+        for (final String key : template.getAdditionalAbilityKeys()) {
+            if (spellAbility.getAdditionalAbility(key) == null) {
                 spellAbility.setAdditionalAbility(key, getAbility(state, mapParams.get(key), sVarHolder));
             }
         }
@@ -0,0 +1,94 @@
+package forge.game.ability;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+
+import forge.game.ability.AbilityFactory.AbilityRecordType;
+import forge.game.cost.Cost;
+import forge.game.spellability.TargetRestrictions;
+
+/**
+ * What {@link AbilityFactory} reads from the script of an ability before it has a host card: the
+ * params, the record type and api, the cost and the target restrictions, and which of the
+ * additional abilities are used.
+ * <br><br>
+ * Templates are made once per script and kept, so cards and their copies only bind them to the
+ * host card. Nothing of a template may be changed, the cost and target restrictions are copied
+ * for each ability and the params are shared when they can't be changed.
+ */
+final class AbilityTemplate {
+    private final AbilityRecordType type;
+    private final ApiType api;
+    private final Map<String, String> params;
+    private final Map<String, String> abilityParams;
+    private final Cost cost;
+    private final TargetRestrictions target;
+    private final List<String> additionalAbilityKeys;
+
+    /**
+     * @param params0 the params as parsed, looked up by the factory
+     * @param abilityParams0 the params given to the abilities, shared if they can't be changed
+     * @param cost0 the cost, null if it has to be parsed for each ability
+     */
+    AbilityTemplate(final AbilityRecordType type0, final ApiType api0, final Map<String, String> params0,
+            final Map<String, String> abilityParams0, final Cost cost0, final TargetRestrictions target0) {
+        type = type0;
+        api = api0;
+        params = params0;
+        abilityParams = abilityParams0;
+        cost = cost0;
+        target = target0;
+
+        final ImmutableList.Builder<String> keys = ImmutableList.builder();
+        for (final String key : AbilityFactory.additionalAbilityKeys) {
+            if (params.containsKey(key)) {
+                keys.add(key);
+            }
+        }
+        additionalAbilityKeys = keys.build();
+    }
+
+    AbilityRecordType getType() {
+        return type;
+    }
+
+    ApiType getApi() {
+        return api;
+    }
+
+    Map<String, String> getParams() {
+        return params;
+    }
+
+    Map<String, String> getAbilityParams() {
+        return abilityParams;
+    }
+
+    /**
+     * A copy of the cost of the script, or null if it has to be parsed for each ability.
+     */
+    Cost copyCost() {
+        return cost == null ? null : cost.copy();
+    }
+
+    /**
+     * A copy of the target restrictions, or null if the ability doesn't target.
+     */
+    TargetRestrictions copyTarget() {
+        if (target == null) {
+            return null;
+        }
+        final TargetRestrictions copy = new TargetRestrictions(target);
+        copy.setMandatory(target.getMandatory());
+        return copy;
+    }
+
+    /**
+     * The keys of {@link AbilityFactory#additionalAbilityKeys} the script has.
+     */
+    List<String> getAdditionalAbilityKeys() {
+        return additionalAbilityKeys;
+    }
+}
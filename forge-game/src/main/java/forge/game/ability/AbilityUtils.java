@@ -31,7 +31,6 @@ import forge.game.zone.ZoneType;
 import forge.util.Aggregates;
 import forge.util.Expressions;
 import forge.util.Localizer;
-import forge.util.MyRandom;
 import forge.util.TextUtil;
 import forge.util.collect.FCollection;
 import forge.util.collect.FCollectionView;
@@ -2669,7 +2668,7 @@ public class AbilityUtils {
             int min = calculateAmount(c, sq[1], ctb);
             int max = calculateAmount(c, sq[2], ctb);
 
-            return MyRandom.getRandom().nextInt(1+max-min) + min;
+            return game.getRandom().nextInt(1+max-min) + min;
         }
 
         // Count$ThisTurnCast <Valid>
@@ -15,7 +15,7 @@ public class StaticAbilityApiBased extends AbilityStatic {
 
     public StaticAbilityApiBased(ApiType api0, Card sourceCard, Cost abCost, TargetRestrictions tgt, Map<String, String> params0) {
         super(sourceCard, abCost, tgt);
-        originalMapParams.putAll(params0);
+        setOriginalMapParams(params0);
         mapParams.putAll(params0);
         api = api0;
         effect = api.getSpellEffect();
@@ -14,7 +14,6 @@ import forge.game.player.Player;
 import forge.game.spellability.SpellAbility;
 import forge.util.Lang;
 import forge.util.Localizer;
-import forge.util.MyRandom;
 
 public class ChooseNumberEffect extends SpellAbilityEffect {
 
@@ -53,7 +52,7 @@ public class ChooseNumberEffect extends SpellAbilityEffect {
             }
             int chosen;
             if (random) {
-                chosen = MyRandom.getRandom().nextInt((max - min) + 1) + min;
+                chosen = p.getGame().getRandom().nextInt((max - min) + 1) + min;
                 //TODO more useful notify for RepeatEach -> ChooseNumber with random
                 p.getGame().getAction().notifyOfValue(sa, p, Integer.toString(chosen), null);
             } else {
@@ -49,20 +49,20 @@ public class FlipOntoBattlefieldEffect extends SpellAbilityEffect {
 
         // TODO: would be fun to add a small chance (e.g. 3-5%) to land unpredictably on some random target?
 
-        flippedOnce = MyRandom.getRandom().nextFloat() <= chanceToFlip; // 20% chance that the card won't flip even once
+        flippedOnce = game.getRandom().nextFloat() <= chanceToFlip; // 20% chance that the card won't flip even once
         if (!flippedOnce) {
             sa.setSVar("TimesFlipped", "0");
             game.getAction().notifyOfValue(sa, host, Localizer.getInstance().getMessage("lblDidNotFlipOver"), null);
             return;
         } else {
-            int flippedTimes = MyRandom.getRandom().nextInt(maxFlipTimes) + 1;
+            int flippedTimes = game.getRandom().nextInt(maxFlipTimes) + 1;
             sa.setSVar("TimesFlipped", String.valueOf(flippedTimes)); // Currently the exact # of times is unused
             game.getAction().notifyOfValue(sa, host, Localizer.getInstance().getMessage("lblFlippedOver", flippedTimes), null);
         }
 
         // Choose what was hit
         CardCollection hit = new CardCollection();
-        float outcome = MyRandom.getRandom().nextFloat();
+        float outcome = game.getRandom().nextFloat();
         if (outcome <= chanceToHitTwoCards) {
             hit.addAll(Aggregates.random(randChoices, randChoices.size() > 1 ? 2 : 1));
             if (hit.size() == 2) {
@@ -9,7 +9,6 @@ import forge.game.player.Player;
 import forge.game.spellability.SpellAbility;
 import forge.game.zone.ZoneType;
 import forge.util.Lang;
-import forge.util.MyRandom;
 
 public class ReorderZoneEffect extends SpellAbilityEffect {
     @Override
@@ -33,7 +32,7 @@ public class ReorderZoneEffect extends SpellAbilityEffect {
 
             CardCollection list = new CardCollection(p.getCardsIn(zone));
             if (shuffle) {
-                Collections.shuffle(list, MyRandom.getRandom());
+                Collections.shuffle(list, p.getGame().getRandom());
                 p.getZone(zone).setCards(list);
             } else {
                 p.getController().orderMoveToZoneList(list, zone, sa);
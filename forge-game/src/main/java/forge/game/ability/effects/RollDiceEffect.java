@@ -16,7 +16,6 @@ import forge.game.player.PlayerCollection;
 import forge.game.spellability.SpellAbility;
 import forge.game.trigger.TriggerType;
 import forge.util.Localizer;
-import forge.util.MyRandom;
 
 public class RollDiceEffect extends SpellAbilityEffect {
 
@@ -77,7 +76,7 @@ public class RollDiceEffect extends SpellAbilityEffect {
         List<Integer> naturalRolls = (rollsResult == null ? new ArrayList<>() : rollsResult);
 
         for (int i = 0; i < amount; i++) {
-            int roll = MyRandom.getRandom().nextInt(sides) + 1;
+            int roll = player.getGame().getRandom().nextInt(sides) + 1;
             // Play the die roll sound
             player.getGame().fireEvent(new GameEventRollDie());
             player.roll();
@@ -1453,6 +1453,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
             setCounters(counterType, newValue);
             getGame().addCounterAddedThisTurn(source, counterType, this, addAmount);
             view.updateCounters(this);
+            updateBoardVersion();
 
             //fire card stats changed event if p/t bonuses or loyalty changed from added counters
             if (powerBonusBefore != getPowerBonusFromCounters() || toughnessBonusBefore != getToughnessBonusFromCounters() || loyaltyBefore != getCurrentLoyalty()) {
@@ -1485,6 +1486,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
 
             getGame().addCounterAddedThisTurn(source, counterType, this, addAmount);
             view.updateCounters(this);
+            updateBoardVersion();
         }
         if (newValue <= 0) {
             removeCounterTimestamp(counterType);
@@ -1578,6 +1580,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
 
         setCounters(counterName, newValue);
         view.updateCounters(this);
+        updateBoardVersion();
 
         if (newValue <= 0) {
             if (removeCounterTimestamp(counterName)) {
@@ -1618,6 +1621,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
         }
         counters = allCounters;
         view.updateCounters(this);
+        updateBoardVersion();
 
         for (CounterType ct : counters.keySet()) {
             if (addCounterTimestamp(ct, false)) {
@@ -1635,6 +1639,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
         if (counters.isEmpty()) { return; }
         counters.clear();
         view.updateCounters(this);
+        updateBoardVersion();
 
         boolean changed = false;
         for (CounterType ct : Lists.newArrayList(counterTypeTimestamps.keySet())) {
@@ -3443,6 +3448,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
         owner = owner0;
         view.updateOwner(this);
         view.updateController(this);
+        updateBoardVersion();
     }
 
     public final Player getController() {
@@ -3464,16 +3470,19 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
         controller = player;
         controllerTimestamp = tstamp;
         view.updateController(this);
+        updateBoardVersion();
     }
 
     public final void addTempController(final Player player, final long tstamp) {
         tempControllers.put(tstamp, player);
         view.updateController(this);
+        updateBoardVersion();
     }
 
     public final void removeTempController(final long tstamp) {
         if (tempControllers.remove(tstamp) != null) {
             view.updateController(this);
+            updateBoardVersion();
         }
     }
 
@@ -3485,6 +3494,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
         }
         if (changed) {
             view.updateController(this);
+            updateBoardVersion();
         }
     }
 
@@ -3492,6 +3502,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
         if (tempControllers.isEmpty()) { return; }
         tempControllers.clear();
         view.updateController(this);
+        updateBoardVersion();
     }
 
     public final void clearControllers() {
@@ -3499,6 +3510,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
         tempControllers.clear();
         controller = null;
         view.updateController(this);
+        updateBoardVersion();
     }
 
     public boolean mayPlayerLook(final Player player) {
@@ -4404,6 +4416,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
         if (tapped == tapped0) { return; }
         tapped = tapped0;
         view.updateTapped(this);
+        updateBoardVersion();
     }
 
     public final void tap(boolean tapAnimation, SpellAbility cause, Player tapper) {
@@ -5696,6 +5709,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
             damage.put(0, damage0);
         }
         view.updateDamage(this);
+        updateBoardVersion();
         getGame().fireEvent(new GameEventCardStatsChanged(this));
     }
 
@@ -5880,6 +5894,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
                 int old = damage.getOrDefault(Objects.hash(source.getId(), source.getTimestamp()), 0);
                 damage.put(Objects.hash(source.getId(), source.getTimestamp()), old + damageIn);
                 view.updateDamage(this);
+                updateBoardVersion();
             }
 
             if (source.hasKeyword(Keyword.DEATHTOUCH)) {
@@ -5893,7 +5908,9 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
             }
 
             // Play the Damage sound
-            game.fireEvent(new GameEventCardDamaged(this, source, damageIn, damageType));
+            if (game.hasEventSubscribers(GameEventCardDamaged.class)) {
+                game.fireEvent(new GameEventCardDamaged(this, source, damageIn, damageType));
+            }
         }
 
         return damageIn;
@@ -6799,9 +6816,19 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
         return game;
     }
 
-    public List<SpellAbility> getAllPossibleAbilities(final Player player, final boolean removeUnplayable) {
+    private void updateBoardVersion() {
+        if (game != null) {
+            game.updateBoardVersion();
+        }
+    }
+
+    /**
+     * The spell abilities of this card together with their alternative costs, modal spells and
+     * the ability to turn a manifested creature face up, without checking whether the player can
+     * play any of them or adding the ability to play a land.
+     */
+    public List<SpellAbility> getAbilitiesWithAlternativeCosts(final Player player) {
         CardState oState = getState(CardStateName.Original);
-        // this can only be called by the Human
         final List<SpellAbility> abilities = Lists.newArrayList();
         for (SpellAbility sa : getSpellAbilities()) {
             //adventure spell check
@@ -6838,6 +6865,14 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
             }
         }
 
+        return abilities;
+    }
+
+    public List<SpellAbility> getAllPossibleAbilities(final Player player, final boolean removeUnplayable) {
+        CardState oState = getState(CardStateName.Original);
+        // this can only be called by the Human
+        final List<SpellAbility> abilities = getAbilitiesWithAlternativeCosts(player);
+
         final Collection<SpellAbility> toRemove = Lists.newArrayListWithCapacity(abilities.size());
         for (final SpellAbility sa : abilities) {
             Player oldController = sa.getActivatingPlayer();
@@ -7266,6 +7301,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     public void addAbilityActivated(SpellAbility ability) {
         numberTurnActivations.add(ability);
         numberGameActivations.add(ability);
+        updateBoardVersion();
 
         if (ability.isPwAbility()) {
             addPlaneswalkerAbilityActivated();
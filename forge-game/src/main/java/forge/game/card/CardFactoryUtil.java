@@ -3253,7 +3253,7 @@ public class CardFactoryUtil {
             newSA.putParam("Prototype", "True");
 
             // need to store them for additional copies
-            newSA.getOriginalMapParams().putAll(newSA.getMapParams());
+            newSA.getChangeableOriginalMapParams().putAll(newSA.getMapParams());
 
             // only makes description for prompt
             newSA.setDescription(k[0] + " " + ManaCostParser.parse(k[1]) + " [" + k[2] + "/" + k[3] + "]");
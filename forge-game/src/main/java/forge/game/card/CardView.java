@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
 import forge.game.spellability.AbilityManaPart;
 import forge.game.spellability.SpellAbility;
@@ -335,7 +336,7 @@ public class CardView extends GameEntityView {
         set(TrackableProperty.Damage, c.getDamage());
         updateLethalDamage(c);
         //update CrackOverlay (currently 16 overlays)
-        set(TrackableProperty.CrackOverlay, c.getDamage() > 0 ? MyRandom.getRandom().nextInt(16) : 0);
+        set(TrackableProperty.CrackOverlay, c.getDamage() > 0 ? ThreadLocalRandom.current().nextInt(16) : 0);
     }
 
     public int getAssignedDamage() {
@@ -1,8 +1,8 @@
 package forge.game.card;
 
 import java.io.Serializable;
-import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
 
@@ -22,8 +22,9 @@ public class CounterType implements Comparable<CounterType>, Serializable {
             "Flying", "First Strike", "Double Strike", "Deathtouch", "Haste", "Hexproof",
             "Indestructible", "Lifelink", "Menace", "Reach", "Shadow", "Trample", "Vigilance");
 
-    private static Map<CounterEnumType, CounterType> eMap = Maps.newEnumMap(CounterEnumType.class);
-    private static Map<String, CounterType> sMap = Maps.newHashMap();
+    // games played at the same time may add to these
+    private static final ConcurrentMap<CounterEnumType, CounterType> eMap = Maps.newConcurrentMap();
+    private static final ConcurrentMap<String, CounterType> sMap = Maps.newConcurrentMap();
 
     private CounterType(CounterEnumType e, String s) {
         this.eVal = e;
@@ -31,17 +32,21 @@ public class CounterType implements Comparable<CounterType>, Serializable {
     }
 
     public static CounterType get(CounterEnumType e) {
-        if (!eMap.containsKey(e)) {
-            eMap.put(e, new CounterType(e, null));
+        CounterType result = eMap.get(e);
+        if (result == null) {
+            eMap.putIfAbsent(e, new CounterType(e, null));
+            result = eMap.get(e);
         }
-        return eMap.get(e);
+        return result;
     }
 
     public static CounterType get(String s) {
-        if (!sMap.containsKey(s)) {
-            sMap.put(s, new CounterType(null, s));
+        CounterType result = sMap.get(s);
+        if (result == null) {
+            sMap.putIfAbsent(s, new CounterType(null, s));
+            result = sMap.get(s);
         }
-        return sMap.get(s);
+        return result;
     }
 
     public static CounterType getType(String name) {
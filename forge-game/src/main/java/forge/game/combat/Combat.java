@@ -66,6 +66,8 @@ public class Combat {
     // List holds creatures who have dealt 1st strike damage to disallow them deal damage on regular basis (unless they have double-strike KW)
     private CardCollection combatantsThatDealtFirstStrikeDamage = new CardCollection();
 
+    private int version = 0;
+
     public Combat(final Player attacker) {
         playerWhoAttacks = attacker;
         initConstraints();
@@ -115,6 +117,15 @@ public class Combat {
         // Create keys for all possible attack targets
         attackableEntries.addAll(CombatUtil.getAllPossibleDefenders(playerWhoAttacks));
         attackConstraints = new AttackConstraints(this);
+        version++;
+    }
+
+    /**
+     * Changes whenever attackers, blockers, their damage assignment order or the damage
+     * assigned change. Predictions about this combat may be reused while this doesn't change.
+     */
+    public final int getVersion() {
+        return version;
     }
 
     @Override
@@ -153,6 +164,7 @@ public class Combat {
         blockersOrderedForDamageAssignment.clear();
         lkiCache.clear();
         combatantsThatDealtFirstStrikeDamage.clear();
+        version++;
 
         //update view for all attackers and blockers
         for (Card c : attackers) {
@@ -263,6 +275,7 @@ public class Combat {
         } else {
             band.addAttacker(c);
         }
+        version++;
         c.updateAttackingForView();
     }
 
@@ -363,11 +376,13 @@ public class Combat {
     // Some cards in Alpha may UNBLOCK an attacker, so second parameter is not always-true
     public final void setBlocked(final Card attacker, boolean value) {
         getBandOfAttackerNotNull(attacker).setBlocked(value); // called by Curtain of Light, Dazzling Beauty, Trap Runner
+        version++;
     }
 
     public final void addBlocker(final Card attacker, final Card blocker) {
         final AttackingBand band = getBandOfAttackerNotNull(attacker);
         blockedBands.put(band, blocker);
+        version++;
         // If damage is already assigned, add this blocker as a "late entry"
         if (blockersOrderedForDamageAssignment.containsKey(attacker)) {
             addBlockerToDamageAssignmentOrder(attacker, blocker);
@@ -382,6 +397,7 @@ public class Combat {
         if (cc != null) {
             cc.remove(blocker);
         }
+        version++;
         blocker.updateBlockingForView();
     }
 
@@ -389,6 +405,7 @@ public class Combat {
     public final void undoBlockingAssignment(final Card blocker) {
         CardCollection toRemove = new CardCollection(blocker);
         blockedBands.values().removeAll(toRemove);
+        version++;
         blocker.updateBlockingForView();
     }
 
@@ -482,6 +499,7 @@ public class Combat {
 
     /** If there are multiple blockers, the Attacker declares the Assignment Order */
     public void orderBlockersForDamageAssignment(Card attacker, CardCollection blockers) { // this method performs controller's role
+        version++;
         if (blockers.size() <= 1) {
             blockersOrderedForDamageAssignment.put(attacker, new CardCollection(blockers));
             return;
@@ -516,6 +534,7 @@ public class Combat {
      * @param blocker the blocking creature.
      */
     public void addBlockerToDamageAssignmentOrder(Card attacker, Card blocker) {
+        version++;
     	final CardCollection oldBlockers = blockersOrderedForDamageAssignment.get(attacker);
     	if (oldBlockers == null || oldBlockers.isEmpty()) {
    			blockersOrderedForDamageAssignment.put(attacker, new CardCollection(blocker));
@@ -541,11 +560,13 @@ public class Combat {
 
         // Damage Ordering needs to take cards like Melee into account, is that happening?
         attackersOrderedForDamageAssignment.put(blocker, orderedAttacker);
+        version++;
     }
 
     // removes references to this attacker from all indices and orders
     public void unregisterAttacker(final Card c, AttackingBand ab) {
         blockersOrderedForDamageAssignment.remove(c);
+        version++;
 
         Collection<Card> blockers = blockedBands.get(ab);
         if (blockers != null) {
@@ -579,6 +600,7 @@ public class Combat {
     // removes references to this defender from all indices and orders
     public void unregisterDefender(final Card c, AttackingBand bandBeingBlocked) {
         attackersOrderedForDamageAssignment.remove(c);
+        version++;
         for (Card atk : bandBeingBlocked.getAttackers()) {
             if (blockersOrderedForDamageAssignment.containsKey(atk)) {
                 blockersOrderedForDamageAssignment.get(atk).remove(c);
@@ -623,6 +645,7 @@ public class Combat {
 
         // remove card from map
         while (blockedBands.values().remove(c));
+        version++;
         c.updateBlockingForView();
     }
 
@@ -900,6 +923,7 @@ public class Combat {
     public final boolean assignCombatDamage(boolean firstStrikeDamage) {
         boolean assignedDamage = assignAttackersDamage(firstStrikeDamage);
         assignedDamage |= assignBlockersDamage(firstStrikeDamage);
+        version++;
         if (!firstStrikeDamage) {
             // Clear first strike damage list since it doesn't matter anymore
             combatantsThatDealtFirstStrikeDamage.clear();
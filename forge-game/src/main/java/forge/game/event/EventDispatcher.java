@@ -0,0 +1,210 @@
+package forge.game.event;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.google.common.eventbus.Subscribe;
+
+/**
+ * Delivers the events fired by a game or a match to its subscribers.
+ * <br><br>
+ * Handlers are resolved once when a subscriber is registered, and the handlers accepting an
+ * event class are collected into an array the first time an event of that class is posted,
+ * so posting is a map lookup and a loop over that array. Subscribers are either typed
+ * listeners or, as with Guava's event bus, objects with methods annotated with {@link Subscribe}.
+ * <br><br>
+ * Events are delivered on the posting thread. An event posted by a subscriber while another
+ * is being delivered is queued and delivered once all subscribers received the current one.
+ * A subscriber throwing an exception doesn't prevent the others from receiving the event.
+ */
+public final class EventDispatcher {
+    public interface IEventListener<E extends Event> {
+        void receive(E event);
+    }
+
+    private static final Handler[] NO_HANDLERS = new Handler[0];
+
+    private final String name;
+    private final List<Handler> handlers = new CopyOnWriteArrayList<>();
+    private final ConcurrentMap<Class<?>, Handler[]> handlersByClass = new ConcurrentHashMap<>();
+    private final ThreadLocal<DispatchState> dispatchState = new ThreadLocal<DispatchState>() {
+        @Override
+        protected DispatchState initialValue() {
+            return new DispatchState();
+        }
+    };
+    private volatile boolean enabled = true;
+
+    public EventDispatcher(final String name0) {
+        name = name0;
+    }
+
+    /**
+     * Register all methods of the subscriber annotated with {@link Subscribe}.
+     * Each must take a single parameter, the class of events it receives.
+     */
+    public void register(final Object subscriber) {
+        final Set<String> seen = new HashSet<>();
+        final List<Handler> found = new ArrayList<>();
+        for (Class<?> c = subscriber.getClass(); c != null && c != Object.class; c = c.getSuperclass()) {
+            for (final Method m : c.getDeclaredMethods()) {
+                if (!m.isAnnotationPresent(Subscribe.class) || m.isBridge() || m.isSynthetic()) {
+                    continue;
+                }
+                final Class<?>[] params = m.getParameterTypes();
+                if (params.length != 1) {
+                    throw new IllegalArgumentException("Method " + m + " has @Subscribe annotation but has " + params.length + " parameters");
+                }
+                if (!seen.add(m.getName() + params[0].getName())) {
+                    continue; //overridden in a subclass already registered
+                }
+                m.setAccessible(true);
+                found.add(new Handler(params[0], null, subscriber, m));
+            }
+        }
+        addHandlers(found);
+    }
+
+    /**
+     * Subscribe a listener receiving all posted events of the given class and its subclasses.
+     */
+    public <E extends Event> void subscribe(final Class<E> eventClass, final IEventListener<? super E> listener) {
+        final List<Handler> found = new ArrayList<>(1);
+        found.add(new Handler(eventClass, listener, null, null));
+        addHandlers(found);
+    }
+
+    /**
+     * Subscribe a visitor to all game events.
+     */
+    public void subscribe(final IGameEventVisitor<?> visitor) {
+        subscribe(GameEvent.class, new IEventListener<GameEvent>() {
+            @Override
+            public void receive(final GameEvent event) {
+                event.visit(visitor);
+            }
+        });
+    }
+
+    private void addHandlers(final List<Handler> found) {
+        if (found.isEmpty()) { return; }
+        handlers.addAll(found);
+        handlersByClass.clear();
+    }
+
+    /**
+     * Stop delivering events, for games that nobody watches such as simulation copies.
+     * Callers may then skip building events, see {@link #hasSubscribers(Class)}.
+     */
+    public void disable() {
+        enabled = false;
+    }
+
+    /**
+     * Whether a posted event of the given class would reach any subscriber.
+     */
+    public boolean hasSubscribers(final Class<? extends Event> eventClass) {
+        return enabled && getHandlers(eventClass).length > 0;
+    }
+
+    public void post(final Event event) {
+        if (!enabled) { return; }
+
+        final Handler[] eventHandlers = getHandlers(event.getClass());
+        if (eventHandlers.length == 0) { return; }
+
+        final DispatchState state = dispatchState.get();
+        if (state.dispatching) {
+            state.queue.add(event);
+            return;
+        }
+        state.dispatching = true;
+        try {
+            dispatch(event, eventHandlers);
+            Event queued;
+            while ((queued = state.queue.poll()) != null) {
+                dispatch(queued, getHandlers(queued.getClass()));
+            }
+        } finally {
+            state.dispatching = false;
+            state.queue.clear();
+        }
+    }
+
+    private void dispatch(final Event event, final Handler[] eventHandlers) {
+        for (final Handler handler : eventHandlers) {
+            try {
+                handler.receive(event);
+            } catch (final Exception e) {
+                System.err.println("Exception thrown by subscriber of " + name + " receiving " + event);
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private Handler[] getHandlers(final Class<?> eventClass) {
+        Handler[] result = handlersByClass.get(eventClass);
+        if (result == null) {
+            final List<Handler> matching = new ArrayList<>();
+            for (final Handler handler : handlers) {
+                if (handler.eventClass.isAssignableFrom(eventClass)) {
+                    matching.add(handler);
+                }
+            }
+            result = matching.isEmpty() ? NO_HANDLERS : matching.toArray(new Handler[0]);
+            handlersByClass.put(eventClass, result);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static final class Handler {
+        private final Class<?> eventClass;
+        private final IEventListener<Event> listener;
+        private final Object target;
+        private final Method method;
+
+        @SuppressWarnings("unchecked")
+        private Handler(final Class<?> eventClass0, final IEventListener<?> listener0, final Object target0, final Method method0) {
+            eventClass = eventClass0;
+            listener = (IEventListener<Event>) listener0;
+            target = target0;
+            method = method0;
+        }
+
+        private void receive(final Event event) throws Exception {
+            if (listener != null) {
+                listener.receive(event);
+                return;
+            }
+            try {
+                method.invoke(target, event);
+            } catch (final InvocationTargetException e) {
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                if (e.getCause() instanceof Exception) {
+                    throw (Exception) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static final class DispatchState {
+        private final ArrayDeque<Event> queue = new ArrayDeque<>();
+        private boolean dispatching;
+    }
+}
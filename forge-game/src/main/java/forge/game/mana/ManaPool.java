@@ -73,7 +73,9 @@ public class ManaPool extends ManaConversionMatrix implements Iterable<Mana> {
         floatingMana.put(mana.getColor(), mana);
         if (updateView) {
             owner.updateManaForView();
-            owner.getGame().fireEvent(new GameEventManaPool(owner, EventValueChangeType.Added, mana));
+            if (owner.getGame().hasEventSubscribers(GameEventManaPool.class)) {
+                owner.getGame().fireEvent(new GameEventManaPool(owner, EventValueChangeType.Added, mana));
+            }
         }
     }
 
@@ -166,7 +168,9 @@ public class ManaPool extends ManaConversionMatrix implements Iterable<Mana> {
         }
 
         owner.updateManaForView();
-        owner.getGame().fireEvent(new GameEventManaPool(owner, EventValueChangeType.Cleared, null));
+        if (owner.getGame().hasEventSubscribers(GameEventManaPool.class)) {
+            owner.getGame().fireEvent(new GameEventManaPool(owner, EventValueChangeType.Cleared, null));
+        }
         return cleared;
     }
 
@@ -193,7 +197,9 @@ public class ManaPool extends ManaConversionMatrix implements Iterable<Mana> {
         }
         if (success && updateView) {
             owner.updateManaForView();
-            owner.getGame().fireEvent(new GameEventManaPool(owner, EventValueChangeType.Removed, mana));
+            if (owner.getGame().hasEventSubscribers(GameEventManaPool.class)) {
+                owner.getGame().fireEvent(new GameEventManaPool(owner, EventValueChangeType.Removed, mana));
+            }
         }
         return success;
     }
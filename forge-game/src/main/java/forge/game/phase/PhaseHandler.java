@@ -236,8 +236,10 @@ public class PhaseHandler implements java.io.Serializable {
             }
         }
 
-        String phaseType = oldPhase == phase ? "Repeat" : phase == PhaseType.getNext(oldPhase, isTopsy) ? "" : "Additional";
-        game.fireEvent(new GameEventTurnPhase(playerTurn, phase, phaseType));
+        if (game.hasEventSubscribers(GameEventTurnPhase.class)) {
+            String phaseType = oldPhase == phase ? "Repeat" : phase == PhaseType.getNext(oldPhase, isTopsy) ? "" : "Additional";
+            game.fireEvent(new GameEventTurnPhase(playerTurn, phase, phaseType));
+        }
     }
 
     private boolean isSkippingPhase(final PhaseType phase) {
@@ -1076,7 +1078,9 @@ public class PhaseHandler implements java.io.Serializable {
                 sw.start();
             }
 
-            game.fireEvent(new GameEventPlayerPriority(playerTurn, phase, getPriorityPlayer()));
+            if (game.hasEventSubscribers(GameEventPlayerPriority.class)) {
+                game.fireEvent(new GameEventPlayerPriority(playerTurn, phase, getPriorityPlayer()));
+            }
 
             if (checkStateBasedEffects()) {
                 // state-based effects check could lead to game over
@@ -1213,19 +1217,29 @@ public class PhaseHandler implements java.io.Serializable {
     public final boolean devAdvanceToPhase(PhaseType targetPhase, Runnable resolver) {
         boolean isTopsy = playerTurn.getAmountOfKeyword("The phases of your turn are reversed.") % 2 == 1;
         while (phase.isBefore(targetPhase, isTopsy)) {
-            if (checkStateBasedEffects()) {
+            if (!devAdvanceOnePhase(resolver)) {
                 return false;
             }
-            if (resolver != null) {
-                resolver.run();
-            }
-            onPhaseEnd();
-            advanceToNextPhase();
-            onPhaseBegin();
         }
         checkStateBasedEffects();
         return true;
     }
+    /**
+     * Move on to the next phase without giving anyone priority, going into the next turn after cleanup.
+     * Returns false if the game ended.
+     */
+    public final boolean devAdvanceOnePhase(Runnable resolver) {
+        if (checkStateBasedEffects()) {
+            return false;
+        }
+        if (resolver != null) {
+            resolver.run();
+        }
+        onPhaseEnd();
+        advanceToNextPhase();
+        onPhaseBegin();
+        return true;
+    }
 
     // this is a hack for the setup game state mode, do not use outside of devSetupGameState code
     // as it avoids calling any of the phase effects that may be necessary in a less enforced context
@@ -117,7 +117,6 @@ import forge.item.PaperCard;
 import forge.util.Aggregates;
 import forge.util.Lang;
 import forge.util.Localizer;
-import forge.util.MyRandom;
 import forge.util.TextUtil;
 import forge.util.collect.FCollection;
 import forge.util.collect.FCollectionView;
@@ -962,6 +961,7 @@ public class Player extends GameEntity implements Comparable<Player> {
         if (counters.isEmpty()) { return; }
         counters.clear();
         view.updateCounters(this);
+        getGame().updateBoardVersion();
         getGame().fireEvent(new GameEventPlayerCounters(this, null, 0, 0));
     }
 
@@ -973,6 +973,7 @@ public class Player extends GameEntity implements Comparable<Player> {
         Integer old = getCounters(counterType);
         setCounters(counterType, num);
         view.updateCounters(this);
+        getGame().updateBoardVersion();
         if (fireEvents) {
             getGame().fireEvent(new GameEventPlayerCounters(this, counterType, old, num));
         }
@@ -982,6 +983,7 @@ public class Player extends GameEntity implements Comparable<Player> {
     public void setCounters(Map<CounterType, Integer> allCounters) {
         counters = allCounters;
         view.updateCounters(this);
+        getGame().updateBoardVersion();
         getGame().fireEvent(new GameEventPlayerCounters(this, null, 0, 0));
     }
 
@@ -1694,7 +1696,7 @@ public class Player extends GameEntity implements Comparable<Player> {
         final CardCollection list = new CardCollection(getCardsIn(ZoneType.Library));
 
         // Note: Shuffling once is sufficient.
-        Collections.shuffle(list, MyRandom.getRandom());
+        Collections.shuffle(list, game.getRandom());
 
         getZone(ZoneType.Library).setCards(getController().cheatShuffle(list));
 
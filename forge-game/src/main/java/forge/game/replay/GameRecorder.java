@@ -0,0 +1,417 @@
+package forge.game.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.collect.Multimap;
+
+import forge.deck.io.DeckSerializer;
+import forge.game.Game;
+import forge.game.GameEntity;
+import forge.game.GameObject;
+import forge.game.GameType;
+import forge.game.card.Card;
+import forge.game.event.EventDispatcher;
+import forge.game.event.GameEvent;
+import forge.game.event.GameEventAttackersDeclared;
+import forge.game.event.GameEventBlockersDeclared;
+import forge.game.event.GameEventGameOutcome;
+import forge.game.event.GameEventGameStarted;
+import forge.game.event.GameEventLandPlayed;
+import forge.game.event.GameEventMulligan;
+import forge.game.event.GameEventPlayerPriority;
+import forge.game.event.GameEventSpellAbilityCast;
+import forge.game.phase.PhaseHandler;
+import forge.game.player.Player;
+import forge.game.spellability.AbilityStatic;
+import forge.game.spellability.SpellAbility;
+import forge.game.spellability.SpellAbilityStackInstance;
+import forge.game.zone.ZoneType;
+import forge.util.maps.MapOfLists;
+
+/**
+ * Writes a game to a stream of JSON lines while it is played, one line per game event or player
+ * decision, so long runs don't need to keep their logs in memory and the game can be played again
+ * with {@link GameReplay}.
+ * <br><br>
+ * The first line has the rules, players and decks, the second who goes first and the order of
+ * the libraries once the game starts. Every game switches to random numbers of their own derived
+ * from its seed as it starts (see {@link forge.game.Game#startPlayRandom}), so how the match went
+ * before the game doesn't matter for the replay, and recording doesn't change the game. Cards and
+ * players are written as "c" or "p" followed by their id. The decisions are the spells and
+ * abilities played when given priority, the lands played, attackers, blockers and mulligans;
+ * the spells and abilities played are tied to the priority they were played at by counting
+ * the priorities given so far.
+ */
+public class GameRecorder implements Closeable {
+    public static final int VERSION = 1;
+
+    private static final int MAX_VALUE_DEPTH = 3;
+    private static final Map<Class<?>, Field[]> EVENT_FIELDS = new ConcurrentHashMap<>();
+
+    private final Writer out;
+    private long seed;
+    private Game game;
+    private int priority;
+    private int events;
+    private boolean started;
+    private boolean failed;
+
+    public GameRecorder(final Writer out0) {
+        out = out0;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Start recording a game that was created but not started yet.
+     */
+    public void attach(final Game game0) {
+        game = game0;
+        seed = game.getSeed();
+        final StringBuilder sb = line("header");
+        sb.append(",\"version\":").append(VERSION).append(",\"seed\":").append(seed);
+        sb.append(",\"gameType\":");
+        Json.appendString(sb, game.getRules().getGameType().name());
+        sb.append(",\"variants\":[");
+        boolean first = true;
+        for (final GameType variant : game.getRules().getAppliedVariants()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            Json.appendString(sb, variant.name());
+        }
+        sb.append("],\"players\":[");
+        first = true;
+        for (final Player p : game.getPlayers()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            sb.append("{\"id\":");
+            Json.appendString(sb, ref(p));
+            sb.append(",\"name\":");
+            Json.appendString(sb, p.getName());
+            sb.append(",\"deck\":[");
+            boolean firstLine = true;
+            for (final String lines : DeckSerializer.serializeDeck(p.getRegisteredPlayer().getDeck())) {
+                for (final String deckLine : lines.split("\r?\n")) {
+                    if (!firstLine) {
+                        sb.append(',');
+                    }
+                    firstLine = false;
+                    Json.appendString(sb, deckLine);
+                }
+            }
+            sb.append("]}");
+        }
+        sb.append(']');
+        write(sb);
+
+        game.subscribeToEvents(GameEvent.class, new EventDispatcher.IEventListener<GameEvent>() {
+            @Override
+            public void receive(final GameEvent event) {
+                record(event);
+            }
+        });
+    }
+
+    private void record(final GameEvent event) {
+        if (event instanceof GameEventPlayerPriority) {
+            priority++;
+        } else if (event instanceof GameEventGameStarted) {
+            if (!started) {
+                started = true;
+                recordStart((GameEventGameStarted) event);
+            }
+        } else if (event instanceof GameEventSpellAbilityCast && isPlayedWithPriority(((GameEventSpellAbilityCast) event).sa)) {
+            recordPlay(((GameEventSpellAbilityCast) event).sa);
+        } else if (event instanceof GameEventLandPlayed && !game.getStack().isResolving()) {
+            final GameEventLandPlayed landPlayed = (GameEventLandPlayed) event;
+            final StringBuilder sb = decision(GameReplay.LAND, landPlayed.player);
+            sb.append(",\"card\":");
+            Json.appendString(sb, ref(landPlayed.land));
+            write(sb);
+        } else if (event instanceof GameEventAttackersDeclared) {
+            recordAttack((GameEventAttackersDeclared) event);
+        } else if (event instanceof GameEventBlockersDeclared) {
+            recordBlock((GameEventBlockersDeclared) event);
+        } else if (event instanceof GameEventMulligan) {
+            write(decision(GameReplay.MULLIGAN, ((GameEventMulligan) event).player));
+        } else if (event instanceof GameEventGameOutcome) {
+            recordEnd();
+        } else {
+            recordEvent(event);
+        }
+    }
+
+    private boolean isPlayedWithPriority(final SpellAbility sa) {
+        // spells cast while another one resolves, copies and triggers weren't chosen at priority
+        return !game.getStack().isResolving() && !sa.isTrigger() && !sa.isCopied() && !(sa instanceof AbilityStatic)
+                && sa.getActivatingPlayer() == game.getPhaseHandler().getPriorityPlayer();
+    }
+
+    private void recordStart(final GameEventGameStarted event) {
+        final StringBuilder sb = line("start");
+        sb.append(",\"first\":");
+        Json.appendString(sb, ref(event.firstTurn));
+        sb.append(",\"libraries\":{");
+        boolean first = true;
+        for (final Player p : game.getPlayers()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            Json.appendString(sb, ref(p));
+            sb.append(':');
+            appendValue(sb, p.getCardsIn(ZoneType.Library), 0);
+        }
+        sb.append('}');
+        write(sb);
+    }
+
+    private void recordPlay(final SpellAbility sa) {
+        final StringBuilder sb = decision(GameReplay.PLAY, sa.getActivatingPlayer());
+        sb.append(",\"card\":");
+        Json.appendString(sb, ref(sa.getHostCard()));
+        sb.append(",\"sa\":");
+        Json.appendString(sb, sa.getDescription());
+        sb.append(",\"targets\":[");
+        for (SpellAbility node = sa; node != null; node = node.getSubAbility()) {
+            if (node != sa) {
+                sb.append(',');
+            }
+            final List<String> targets = new ArrayList<>();
+            for (final GameObject target : node.getTargets()) {
+                if (target instanceof GameEntity) {
+                    targets.add(ref(target));
+                }
+            }
+            appendValue(sb, targets, 0);
+        }
+        sb.append(']');
+        write(sb);
+    }
+
+    private void recordAttack(final GameEventAttackersDeclared event) {
+        final StringBuilder sb = decision(GameReplay.ATTACK, event.player);
+        sb.append(",\"attacks\":");
+        appendValue(sb, event.attackersMap, 0);
+        write(sb);
+    }
+
+    private void recordBlock(final GameEventBlockersDeclared event) {
+        final StringBuilder sb = decision(GameReplay.BLOCK, event.defendingPlayer);
+        sb.append(",\"blocks\":{");
+        boolean first = true;
+        for (final MapOfLists<Card, Card> blocks : event.blockers.values()) {
+            for (final Entry<Card, Collection<Card>> e : blocks.entrySet()) {
+                if (e.getValue().isEmpty()) {
+                    continue;
+                }
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                Json.appendString(sb, ref(e.getKey()));
+                sb.append(':');
+                appendValue(sb, e.getValue(), 0);
+            }
+        }
+        sb.append('}');
+        write(sb);
+    }
+
+    private void recordEnd() {
+        final StringBuilder sb = line("end");
+        sb.append(",\"turn\":").append(game.getPhaseHandler().getTurn());
+        sb.append(",\"winners\":[");
+        boolean first = true;
+        for (final Player p : game.getRegisteredPlayers()) {
+            if (p.getOutcome() != null && p.getOutcome().hasWon()) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                Json.appendString(sb, ref(p));
+            }
+        }
+        sb.append(']');
+        write(sb);
+        flush();
+    }
+
+    private void recordEvent(final GameEvent event) {
+        final StringBuilder sb = line("event");
+        sb.append(",\"n\":").append(++events);
+        appendTurn(sb);
+        sb.append(",\"event\":");
+        final String name = event.getClass().getSimpleName();
+        Json.appendString(sb, name.startsWith("GameEvent") ? name.substring("GameEvent".length()) : name);
+        for (final Field f : getFields(event.getClass())) {
+            Object value;
+            try {
+                value = f.get(event);
+            } catch (final IllegalAccessException e) {
+                continue;
+            }
+            sb.append(',');
+            Json.appendString(sb, f.getName());
+            sb.append(':');
+            appendValue(sb, value, 0);
+        }
+        write(sb);
+    }
+
+    private StringBuilder line(final String type) {
+        final StringBuilder sb = new StringBuilder(128);
+        sb.append("{\"type\":");
+        Json.appendString(sb, type);
+        return sb;
+    }
+
+    private StringBuilder decision(final String type, final Player player) {
+        final StringBuilder sb = line(type);
+        sb.append(",\"priority\":").append(priority);
+        appendTurn(sb);
+        sb.append(",\"player\":");
+        Json.appendString(sb, ref(player));
+        return sb;
+    }
+
+    private void appendTurn(final StringBuilder sb) {
+        final PhaseHandler ph = game.getPhaseHandler();
+        sb.append(",\"turn\":").append(ph.getTurn());
+        if (ph.getPhase() != null) {
+            sb.append(",\"phase\":");
+            Json.appendString(sb, ph.getPhase().name());
+        }
+    }
+
+    private static Field[] getFields(final Class<?> eventClass) {
+        Field[] fields = EVENT_FIELDS.get(eventClass);
+        if (fields == null) {
+            final List<Field> found = new ArrayList<>();
+            for (final Field f : eventClass.getFields()) {
+                if (!Modifier.isStatic(f.getModifiers())) {
+                    found.add(f);
+                }
+            }
+            fields = found.toArray(new Field[0]);
+            EVENT_FIELDS.put(eventClass, fields);
+        }
+        return fields;
+    }
+
+    /**
+     * How a card, player or other game entity is written in the record.
+     */
+    public static String ref(final Object o) {
+        if (o instanceof Card) {
+            return "c" + ((Card) o).getId();
+        }
+        if (o instanceof Player) {
+            return "p" + ((Player) o).getId();
+        }
+        if (o instanceof GameEntity) {
+            return "e" + ((GameEntity) o).getId();
+        }
+        return String.valueOf(o);
+    }
+
+    private static void appendValue(final StringBuilder sb, final Object value, final int depth) {
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof Boolean || value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            sb.append(value);
+        } else if (value instanceof Number) {
+            final double d = ((Number) value).doubleValue();
+            sb.append(Double.isNaN(d) || Double.isInfinite(d) ? "null" : String.valueOf(d));
+        } else if (value instanceof GameEntity) {
+            Json.appendString(sb, ref(value));
+        } else if (value instanceof SpellAbilityStackInstance) {
+            appendValue(sb, ((SpellAbilityStackInstance) value).getSpellAbility(), depth);
+        } else if (value instanceof SpellAbility) {
+            final SpellAbility sa = (SpellAbility) value;
+            sb.append("{\"card\":");
+            Json.appendString(sb, ref(sa.getHostCard()));
+            sb.append(",\"sa\":");
+            Json.appendString(sb, sa.getDescription());
+            sb.append('}');
+        } else if (value instanceof Enum) {
+            Json.appendString(sb, ((Enum<?>) value).name());
+        } else if (depth >= MAX_VALUE_DEPTH || value instanceof CharSequence) {
+            Json.appendString(sb, value.toString());
+        } else if (value instanceof Multimap) {
+            appendValue(sb, ((Multimap<?, ?>) value).asMap(), depth);
+        } else if (value instanceof Map) {
+            sb.append('{');
+            boolean first = true;
+            for (final Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                Json.appendString(sb, ref(e.getKey()));
+                sb.append(':');
+                appendValue(sb, e.getValue(), depth + 1);
+            }
+            sb.append('}');
+        } else if (value instanceof Iterable) {
+            sb.append('[');
+            boolean first = true;
+            for (final Object o : (Iterable<?>) value) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                appendValue(sb, o, depth + 1);
+            }
+            sb.append(']');
+        } else {
+            Json.appendString(sb, value.toString());
+        }
+    }
+
+    private void write(final StringBuilder line) {
+        if (failed) {
+            return;
+        }
+        try {
+            out.write(line.append("}\n").toString());
+        } catch (final IOException e) {
+            failed = true;
+            System.err.println("Could not write the game record, stopped recording: " + e.getMessage());
+        }
+    }
+
+    private void flush() {
+        if (failed) {
+            return;
+        }
+        try {
+            out.flush();
+        } catch (final IOException e) {
+            failed = true;
+            System.err.println("Could not write the game record, stopped recording: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,404 @@
+package forge.game.replay;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import com.google.common.collect.Lists;
+
+import forge.game.Game;
+import forge.game.GameEntity;
+import forge.game.GameType;
+import forge.game.card.Card;
+import forge.game.event.EventDispatcher;
+import forge.game.event.GameEvent;
+import forge.game.event.GameEventGameStarted;
+import forge.game.event.GameEventPlayerPriority;
+import forge.game.player.Player;
+import forge.game.zone.PlayerZone;
+import forge.game.zone.ZoneType;
+
+/**
+ * A game written by {@link GameRecorder}, to be played again with the same decks, library order
+ * and random numbers while the players follow the recorded decisions.
+ * <br><br>
+ * Only the header and the decisions are kept when reading, the events are skipped. Once attached
+ * to the new game, it draws its random numbers from the recorded seed and the libraries are put
+ * in the recorded order as the game starts, where every game switches to random numbers derived
+ * from its seed. The priorities given are counted the same way
+ * as when recording, so the controllers of the players can look up what was decided at each of
+ * them (see {@link #getDecisions(int, Player, String)}) and report where their own choices
+ * differ (see {@link #diverged(String)}).
+ */
+public class GameReplay {
+    public static final String PLAY = "play";
+    public static final String LAND = "land";
+    public static final String ATTACK = "attack";
+    public static final String BLOCK = "block";
+    public static final String MULLIGAN = "mulligan";
+
+    private static final int MAX_DIVERGENCES = 100;
+
+    private long seed;
+    private GameType gameType;
+    private final Set<GameType> variants = EnumSet.noneOf(GameType.class);
+    private final List<PlayerInfo> players = new ArrayList<>();
+    private String firstPlayer;
+    private final Map<String, List<String>> libraries = new HashMap<>();
+    private final Map<Integer, List<Decision>> decisions = new HashMap<>();
+    private final Map<String, Integer> mulligans = new HashMap<>();
+    private int endTurn;
+    private final List<String> winners = new ArrayList<>();
+
+    private Game game;
+    private int priority;
+    private final List<String> divergences = new ArrayList<>();
+
+    private GameReplay() {
+    }
+
+    /**
+     * Read a game record. Only one line is held in memory at a time besides the decisions.
+     */
+    public static GameReplay read(final Reader in) throws IOException {
+        final GameReplay replay = new GameReplay();
+        final BufferedReader reader = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            // events are the bulk of a record, no need to parse them
+            if (line.isEmpty() || line.startsWith("{\"type\":\"event\"")) {
+                continue;
+            }
+            try {
+                replay.readLine(Json.parseObject(line));
+            } catch (final IllegalArgumentException e) {
+                throw new IOException("Bad game record at line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        if (replay.gameType == null) {
+            throw new IOException("Not a game record, the header is missing");
+        }
+        return replay;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readLine(final Map<String, Object> line) {
+        final String type = (String) line.get("type");
+        if ("header".equals(type)) {
+            final long version = (Long) line.get("version");
+            if (version > GameRecorder.VERSION) {
+                throw new IllegalArgumentException("recorded by a newer version " + version);
+            }
+            seed = (Long) line.get("seed");
+            gameType = GameType.valueOf((String) line.get("gameType"));
+            for (final Object variant : (List<Object>) line.get("variants")) {
+                variants.add(GameType.valueOf((String) variant));
+            }
+            for (final Object o : (List<Object>) line.get("players")) {
+                final Map<String, Object> p = (Map<String, Object>) o;
+                final List<String> deck = new ArrayList<>();
+                for (final Object deckLine : (List<Object>) p.get("deck")) {
+                    deck.add((String) deckLine);
+                }
+                players.add(new PlayerInfo((String) p.get("id"), (String) p.get("name"), deck));
+            }
+        } else if ("start".equals(type)) {
+            firstPlayer = (String) line.get("first");
+            for (final Entry<String, Object> e : ((Map<String, Object>) line.get("libraries")).entrySet()) {
+                libraries.put(e.getKey(), toStrings(e.getValue()));
+            }
+        } else if ("end".equals(type)) {
+            endTurn = ((Long) line.get("turn")).intValue();
+            winners.addAll(toStrings(line.get("winners")));
+        } else if (MULLIGAN.equals(type)) {
+            final String player = (String) line.get("player");
+            final Integer count = mulligans.get(player);
+            mulligans.put(player, count == null ? 1 : count + 1);
+        } else if (PLAY.equals(type) || LAND.equals(type) || ATTACK.equals(type) || BLOCK.equals(type)) {
+            final Decision d = new Decision(type, line);
+            List<Decision> atPriority = decisions.get(d.priority);
+            if (atPriority == null) {
+                atPriority = new ArrayList<>(1);
+                decisions.put(d.priority, atPriority);
+            }
+            atPriority.add(d);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> toStrings(final Object list) {
+        final List<String> result = new ArrayList<>();
+        if (list != null) {
+            for (final Object o : (List<Object>) list) {
+                result.add((String) o);
+            }
+        }
+        return result;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public GameType getGameType() {
+        return gameType;
+    }
+
+    public Set<GameType> getVariants() {
+        return variants;
+    }
+
+    public List<PlayerInfo> getPlayers() {
+        return Collections.unmodifiableList(players);
+    }
+
+    /** The turn the recorded game ended at, 0 if the record ends before. */
+    public int getEndTurn() {
+        return endTurn;
+    }
+
+    /** The ids of the players that won the recorded game, written as in the record. */
+    public List<String> getWinners() {
+        return Collections.unmodifiableList(winners);
+    }
+
+    /**
+     * Replay the record in a game that was created but not started yet.
+     */
+    public void attach(final Game game0) {
+        game = game0;
+        priority = 0;
+        // the game hasn't shuffled or drawn anything yet, so it plays from the recorded seed from the start
+        game.setSeed(seed);
+        game.subscribeToEvents(GameEvent.class, new EventDispatcher.IEventListener<GameEvent>() {
+            private boolean started;
+
+            @Override
+            public void receive(final GameEvent event) {
+                if (event instanceof GameEventPlayerPriority) {
+                    priority++;
+                } else if (event instanceof GameEventGameStarted && !started) {
+                    started = true;
+                    restoreLibraries();
+                }
+            }
+        });
+    }
+
+    private void restoreLibraries() {
+        for (final Player p : game.getPlayers()) {
+            final List<String> order = libraries.get(GameRecorder.ref(p));
+            if (order == null) {
+                continue;
+            }
+            final PlayerZone library = p.getZone(ZoneType.Library);
+            final Map<String, Card> byRef = new LinkedHashMap<>();
+            for (final Card c : library.getCards()) {
+                byRef.put(GameRecorder.ref(c), c);
+            }
+            final List<Card> ordered = Lists.newArrayListWithCapacity(order.size());
+            for (final String ref : order) {
+                final Card c = byRef.remove(ref);
+                if (c != null) {
+                    ordered.add(c);
+                }
+            }
+            if (ordered.size() != order.size() || !byRef.isEmpty()) {
+                diverged("The library of " + p + " doesn't have the recorded cards");
+            }
+            ordered.addAll(byRef.values());
+            library.setCards(ordered);
+        }
+    }
+
+    /** The priorities given so far in the game being replayed. */
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * The decisions of the given type the player made at the given priority, in the order made.
+     */
+    public List<Decision> getDecisions(final int atPriority, final Player player, final String type) {
+        final List<Decision> atPriorityDecisions = decisions.get(atPriority);
+        if (atPriorityDecisions == null) {
+            return Collections.emptyList();
+        }
+        final String playerRef = GameRecorder.ref(player);
+        final List<Decision> result = new ArrayList<>(1);
+        for (final Decision d : atPriorityDecisions) {
+            if (d.type.equals(type) && d.player.equals(playerRef)) {
+                result.add(d);
+            }
+        }
+        return result;
+    }
+
+    public Decision getDecision(final int atPriority, final Player player, final String type) {
+        final List<Decision> result = getDecisions(atPriority, player, type);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    /** How often the player took a mulligan in the recorded game. */
+    public int getMulligans(final Player player) {
+        final Integer count = mulligans.get(GameRecorder.ref(player));
+        return count == null ? 0 : count;
+    }
+
+    public Player getFirstPlayer() {
+        final GameEntity first = findEntity(firstPlayer);
+        return first instanceof Player ? (Player) first : null;
+    }
+
+    /**
+     * Find a card or player of the game being replayed by the way it was written in the record.
+     */
+    public GameEntity findEntity(final String ref) {
+        if (ref == null || ref.length() < 2) {
+            return null;
+        }
+        final int id;
+        try {
+            id = Integer.parseInt(ref.substring(1));
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+        switch (ref.charAt(0)) {
+        case 'p':
+            for (final Player p : game.getPlayers()) {
+                if (p.getId() == id) {
+                    return p;
+                }
+            }
+            return null;
+        case 'c':
+        case 'e':
+            return game.findById(id);
+        default:
+            return null;
+        }
+    }
+
+    public Card findCard(final String ref) {
+        final GameEntity entity = findEntity(ref);
+        return entity instanceof Card ? (Card) entity : null;
+    }
+
+    /**
+     * Note that a player chose differently than recorded, at the current turn and phase.
+     */
+    public void diverged(final String message) {
+        if (divergences.size() >= MAX_DIVERGENCES) {
+            return;
+        }
+        final String when = game == null || game.getPhaseHandler().getPhase() == null ? ""
+                : "Turn " + game.getPhaseHandler().getTurn() + " " + game.getPhaseHandler().getPhase() + ": ";
+        divergences.add(when + message);
+    }
+
+    public List<String> getDivergences() {
+        return Collections.unmodifiableList(divergences);
+    }
+
+    public static final class PlayerInfo {
+        private final String id;
+        private final String name;
+        private final List<String> deck;
+
+        private PlayerInfo(final String id0, final String name0, final List<String> deck0) {
+            id = id0;
+            name = name0;
+            deck = Collections.unmodifiableList(deck0);
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /** The deck in the sections of a deck file. */
+        public List<String> getDeck() {
+            return deck;
+        }
+    }
+
+    public static final class Decision {
+        private final String type;
+        private final int priority;
+        private final String player;
+        private final String card;
+        private final String sa;
+        private final List<List<String>> targets = new ArrayList<>();
+        private final Map<String, List<String>> combat = new LinkedHashMap<>();
+
+        @SuppressWarnings("unchecked")
+        private Decision(final String type0, final Map<String, Object> line) {
+            type = type0;
+            priority = ((Long) line.get("priority")).intValue();
+            player = (String) line.get("player");
+            card = (String) line.get("card");
+            sa = (String) line.get("sa");
+            final Object targetList = line.get("targets");
+            if (targetList != null) {
+                for (final Object nodeTargets : (List<Object>) targetList) {
+                    targets.add(toStrings(nodeTargets));
+                }
+            }
+            final Object combatMap = line.get(ATTACK.equals(type) ? "attacks" : "blocks");
+            if (combatMap != null) {
+                for (final Entry<String, Object> e : ((Map<String, Object>) combatMap).entrySet()) {
+                    combat.put(e.getKey(), toStrings(e.getValue()));
+                }
+            }
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        /** The card played, or the host of the ability played. */
+        public String getCard() {
+            return card;
+        }
+
+        /** The description of the spell or ability played. */
+        public String getDescription() {
+            return sa;
+        }
+
+        /** The targets of the ability played and each of its sub-abilities, in order. */
+        public List<List<String>> getTargets() {
+            return targets;
+        }
+
+        /** The attackers by defender, or the blockers by attacker. */
+        public Map<String, List<String>> getCombat() {
+            return combat;
+        }
+
+        @Override
+        public String toString() {
+            if (PLAY.equals(type)) {
+                return "play " + sa + " of " + card + (targets.isEmpty() || targets.get(0).isEmpty() ? "" : " targeting " + targets);
+            }
+            if (LAND.equals(type)) {
+                return "play land " + card;
+            }
+            return type + " " + combat;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package forge.game.replay;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Just enough JSON for the lines of a game record: strings, numbers, booleans, null, arrays and
+ * objects. Parsed objects are maps keeping their order, arrays are lists and numbers are longs,
+ * or doubles if they have a fraction or exponent.
+ */
+final class Json {
+    private final String text;
+    private int pos;
+
+    private Json(final String text0) {
+        text = text0;
+    }
+
+    static void appendString(final StringBuilder sb, final String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            switch (c) {
+            case '"':
+            case '\\':
+                sb.append('\\').append(c);
+                break;
+            case '\n':
+                sb.append("\\n");
+                break;
+            case '\r':
+                sb.append("\\r");
+                break;
+            case '\t':
+                sb.append("\\t");
+                break;
+            default:
+                if (c < ' ') {
+                    sb.append(String.format("\\u%04x", (int) c));
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    static Object parse(final String line) {
+        final Json json = new Json(line);
+        final Object result = json.readValue();
+        json.skipWhitespace();
+        if (json.pos != line.length()) {
+            throw json.error("unexpected text after value");
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> parseObject(final String line) {
+        final Object result = parse(line);
+        if (!(result instanceof Map)) {
+            throw new IllegalArgumentException("Not a JSON object: " + line);
+        }
+        return (Map<String, Object>) result;
+    }
+
+    private Object readValue() {
+        skipWhitespace();
+        if (pos >= text.length()) {
+            throw error("unexpected end");
+        }
+        final char c = text.charAt(pos);
+        switch (c) {
+        case '{':
+            return readObject();
+        case '[':
+            return readArray();
+        case '"':
+            return readString();
+        case 't':
+            expect("true");
+            return Boolean.TRUE;
+        case 'f':
+            expect("false");
+            return Boolean.FALSE;
+        case 'n':
+            expect("null");
+            return null;
+        default:
+            return readNumber();
+        }
+    }
+
+    private Map<String, Object> readObject() {
+        final Map<String, Object> result = new LinkedHashMap<>();
+        pos++;
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return result;
+        }
+        while (true) {
+            skipWhitespace();
+            final String key = readString();
+            skipWhitespace();
+            if (peek() != ':') {
+                throw error("expected ':'");
+            }
+            pos++;
+            result.put(key, readValue());
+            skipWhitespace();
+            final char c = peek();
+            pos++;
+            if (c == '}') {
+                return result;
+            }
+            if (c != ',') {
+                throw error("expected ',' or '}'");
+            }
+        }
+    }
+
+    private List<Object> readArray() {
+        final List<Object> result = new ArrayList<>();
+        pos++;
+        skipWhitespace();
+        if (peek() == ']') {
+            pos++;
+            return result;
+        }
+        while (true) {
+            result.add(readValue());
+            skipWhitespace();
+            final char c = peek();
+            pos++;
+            if (c == ']') {
+                return result;
+            }
+            if (c != ',') {
+                throw error("expected ',' or ']'");
+            }
+        }
+    }
+
+    private String readString() {
+        if (peek() != '"') {
+            throw error("expected a string");
+        }
+        pos++;
+        final StringBuilder sb = new StringBuilder();
+        while (true) {
+            final char c = peek();
+            pos++;
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            final char e = peek();
+            pos++;
+            switch (e) {
+            case 'n':
+                sb.append('\n');
+                break;
+            case 'r':
+                sb.append('\r');
+                break;
+            case 't':
+                sb.append('\t');
+                break;
+            case 'b':
+                sb.append('\b');
+                break;
+            case 'f':
+                sb.append('\f');
+                break;
+            case 'u':
+                if (pos + 4 > text.length()) {
+                    throw error("bad unicode escape");
+                }
+                sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                pos += 4;
+                break;
+            default:
+                sb.append(e);
+            }
+        }
+    }
+
+    private Object readNumber() {
+        final int start = pos;
+        boolean fraction = false;
+        while (pos < text.length()) {
+            final char c = text.charAt(pos);
+            if (c == '.' || c == 'e' || c == 'E') {
+                fraction = true;
+            } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                break;
+            }
+            pos++;
+        }
+        if (start == pos) {
+            throw error("unexpected character");
+        }
+        final String number = text.substring(start, pos);
+        return fraction ? (Object) Double.valueOf(number) : (Object) Long.valueOf(number);
+    }
+
+    private void expect(final String word) {
+        if (!text.startsWith(word, pos)) {
+            throw error("expected " + word);
+        }
+        pos += word.length();
+    }
+
+    private char peek() {
+        if (pos >= text.length()) {
+            throw error("unexpected end");
+        }
+        return text.charAt(pos);
+    }
+
+    private void skipWhitespace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException error(final String message) {
+        return new IllegalArgumentException("Bad JSON at " + pos + ", " + message + ": " + text);
+    }
+}
@@ -80,7 +80,7 @@ public final class AbilitySub extends SpellAbility implements java.io.Serializab
 
         api = api0;
         if (params0 != null) {
-            originalMapParams.putAll(params0);
+            setOriginalMapParams(params0);
             mapParams.putAll(params0);
         }
 
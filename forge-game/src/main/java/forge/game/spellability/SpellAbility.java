@@ -18,6 +18,7 @@
 package forge.game.spellability;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import forge.game.cost.CostSacrifice;
 import org.apache.commons.lang3.ObjectUtils;
@@ -86,8 +87,8 @@ import forge.util.TextUtil;
  * @version $Id$
  */
 public abstract class SpellAbility extends CardTraitBase implements ISpellAbility, IIdentifiable, Comparable<SpellAbility> {
-    private static int maxId = 0;
-    private static int nextId() { return ++maxId; }
+    private static final AtomicInteger maxId = new AtomicInteger();
+    private static int nextId() { return maxId.incrementAndGet(); }
 
     public static class EmptySa extends SpellAbility {
         public EmptySa(Card sourceCard) { super(sourceCard, Cost.Zero); setActivatingPlayer(sourceCard.getController());}
@@ -1656,7 +1657,7 @@ public abstract class SpellAbility extends CardTraitBase implements ISpellAbilit
         String announce = getParam("Announce");
         if (StringUtils.isBlank(announce)) {
             mapParams.put("Announce", variable);
-            originalMapParams.put("Announce", variable);
+            getChangeableOriginalMapParams().put("Announce", variable);
             return;
         }
         String[] announcedOnes = TextUtil.split(announce, ',');
@@ -1666,7 +1667,7 @@ public abstract class SpellAbility extends CardTraitBase implements ISpellAbilit
             }
         }
         mapParams.put("Announce", announce + ";" + variable);
-        originalMapParams.put("Announce", announce + ";" + variable);
+        getChangeableOriginalMapParams().put("Announce", announce + ";" + variable);
     }
 
     @Override
@@ -38,6 +38,7 @@ import forge.util.Lang;
 import forge.util.TextUtil;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * <p>
@@ -48,16 +49,17 @@ import java.util.*;
  * @version $Id$
  */
 public abstract class Trigger extends TriggerReplacementBase {
-    private static int maxId = 0;
-    private static int nextId() { return ++maxId; }
+    private static final AtomicInteger maxId = new AtomicInteger();
+    private static int nextId() { return maxId.incrementAndGet(); }
 
     /**
      * <p>
      * resetIDs.
      * </p>
+     * Other games may be running in the same JVM, so the ids only ever grow to stay unique.
      */
     public static void resetIDs() {
-        Trigger.maxId = 50000;
+        maxId.accumulateAndGet(50000, Math::max);
     }
 
     /** The ID. */
@@ -39,7 +39,6 @@ import forge.game.event.EventValueChangeType;
 import forge.game.event.GameEventZone;
 import forge.game.player.Player;
 import forge.util.CollectionSuppliers;
-import forge.util.MyRandom;
 import forge.util.maps.EnumMapOfLists;
 import forge.util.maps.MapOfLists;
 
@@ -131,8 +130,11 @@ public class Zone implements java.io.Serializable, Iterable<Card> {
             }
         }
         onChanged();
+        game.updateBoardVersion();
 
-        game.fireEvent(new GameEventZone(zoneType, getPlayer(), EventValueChangeType.Added, c));
+        if (game.hasEventSubscribers(GameEventZone.class)) {
+            game.fireEvent(new GameEventZone(zoneType, getPlayer(), EventValueChangeType.Added, c));
+        }
    }
 
     public final boolean contains(final Card c) {
@@ -146,7 +148,10 @@ public class Zone implements java.io.Serializable, Iterable<Card> {
     public void remove(final Card c) {
         if (cardList.remove(c)) {
             onChanged();
-            game.fireEvent(new GameEventZone(zoneType, getPlayer(), EventValueChangeType.Removed, c));
+            game.updateBoardVersion();
+            if (game.hasEventSubscribers(GameEventZone.class)) {
+                game.fireEvent(new GameEventZone(zoneType, getPlayer(), EventValueChangeType.Removed, c));
+            }
         }
     }
 
@@ -157,6 +162,7 @@ public class Zone implements java.io.Serializable, Iterable<Card> {
             cardList.add(c);
         }
         onChanged();
+        game.updateBoardVersion();
         game.fireEvent(new GameEventZone(zoneType, getPlayer(), EventValueChangeType.ComplexUpdate, null));
     }
 
@@ -272,7 +278,7 @@ public class Zone implements java.io.Serializable, Iterable<Card> {
     }
 
     public void shuffle() {
-        Collections.shuffle(cardList, MyRandom.getRandom());
+        Collections.shuffle(cardList, game.getRandom());
         onChanged();
     }
 
@@ -1,6 +1,7 @@
 package forge.trackable;
 
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Lists;
@@ -11,6 +12,7 @@ import forge.trackable.TrackableTypes.TrackableType;
 public class Tracker {
     private int freezeCounter = 0;
     private final List<DelayedPropChange> delayedPropChanges = Lists.newArrayList();
+    private final List<Runnable> unfreezeListeners = new CopyOnWriteArrayList<>();
 
     private final Table<TrackableType<?>, Integer, Object> objLookups = HashBasedTable.create();
 
@@ -38,14 +40,27 @@ public class Tracker {
     }
 
     public void unfreeze() {
-        if (!isFrozen() || --freezeCounter > 0 || delayedPropChanges.isEmpty()) {
+        if (!isFrozen() || --freezeCounter > 0) {
             return;
         }
-        //after being unfrozen, ensure all changes delayed during freeze are now applied
-        for (final DelayedPropChange change : delayedPropChanges) {
-            change.object.set(change.prop, change.value);
+        if (!delayedPropChanges.isEmpty()) {
+            //after being unfrozen, ensure all changes delayed during freeze are now applied
+            for (final DelayedPropChange change : delayedPropChanges) {
+                change.object.set(change.prop, change.value);
+            }
+            delayedPropChanges.clear();
         }
-        delayedPropChanges.clear();
+        for (final Runnable listener : unfreezeListeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Register a listener run on the game thread each time the tracker is fully unfrozen,
+     * so views are consistent again and pending updates can be sent.
+     */
+    public void addUnfreezeListener(final Runnable listener) {
+        unfreezeListeners.add(listener);
     }
 
     public void flush() {
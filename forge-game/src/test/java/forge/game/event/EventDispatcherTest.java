@@ -0,0 +1,45 @@
+package forge.game.event;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import forge.game.GameLogFormatter;
+
+public class EventDispatcherTest {
+
+    private static final EventDispatcher.IEventListener<GameEvent> IGNORE = new EventDispatcher.IEventListener<GameEvent>() {
+        @Override
+        public void receive(GameEvent event) {
+        }
+    };
+
+    @Test
+    public void testHasSubscribersOfClass() {
+        EventDispatcher events = new EventDispatcher("test");
+        AssertJUnit.assertFalse(events.hasSubscribers(GameEventZone.class));
+
+        events.subscribe(GameEventTurnPhase.class, IGNORE);
+        AssertJUnit.assertTrue(events.hasSubscribers(GameEventTurnPhase.class));
+        AssertJUnit.assertFalse(events.hasSubscribers(GameEventZone.class));
+
+        // a subscriber of a superclass receives the events of its subclasses
+        events.subscribe(GameEvent.class, IGNORE);
+        AssertJUnit.assertTrue(events.hasSubscribers(GameEventZone.class));
+
+        events.disable();
+        AssertJUnit.assertFalse(events.hasSubscribers(GameEventTurnPhase.class));
+    }
+
+    @Test
+    public void testGameLogSubscribesToLoggedEventsOnly() {
+        EventDispatcher events = new EventDispatcher("test");
+        for (Class<? extends GameEvent> eventClass : GameLogFormatter.getLoggedEvents()) {
+            events.subscribe(eventClass, IGNORE);
+        }
+        AssertJUnit.assertTrue(events.hasSubscribers(GameEventTurnPhase.class));
+        AssertJUnit.assertTrue(events.hasSubscribers(GameEventCardDamaged.class));
+        AssertJUnit.assertFalse(events.hasSubscribers(GameEventZone.class));
+        AssertJUnit.assertFalse(events.hasSubscribers(GameEventManaPool.class));
+        AssertJUnit.assertFalse(events.hasSubscribers(GameEventPlayerPriority.class));
+    }
+}
@@ -18,8 +18,6 @@
 package forge.itemmanager;
 
 import com.google.common.base.Predicate;
-import com.google.common.base.Predicates;
-import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import forge.gui.GuiUtils;
 import forge.gui.UiCommand;
@@ -935,7 +933,7 @@ public abstract class ItemManager<T extends InventoryItem> extends JPanel implem
             predicates.add(mainSearchFilter.buildPredicate(this.genericType));
         }
 
-        final Predicate<? super T> newFilterPredicate = predicates.size() == 0 ? null : Predicates.and(predicates);
+        final Predicate<? super T> newFilterPredicate = predicates.size() == 0 ? null : SearchPlan.<T>and(predicates);
         if (this.filterPredicate == newFilterPredicate) { return false; }
 
         this.filterPredicate = newFilterPredicate;
@@ -1036,13 +1034,11 @@ public abstract class ItemManager<T extends InventoryItem> extends JPanel implem
         }
 
         if (useFilter && this.wantUnique) {
-            final Predicate<Entry<T, Integer>> filterForPool = Predicates.compose(this.filterPredicate, this.pool.FN_GET_KEY);
-            final Iterable<Entry<T, Integer>> items = getUnique(Iterables.filter(this.pool, filterForPool));
+            final Iterable<Entry<T, Integer>> items = getUnique(SearchPlan.filter(this.pool, this.filterPredicate));
             this.model.addItems(items);
         }
         else if (useFilter) {
-            final Predicate<Entry<T, Integer>> pred = Predicates.compose(this.filterPredicate, this.pool.FN_GET_KEY);
-            this.model.addItems(Iterables.filter(this.pool, pred));
+            this.model.addItems(SearchPlan.filter(this.pool, this.filterPredicate));
         }
         else if (this.wantUnique) {
             final Iterable<Entry<T, Integer>> items = getUnique(this.pool);
@@ -20,6 +20,7 @@ import com.google.common.base.Predicate;
 import forge.gui.framework.ILocalRepaint;
 import forge.item.InventoryItem;
 import forge.itemmanager.ItemManager;
+import forge.itemmanager.SearchPlan;
 import forge.toolbox.FSkin;
 import forge.toolbox.FSkin.Colors;
 import forge.toolbox.FSkin.SkinColor;
@@ -121,7 +122,7 @@ public abstract class ItemFilter<T extends InventoryItem> {
 
     public final <U extends InventoryItem> Predicate<U> buildPredicate(Class<U> genericType) {
         final Predicate<T> predicate = this.buildPredicate();
-        return new Predicate<U>() {
+        final Predicate<U> guarded = new Predicate<U>() {
             @SuppressWarnings("unchecked")
             @Override
             public boolean apply(U item) {
@@ -133,6 +134,10 @@ public abstract class ItemFilter<T extends InventoryItem> {
                 }
             }
         };
+        if (predicate instanceof SearchPlan) { //keep cost and parallel evaluation info of compiled searches
+            return SearchPlan.wrap(guarded, (SearchPlan<?>) predicate);
+        }
+        return guarded;
     }
 
     protected <U extends InventoryItem> boolean showUnsupportedItem(U item) {
@@ -352,6 +352,16 @@ public final class ItemListView<T extends InventoryItem> extends ItemView<T> {
         this.tableModel.fireTableDataChanged();
     }
 
+    @Override
+    protected int getRowsToSort(final int scrollValue) {
+        final int rowHeight = this.table.getRowHeight();
+        final int viewHeight = getScroller().getViewport().getHeight();
+        if (rowHeight <= 0 || viewHeight <= 0) {
+            return Integer.MAX_VALUE;
+        }
+        return (scrollValue + viewHeight) / rowHeight + 1;
+    }
+
     public final class ItemTable extends SkinnedTable {
         private ItemTable() {
             this.setBackground(BACK_COLOR);
@@ -578,7 +588,7 @@ public final class ItemListView<T extends InventoryItem> extends ItemView<T> {
          * @return the item
          */
         public Entry<T, Integer> rowToItem(final int row) {
-            final List<Entry<T, Integer>> orderedList = this.model.getOrderedList();
+            final List<Entry<T, Integer>> orderedList = this.model.getOrderedList(row + 1);
             return (row >= 0) && (row < orderedList.size()) ? orderedList.get(row) : null;
         }
 
@@ -588,14 +598,8 @@ public final class ItemListView<T extends InventoryItem> extends ItemView<T> {
          * @param item - the item
          * @return the row
          */
-        public int itemToRow(final T item) { //TODO: Consider optimizing this if used frequently
-            final List<Entry<T, Integer>> orderedList = this.model.getOrderedList();
-            for (int i = 0; i < orderedList.size(); i++) {
-                if (orderedList.get(i).getKey() == item) {
-                    return i;
-                }
-            }
-            return -1;
+        public int itemToRow(final T item) {
+            return this.model.indexOf(item);
         }
 
         private final ListSelectionListener listSelectionListener = new ListSelectionListener() {
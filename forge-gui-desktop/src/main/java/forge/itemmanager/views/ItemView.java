@@ -167,13 +167,21 @@ public abstract class ItemView<T extends InventoryItem> {
     }
 
     public void refresh(final Iterable<T> itemsToSelect, final int backupIndexToSelect, final int scrollValueToRestore) {
-        this.model.refreshSort();
+        this.model.refreshSort(getRowsToSort(scrollValueToRestore));
         onRefresh();
         fixSelection(itemsToSelect, backupIndexToSelect, scrollValueToRestore);
         this.uniqueCardsOnlyChkBox.setSelected(this.itemManager.getWantUnique());
     }
     protected abstract void onResize();
     protected abstract void onRefresh();
+
+    /**
+     * Number of rows that must be in sort order for the view to show the given scroll position.
+     * Rows past it are only sorted once they're requested.
+     */
+    protected int getRowsToSort(final int scrollValue) {
+        return Integer.MAX_VALUE;
+    }
     /*
 
      */
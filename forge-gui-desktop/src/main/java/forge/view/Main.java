@@ -70,6 +70,10 @@ public final class Main {
                 SimulateMatch.simulate(args);
                 break;
 
+            case "validate":
+                ValidateDecks.validate(args);
+                break;
+
             case "parse":
             	CardReaderExperiments.parseAllCards(args);
                 break;
@@ -79,7 +83,7 @@ public final class Main {
                 break;
             
             default:
-                System.out.println("Unknown mode.\nKnown mode is 'sim', 'parse' ");
+                System.out.println("Unknown mode.\nKnown mode is 'sim', 'validate', 'parse' ");
                 break;
         }
         
@@ -1,21 +1,40 @@
 package forge.view;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
 import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 import org.apache.commons.lang3.time.StopWatch;
 
 import forge.LobbyPlayer;
+import forge.ai.AiDeadline;
+import forge.ai.AiProfiler;
+import forge.ai.LobbyPlayerAi;
+import forge.ai.ComputerUtilCombat;
 import forge.deck.Deck;
 import forge.deck.DeckGroup;
+import forge.deck.io.BulkDeckValidator;
 import forge.deck.io.DeckSerializer;
 import forge.game.Game;
 import forge.game.GameEndReason;
@@ -25,6 +44,8 @@ import forge.game.GameRules;
 import forge.game.GameType;
 import forge.game.Match;
 import forge.game.player.RegisteredPlayer;
+import forge.game.replay.GameRecorder;
+import forge.game.replay.GameReplay;
 import forge.gamemodes.tournament.system.AbstractTournament;
 import forge.gamemodes.tournament.system.TournamentBracket;
 import forge.gamemodes.tournament.system.TournamentPairing;
@@ -34,7 +55,9 @@ import forge.gamemodes.tournament.system.TournamentSwiss;
 import forge.localinstance.properties.ForgeConstants;
 import forge.model.FModel;
 import forge.player.GamePlayerUtil;
+import forge.util.FileSection;
 import forge.util.Lang;
+import forge.util.MyRandom;
 import forge.util.TextUtil;
 import forge.util.WordUtil;
 import forge.util.storage.IStorage;
@@ -44,7 +67,7 @@ public class SimulateMatch {
         FModel.initialize(null, null);
 
         System.out.println("Simulation mode");
-        if (args.length < 4) {
+        if (args.length < 3) {
             argumentHelp();
             return;
         }
@@ -73,6 +96,16 @@ public class SimulateMatch {
             }
         }
 
+        if (params.containsKey("replay") && !params.get("replay").isEmpty()) {
+            replayGame(params.get("replay").get(0), !params.containsKey("q"));
+            System.out.flush();
+            return;
+        }
+        if (args.length < 4) {
+            argumentHelp();
+            return;
+        }
+
         int nGames = 1;
         if (params.containsKey("n")) {
             // Number of games should only be a single string
@@ -99,13 +132,23 @@ public class SimulateMatch {
             rules.setGamesPerMatch(matchSize);
         }
 
+        if (params.containsKey("seed")) {
+            rules.setSeed(Long.parseLong(params.get("seed").get(0)));
+        }
+
+        if (params.containsKey("profile")) {
+            AiProfiler.setEnabled(true);
+        }
+
         if (params.containsKey("t")) {
             simulateTournament(params, rules, outputGamelog);
+            writeAiProfile(params);
             System.out.flush();
             return;
         }
 
         List<RegisteredPlayer> pp = new ArrayList<>();
+        List<Deck> decks = new ArrayList<>();
         StringBuilder sb = new StringBuilder();
 
         int i = 1;
@@ -123,15 +166,8 @@ public class SimulateMatch {
                 String name = TextUtil.concatNoSpace("Ai(", String.valueOf(i), ")-", d.getName());
                 sb.append(name);
 
-                RegisteredPlayer rp;
-
-                if (type.equals(GameType.Commander)) {
-                    rp = RegisteredPlayer.forCommander(d);
-                } else {
-                    rp = new RegisteredPlayer(d);
-                }
-                rp.setPlayer(GamePlayerUtil.createAiPlayer(name, i - 1));
-                pp.add(rp);
+                pp.add(createAiPlayer(d, type, name, i - 1));
+                decks.add(d);
                 i++;
             }
         }
@@ -141,25 +177,84 @@ public class SimulateMatch {
         System.out.println(sb.toString());
 
         Match mc = new Match(rules, pp, "Test");
-
-        if (matchSize != 0) {
+        String recordFile = getRecordFile(params);
+
+        if (params.containsKey("j") && matchSize == 0) {
+            final int threads = params.get("j").isEmpty() ? Runtime.getRuntime().availableProcessors()
+                    : Integer.parseInt(params.get("j").get(0));
+            // each game is the first of a match of its own, so they don't depend on each other
+            final SplittableRandom seeds = new SplittableRandom(rules.hasSeed() ? rules.getSeed() : MyRandom.getRandom().nextLong());
+            final List<Match> matches = new ArrayList<>();
+            for (int iGame = 0; iGame < nGames; iGame++) {
+                final List<RegisteredPlayer> players = new ArrayList<>();
+                for (int iDeck = 0; iDeck < decks.size(); iDeck++) {
+                    players.add(createAiPlayer(decks.get(iDeck), type, pp.get(iDeck).getPlayer().getName(), iDeck));
+                }
+                matches.add(new Match(rules, players, "Test", seeds.nextLong()));
+            }
+            simulateGamesInParallel(matches, threads, outputGamelog, recordFile);
+        } else if (matchSize != 0) {
             int iGame = 0;
             while (!mc.isMatchOver()) {
                 // play games until the match ends
-                simulateSingleMatch(mc, iGame, outputGamelog);
+                simulateSingleMatch(mc, iGame, outputGamelog, recordFileFor(recordFile, iGame + 1));
                 iGame++;
             }
         } else {
             for (int iGame = 0; iGame < nGames; iGame++) {
-                simulateSingleMatch(mc, iGame, outputGamelog);
+                simulateSingleMatch(mc, iGame, outputGamelog, recordFileFor(recordFile, iGame + 1));
             }
         }
 
+        String overruns = AiDeadline.getOverrunReport();
+        if (!overruns.isEmpty()) {
+            System.out.println("AI decisions over time budget by api:");
+            System.out.print(overruns);
+        }
+        System.out.println(ComputerUtilCombat.getPredictionCacheHitRate());
+        writeAiProfile(params);
         System.out.flush();
     }
 
+    private static RegisteredPlayer createAiPlayer(final Deck d, final GameType type, final String name, final int avatarIndex) {
+        RegisteredPlayer rp;
+
+        if (type.equals(GameType.Commander)) {
+            rp = RegisteredPlayer.forCommander(d);
+        } else {
+            rp = new RegisteredPlayer(d);
+        }
+        rp.setPlayer(GamePlayerUtil.createAiPlayer(name, avatarIndex));
+        return rp;
+    }
+
+    private static void writeAiProfile(final Map<String, List<String>> params) {
+        if (!AiProfiler.isEnabled()) {
+            return;
+        }
+        System.out.println("AI think time by api" + (AiProfiler.isMeasuringAllocations() ? "" : " (allocations not measured on this JVM)") + ":");
+        System.out.print(AiProfiler.getReport(20));
+
+        final List<String> files = params.get("profile");
+        if (files.isEmpty()) {
+            return;
+        }
+        final String fileName = files.get(0);
+        try (Writer out = new BufferedWriter(new FileWriter(fileName))) {
+            if (fileName.toLowerCase().endsWith(".json")) {
+                AiProfiler.writeJson(out);
+            } else {
+                AiProfiler.writeCsv(out);
+            }
+            System.out.println("AI profile written to " + fileName);
+        } catch (IOException e) {
+            System.err.println("Could not write AI profile to " + fileName + ": " + e.getMessage());
+        }
+    }
+
     private static void argumentHelp() {
-        System.out.println("Syntax: forge.exe sim -d <deck1[.dck]> ... <deckX[.dck]> -D [D] -n [N] -m [M] -t [T] -p [P] -f [F] -q");
+        System.out.println("Syntax: forge.exe sim -d <deck1[.dck]> ... <deckX[.dck]> -D [D] -n [N] -m [M] -t [T] -p [P] -f [F] -q -profile [file] -log [file] -seed [S] -j [J]");
+        System.out.println("        forge.exe sim -replay <file> -q");
         System.out.println("\tsim - stands for simulation mode");
         System.out.println("\tdeck1 (or deck2,...,X) - constructed deck name or filename (has to be quoted when contains multiple words)");
         System.out.println("\tdeck is treated as file if it ends with a dot followed by three numbers or letters");
@@ -170,13 +265,32 @@ public class SimulateMatch {
         System.out.println("\tP - Amount of players per match (used only with Tournaments, defaults to 2)");
         System.out.println("\tF - format of games, defaults to constructed");
         System.out.println("\tq - Quiet flag. Output just the game result, not the entire game log.");
+        System.out.println("\tprofile - Profile the AI decisions and print the apis taking the most time. If followed by a file name, all");
+        System.out.println("\t          the statistics by api and card are written to it as JSON if it ends with .json, as CSV otherwise.");
+        System.out.println("\tlog - Write each game to a file as it is played, one JSON line per event or decision. The number of the");
+        System.out.println("\t      game is added to the file name, e.g. game-1.jsonl for game.jsonl.");
+        System.out.println("\tS - seed to draw the random numbers from, the same seed and decks play the same games again.");
+        System.out.println("\tJ - Play the N games at the same time on J threads, defaults to the number of processors. Each game is");
+        System.out.println("\t    the first of a match of its own, with its own seed drawn from S.");
+        System.out.println("\t    In tournaments, the decks of D are read on J threads.");
+        System.out.println("\treplay - Play a game written with -log again and report where the AI decides differently.");
     }
 
     public static Game simulateSingleGameOfMatch(final Match mc, int timeout) {
+        return simulateSingleGameOfMatch(mc, timeout, null);
+    }
+
+    /**
+     * Play a game of the match, letting the given consumer see it before it starts if not null.
+     */
+    public static Game simulateSingleGameOfMatch(final Match mc, int timeout, final Consumer<Game> beforeStart) {
         final StopWatch sw = new StopWatch();
         sw.start();
 
         final Game g1 = mc.createGame();
+        if (beforeStart != null) {
+            beforeStart.accept(g1);
+        }
         // will run match in the same thread
         try {
             TimeLimitedCodeBlock.runWithTimeout(() -> {
@@ -200,10 +314,93 @@ public class SimulateMatch {
     }
 
     public static void simulateSingleMatch(final Match mc, int iGame, boolean outputGamelog) {
+        simulateSingleMatch(mc, iGame, outputGamelog, null);
+    }
+
+    public static void simulateSingleMatch(final Match mc, int iGame, boolean outputGamelog, String recordFile) {
         final StopWatch sw = new StopWatch();
         sw.start();
-        final Game g1 = simulateSingleGameOfMatch(mc, 120);
+        final Game g1 = simulateRecordedGame(mc, recordFile);
+        if (g1 != null) {
+            printGameResult(g1, iGame, sw, outputGamelog);
+        }
+    }
 
+    /**
+     * Play the first game of each match, up to the given number of games at the same time, and
+     * print their results in the order of the matches once all are over.
+     * @return the games played, in the order of the matches
+     */
+    public static List<Game> simulateGamesInParallel(final List<Match> matches, int threads, boolean outputGamelog, String recordFile) {
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        final List<Future<Game>> futures = new ArrayList<>();
+        final List<StopWatch> watches = new ArrayList<>();
+        for (int iGame = 0; iGame < matches.size(); iGame++) {
+            final Match mc = matches.get(iGame);
+            final String gameRecordFile = recordFileFor(recordFile, iGame + 1);
+            final StopWatch sw = new StopWatch();
+            watches.add(sw);
+            futures.add(executor.submit(() -> {
+                sw.start();
+                try {
+                    return simulateRecordedGame(mc, gameRecordFile);
+                } finally {
+                    sw.stop();
+                }
+            }));
+        }
+        executor.shutdown();
+
+        final List<Game> games = new ArrayList<>();
+        for (int iGame = 0; iGame < futures.size(); iGame++) {
+            Game g1;
+            try {
+                g1 = futures.get(iGame).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                e.getCause().printStackTrace();
+                g1 = null;
+            }
+            games.add(g1);
+            if (g1 != null) {
+                printGameResult(g1, iGame, watches.get(iGame), outputGamelog);
+            }
+        }
+        return games;
+    }
+
+    /**
+     * Play a game of the match, writing it to the given file if not null.
+     * @return the game, null if the file couldn't be written
+     */
+    private static Game simulateRecordedGame(final Match mc, String recordFile) {
+        if (recordFile == null) {
+            return simulateSingleGameOfMatch(mc, 120);
+        }
+        final GameRecorder recorder;
+        try {
+            recorder = new GameRecorder(new BufferedWriter(new FileWriter(recordFile)));
+        } catch (IOException e) {
+            System.err.println("Could not write game record to " + recordFile + ": " + e.getMessage());
+            return null;
+        }
+        final Game g1;
+        try {
+            g1 = simulateSingleGameOfMatch(mc, 120, recorder::attach);
+        } finally {
+            try {
+                recorder.close();
+            } catch (IOException e) {
+                System.err.println("Could not write game record to " + recordFile + ": " + e.getMessage());
+            }
+        }
+        System.out.println("Game record with seed " + recorder.getSeed() + " written to " + recordFile);
+        return g1;
+    }
+
+    private static void printGameResult(final Game g1, int iGame, final StopWatch sw, boolean outputGamelog) {
         List<GameLogEntry> log;
         if (outputGamelog) {
             log = g1.getGameLog().getLogEntries(null);
@@ -223,6 +420,71 @@ public class SimulateMatch {
         }
     }
 
+    private static String getRecordFile(final Map<String, List<String>> params) {
+        if (!params.containsKey("log")) {
+            return null;
+        }
+        final List<String> files = params.get("log");
+        return files.isEmpty() ? "game.jsonl" : files.get(0);
+    }
+
+    private static String recordFileFor(final String fileName, int gameNumber) {
+        if (fileName == null) {
+            return null;
+        }
+        final int dot = fileName.lastIndexOf('.');
+        if (dot <= Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf(File.separatorChar))) {
+            return fileName + "-" + gameNumber;
+        }
+        return fileName.substring(0, dot) + "-" + gameNumber + fileName.substring(dot);
+    }
+
+    private static void replayGame(final String fileName, boolean outputGamelog) {
+        final GameReplay replay;
+        try (Reader in = new BufferedReader(new FileReader(fileName))) {
+            replay = GameReplay.read(in);
+        } catch (IOException e) {
+            System.err.println("Could not read game record " + fileName + ": " + e.getMessage());
+            return;
+        }
+
+        GameRules rules = new GameRules(replay.getGameType());
+        rules.setAppliedVariants(replay.getVariants());
+        List<RegisteredPlayer> pp = new ArrayList<>();
+        int i = 0;
+        for (GameReplay.PlayerInfo info : replay.getPlayers()) {
+            Deck d = DeckSerializer.fromSections(FileSection.parseSections(info.getDeck()));
+            if (d == null) {
+                System.out.println(TextUtil.concatNoSpace("Could not load deck of ", info.getName(), ", game cannot be replayed"));
+                return;
+            }
+            RegisteredPlayer rp = replay.getGameType().equals(GameType.Commander) ? RegisteredPlayer.forCommander(d) : new RegisteredPlayer(d);
+            LobbyPlayer lp = GamePlayerUtil.createAiPlayer(info.getName(), i++);
+            ((LobbyPlayerAi) lp).setReplay(replay);
+            rp.setPlayer(lp);
+            pp.add(rp);
+        }
+        System.out.println(TextUtil.concatNoSpace("Replaying ", fileName, " with seed ", String.valueOf(replay.getSeed())));
+
+        final StopWatch sw = new StopWatch();
+        sw.start();
+        final Game g1 = simulateSingleGameOfMatch(new Match(rules, pp, "Replay"), 120, replay::attach);
+        printGameResult(g1, 0, sw, outputGamelog);
+
+        if (replay.getEndTurn() != 0 && replay.getEndTurn() != g1.getPhaseHandler().getTurn()) {
+            System.out.println(TextUtil.concatNoSpace("The recorded game ended on turn ", String.valueOf(replay.getEndTurn()),
+                    ", the replay on turn ", String.valueOf(g1.getPhaseHandler().getTurn())));
+        }
+        if (replay.getDivergences().isEmpty()) {
+            System.out.println("The players made all the recorded decisions.");
+        } else {
+            System.out.println("The players decided differently than recorded:");
+            for (String divergence : replay.getDivergences()) {
+                System.out.println("\t" + divergence);
+            }
+        }
+    }
+
     private static void simulateTournament(Map<String, List<String>> params, GameRules rules, boolean outputGamelog) {
         String tournament = params.get("t").get(0);
         AbstractTournament tourney = null;
@@ -252,15 +514,20 @@ public class SimulateMatch {
             if (!folder.isDirectory()) {
                 System.out.println("Directory not found - " + foldName);
             } else {
-                for (File deck : folder.listFiles(new FilenameFilter() {
+                List<File> deckFiles = new ArrayList<>(Arrays.asList(folder.listFiles(new FilenameFilter() {
                     @Override
                     public boolean accept(File dir, String name) {
                         return name.endsWith(".dck");
                     }
-                })) {
-                    Deck d = DeckSerializer.fromFile(deck);
+                })));
+                // the decks are read at the same time, then added in the order of the files
+                int threads = !params.containsKey("j") ? 1 : params.get("j").isEmpty()
+                        ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(params.get("j").get(0));
+                List<Deck> decks = BulkDeckValidator.loadDecks(deckFiles, threads);
+                for (int iDeck = 0; iDeck < deckFiles.size(); iDeck++) {
+                    Deck d = iDeck < decks.size() ? decks.get(iDeck) : null;
                     if (d == null) {
-                        System.out.println(TextUtil.concatNoSpace("Could not load deck - ", deck.getName(), ", match cannot start"));
+                        System.out.println(TextUtil.concatNoSpace("Could not load deck - ", deckFiles.get(iDeck).getName(), ", match cannot start"));
                         return;
                     }
                     deckGroup.addAiDeck(d);
@@ -289,6 +556,8 @@ public class SimulateMatch {
 
         tourney.initializeTournament();
 
+        String recordFile = getRecordFile(params);
+        int gameNumber = 0;
         String lastWinner = "";
         int curRound = 0;
         System.out.println(TextUtil.concatNoSpace("Starting a ", tournament, " tournament with ",
@@ -325,7 +594,7 @@ public class SimulateMatch {
                 while (!mc.isMatchOver()) {
                     // play games until the match ends
                     try {
-                        simulateSingleMatch(mc, iGame, outputGamelog);
+                        simulateSingleMatch(mc, iGame, outputGamelog, recordFileFor(recordFile, ++gameNumber));
                         iGame++;
                     } catch (Exception e) {
                         exceptions++;
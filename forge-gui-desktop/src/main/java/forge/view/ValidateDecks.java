@@ -0,0 +1,165 @@
+package forge.view;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.time.StopWatch;
+
+import forge.deck.DeckFormat;
+import forge.deck.io.BulkDeckValidator;
+import forge.game.GameFormat;
+import forge.localinstance.properties.ForgeConstants;
+import forge.model.FModel;
+
+public class ValidateDecks {
+    public static void validate(String[] args) {
+        FModel.initialize(null, null);
+
+        System.out.println("Deck validation mode");
+        final Map<String, List<String>> params = new HashMap<>();
+        List<String> options = null;
+
+        for (int i = 1; i < args.length; i++) {
+            // "validate" is in the 0th slot
+            final String a = args[i];
+
+            if (a.charAt(0) == '-') {
+                if (a.length() < 2) {
+                    System.err.println("Error at argument " + a);
+                    argumentHelp();
+                    return;
+                }
+
+                options = new ArrayList<>();
+                params.put(a.substring(1), options);
+            } else if (options != null) {
+                options.add(a);
+            } else {
+                System.err.println("Illegal parameter usage");
+                return;
+            }
+        }
+
+        if (!params.containsKey("D") || params.get("D").isEmpty()) {
+            argumentHelp();
+            return;
+        }
+
+        DeckFormat deckFormat = DeckFormat.Constructed;
+        if (params.containsKey("t")) {
+            try {
+                deckFormat = params.get("t").isEmpty() ? null : DeckFormat.smartValueOf(params.get("t").get(0), null);
+            } catch (IllegalArgumentException e) {
+                System.out.println("Unknown deck format - " + params.get("t").get(0));
+                return;
+            }
+        }
+
+        List<GameFormat> formats = new ArrayList<>();
+        if (params.containsKey("f")) {
+            for (String name : params.get("f")) {
+                GameFormat format = FModel.getFormats().get(name);
+                if (format == null) {
+                    System.out.println("Unknown format - " + name);
+                    return;
+                }
+                formats.add(format);
+            }
+        }
+
+        final int threads = !params.containsKey("j") ? 1 : params.get("j").isEmpty()
+                ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(params.get("j").get(0));
+
+        File cacheFile = new File(ForgeConstants.CACHE_DIR, "deckreports.dat");
+        if (params.containsKey("cache")) {
+            cacheFile = params.get("cache").isEmpty() ? null : new File(params.get("cache").get(0));
+        }
+
+        BulkDeckValidator validator = new BulkDeckValidator(deckFormat, formats);
+        if (cacheFile != null && validator.readCache(cacheFile)) {
+            System.out.println("Read the reports of " + validator.getReports().size() + " decks from " + cacheFile);
+        }
+
+        List<File> files = new ArrayList<>();
+        for (String folderName : params.get("D")) {
+            File folder = new File(folderName);
+            if (!folder.isDirectory()) {
+                System.out.println("Directory not found - " + folderName);
+                return;
+            }
+            files.addAll(BulkDeckValidator.listDeckFiles(folder));
+        }
+
+        final StopWatch sw = new StopWatch();
+        sw.start();
+        List<BulkDeckValidator.Report> reports = validator.validate(files, threads);
+        sw.stop();
+
+        int legal = 0;
+        boolean quiet = params.containsKey("q");
+        for (BulkDeckValidator.Report report : reports) {
+            if (report == null) {
+                continue;
+            }
+            if (report.isLegal()) {
+                legal++;
+            }
+            if (!quiet || !report.isLegal()) {
+                System.out.println(report.getFile() + ": " + report);
+            }
+        }
+        System.out.printf("%nChecked %d decks in %d ms, %d legal, %d not.%n", files.size(), sw.getTime(), legal, files.size() - legal);
+
+        if (cacheFile != null) {
+            try {
+                validator.writeCache(cacheFile);
+            } catch (IOException e) {
+                System.err.println("Could not write deck reports to " + cacheFile + ": " + e.getMessage());
+            }
+        }
+
+        if (params.containsKey("o") && !params.get("o").isEmpty()) {
+            writeReport(reports, params.get("o").get(0));
+        }
+        System.out.flush();
+    }
+
+    private static void writeReport(final List<BulkDeckValidator.Report> reports, final String fileName) {
+        List<BulkDeckValidator.Report> written = new ArrayList<>();
+        for (BulkDeckValidator.Report report : reports) {
+            if (report != null) {
+                written.add(report);
+            }
+        }
+        try (Writer out = new BufferedWriter(new FileWriter(fileName))) {
+            if (fileName.toLowerCase().endsWith(".json")) {
+                BulkDeckValidator.writeJson(written, out);
+            } else {
+                BulkDeckValidator.writeCsv(written, out);
+            }
+            System.out.println("Deck report written to " + fileName);
+        } catch (IOException e) {
+            System.err.println("Could not write deck report to " + fileName + ": " + e.getMessage());
+        }
+    }
+
+    private static void argumentHelp() {
+        System.out.println("Syntax: forge.exe validate -D <dir> ... [dir] -t [T] -f [format] ... [format] -j [J] -o [file] -cache [file] -q");
+        System.out.println("\tvalidate - stands for deck validation mode");
+        System.out.println("\tD - directories to check the decks of, with their subdirectories");
+        System.out.println("\tT - deck format to check the decks against, defaults to constructed. Nothing after -t checks none.");
+        System.out.println("\tformat - game formats to list the illegal cards of, e.g. Standard Modern (quoted when it has spaces)");
+        System.out.println("\tJ - Check the decks on J threads, defaults to the number of processors.");
+        System.out.println("\to - Write the report of each deck to a file, as JSON if it ends with .json, as CSV otherwise.");
+        System.out.println("\tcache - File to keep the reports in between runs, so decks that didn't change aren't checked again.");
+        System.out.println("\t        Defaults to deckreports.dat in the cache directory, nothing after -cache keeps none.");
+        System.out.println("\tq - Quiet flag. Only list the decks with problems.");
+    }
+}
@@ -22,8 +22,11 @@ import java.awt.Dimension;
 import java.awt.Rectangle;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import com.google.common.collect.Lists;
 
@@ -72,6 +75,19 @@ public class PlayArea extends CardPanelContainer implements CardPanelMouseListen
     private int extraCardSpacingX, cardSpacingX, cardSpacingY;
     private int stackSpacingX, stackSpacingY;
 
+    // Inputs of the card width search (area size and pile sizes) and its result from the last layout.
+    private int[] layoutKey = new int[64];
+    private int[] lastLayoutKey = new int[64];
+    private int lastLayoutKeyLength = -1;
+    private int lastCardWidth;
+    // Metrics the current rows were positioned with.
+    private int positionedCardWidth = -1, positionedAreaWidth = -1;
+    // Rows released by earlier layouts, reused instead of allocating new ones.
+    private final List<CardStackRow> spareRows = new ArrayList<>();
+
+    private boolean layoutScheduled = false;
+    private final List<CardPanel> panelsToReveal = new ArrayList<>();
+
     private final PlayerView model;
     private final ZoneType zone;
 
@@ -89,7 +105,7 @@ public class PlayArea extends CardPanelContainer implements CardPanelMouseListen
     }
 
     private final CardStackRow collectAllLands() {
-        final CardStackRow allLands = new CardStackRow();
+        final CardStackRow allLands = obtainRow();
 
         outerLoop:
         //
@@ -139,7 +155,7 @@ public class PlayArea extends CardPanelContainer implements CardPanelMouseListen
     }
 
     private final CardStackRow collectAllTokens() {
-        final CardStackRow allTokens = new CardStackRow();
+        final CardStackRow allTokens = obtainRow();
         outerLoop:
         //
         for (final CardPanel panel : this.getCardPanels()) {
@@ -194,7 +210,7 @@ public class PlayArea extends CardPanelContainer implements CardPanelMouseListen
     }
 
     private final CardStackRow collectAllCreatures() {
-        final CardStackRow allCreatures = new CardStackRow();
+        final CardStackRow allCreatures = obtainRow();
         outerLoop:
         //
         for (final CardPanel panel : this.getCardPanels()) {
@@ -263,14 +279,18 @@ public class PlayArea extends CardPanelContainer implements CardPanelMouseListen
 
         final CardStackRow lands = collectAllLands();
         final CardStackRow tokens = collectAllTokens();
-        CardStackRow creatures = new CardStackRow(this.getCardPanels(), RowType.CreatureNonToken);
-        final CardStackRow others = new CardStackRow(this.getCardPanels(), RowType.Other);
+        CardStackRow creatures = obtainRow().fill(this.getCardPanels(), RowType.CreatureNonToken);
+        final CardStackRow others = obtainRow().fill(this.getCardPanels(), RowType.Other);
 
         if (stackCreatures) {
             final CardStackRow collectedCreatures = collectAllCreatures();
             if (!collectedCreatures.isEmpty()) {
+                releaseRow(creatures);
                 creatures = collectedCreatures;
             }
+            else {
+                releaseRow(collectedCreatures);
+            }
         }
 
         if (!makeTokenRow) {
@@ -284,10 +304,76 @@ public class PlayArea extends CardPanelContainer implements CardPanelMouseListen
             tokens.clear();
         }
 
-        // should find an appropriate width of card
+        final List<CardStackRow> template = arrangePiles(lands, tokens, creatures, others);
+        releaseRow(lands);
+        releaseRow(tokens);
+        releaseRow(creatures);
+        releaseRow(others);
+
+        // Get size of all the rows.
+        int x, y = PlayArea.GUTTER_Y;
+        int maxRowWidth = 0;
+        for (final CardStackRow row : template) {
+            int rowBottom = 0;
+            x = PlayArea.GUTTER_X;
+            for (int stackIndex = 0, stackCount = row.size(); stackIndex < stackCount; stackIndex++) {
+                final CardStack stack = row.get(stackIndex);
+                rowBottom = Math.max(rowBottom, y + stack.getHeight());
+                x += stack.getWidth();
+            }
+            y = rowBottom;
+            maxRowWidth = Math.max(maxRowWidth, x);
+        }
+        final int preferredWidth = maxRowWidth - this.cardSpacingX;
+        final int preferredHeight = y - this.cardSpacingY;
+        final Dimension preferredSize = this.isPreferredSizeSet() ? this.getPreferredSize() : null;
+        if (preferredSize == null || preferredSize.width != preferredWidth || preferredSize.height != preferredHeight) {
+            this.setPreferredSize(new Dimension(preferredWidth, preferredHeight));
+            this.revalidate();
+        }
+        positionAllCards(template, this.rows);
+        releaseRows(this.rows);
+        this.rows = template;
+        repaint();
+
+        super.doLayout();
+    }
+
+    // Find the largest card width at which all piles fit. The result only depends on the size of the
+    // play area and of the piles, so the search is skipped when neither changed since the last layout.
+    private List<CardStackRow> arrangePiles(final CardStackRow lands, final CardStackRow tokens, final CardStackRow creatures, final CardStackRow others) {
         int maxCardWidth = this.getCardWidthMax();
-        setCardWidth(maxCardWidth);
         int minCardWidth = this.getCardWidthMin();
+
+        int keyLength = 0;
+        keyLength = appendLayoutKey(keyLength, this.playAreaWidth);
+        keyLength = appendLayoutKey(keyLength, this.playAreaHeight);
+        keyLength = appendLayoutKey(keyLength, minCardWidth);
+        keyLength = appendLayoutKey(keyLength, maxCardWidth);
+        keyLength = appendLayoutKey(keyLength, lands);
+        keyLength = appendLayoutKey(keyLength, tokens);
+        keyLength = appendLayoutKey(keyLength, creatures);
+        keyLength = appendLayoutKey(keyLength, others);
+
+        boolean sameInputs = keyLength == lastLayoutKeyLength;
+        for (int i = 0; sameInputs && i < keyLength; i++) {
+            sameInputs = layoutKey[i] == lastLayoutKey[i];
+        }
+        final int[] swap = lastLayoutKey;
+        lastLayoutKey = layoutKey;
+        layoutKey = swap;
+        lastLayoutKeyLength = keyLength;
+
+        if (sameInputs) {
+            setCardWidth(lastCardWidth);
+            final List<CardStackRow> template = tryArrangePilesOfWidth(lands, tokens, creatures, others);
+            if (template != null) {
+                return template;
+            }
+        }
+
+        // should find an appropriate width of card
+        setCardWidth(maxCardWidth);
         int lastGoodCardWidth = minCardWidth;
         int deltaCardWidth = (maxCardWidth - minCardWidth) / 2;
         List<CardStackRow> lastTemplate = null;
@@ -298,6 +384,9 @@ public class PlayArea extends CardPanelContainer implements CardPanelMouseListen
             
             deltaCardWidth = (getCardWidth() - lastGoodCardWidth) / 2;
             if (template != null) {
+                if (lastTemplate != null) {
+                    releaseRows(lastTemplate);
+                }
                 lastTemplate = template;
                 lastGoodCardWidth = getCardWidth();
                 setCardWidth(getCardWidth() + deltaCardWidth);
@@ -313,36 +402,39 @@ public class PlayArea extends CardPanelContainer implements CardPanelMouseListen
         if (null == lastTemplate) 
             lastTemplate = tryArrangePilesOfWidth(lands, tokens, creatures, others);
 
-        this.rows = lastTemplate;
-        // Get size of all the rows.
-        int x, y = PlayArea.GUTTER_Y;
-        int maxRowWidth = 0;
-        for (final CardStackRow row : this.rows) {
-            int rowBottom = 0;
-            x = PlayArea.GUTTER_X;
-            for (int stackIndex = 0, stackCount = row.size(); stackIndex < stackCount; stackIndex++) {
-                final CardStack stack = row.get(stackIndex);
-                rowBottom = Math.max(rowBottom, y + stack.getHeight());
-                x += stack.getWidth();
-            }
-            y = rowBottom;
-            maxRowWidth = Math.max(maxRowWidth, x);
+        lastCardWidth = lastGoodCardWidth;
+        return lastTemplate;
+    }
+
+    private int appendLayoutKey(final int keyLength, final int value) {
+        if (keyLength == layoutKey.length) {
+            layoutKey = Arrays.copyOf(layoutKey, keyLength * 2);
         }
-        this.setPreferredSize(new Dimension(maxRowWidth - this.cardSpacingX, y - this.cardSpacingY));
-        this.revalidate();
-        positionAllCards(lastTemplate);
-        repaint();
+        layoutKey[keyLength] = value;
+        return keyLength + 1;
+    }
 
-        super.doLayout();
+    private int appendLayoutKey(int keyLength, final CardStackRow piles) {
+        keyLength = appendLayoutKey(keyLength, piles.size());
+        for (final CardStack stack : piles) {
+            keyLength = appendLayoutKey(keyLength, stack.size());
+        }
+        return keyLength;
     }
 
-    // Position all card panels
-    private void positionAllCards(List<CardStackRow> template)  {
+    // Position all card panels. Rows holding the same piles at the same place as in the last layout
+    // keep their stacking order, so only the rows that changed are restacked.
+    private void positionAllCards(final List<CardStackRow> template, final List<CardStackRow> oldRows) {
+        final boolean sameMetrics = this.positionedCardWidth == this.cardWidth && this.positionedAreaWidth == this.playAreaWidth;
         int x = 0;
         int y = PlayArea.GUTTER_Y;
 
         //System.out.println("-------- " + (mirror ? "^" : "_") + " (Positioning) Card width = " + cardWidth + ". Playarea = " + playAreaWidth + " x " + playAreaHeight);
-        for (final CardStackRow row : template) {
+        for (int rowIndex = 0, rowCount = template.size(); rowIndex < rowCount; rowIndex++) {
+            final CardStackRow row = template.get(rowIndex);
+            final CardStackRow oldRow = rowIndex < oldRows.size() ? oldRows.get(rowIndex) : null;
+            final boolean restack = !sameMetrics || oldRow == null || oldRow.positionedY != y || !row.hasSamePiles(oldRow);
+            row.positionedY = y;
             int rowBottom = 0;
             x = PlayArea.GUTTER_X;
             for (int stackIndex = 0, stackCount = row.size(); stackIndex < stackCount; stackIndex++) {
@@ -358,7 +450,9 @@ public class PlayArea extends CardPanelContainer implements CardPanelMouseListen
                 for (int panelIndex = 0, panelCount = stack.size(); panelIndex < panelCount; panelIndex++) {
                     final CardPanel panel = stack.get(panelIndex);
                     final int stackPosition = panelCount - panelIndex - 1;
-                    this.setComponentZOrder(panel, panelIndex);
+                    if (restack) {
+                        this.setComponentZOrder(panel, panelIndex);
+                    }
                     final int panelX = x + (stackPosition * this.stackSpacingX);
                     final int panelY = y + (stackPosition * this.stackSpacingY);
                     //System.out.println("... placinng " + panel.getCard() + " @ (" + panelX + ", " + panelY + ")");
@@ -369,6 +463,28 @@ public class PlayArea extends CardPanelContainer implements CardPanelMouseListen
             }
             y = rowBottom;
         }
+        this.positionedCardWidth = this.cardWidth;
+        this.positionedAreaWidth = this.playAreaWidth;
+    }
+
+    private CardStackRow obtainRow() {
+        if (spareRows.isEmpty()) {
+            return new CardStackRow();
+        }
+        return spareRows.remove(spareRows.size() - 1);
+    }
+
+    private void releaseRow(final CardStackRow row) {
+        row.clear();
+        row.positionedY = -1;
+        spareRows.add(row);
+    }
+
+    private void releaseRows(final List<CardStackRow> template) {
+        for (final CardStackRow row : template) {
+            releaseRow(row);
+        }
+        template.clear();
     }
 
     private List<CardStackRow> tryArrangePilesOfWidth(final CardStackRow lands, final CardStackRow tokens, final CardStackRow creatures, CardStackRow others) {
@@ -393,6 +509,7 @@ public class PlayArea extends CardPanelContainer implements CardPanelMouseListen
         }
 
         if (!landsFit || !creaturesFit || !tokensFit) { 
+            releaseRows(template);
             return null;
         }
         // Other cards may be stored at end of usual rows or on their own row.
@@ -401,7 +518,11 @@ public class PlayArea extends CardPanelContainer implements CardPanelMouseListen
         // Copy the template for the case 1st approach won't work
         final List<CardStackRow> templateCopy = new ArrayList<>(template.size());
         for (final CardStackRow row : template) {
-            templateCopy.add((CardStackRow) row.clone());
+            final CardStackRow rowCopy = obtainRow();
+            for (final CardStack stack : row) {
+                rowCopy.add(stack);
+            }
+            templateCopy.add(rowCopy);
         }
 
         // Fill in all rows with others.
@@ -409,15 +530,18 @@ public class PlayArea extends CardPanelContainer implements CardPanelMouseListen
         for (final CardStackRow row : template) {
             nextOther = this.planOthersRow(others, nextOther, template, row);
             if (nextOther == cntOthers) {
+                releaseRows(templateCopy);
                 return template; // everything was successfully placed
             }
         }
 
+        releaseRows(template);
         template = templateCopy;
         // Try to put others on their own row(s)
         if (this.planRow(others, template, afterFirstRow)) {
             return template;
         }
+        releaseRows(template);
         return null; // Cannot fit everything with that width;
     }
 
@@ -427,7 +551,7 @@ public class PlayArea extends CardPanelContainer implements CardPanelMouseListen
         // card width.
         final boolean isMinimalSize = this.getCardWidth() == this.getCardWidthMin();
 
-        CardStackRow currentRow = new CardStackRow();
+        CardStackRow currentRow = obtainRow();
         for (final CardStack stack : sourceRow) {
             final int rowWidth = currentRow.getWidth();
             final int stackWidth = stack.getWidth();
@@ -437,8 +561,10 @@ public class PlayArea extends CardPanelContainer implements CardPanelMouseListen
 
                 // Stop processing if the row is too wide or tall.
                 if (rowWidth > this.playAreaWidth || this.getRowsHeight(template) + sourceRow.getHeight() > this.playAreaHeight) {
-                    if (!isMinimalSize) 
+                    if (!isMinimalSize) {
+                        releaseRow(currentRow);
                         return false;
+                    }
                 }
 
                 if (insertIndex == -1)
@@ -446,7 +572,7 @@ public class PlayArea extends CardPanelContainer implements CardPanelMouseListen
                 else 
                     template.add(insertIndex, currentRow);
                 
-                currentRow = new CardStackRow();
+                currentRow = obtainRow();
             }
 
             currentRow.add(stack);
@@ -459,7 +585,13 @@ public class PlayArea extends CardPanelContainer implements CardPanelMouseListen
                     template.add(currentRow);
                 else 
                     template.add(insertIndex, currentRow);
-            } else return false;
+            } else {
+                releaseRow(currentRow);
+                return false;
+            }
+        }
+        else {
+            releaseRow(currentRow);
         }
         //System.out.println("... row complete! " + currentRow.getWidth() + "px");
         return true;
@@ -600,36 +732,34 @@ public class PlayArea extends CardPanelContainer implements CardPanelMouseListen
             }
         }
 
-        final List<CardView> oldCards = Lists.newArrayList();
-        for (final CardPanel cpa : getCardPanels()) {
-            oldCards.add(cpa.getCard());
+        final Set<Integer> modelIds = new HashSet<>();
+        for (final CardView c : modelCopy) {
+            modelIds.add(c.getId());
         }
 
-        final List<CardView> toDelete = Lists.newArrayList(oldCards);
-        final List<CardView> notToDelete = Lists.newLinkedList();
-        for (final CardView c : modelCopy) {
-            for (int i = 0; i  < toDelete.size(); i++) {
-                final CardView c2 = toDelete.get(i);
-                if (c.getId() == c2.getId()) {
-                    notToDelete.add(c2);
-                }
+        final Set<Integer> oldIds = new HashSet<>();
+        final List<CardPanel> toDelete = Lists.newArrayList();
+        for (final CardPanel cpa : getCardPanels()) {
+            final int id = cpa.getCard().getId();
+            oldIds.add(id);
+            if (!modelIds.contains(id)) {
+                toDelete.add(cpa);
             }
         }
-        toDelete.removeAll(notToDelete);
 
         if (toDelete.size() == getCardPanels().size()) {
             clear(false);
         } else {
-            for (final CardView card : toDelete) {
-                removeCardPanel(getCardPanel(card.getId()),false);
+            for (final CardPanel cpa : toDelete) {
+                removeCardPanel(cpa, false);
             }
         }
 
-        final List<CardView> toAdd = new ArrayList<>(modelCopy);
-        toAdd.removeAll(oldCards);
-
         final List<CardPanel> newPanels = new ArrayList<>();
-        for (final CardView card : toAdd) {
+        for (final CardView card : modelCopy) {
+            if (oldIds.contains(card.getId())) {
+                continue;
+            }
             final CardPanel placeholder = new CardPanel(getMatchUI(), card);
             placeholder.setDisplayEnabled(false);
             this.getCardPanels().add(placeholder);
@@ -644,18 +774,45 @@ public class PlayArea extends CardPanelContainer implements CardPanelMouseListen
             }
         }
         if (needLayoutRefresh) {
-            doLayout();
+            panelsToReveal.addAll(newPanels);
+            scheduleLayout();
         }
+        repaint();
+    }
+
+    /**
+     * Lay out the play area once all updates already queued on the EDT are handled,
+     * so a burst of zone and card updates only costs a single layout pass.
+     */
+    private void scheduleLayout() {
+        if (layoutScheduled) { return; }
+
+        layoutScheduled = true;
+        FThreads.invokeInEdtLater(new Runnable() {
+            @Override
+            public void run() {
+                layoutScheduled = false;
+                doLayout();
+                revealNewPanels();
+            }
+        });
+    }
 
+    private void revealNewPanels() {
         invalidate(); //pfps do the extra invalidate before any scrolling 
-        if (!newPanels.isEmpty()) {
-            int i = newPanels.size();
-            for (final CardPanel toPanel : newPanels) {
+        if (!panelsToReveal.isEmpty()) {
+            int i = panelsToReveal.size();
+            for (final CardPanel toPanel : panelsToReveal) {
+                if (toPanel.getParent() != this) { //panel was removed again before layout
+                    --i;
+                    continue;
+                }
                 if ( --i == 0 ) { // only scroll to last panel to be added
                     scrollRectToVisible(new Rectangle(toPanel.getCardX(), toPanel.getCardY(), toPanel.getCardWidth(), toPanel.getCardHeight()));
                 }
                 Animation.moveCard(toPanel);
             }
+            panelsToReveal.clear();
         }
         repaint();
     }
@@ -720,7 +877,7 @@ public class PlayArea extends CardPanelContainer implements CardPanelMouseListen
         }
 
         if (needLayoutRefresh && !fromRefresh) {
-            doLayout(); //ensure layout refreshed here if not being called from a full refresh
+            scheduleLayout(); //ensure layout refreshed here if not being called from a full refresh
         }
         return needLayoutRefresh;
     }
@@ -745,17 +902,20 @@ public class PlayArea extends CardPanelContainer implements CardPanelMouseListen
     private class CardStackRow extends ArrayList<CardStack> {
         private static final long serialVersionUID = 716489891951011846L;
 
+        // y coordinate the row was last positioned at, or -1 if it hasn't been
+        private int positionedY = -1;
+
         public CardStackRow() {
             super(16);
         }
 
-        public CardStackRow(final List<CardPanel> cardPanels, final RowType type) {
-            this();
+        private CardStackRow fill(final List<CardPanel> cardPanels, final RowType type) {
             if (type == RowType.Other) {
                 this.addAllOthers(cardPanels, type);
             } else {
                 this.addAll(cardPanels, type);
             }
+            return this;
         }
 
         private void addAll(final List<CardPanel> cardPanels, final RowType type) {
@@ -804,6 +964,25 @@ public class PlayArea extends CardPanelContainer implements CardPanelMouseListen
             }
         }
 
+        private boolean hasSamePiles(final CardStackRow other) {
+            if (other.size() != this.size()) {
+                return false;
+            }
+            for (int i = 0, n = this.size(); i < n; i++) {
+                final CardStack stack = this.get(i);
+                final CardStack otherStack = other.get(i);
+                if (stack.size() != otherStack.size()) {
+                    return false;
+                }
+                for (int j = 0, m = stack.size(); j < m; j++) {
+                    if (stack.get(j) != otherStack.get(j)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
         @Override
         public boolean addAll(final Collection<? extends CardStack> c) {
             final boolean changed = super.addAll(c);
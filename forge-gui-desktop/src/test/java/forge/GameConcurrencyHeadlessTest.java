@@ -0,0 +1,24 @@
+package forge;
+
+import forge.gamesimulationtests.BaseGameSimulationTest;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static forge.view.SimulateMatch.simulateGamesInParallel;
+import static org.testng.Assert.assertEquals;
+
+public class GameConcurrencyHeadlessTest extends BaseGameSimulationTest {
+    // few enough for the games played at the same time to end before SimulateMatch stops them
+    // as slow on a single core
+    private static final int GAMES = 2;
+
+    // The games of GameConcurrencyTest, fewer of them and with the card databases and preferences
+    // of the mocks instead of the desktop GUI, so it runs without a display.
+    @Test
+    public void ParallelGamesPlayLikeSequentialGames() {
+        List<String> sequential = GameConcurrencyTest.summarize(simulateGamesInParallel(GameConcurrencyTest.createMatches(GAMES), 1, false, null));
+        List<String> parallel = GameConcurrencyTest.summarize(simulateGamesInParallel(GameConcurrencyTest.createMatches(GAMES), GAMES, false, null));
+        assertEquals(parallel, sequential);
+    }
+}
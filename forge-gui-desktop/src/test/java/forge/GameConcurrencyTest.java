@@ -0,0 +1,89 @@
+package forge;
+
+import com.google.common.base.Function;
+import forge.ai.LobbyPlayerAi;
+import forge.card.CardDb;
+import forge.deck.Deck;
+import forge.game.Game;
+import forge.game.GameOutcome;
+import forge.game.GameRules;
+import forge.game.GameType;
+import forge.game.Match;
+import forge.game.player.RegisteredPlayer;
+import forge.gui.GuiBase;
+import forge.localinstance.properties.ForgePreferences;
+import forge.model.FModel;
+import org.testng.annotations.Ignore;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static forge.view.SimulateMatch.simulateGamesInParallel;
+import static org.testng.Assert.assertEquals;
+
+public class GameConcurrencyTest {
+    private static final int GAMES = 8;
+    private static final int THREADS = 4;
+
+    // Loads every card script and plays whole AI games with the desktop GUI, like GameFuzzingTest.
+    // GameConcurrencyHeadlessTest plays fewer games without it with the other tests.
+    // To run it by hand, take the @Ignore away and run
+    // mvn -pl forge-gui-desktop test -Dtest=GameConcurrencyTest on a machine with a display.
+    @Ignore
+    @Test
+    public void ParallelGamesPlayLikeSequentialGames() {
+        GuiBase.setInterface(new GuiDesktop());
+        FModel.initialize(null, new Function<ForgePreferences, Void>() {
+            @Override
+            public Void apply(ForgePreferences preferences) {
+                // the card databases aren't safe to read while cards are loaded
+                preferences.setPref(ForgePreferences.FPref.LOAD_CARD_SCRIPTS_LAZILY, false);
+                preferences.setPref(ForgePreferences.FPref.UI_LANGUAGE, "en-US");
+                return null;
+            }
+        });
+
+        List<String> sequential = summarize(simulateGamesInParallel(createMatches(GAMES), 1, false, null));
+        List<String> parallel = summarize(simulateGamesInParallel(createMatches(GAMES), THREADS, false, null));
+        assertEquals(parallel, sequential);
+    }
+
+    static List<Match> createMatches(int games) {
+        CardDb cardDb = FModel.getMagicDb().getCommonCards();
+        Deck green = createDeck(cardDb, "green", "Forest", "Llanowar Elves", "Grizzly Bears", "Giant Growth", "Centaur Courser", "Craw Wurm");
+        Deck red = createDeck(cardDb, "red", "Mountain", "Shock", "Hill Giant", "Lightning Bolt", "Goblin Piker", "Raging Goblin");
+
+        List<Match> matches = new ArrayList<>();
+        for (int i = 0; i < games; i++) {
+            RegisteredPlayer p1 = new RegisteredPlayer(green);
+            RegisteredPlayer p2 = new RegisteredPlayer(red);
+            p1.setPlayer(new LobbyPlayerAi("p1", null));
+            p2.setPlayer(new LobbyPlayerAi("p2", null));
+            GameRules rules = new GameRules(GameType.Constructed);
+            rules.setSeed(i);
+            matches.add(new Match(rules, Arrays.asList(p1, p2), "test"));
+        }
+        return matches;
+    }
+
+    private static Deck createDeck(CardDb cardDb, String name, String land, String... spells) {
+        Deck deck = new Deck(name);
+        deck.getMain().add(cardDb.getCard(land), 24);
+        for (String spell : spells) {
+            deck.getMain().add(cardDb.getCard(spell), 36 / spells.length);
+        }
+        return deck;
+    }
+
+    static List<String> summarize(List<Game> games) {
+        List<String> result = new ArrayList<>();
+        for (Game game : games) {
+            GameOutcome outcome = game.getOutcome();
+            result.add(outcome.getSeed() + ": " + (outcome.isDraw() ? "draw" : outcome.getWinningLobbyPlayer().getName())
+                    + " on turn " + outcome.getLastTurnNumber() + ", " + game.getGameLog().getLogEntries(null).size() + " log entries");
+        }
+        return result;
+    }
+}
@@ -2116,6 +2116,22 @@ public class CardDbCardMockTestCase extends CardMockTestCase {
         assertEquals(retrievedPaperCard.getEdition(), CardEdition.UNKNOWN.getCode());
     }
 
+    @Test
+    public void testGetCardFromSetFindsPrintingsAddedAfterLookup() {
+        String cardName = "Unknown Reprinted Card";
+        CardRules rules = CardRules.getUnsupportedCardNamed(cardName);
+        PaperCard firstArt = new PaperCard(rules, "LEA", CardRarity.Common, 1, false, "1", "");
+        this.cardDb.addCard(firstArt);
+        assertEquals(this.cardDb.getCard(cardName, "LEA"), firstArt);
+        assertNull(this.cardDb.getCard(cardName, "LEA", 2));
+
+        PaperCard secondArt = new PaperCard(rules, "LEA", CardRarity.Common, 2, false, "2", "");
+        this.cardDb.addCard(secondArt);
+        assertEquals(this.cardDb.getCard(cardName, "LEA", 2), secondArt);
+        assertEquals(this.cardDb.getCard(cardName, "lea", "2"), secondArt);
+        assertEquals(this.cardDb.getCard(cardName, "LEA", 1), firstArt);
+    }
+
     @Test
     public void testGetCardFromWrongEditionOrNonExistingEditionReturnsNullResult() {
         String cardName = "Blinding Angel";
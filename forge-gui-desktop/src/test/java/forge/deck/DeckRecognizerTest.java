@@ -3356,4 +3356,53 @@ public class DeckRecognizerTest extends CardMockTestCase {
         assertEquals(unsupportedCard.getType(), TokenType.UNSUPPORTED_CARD);
     }
 
+    @Test
+    void testParsingEditedCardListOnlyChangesTheEditedLines() {
+        DeckRecognizer recognizer = new DeckRecognizer();
+        String[] cardList = new String[] { "Deck", "4 Lightning Bolt", "2 Counterspell|FEM", "", "Sideboard", "3 Fireball|5ED" };
+        List<Token> tokens = recognizer.parseCardList(cardList);
+        assertEquals(tokens.size(), 5);
+
+        // the tokens of the lines not edited are the same, but not shared with the previous parse
+        cardList[1] = "3 Lightning Bolt";
+        recognizer.setGameFormatConstraint(null, null, null);  // same constraints, lines are kept
+        List<Token> editedTokens = recognizer.parseCardList(Arrays.asList(cardList));
+        List<Token> freshTokens = new DeckRecognizer().parseCardList(cardList);
+        assertEquals(editedTokens.size(), freshTokens.size());
+        for (int i = 0; i < editedTokens.size(); i++) {
+            assertEquals(editedTokens.get(i).getType(), freshTokens.get(i).getType());
+            assertEquals(editedTokens.get(i).getText(), freshTokens.get(i).getText());
+            assertEquals(editedTokens.get(i).getTokenSection(), freshTokens.get(i).getTokenSection());
+            assertNotSame(editedTokens.get(i), tokens.get(i));
+        }
+        assertEquals(editedTokens.get(1).getQuantity(), 3);
+        assertEquals(editedTokens.get(4).getTokenSection(), DeckSection.Sideboard);
+
+        // a new constraint recognises the lines again
+        recognizer.setDateConstraint(1997, 0);
+        editedTokens = recognizer.parseCardList(cardList);
+        assertEquals(editedTokens.get(4).getType(), TokenType.CARD_FROM_INVALID_SET);
+        recognizer.clearDateConstraint();
+        editedTokens = recognizer.parseCardList(cardList);
+        assertEquals(editedTokens.get(4).getType(), TokenType.LEGAL_CARD);
+    }
+
+    @Test
+    void testCardNamesWithMissingPunctuationAreRecognised() {
+        DeckRecognizer recognizer = new DeckRecognizer();
+        Token cardToken = recognizer.recognizeLine("2 Jace Vryns Prodigy", null);
+        assertNotNull(cardToken);
+        assertEquals(cardToken.getType(), TokenType.LEGAL_CARD);
+        assertEquals(cardToken.getQuantity(), 2);
+        assertEquals(cardToken.getCard().getName(), "Jace, Vryn's Prodigy");
+
+        cardToken = recognizer.recognizeLine("1 blue suns twilight", null);
+        assertNotNull(cardToken);
+        assertEquals(cardToken.getCard().getName(), "Blue Sun's Twilight");
+
+        cardToken = recognizer.recognizeLine("1 Lightning Boltt", null);
+        assertNotNull(cardToken);
+        assertEquals(cardToken.getType(), TokenType.UNKNOWN_CARD);
+    }
+
 }
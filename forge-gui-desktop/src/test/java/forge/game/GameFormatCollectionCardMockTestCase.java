@@ -0,0 +1,81 @@
+package forge.game;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.testng.annotations.Test;
+
+import com.google.common.base.Predicate;
+
+import forge.StaticData;
+import forge.card.CardDb;
+import forge.card.CardMockTestCase;
+import forge.item.PaperCard;
+import forge.localinstance.properties.ForgeConstants;
+
+public class GameFormatCollectionCardMockTestCase extends CardMockTestCase {
+
+    private GameFormat.Collection readFormats() {
+        File formats = new File(ForgeConstants.RES_DIR + "formats");
+        File noCustomFormats = new File(ForgeConstants.RES_DIR + "formats" + File.separator + "none");
+        return new GameFormat.Collection(new GameFormat.Reader(formats, noCustomFormats, false));
+    }
+
+    // the same format, but not part of a collection
+    private GameFormat copyOf(GameFormat format) {
+        return new GameFormat(format.getName(), format.getEffectiveDate(), format.getAllowedSetCodes(),
+                format.getBannedCardNames(), format.getRestrictedCards(), format.isRestrictedLegendary(),
+                format.getAdditionalCards(), format.getAllowedRarities(), format.getIndex(),
+                format.getFormatType(), format.getFormatSubType());
+    }
+
+    @Test
+    public void testFiltersOfFormatsInCollectionMatchTheirRules() {
+        GameFormat.Collection formats = readFormats();
+        CardDb cardDb = StaticData.instance().getCommonCards();
+        for (String name : new String[] { "Standard", "Modern", "Pauper", "Legacy" }) {
+            GameFormat format = formats.get(name);
+            GameFormat copy = copyOf(format);
+            Predicate<PaperCard> rules = format.getFilterRules(), printed = format.getFilterPrinted();
+            for (PaperCard card : cardDb.getAllCards()) {
+                assertEquals(rules.apply(card), copy.getFilterRules().apply(card), name + " " + card);
+                assertEquals(printed.apply(card), copy.getFilterPrinted().apply(card), name + " " + card);
+            }
+
+            Set<String> legalNames = new HashSet<>();
+            for (PaperCard card : formats.getLegalCards(format)) {
+                legalNames.add(card.getName());
+            }
+            for (PaperCard card : cardDb.getUniqueCards()) {
+                assertEquals(legalNames.contains(card.getName()), copy.getFilterRules().apply(card), name + " " + card);
+            }
+        }
+    }
+
+    @Test
+    public void testFormatsOfCardAndCombinedFilter() {
+        GameFormat.Collection formats = readFormats();
+        PaperCard bolt = StaticData.instance().getCommonCards().getCard("Lightning Bolt");
+        Set<GameFormat> boltFormats = formats.getAllFormatsOfCard(bolt);
+        assertTrue(boltFormats.contains(formats.getModern()));
+        assertTrue(boltFormats.contains(formats.getVintage()));
+        assertFalse(boltFormats.contains(formats.getStandard()));
+
+        Set<GameFormat> selected = new HashSet<>();
+        selected.add(formats.getStandard());
+        assertFalse(formats.getFilterRules(selected).apply(bolt));
+        selected.add(formats.getModern());
+        assertTrue(formats.getFilterRules(selected).apply(bolt));
+        // formats not in the collection are checked by their own filter
+        selected.clear();
+        selected.add(copyOf(formats.getStandard()));
+        assertFalse(formats.getFilterRules(selected).apply(bolt));
+        selected.add(copyOf(formats.getPauper()));
+        assertTrue(formats.getFilterRules(selected).apply(bolt));
+    }
+}
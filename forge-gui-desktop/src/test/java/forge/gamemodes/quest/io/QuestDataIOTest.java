@@ -0,0 +1,185 @@
+package forge.gamemodes.quest.io;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.zip.GZIPOutputStream;
+
+import org.powermock.api.mockito.PowerMockito;
+import org.testng.annotations.Test;
+
+import forge.card.CardMockTestCase;
+import forge.deck.Deck;
+import forge.gamemodes.quest.data.DeckConstructionRules;
+import forge.gamemodes.quest.QuestController;
+import forge.gamemodes.quest.QuestMode;
+import forge.gamemodes.quest.data.QuestData;
+import forge.gamemodes.quest.data.QuestPreferences;
+import forge.item.BoosterPack;
+import forge.item.InventoryItem;
+import forge.item.PaperCard;
+import forge.item.PreconDeck;
+import forge.localinstance.properties.ForgeConstants;
+import forge.model.FModel;
+import forge.util.ItemPool;
+
+public class QuestDataIOTest extends CardMockTestCase {
+
+    private File saveDir;
+
+    @Override
+    protected void initForgeConstants() throws IllegalAccessException {
+        super.initForgeConstants();
+        try {
+            saveDir = Files.createTempDirectory("forge-quest").toFile();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        saveDir.deleteOnExit();
+        PowerMockito.field(ForgeConstants.class, "QUEST_SAVE_DIR").set(ForgeConstants.class, saveDir.getPath() + File.separator);
+        PowerMockito.field(ForgeConstants.class, "QUEST_PREFS_FILE").set(ForgeConstants.class, new File(saveDir, "quest.preferences").getPath());
+        PowerMockito.field(ForgeConstants.class, "QUEST_PRECON_DIR").set(ForgeConstants.class, "../forge-gui/res/quest/precons" + File.separator);
+    }
+
+    @Override
+    protected void initForgePreferences() throws IllegalAccessException {
+        super.initForgePreferences();
+        PowerMockito.when(FModel.getQuestPreferences()).thenReturn(new QuestPreferences());
+    }
+
+    private static PaperCard card(String name) {
+        return FModel.getMagicDb().getCommonCards().getCard(name);
+    }
+
+    private static QuestData newQuest() {
+        QuestData quest = new QuestData("Round trip", 1, QuestMode.Classic, null, false, null, null);
+        quest.getAssets().setCredits(1234);
+        quest.getAssets().getCardPool().add(card("Lightning Bolt"), 4);
+        quest.getAssets().getCardPool().add(card("Counterspell"), 2);
+        quest.getAssets().getNewCardList().add(card("Counterspell"));
+
+        BoosterPack booster = BoosterPack.FN_FROM_SET.apply(FModel.getMagicDb().getEditions().get("M10"));
+        PreconDeck precon = QuestController.getPrecons().get(QuestController.getPrecons().getItemNames().iterator().next());
+        quest.getAssets().getShopList().add(card("Giant Growth"), 3);
+        quest.getAssets().getShopList().add(booster, 2);
+        quest.getAssets().getShopList().add(precon);
+
+        Deck deck = new Deck("Burn");
+        deck.getMain().add(card("Lightning Bolt"), 4);
+        deck.getMain().add(card("Mountain"), 20);
+        quest.getAssets().getDeckStorage().add(deck);
+        return quest;
+    }
+
+    // items read back are new objects, so the pools are compared by what they print
+    private static void assertSameItems(ItemPool<? extends InventoryItem> actual, ItemPool<? extends InventoryItem> expected) {
+        assertEquals(itemsOf(actual), itemsOf(expected));
+    }
+
+    private static TreeMap<String, Integer> itemsOf(ItemPool<? extends InventoryItem> pool) {
+        TreeMap<String, Integer> items = new TreeMap<>();
+        for (Entry<? extends InventoryItem, Integer> e : pool) {
+            items.merge(e.getKey().getItemType() + ": " + e.getKey(), e.getValue(), Integer::sum);
+        }
+        return items;
+    }
+
+    private static void assertSameQuest(QuestData actual, QuestData expected) {
+        assertEquals(actual.getName(), expected.getName());
+        assertEquals(actual.getAssets().getCredits(), expected.getAssets().getCredits());
+        assertSameItems(actual.getAssets().getCardPool(), expected.getAssets().getCardPool());
+        assertSameItems(actual.getAssets().getNewCardList(), expected.getAssets().getNewCardList());
+        assertSameItems(actual.getAssets().getShopList(), expected.getAssets().getShopList());
+        assertEquals(actual.getAssets().getDeckStorage().getItemNames(), expected.getAssets().getDeckStorage().getItemNames());
+        for (String name : expected.getAssets().getDeckStorage().getItemNames()) {
+            assertSameItems(actual.getAssets().getDeckStorage().get(name).getMain(),
+                    expected.getAssets().getDeckStorage().get(name).getMain());
+        }
+    }
+
+    @Test
+    public void testSectionsRoundTrip() throws IOException {
+        QuestData quest = newQuest();
+        File save = new File(saveDir, "roundtrip.dat");
+        QuestDataIO.saveSections(save, quest);
+
+        QuestData loaded = QuestDataIO.loadData(save);
+        assertSameQuest(loaded, quest);
+        assertEquals(loaded.getAssets().getShopList().countAll(), 6);
+        assertEquals(loaded.getAssets().getDeckStorage().get("Burn").getMain().countAll(), 24);
+    }
+
+    @Test
+    public void testSectionsUnchangedBetweenSaves() throws IOException {
+        QuestData quest = newQuest();
+        File save = new File(saveDir, "unchanged.dat");
+        QuestDataIO.saveSections(save, quest);
+
+        // only the cards change, the decks and the other sections are written as they were kept
+        quest.getAssets().getCardPool().add(card("Giant Growth"));
+        quest.getAssets().getNewCardList().clear();
+        QuestDataIO.saveSections(save, quest);
+        assertSameQuest(QuestDataIO.loadData(save), quest);
+
+        // and then only the decks and the credits
+        Deck deck = new Deck("Counters");
+        deck.getMain().add(card("Counterspell"), 4);
+        quest.getAssets().getDeckStorage().add(deck);
+        quest.getAssets().setCredits(99);
+        QuestDataIO.saveSections(save, quest);
+        QuestData loaded = QuestDataIO.loadData(save);
+        assertSameQuest(loaded, quest);
+        assertEquals(loaded.getAssets().getCardPool().count(card("Giant Growth")), 1);
+        assertTrue(loaded.getAssets().getNewCardList().isEmpty());
+    }
+
+    @Test
+    public void testSectionsOfOldVersionUpdated() throws IOException {
+        QuestData quest = newQuest();
+        quest.setVersionNumber(12);
+        quest.deckConstructionRules = null;
+        File save = new File(saveDir, "old.dat");
+        QuestDataIO.saveSections(save, quest);
+
+        QuestData loaded = QuestDataIO.loadData(save);
+        assertEquals(loaded.getVersionNumber(), QuestData.CURRENT_VERSION_NUMBER);
+        // set by the update of version 12 saves
+        assertEquals(loaded.deckConstructionRules, DeckConstructionRules.Default);
+        assertSameQuest(loaded, quest);
+    }
+
+    @Test
+    public void testXmlSaveWrittenBackInSections() throws IOException {
+        QuestData quest = newQuest();
+        File save = new File(saveDir, quest.getName() + ".dat");
+        // as quests were saved before sections
+        try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(save)))) {
+            QuestDataIO.getSerializer(false).toXML(quest, out);
+        }
+        assertFalse(isSavedInSections(save));
+
+        QuestData loaded = QuestDataIO.loadData(save);
+        assertSameQuest(loaded, quest);
+
+        QuestDataIO.saveData(loaded);
+        assertTrue(isSavedInSections(save));
+        assertSameQuest(QuestDataIO.loadData(save), quest);
+    }
+
+    private static boolean isSavedInSections(File save) throws IOException {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(save))) {
+            return in.readInt() == 0x46515344; // "FQSD"
+        }
+    }
+}
@@ -19,6 +19,7 @@ import forge.deck.DeckProxy;
 import forge.deck.DeckSection;
 import forge.item.InventoryItem;
 import forge.item.PaperCard;
+import forge.itemmanager.ItemManagerModel;
 import forge.sound.SoundEffectType;
 import forge.sound.SoundSystem;
 import forge.util.ItemPool;
@@ -114,6 +115,7 @@ public class AdventurePlayer implements Serializable, SaveFileContent {
         cards.clear();
         statistic.clear();
         newCards.clear();
+        ItemManagerModel.onSortValuesChanged();
         autoSellCards.clear();
         noSellCards.clear();
         AdventureEventController.clear();
@@ -590,6 +592,7 @@ public class AdventurePlayer implements Serializable, SaveFileContent {
     public void addCard(PaperCard card) {
         cards.add(card);
         newCards.add(card);
+        ItemManagerModel.onSortValuesChanged(card.getName());
     }
 
     public void addReward(Reward reward) {
@@ -597,6 +600,7 @@ public class AdventurePlayer implements Serializable, SaveFileContent {
             case Card:
                 cards.add(reward.getCard());
                 newCards.add(reward.getCard());
+                ItemManagerModel.onSortValuesChanged(reward.getCard().getName());
                 if (reward.isNoSell()) {
                     noSellCards.add(reward.getCard());
                     AdventureDeckEditor editor = ((AdventureDeckEditor) DeckEditScene.getInstance().getScreen());
@@ -5,6 +5,7 @@ import forge.adventure.util.SaveFileContent;
 import forge.adventure.util.SaveFileData;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 
@@ -19,6 +20,8 @@ public class PointOfInterestChanges implements SaveFileContent  {
     private final java.util.Map<Integer, Float> shopModifiers = new HashMap<>();
     private final java.util.Map<Integer, Integer> reputation = new HashMap<>();
     private Boolean isBookmarked;
+    // what was saved or loaded last, until something changes
+    private SaveFileData saved;
 
     public static class Map extends HashMap<String,PointOfInterestChanges> implements SaveFileContent {
         @Override
@@ -64,10 +67,13 @@ public class PointOfInterestChanges implements SaveFileContent  {
         shopModifiers.clear();
         shopModifiers.putAll((java.util.Map<Integer, Float>) data.readObject("shopModifiers"));
         isBookmarked = (Boolean) data.readObject("isBookmarked");
+        saved = data;
     }
 
     @Override
     public SaveFileData save() {
+        if (saved != null)
+            return saved;
         SaveFileData data=new SaveFileData();
         data.storeObject("deletedObjects",deletedObjects);
         data.storeObject("cardsBought",cardsBought);
@@ -75,17 +81,27 @@ public class PointOfInterestChanges implements SaveFileContent  {
         data.storeObject("shopSeeds", shopSeeds);
         data.storeObject("shopModifiers", shopModifiers);
         data.storeObject("isBookmarked", isBookmarked);
+        saved = data;
         return data;
     }
 
     public boolean isObjectDeleted(int objectID) { return deletedObjects.contains(objectID); }
-    public boolean deleteObject(int objectID)    { return deletedObjects.add(objectID); }
+    public boolean deleteObject(int objectID)    { saved = null; return deletedObjects.add(objectID); }
 
     public java.util.Map<String, Byte> getMapFlags() {
-        return mapFlags;
+        return Collections.unmodifiableMap(mapFlags);
+    }
+    public void setMapFlag(String key, byte value) {
+        saved = null;
+        mapFlags.put(key, value);
+    }
+    public void clearMapFlags() {
+        saved = null;
+        mapFlags.clear();
     }
 
     public void buyCard(int objectID, int cardIndex) {
+        saved = null;
         if( !cardsBought.containsKey(objectID)) {
             cardsBought.put(objectID,new HashSet<>());
         }
@@ -107,12 +123,14 @@ public class PointOfInterestChanges implements SaveFileContent  {
     }
 
     public void generateNewShopSeed(int objectID){
+        saved = null;
 
         shopSeeds.put(objectID, Current.world().getRandom().nextLong());
         cardsBought.put(objectID, new HashSet<>()); //Allows cards to appear in slots of previous purchases
     }
 
     public void setRotatingShopSeed(int objectID, long seed){
+        saved = null;
         if (shopSeeds.containsKey(objectID) && shopSeeds.get(objectID) != seed) {
             cardsBought.put(objectID, new HashSet<>()); //Allows cards to appear in slots of previous purchases
         }
@@ -168,11 +186,13 @@ public class PointOfInterestChanges implements SaveFileContent  {
         return isBookmarked;
     }
     public void setIsBookmarked(boolean val) {
+        saved = null;
         isBookmarked = val;
     }
 
     public void clearDeletedObjects() {
         // reset map when assigning as a quest target that needs enemies
+        saved = null;
         deletedObjects.clear();
     }
 }
@@ -357,6 +357,7 @@ public class AdventureDeckEditor extends TabPageScreen<AdventureDeckEditor> {
                     if (result) {
                         currentEvent.eventStatus = AdventureEventController.EventStatus.Abandoned;
                         AdventurePlayer.current().getNewCards().clear();
+                        ItemManagerModel.onSortValuesChanged();
                         Forge.clearCurrentScreen();
                         Forge.switchToLast();
                     }
@@ -364,6 +365,7 @@ public class AdventureDeckEditor extends TabPageScreen<AdventureDeckEditor> {
             });
         } else {
             AdventurePlayer.current().getNewCards().clear();
+            ItemManagerModel.onSortValuesChanged();
             Forge.clearCurrentScreen();
             Forge.switchToLast();
         }
@@ -387,6 +389,7 @@ public class AdventureDeckEditor extends TabPageScreen<AdventureDeckEditor> {
                 }
             }
         }
+        ItemManagerModel.onSortValuesChanged();
         lblGold.setText(String.valueOf(AdventurePlayer.current().getGold()));
 
 //            if (currentEvent.registeredDeck!=null && !currentEvent.registeredDeck.isEmpty()){
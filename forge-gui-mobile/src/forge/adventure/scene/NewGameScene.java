@@ -188,23 +188,28 @@ public class NewGameScene extends UIScene {
             selectedName.setText(NameGenerator.getRandomName("Any", "Any", ""));
         }
         Runnable runnable = () -> {
-            started = false;
             //FModel.getPreferences().setPref(ForgePreferences.FPref.UI_ENABLE_MUSIC, false);
-            WorldSave.generateNewWorld(selectedName.getText(),
+            WorldSave.generateNewWorldInBackground(selectedName.getText(),
                     gender.getCurrentIndex() == 0,
                     race.getCurrentIndex(),
                     avatarIndex,
                     colorIds[custom.isEmpty() || !AdventureModes.Custom.equals(modes.get(mode.getCurrentIndex())) ? colorId.getCurrentIndex() : 0],
                     Config.instance().getConfigData().difficulties[difficulty.getCurrentIndex()],
                     modes.get(mode.getCurrentIndex()), colorId.getCurrentIndex(),
-                    editionIds[starterEdition.getCurrentIndex()], 0);//maybe replace with enum
-            GamePlayerUtil.getGuiPlayer().setName(selectedName.getText());
-            SoundSystem.instance.changeBackgroundTrack();
-            WorldStage.getInstance().setDirectlyEnterPOI();
-            //AdventurePlayer.current().addQuest("28"); //Temporary link to Shandalar main questline
-            Forge.switchScene(GameScene.instance());
+                    editionIds[starterEdition.getCurrentIndex()], 0,//maybe replace with enum
+                    () -> {
+                        started = false;
+                        GamePlayerUtil.getGuiPlayer().setName(selectedName.getText());
+                        SoundSystem.instance.changeBackgroundTrack();
+                        WorldStage.getInstance().setDirectlyEnterPOI();
+                        //AdventurePlayer.current().addQuest("28"); //Temporary link to Shandalar main questline
+                        Forge.switchScene(GameScene.instance());
+                    });
         };
-        Forge.setTransitionScreen(new TransitionScreen(runnable, null, false, true, "Generating World..."));
+        TransitionScreen transitionScreen = new TransitionScreen(runnable, null, false, true, "Generating World...");
+        //generated in the background, so the transition keeps drawing how far it is
+        transitionScreen.showGenerationOf(WorldSave.getCurrentSave().getWorld());
+        Forge.setTransitionScreen(transitionScreen);
         return true;
     }
 
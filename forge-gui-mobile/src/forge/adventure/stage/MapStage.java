@@ -1072,8 +1072,7 @@ public class MapStage extends GameStage {
             else return;
         }
         float mobSize = navMapSize; //todo: replace with actual size if multiple nav maps implemented
-        ArrayList<NavigationVertex> verticesNearPlayer = new ArrayList<>(navMaps.get(mobSize).navGraph.getNodes());
-        verticesNearPlayer.sort(Comparator.comparingInt(o -> Math.round((o.pos.x - player.pos().x) * (o.pos.x - player.pos().x) + (o.pos.y - player.pos().y) * (o.pos.y - player.pos().y))));
+        ArrayList<NavigationVertex> verticesNearPlayer = new ArrayList<>(navMaps.get(mobSize).getVerticesByDistance(player.pos()));
 
         if (!freezeAllEnemyBehaviors) {
             while (it.hasNext()) {
@@ -1249,7 +1248,7 @@ public class MapStage extends GameStage {
     }
 
     public void setQuestFlag(String key, int value) {
-        changes.getMapFlags().put(key, (byte) value);
+        changes.setMapFlag(key, (byte) value);
 
         AdventureQuestController.instance().updateQuestsMapFlag(key,value);
         AdventureQuestController.instance().showQuestDialogs(this);
@@ -1258,9 +1257,9 @@ public class MapStage extends GameStage {
     public void advanceQuestFlag(String key) {
         Map<String, Byte> C = changes.getMapFlags();
         if (C.get(key) != null) {
-            C.put(key, (byte) (C.get(key) + 1));
+            changes.setMapFlag(key, (byte) (C.get(key) + 1));
         } else {
-            C.put(key, (byte) 1);
+            changes.setMapFlag(key, (byte) 1);
         }
 
         AdventureQuestController.instance().updateQuestsMapFlag(key,changes.getMapFlags().get(key));
@@ -1276,7 +1275,7 @@ public class MapStage extends GameStage {
     }
 
     public void resetQuestFlags() {
-        changes.getMapFlags().clear();
+        changes.clearMapFlags();
     }
 
     public boolean dialogInput(int keycode) {
@@ -101,6 +101,11 @@ public class SaveFileData extends HashMap<String,byte[]>
             e.printStackTrace();
         }
     }
+    public void store(String key,byte[] bytes)
+    {
+        // already encoded, so kept as it is
+        put(key,bytes);
+    }
     public void storeObject(String key,Object subData)
     {
         try {
@@ -288,6 +293,11 @@ public class SaveFileData extends HashMap<String,byte[]>
 
 
 
+    public byte[] readBytes(String key)
+    {
+        return get(key);
+    }
+
     public Pixmap readPixmap(String key)
     {
         if(!containsKey(key))
@@ -0,0 +1,130 @@
+package forge.adventure.util.pathfinding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures how many enemy paths can be found per second on a map like the ones of the adventure mode,
+ * with A* over the whole graph and with the clusters. The map is a grid of tiles with random walls,
+ * so it runs without a physics world.
+ * Arguments: [map width and height in tiles] [enemies] [frames]
+ */
+public class NavigationBenchmark {
+    private static final float TILE_SIZE = 16f;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int enemies = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int frames = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+
+        Random random = new Random(1);
+        NavigationGraph graph = makeGraph(size, random);
+        List<NavigationVertex> nodes = new ArrayList<>(graph.getNodes());
+        System.out.printf("Map of %dx%d tiles, %d vertices, %d enemies, %d frames%n", size, size, nodes.size(), enemies, frames);
+
+        // the enemies start anywhere, and all chase the player, who moves to another tile every frame
+        NavigationVertex[][] origins = new NavigationVertex[frames][enemies];
+        NavigationVertex[] destinations = new NavigationVertex[frames];
+        for (int f = 0; f < frames; f++) {
+            destinations[f] = nodes.get(random.nextInt(nodes.size()));
+            for (int e = 0; e < enemies; e++)
+                origins[f][e] = nodes.get(random.nextInt(nodes.size()));
+        }
+
+        long start = System.nanoTime();
+        NavigationClusters clusters = new NavigationClusters(graph, NavigationMap.CLUSTER_TILES * TILE_SIZE, null);
+        System.out.printf("Clusters made in %.1f ms%n", (System.nanoTime() - start) / 1e6);
+
+        for (int run = 0; run < 2; run++) {
+            // the first run warms up, and fills the paths the clusters keep
+            boolean report = run == 1;
+            double flatCost = 0, clusterCost = 0;
+            int found = 0;
+
+            start = System.nanoTime();
+            for (int f = 0; f < frames; f++) {
+                for (int e = 0; e < enemies; e++) {
+                    ProgressableGraphPath<NavigationVertex> path = graph.findPath(origins[f][e].pos, destinations[f].pos);
+                    flatCost += lengthOf(path);
+                }
+            }
+            report(report, "A* over the whole graph", frames * enemies, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int f = 0; f < frames; f++) {
+                for (int e = 0; e < enemies; e++) {
+                    NavigationClusters.Goal goal = clusters.goalOf(destinations[f]);
+                    clusters.findPath(origins[f][e], goal);
+                }
+            }
+            report(report, "Clusters, one search per enemy", frames * enemies, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int f = 0; f < frames; f++) {
+                NavigationClusters.Goal goal = clusters.goalOf(destinations[f]);
+                for (int e = 0; e < enemies; e++) {
+                    ProgressableGraphPath<NavigationVertex> path = clusters.findPath(origins[f][e], goal);
+                    if (path.getCount() > 0) {
+                        clusterCost += lengthOf(path);
+                        found++;
+                    }
+                }
+            }
+            report(report, "Clusters, one search per frame", frames * enemies, System.nanoTime() - start);
+
+            if (report)
+                System.out.printf("%d paths found, %.1f%% longer than the shortest ones%n", found, flatCost == 0 ? 0 : 100 * (clusterCost / flatCost - 1));
+        }
+    }
+
+    private static void report(boolean report, String name, int paths, long nanos) {
+        if (report)
+            System.out.printf("%-32s %8.0f paths per second (%.1f ms)%n", name, paths / (nanos / 1e9), nanos / 1e6);
+    }
+
+    private static double lengthOf(ProgressableGraphPath<NavigationVertex> path) {
+        double length = 0;
+        for (int i = 1; i < path.getCount(); i++)
+            length += path.get(i - 1).pos.dst(path.get(i).pos);
+        return length;
+    }
+
+    /**
+     * Grid of tiles linked in 8 directions as NavigationMap makes them, without the tiles of some walls.
+     */
+    private static NavigationGraph makeGraph(int size, Random random) {
+        boolean[][] wall = new boolean[size][size];
+        for (int w = 0; w < size * size / 40; w++) {
+            int x = random.nextInt(size), y = random.nextInt(size);
+            int length = 2 + random.nextInt(size / 4);
+            boolean horizontal = random.nextBoolean();
+            for (int l = 0; l < length; l++) {
+                if (horizontal && x + l < size)
+                    wall[x + l][y] = true;
+                else if (!horizontal && y + l < size)
+                    wall[x][y + l] = true;
+            }
+        }
+
+        NavigationGraph graph = new NavigationGraph();
+        NavigationVertex[][] points = new NavigationVertex[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (wall[i][j])
+                    continue;
+                points[i][j] = graph.addVertex(i * TILE_SIZE + TILE_SIZE / 2, j * TILE_SIZE + TILE_SIZE / 2);
+                if (i > 0 && points[i - 1][j] != null)
+                    graph.addEdgeUnchecked(points[i][j], points[i - 1][j]);
+                if (j > 0 && points[i][j - 1] != null)
+                    graph.addEdgeUnchecked(points[i][j], points[i][j - 1]);
+                if (i > 0 && j > 0 && points[i - 1][j - 1] != null)
+                    graph.addEdgeUnchecked(points[i][j], points[i - 1][j - 1]);
+                if (i > 0 && j + 1 < size && points[i - 1][j + 1] != null)
+                    graph.addEdgeUnchecked(points[i][j], points[i - 1][j + 1]);
+            }
+        }
+        graph.removeVertexIf(v -> graph.getConnections(v).isEmpty());
+        return graph;
+    }
+}
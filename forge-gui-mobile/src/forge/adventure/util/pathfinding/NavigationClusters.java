@@ -0,0 +1,585 @@
+package forge.adventure.util.pathfinding;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/**
+ * Hierarchical layer over a navigation graph, in the way of HPA*. The graph is cut into square clusters,
+ * the edges between two clusters are grouped into entrances, and a path is first searched over the
+ * entrances, then filled in with the paths inside the clusters, which are kept once they were found.
+ * The search from a destination is made once and shared by every path to that destination, so enemies
+ * that chase the same target only walk their own cluster.
+ * The graph must not change after the clusters were made.
+ */
+public class NavigationClusters {
+    private static final float UNREACHABLE = Float.MAX_VALUE;
+    private static final int GOAL = -2;
+
+    private final float clusterSize;
+    private final BiPredicate<Vector2, Vector2> clearLine;
+
+    // by vertex index
+    private final NavigationVertex[] vertices;
+    private final int[] clusterOf;
+    private final int[] localIndex;
+    private final Entrance[] entranceOf;
+
+    private final List<Cluster> clusters = new ArrayList<>();
+    private final Map<Long, Cluster> clustersByCell = new HashMap<>();
+    private final List<Entrance> entrances = new ArrayList<>();
+    // the paths between two entrances of a cluster, smoothed, by the ids of both
+    private final Map<Long, NavigationVertex[]> segments = new HashMap<>();
+
+    // state of the searches, kept between them
+    private final float[] cost;
+    private final int[] parent;
+    private final int[] seen;
+    private final int[] done;
+    private final int[] reached;
+    private final boolean[] allowed;
+    private final Heap heap = new Heap();
+    private final Heap entranceHeap = new Heap();
+    private int searchId;
+
+    /**
+     * @param clusterSize width and height of a cluster, in the units of the vertex positions
+     * @param clearLine whether a straight line between two positions is free, to smooth the paths
+     *                  through a cluster with; null keeps them as they are
+     */
+    public NavigationClusters(NavigationGraph graph, float clusterSize, BiPredicate<Vector2, Vector2> clearLine) {
+        this.clusterSize = clusterSize;
+        this.clearLine = clearLine;
+        int count = graph.getNodeCount();
+        vertices = new NavigationVertex[count];
+        clusterOf = new int[count];
+        localIndex = new int[count];
+        entranceOf = new Entrance[count];
+        cost = new float[count];
+        parent = new int[count];
+        seen = new int[count];
+        done = new int[count];
+        reached = new int[count];
+
+        for (NavigationVertex v : graph.getNodes()) {
+            vertices[v.index] = v;
+            long cell = cellOf(v.pos);
+            Cluster cluster = clustersByCell.get(cell);
+            if (cluster == null) {
+                cluster = new Cluster(clusters.size());
+                clusters.add(cluster);
+                clustersByCell.put(cell, cluster);
+            }
+            clusterOf[v.index] = cluster.id;
+            localIndex[v.index] = cluster.vertices.size();
+            cluster.vertices.add(v);
+        }
+        allowed = new boolean[clusters.size()];
+        findEntrances();
+    }
+
+    public boolean contains(NavigationVertex v) {
+        return v.index >= 0 && v.index < vertices.length && vertices[v.index] == v;
+    }
+
+    /**
+     * The vertices of the cluster of the position and of the clusters around it.
+     */
+    public List<NavigationVertex> getVerticesNear(Vector2 position) {
+        List<NavigationVertex> result = new ArrayList<>();
+        int x = (int) Math.floor(position.x / clusterSize), y = (int) Math.floor(position.y / clusterSize);
+        for (int cx = x - 1; cx <= x + 1; cx++) {
+            for (int cy = y - 1; cy <= y + 1; cy++) {
+                Cluster cluster = clustersByCell.get(cellOf(cx, cy));
+                if (cluster != null)
+                    result.addAll(cluster.vertices);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The vertices sorted by their distance to the position. Only the vertices near the position are
+     * looked at when the nearest of them is closer than any vertex further away can be.
+     */
+    public List<NavigationVertex> getVerticesByDistance(Vector2 position) {
+        Comparator<NavigationVertex> byDistance = Comparator.comparingDouble(v -> v.pos.dst2(position));
+        List<NavigationVertex> result = getVerticesNear(position);
+        result.sort(byDistance);
+        if (result.isEmpty() || result.get(0).pos.dst(position) > clusterSize) {
+            result = new ArrayList<>();
+            for (NavigationVertex v : vertices) {
+                if (v != null)
+                    result.add(v);
+            }
+            result.sort(byDistance);
+        }
+        return result;
+    }
+
+    /**
+     * Search from a vertex of the graph, to find paths to it with.
+     */
+    public Goal goalOf(NavigationVertex destination) {
+        Array<NavigationEdge> links = new Array<>();
+        links.add(new NavigationEdge(destination, destination));
+        return goalOf(destination, links);
+    }
+
+    /**
+     * Search from a destination that is linked to the graph by the given edges, from the destination to
+     * vertices of the graph.
+     */
+    public Goal goalOf(NavigationVertex destination, Array<NavigationEdge> links) {
+        Goal goal = new Goal(destination, vertices.length, entrances.size());
+
+        // how to get to the destination without leaving the clusters it is linked to
+        searchId++;
+        heap.clear();
+        for (NavigationEdge link : links) {
+            if (contains(link.toVertex))
+                allowed[clusterOf[link.toVertex.index]] = true;
+        }
+        for (NavigationEdge link : links) {
+            if (contains(link.toVertex))
+                relax(link.toVertex.index, link.cost, -1);
+        }
+        int count = search();
+        Arrays.fill(allowed, false);
+        for (int r = 0; r < count; r++) {
+            int i = reached[r];
+            goal.localCost[i] = cost[i];
+            goal.localParent[i] = parent[i];
+        }
+
+        // then from the entrances of those clusters to every other entrance
+        entranceHeap.clear();
+        for (Entrance e : entrances) {
+            float c = goal.localCost[e.vertex.index];
+            if (c < UNREACHABLE) {
+                goal.entranceCost[e.id] = c;
+                goal.next[e.id] = GOAL;
+                entranceHeap.push(e.id, c);
+            }
+        }
+        while (!entranceHeap.isEmpty()) {
+            float c = entranceHeap.peekKey();
+            Entrance e = entrances.get(entranceHeap.pop());
+            if (c > goal.entranceCost[e.id])
+                continue;
+            float[] treeCost = treeOf(e);
+            for (Entrance f : clusters.get(e.cluster).entrances) {
+                float inside = treeCost[localIndex[f.vertex.index]];
+                if (f != e && inside < UNREACHABLE && c + inside < goal.entranceCost[f.id]) {
+                    goal.entranceCost[f.id] = c + inside;
+                    goal.next[f.id] = e.id;
+                    entranceHeap.push(f.id, c + inside);
+                }
+            }
+            for (NavigationEdge t : e.transitions) {
+                Entrance f = entranceOf[t.toVertex.index];
+                if (c + t.cost < goal.entranceCost[f.id]) {
+                    goal.entranceCost[f.id] = c + t.cost;
+                    goal.next[f.id] = e.id;
+                    entranceHeap.push(f.id, c + t.cost);
+                }
+            }
+        }
+        return goal;
+    }
+
+    /**
+     * Path from a vertex of the graph to the destination of the goal.
+     */
+    public ProgressableGraphPath<NavigationVertex> findPath(NavigationVertex origin, Goal goal) {
+        Array<NavigationEdge> links = new Array<>();
+        links.add(new NavigationEdge(origin, origin));
+        return findPath(origin, links, goal);
+    }
+
+    /**
+     * Path from an origin that is linked to the graph by the given edges, from the origin to vertices of
+     * the graph, to the destination of the goal. The path is empty when there is none.
+     */
+    public ProgressableGraphPath<NavigationVertex> findPath(NavigationVertex origin, Array<NavigationEdge> links, Goal goal) {
+        ProgressableGraphPath<NavigationVertex> path = new ProgressableGraphPath<>();
+        float best = UNREACHABLE;
+        NavigationVertex start = null;
+        Entrance exit = null;
+        for (NavigationEdge link : links) {
+            NavigationVertex v = link.toVertex;
+            if (!contains(v))
+                continue;
+            float local = goal.localCost[v.index];
+            if (local < UNREACHABLE && link.cost + local < best) {
+                best = link.cost + local;
+                start = v;
+                exit = null;
+            }
+            for (Entrance e : clusters.get(clusterOf[v.index]).entrances) {
+                if (goal.entranceCost[e.id] == UNREACHABLE)
+                    continue;
+                float inside = treeOf(e)[localIndex[v.index]];
+                if (inside < UNREACHABLE && link.cost + inside + goal.entranceCost[e.id] < best) {
+                    best = link.cost + inside + goal.entranceCost[e.id];
+                    start = v;
+                    exit = e;
+                }
+            }
+        }
+        if (start == null)
+            return path;
+
+        add(path, origin);
+        if (exit == null) {
+            addLocal(path, start.index, goal);
+        } else {
+            addTree(path, start, exit);
+            Entrance e = exit;
+            while (goal.next[e.id] != GOAL) {
+                Entrance f = entrances.get(goal.next[e.id]);
+                if (f.cluster == e.cluster) {
+                    for (NavigationVertex v : segment(e, f))
+                        add(path, v);
+                } else {
+                    add(path, f.vertex);
+                }
+                e = f;
+            }
+            addLocal(path, e.vertex.index, goal);
+        }
+        add(path, goal.destination);
+        return path;
+    }
+
+    private long cellOf(Vector2 pos) {
+        return cellOf((int) Math.floor(pos.x / clusterSize), (int) Math.floor(pos.y / clusterSize));
+    }
+
+    private static long cellOf(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+
+    private void findEntrances() {
+        // the edges that leave a cluster, by the pair of clusters they join
+        Map<Long, List<NavigationEdge>> borders = new HashMap<>();
+        for (NavigationVertex u : vertices) {
+            if (u == null)
+                continue;
+            Array<Connection<NavigationVertex>> connections = u.getConnections();
+            for (int i = 0; i < connections.size; i++) {
+                NavigationEdge edge = (NavigationEdge) connections.get(i);
+                NavigationVertex v = edge.toVertex;
+                if (contains(v) && clusterOf[u.index] < clusterOf[v.index])
+                    borders.computeIfAbsent(cellOf(clusterOf[u.index], clusterOf[v.index]), k -> new ArrayList<>()).add(edge);
+            }
+        }
+        for (List<NavigationEdge> border : borders.values()) {
+            // edges next to each other on both sides make one entrance, as they lead to the same places
+            int[] group = new int[border.size()];
+            for (int i = 0; i < group.length; i++)
+                group[i] = i;
+            for (int i = 0; i < group.length; i++) {
+                for (int j = i + 1; j < group.length; j++) {
+                    NavigationEdge a = border.get(i), b = border.get(j);
+                    if (isNear(a.fromVertex, b.fromVertex) && isNear(a.toVertex, b.toVertex))
+                        group[root(group, j)] = root(group, i);
+                }
+            }
+            Map<Integer, List<NavigationEdge>> runs = new HashMap<>();
+            for (int i = 0; i < group.length; i++)
+                runs.computeIfAbsent(root(group, i), k -> new ArrayList<>()).add(border.get(i));
+            for (List<NavigationEdge> run : runs.values())
+                addEntrances(run);
+        }
+    }
+
+    private static int root(int[] group, int i) {
+        while (group[i] != i)
+            i = group[i] = group[group[i]];
+        return i;
+    }
+
+    private static boolean isNear(NavigationVertex a, NavigationVertex b) {
+        return a == b || a.outgoingEdges.containsKey(b);
+    }
+
+    private void addEntrances(List<NavigationEdge> run) {
+        Vector2 center = new Vector2();
+        for (NavigationEdge edge : run)
+            center.add(middleOf(edge));
+        center.scl(1f / run.size());
+
+        // the edge in the middle of the run, and for a long run the edges at both ends too
+        NavigationEdge middle = null, end = null;
+        for (NavigationEdge edge : run) {
+            float d = middleOf(edge).dst2(center);
+            if (middle == null || d < middleOf(middle).dst2(center) || (d == middleOf(middle).dst2(center) && edge.cost < middle.cost))
+                middle = edge;
+            if (end == null || d > middleOf(end).dst2(center))
+                end = edge;
+        }
+        addTransition(middle);
+        if (middleOf(end).dst(center) > clusterSize / 4) {
+            NavigationEdge otherEnd = end;
+            for (NavigationEdge edge : run) {
+                if (middleOf(edge).dst2(middleOf(end)) > middleOf(otherEnd).dst2(middleOf(end)))
+                    otherEnd = edge;
+            }
+            addTransition(end);
+            addTransition(otherEnd);
+        }
+    }
+
+    private static Vector2 middleOf(NavigationEdge edge) {
+        return new Vector2(edge.fromVertex.pos).add(edge.toVertex.pos).scl(0.5f);
+    }
+
+    private void addTransition(NavigationEdge edge) {
+        Entrance from = entranceAt(edge.fromVertex), to = entranceAt(edge.toVertex);
+        if (from.transitions.contains(edge))
+            return;
+        from.transitions.add(edge);
+        to.transitions.add(edge.toVertex.outgoingEdges.get(edge.fromVertex));
+    }
+
+    private Entrance entranceAt(NavigationVertex v) {
+        Entrance e = entranceOf[v.index];
+        if (e == null) {
+            e = new Entrance(entrances.size(), v, clusterOf[v.index]);
+            entrances.add(e);
+            entranceOf[v.index] = e;
+            clusters.get(e.cluster).entrances.add(e);
+        }
+        return e;
+    }
+
+    /**
+     * Cost from every vertex of the cluster of the entrance to the entrance, by their index in the cluster.
+     */
+    private float[] treeOf(Entrance e) {
+        if (e.treeCost != null)
+            return e.treeCost;
+        Cluster cluster = clusters.get(e.cluster);
+        searchId++;
+        heap.clear();
+        allowed[e.cluster] = true;
+        relax(e.vertex.index, 0, -1);
+        int count = search();
+        allowed[e.cluster] = false;
+
+        e.treeCost = new float[cluster.vertices.size()];
+        e.treeParent = new int[cluster.vertices.size()];
+        Arrays.fill(e.treeCost, UNREACHABLE);
+        for (int r = 0; r < count; r++) {
+            int i = reached[r];
+            e.treeCost[localIndex[i]] = cost[i];
+            e.treeParent[localIndex[i]] = parent[i] < 0 ? -1 : localIndex[parent[i]];
+        }
+        return e.treeCost;
+    }
+
+    private void relax(int i, float c, int from) {
+        if (seen[i] != searchId || c < cost[i]) {
+            seen[i] = searchId;
+            cost[i] = c;
+            parent[i] = from;
+            heap.push(i, c);
+        }
+    }
+
+    /**
+     * Dijkstra over the vertices of the allowed clusters, from what was relaxed before. Returns how many
+     * vertices were reached, their indices are in reached.
+     */
+    private int search() {
+        int count = 0;
+        while (!heap.isEmpty()) {
+            int i = heap.pop();
+            if (done[i] == searchId)
+                continue;
+            done[i] = searchId;
+            reached[count++] = i;
+            Array<Connection<NavigationVertex>> connections = vertices[i].getConnections();
+            for (int c = 0; c < connections.size; c++) {
+                NavigationEdge edge = (NavigationEdge) connections.get(c);
+                NavigationVertex v = edge.toVertex;
+                if (contains(v) && allowed[clusterOf[v.index]] && done[v.index] != searchId)
+                    relax(v.index, cost[i] + edge.cost, i);
+            }
+        }
+        return count;
+    }
+
+    private NavigationVertex[] segment(Entrance from, Entrance to) {
+        long key = ((long) from.id << 32) | to.id;
+        NavigationVertex[] segment = segments.get(key);
+        if (segment == null) {
+            treeOf(to);
+            List<NavigationVertex> nodes = new ArrayList<>();
+            List<NavigationVertex> clusterVertices = clusters.get(to.cluster).vertices;
+            for (int l = localIndex[from.vertex.index]; l != -1; l = to.treeParent[l])
+                nodes.add(clusterVertices.get(l));
+            segment = smooth(nodes).toArray(new NavigationVertex[0]);
+            segments.put(key, segment);
+        }
+        return segment;
+    }
+
+    /**
+     * Leave out the vertices that can be walked past in a straight line.
+     */
+    private List<NavigationVertex> smooth(List<NavigationVertex> nodes) {
+        if (clearLine == null || nodes.size() < 3)
+            return nodes;
+        List<NavigationVertex> result = new ArrayList<>();
+        result.add(nodes.get(0));
+        int i = 0;
+        while (i < nodes.size() - 1) {
+            int j = nodes.size() - 1;
+            while (j > i + 1 && !clearLine.test(nodes.get(i).pos, nodes.get(j).pos))
+                j--;
+            result.add(nodes.get(j));
+            i = j;
+        }
+        return result;
+    }
+
+    private void addTree(ProgressableGraphPath<NavigationVertex> path, NavigationVertex from, Entrance to) {
+        List<NavigationVertex> clusterVertices = clusters.get(to.cluster).vertices;
+        for (int l = localIndex[from.index]; l != -1; l = to.treeParent[l])
+            add(path, clusterVertices.get(l));
+    }
+
+    private void addLocal(ProgressableGraphPath<NavigationVertex> path, int from, Goal goal) {
+        for (int i = from; i != -1; i = goal.localParent[i])
+            add(path, vertices[i]);
+    }
+
+    private static void add(ProgressableGraphPath<NavigationVertex> path, NavigationVertex v) {
+        if (path.getCount() == 0 || !path.get(path.getCount() - 1).pos.equals(v.pos))
+            path.add(v);
+    }
+
+    /**
+     * The costs to a destination, from the vertices near it and from every entrance.
+     */
+    public static class Goal {
+        private final NavigationVertex destination;
+        private final float[] localCost;
+        private final int[] localParent;
+        private final float[] entranceCost;
+        private final int[] next;
+
+        private Goal(NavigationVertex destination, int vertexCount, int entranceCount) {
+            this.destination = destination;
+            localCost = new float[vertexCount];
+            localParent = new int[vertexCount];
+            entranceCost = new float[entranceCount];
+            next = new int[entranceCount];
+            Arrays.fill(localCost, UNREACHABLE);
+            Arrays.fill(entranceCost, UNREACHABLE);
+        }
+
+        public NavigationVertex getDestination() {
+            return destination;
+        }
+    }
+
+    private static class Cluster {
+        final int id;
+        final List<NavigationVertex> vertices = new ArrayList<>();
+        final List<Entrance> entrances = new ArrayList<>();
+
+        Cluster(int id) {
+            this.id = id;
+        }
+    }
+
+    private static class Entrance {
+        final int id;
+        final NavigationVertex vertex;
+        final int cluster;
+        // the edges to entrances of other clusters
+        final List<NavigationEdge> transitions = new ArrayList<>();
+        // paths from the vertices of the cluster to this entrance, made when first needed
+        float[] treeCost;
+        int[] treeParent;
+
+        Entrance(int id, NavigationVertex vertex, int cluster) {
+            this.id = id;
+            this.vertex = vertex;
+            this.cluster = cluster;
+        }
+    }
+
+    /**
+     * Binary min heap of ints by float keys. Items are not moved when their key gets lower, they are
+     * pushed again and the searches skip the ones they already handled.
+     */
+    private static class Heap {
+        private int[] items = new int[64];
+        private float[] keys = new float[64];
+        private int size;
+
+        void clear() {
+            size = 0;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        float peekKey() {
+            return keys[0];
+        }
+
+        void push(int item, float key) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            int position = size++;
+            while (position > 0) {
+                int up = (position - 1) >>> 1;
+                if (keys[up] <= key)
+                    break;
+                items[position] = items[up];
+                keys[position] = keys[up];
+                position = up;
+            }
+            items[position] = item;
+            keys[position] = key;
+        }
+
+        int pop() {
+            int result = items[0];
+            int item = items[--size];
+            float key = keys[size];
+            int position = 0;
+            while (true) {
+                int child = 2 * position + 1;
+                if (child >= size)
+                    break;
+                if (child + 1 < size && keys[child + 1] < keys[child])
+                    child++;
+                if (key <= keys[child])
+                    break;
+                items[position] = items[child];
+                keys[position] = keys[child];
+                position = child;
+            }
+            items[position] = item;
+            keys[position] = key;
+            return result;
+        }
+    }
+}
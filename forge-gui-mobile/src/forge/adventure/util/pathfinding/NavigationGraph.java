@@ -15,6 +15,11 @@ import java.util.stream.Collectors;
 public class NavigationGraph implements IndexedGraph<NavigationVertex> {
     private int lastNodeIndex = 0;
     Map<Integer, NavigationVertex> nodes = new HashMap<>();
+    // the vertices by position, the first one added where several share a position
+    private final Map<Vector2, NavigationVertex> positions = new HashMap<>();
+    // kept between searches, made again once the graph has more nodes than it was made for
+    private IndexedAStarPathFinder<NavigationVertex> pathFinder;
+    private int pathFinderNodeCount;
 
     EuclidianHeuristic navigationHeuristic = new EuclidianHeuristic();
 
@@ -22,6 +27,7 @@ public class NavigationGraph implements IndexedGraph<NavigationVertex> {
         node.index = lastNodeIndex;
         lastNodeIndex++;
         nodes.put(node.index,node);
+        positions.putIfAbsent(new Vector2(node.pos), node);
         return node;
     }
 
@@ -37,7 +43,10 @@ public class NavigationGraph implements IndexedGraph<NavigationVertex> {
         for (NavigationVertex v : node.incomingEdges.keys()) {
             v.removeEdges(node);
         }
-        nodes.remove(node.index >=0? node.index: lookupIndex(node));
+        int index = node.index >= 0 ? node.index : lookupIndex(node);
+        NavigationVertex removed = nodes.remove(index);
+        if (removed != null && positions.get(removed.pos) == removed)
+            positions.remove(removed.pos);
     }
 
     public void removeVertex(Vector2 position) {
@@ -63,10 +72,8 @@ public class NavigationGraph implements IndexedGraph<NavigationVertex> {
     }
 
     public int lookupIndex(Vector2 pos) {
-        for (int i : nodes.keySet())
-            if (nodes.get(i).pos.equals(pos)) return i;
-
-        return -1;
+        NavigationVertex node = positions.get(pos);
+        return node == null ? -1 : node.index;
     }
 
     public void addEdge(NavigationVertex fromNode, NavigationVertex toNode) {
@@ -85,10 +92,8 @@ public class NavigationGraph implements IndexedGraph<NavigationVertex> {
         if (!(fromNode.index < 0) || toNode.index < 0) {
             NavigationEdge fromAToB = new NavigationEdge(fromNode, toNode);
             NavigationEdge fromBToA = new NavigationEdge(toNode, fromNode);
-            fromNode.outgoingEdges.put(toNode, fromAToB);
-            fromNode.incomingEdges.put(toNode, fromBToA);
-            toNode.outgoingEdges.put(fromNode, fromBToA);
-            toNode.incomingEdges.put(fromNode, fromAToB);
+            fromNode.addEdges(toNode, fromAToB, fromBToA);
+            toNode.addEdges(fromNode, fromBToA, fromAToB);
         }
     }
 
@@ -106,10 +111,8 @@ public class NavigationGraph implements IndexedGraph<NavigationVertex> {
         NavigationEdge fromAToB = new NavigationEdge(fromNode, toNode);
         NavigationEdge fromBToA = new NavigationEdge(toNode, fromNode);
 
-        fromNode.outgoingEdges.put(toNode, fromAToB);
-        fromNode.incomingEdges.put(toNode, fromBToA);
-        toNode.outgoingEdges.put(fromNode, fromBToA);
-        toNode.incomingEdges.put(fromNode, fromAToB);
+        fromNode.addEdges(toNode, fromAToB, fromBToA);
+        toNode.addEdges(fromNode, fromBToA, fromAToB);
     }
 
     public int getIndex(NavigationVertex node) {
@@ -122,7 +125,7 @@ public class NavigationGraph implements IndexedGraph<NavigationVertex> {
 
     @Override
     public Array<Connection<NavigationVertex>> getConnections(NavigationVertex fromNode) {
-        return fromNode.getAllConnections();
+        return fromNode.getConnections();
     }
 
     public boolean edgeExists(NavigationVertex fromNode, NavigationVertex toNode) {
@@ -147,17 +150,21 @@ public class NavigationGraph implements IndexedGraph<NavigationVertex> {
 
         if (originVertex.index > -1 && destinationVertex.index > -1) {
 
-            new IndexedAStarPathFinder<>(this).searchNodePath(originVertex, destinationVertex, navigationHeuristic, navPath);
+            if (pathFinder == null || pathFinderNodeCount < getNodeCount()) {
+                pathFinder = new IndexedAStarPathFinder<>(this);
+                pathFinderNodeCount = getNodeCount();
+            }
+            pathFinder.searchNodePath(originVertex, destinationVertex, navigationHeuristic, navPath);
         }
         return navPath;
     }
 
     public NavigationVertex getVertexByPosition(Vector2 position) {
-        return nodes.get(lookupIndex(position));
+        return positions.get(position);
     }
 
     public boolean containsNode(Vector2 nodePosition) {
-        return nodes.containsKey(lookupIndex(nodePosition));
+        return positions.containsKey(nodePosition);
     }
 }
 
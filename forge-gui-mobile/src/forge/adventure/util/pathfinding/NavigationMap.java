@@ -8,12 +8,27 @@ import forge.adventure.stage.MapStage;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public class NavigationMap {
+    //Clusters of the hierarchical path search are this many sprites wide
+    static final int CLUSTER_TILES = 8;
+    static final int MAX_GOALS = 16;
+
     float spriteSize = 16f;
     boolean rayCollided = false;
 
     public NavigationGraph navGraph = new NavigationGraph();
+    NavigationClusters clusters;
+    // the searches from the last destinations enemies were sent to
+    final Map<Vector2, NavigationClusters.Goal> goals = new LinkedHashMap<Vector2, NavigationClusters.Goal>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Vector2, NavigationClusters.Goal> eldest) {
+            return size() > MAX_GOALS;
+        }
+    };
 
     Array<Rectangle> navBounds = new Array<>();
     float half = (spriteSize / 2);
@@ -34,6 +49,7 @@ public class NavigationMap {
 
     public void initializeGeometryGraph() {
         navGraph = new NavigationGraph();
+        goals.clear();
 
         for (int i = 0; i < MapStage.getInstance().collisionRect.size; i++) {
             Rectangle r1 = MapStage.getInstance().collisionRect.get(i);
@@ -115,87 +131,69 @@ public class NavigationMap {
                 }
             }
         }
+
+        clusters = new NavigationClusters(navGraph, CLUSTER_TILES * tileWidth, this::isClearLine);
     }
 
 
     public ProgressableGraphPath<NavigationVertex> findShortestPath(Float spriteSize, Vector2 origin, Vector2 destination) {
-        Array<Fixture> fixtures = new Array<>();
-        MapStage.getInstance().gdxWorld.getFixtures(fixtures);
-
-        boolean originPrecalculated = navGraph.containsNode(origin);
-        boolean destinationPrecalculated = navGraph.containsNode(destination);
-
-        try {
-            if (!originPrecalculated)
-                navGraph.addVertex(origin);
-
-            if (!destinationPrecalculated)
-                navGraph.addVertex(destination);
-
-            ArrayList<NavigationVertex> vertices = new ArrayList<>();
-
-            if (!(originPrecalculated && destinationPrecalculated)) {
-                vertices.addAll(navGraph.nodes.values());
-                vertices.sort(Comparator.comparingInt(o -> Math.round((o.pos.x - origin.x) * (o.pos.x - origin.x) + (o.pos.y - origin.y) * (o.pos.y - origin.y))));
-            }
+        if (clusters == null)
+            clusters = new NavigationClusters(navGraph, CLUSTER_TILES * spriteSize, this::isClearLine);
+
+        //Enemies chasing the same destination share the search from it, within the frame and after
+        NavigationClusters.Goal goal = goals.get(destination);
+        if (goal == null) {
+            NavigationVertex destinationVertex = new NavigationVertex(new Vector2(destination));
+            goal = clusters.goalOf(destinationVertex, linksOf(destinationVertex, false));
+            goals.put(new Vector2(destination), goal);
+        }
 
-            if (!originPrecalculated) {
-                for (int i = 0, j=0; i < vertices.size() && j < 10; i++) {
-                    if (origin.epsilonEquals(vertices.get(i).pos))
-                        continue; //rayCast() crashes if params are equal
-                    rayCollided = false;
-                    MapStage.getInstance().gdxWorld.rayCast(callback, origin, vertices.get(i).pos);
-                    if (!rayCollided) {
-                        navGraph.addEdge(origin, vertices.get(i));
-                        j++;
-                    }
-                }
-            }
+        NavigationVertex originVertex = new NavigationVertex(new Vector2(origin));
+        return clusters.findPath(originVertex, linksOf(originVertex, true), goal);
+    }
 
-            if (!destinationPrecalculated) {
-                for (int i = 0, j=0; i < vertices.size() && j < 10; i++) {
-                    if (destination.epsilonEquals(vertices.get(i).pos))
-                        continue; //shouldn't happen, but would crash during rayCast if it did
-                    rayCollided = false;
-                    MapStage.getInstance().gdxWorld.rayCast(callback, vertices.get(i).pos, destination);
-                    if (!rayCollided) {
-                        navGraph.addEdge(destination, vertices.get(i));
-                        j++;
-                    }
-                }
-            }
+    public List<NavigationVertex> getVerticesByDistance(Vector2 position) {
+        if (clusters == null)
+            return getAllVerticesByDistance(position);
+        return clusters.getVerticesByDistance(position);
+    }
 
+    /**
+     * Edges from a position to the vertices of the graph it can get to in a straight line, the vertex at
+     * the position itself when there is one.
+     */
+    private Array<NavigationEdge> linksOf(NavigationVertex point, boolean fromPoint) {
+        Array<NavigationEdge> links = new Array<>();
+        NavigationVertex vertex = navGraph.getVertexByPosition(point.pos);
+        if (vertex != null && clusters.contains(vertex)) {
+            links.add(new NavigationEdge(point, vertex));
+            return links;
+        }
+        addVisibleLinks(links, point, fromPoint, clusters.getVerticesByDistance(point.pos));
+        if (links.size == 0)
+            addVisibleLinks(links, point, fromPoint, getAllVerticesByDistance(point.pos));
+        return links;
+    }
 
-            ProgressableGraphPath<NavigationVertex> shortestPath = navGraph.findPath(origin, destination);
-
-            if (false) { //todo - re-evaluate. 8-way node links may be smooth enough to skip the extra raycast overhead
-                //Trim path by cutting any unnecessary nodes
-                for (int i = 0; i < shortestPath.getCount(); i++) {
-                    for (int j = shortestPath.getCount() - 1; j > i + 1; j--) {
-                        rayCollided = false;
-                        MapStage.getInstance().gdxWorld.rayCast(callback, shortestPath.get(i).pos, shortestPath.get(j).pos);
-                        if (!rayCollided) {
-                            shortestPath.remove(j - 1);
-                            i = 0;
-                            j = shortestPath.getCount();
-                        }
-                    }
-                }
-            }
+    private List<NavigationVertex> getAllVerticesByDistance(Vector2 position) {
+        List<NavigationVertex> vertices = new ArrayList<>(navGraph.getNodes());
+        vertices.sort(Comparator.comparingDouble(o -> o.pos.dst2(position)));
+        return vertices;
+    }
 
-            if (!originPrecalculated)
-                navGraph.removeVertex(origin);
-            if (!destinationPrecalculated)
-                navGraph.removeVertex(destination);
-            return shortestPath;
-        }
-        catch(Exception e){
-            if (!originPrecalculated && navGraph.lookupIndex(origin) > -1)
-                navGraph.removeVertex(origin);
-            if (!destinationPrecalculated && navGraph.lookupIndex(destination) > -1)
-                navGraph.removeVertex(destination);
-            throw(e);
+    private void addVisibleLinks(Array<NavigationEdge> links, NavigationVertex point, boolean fromPoint, List<NavigationVertex> vertices) {
+        for (int i = 0; i < vertices.size() && links.size < 10; i++) {
+            NavigationVertex vertex = vertices.get(i);
+            if (point.pos.epsilonEquals(vertex.pos))
+                continue; //rayCast() crashes if params are equal
+            if (fromPoint ? isClearLine(point.pos, vertex.pos) : isClearLine(vertex.pos, point.pos))
+                links.add(new NavigationEdge(point, vertex));
         }
     }
-}
 
+    private boolean isClearLine(Vector2 from, Vector2 to) {
+        rayCollided = false;
+        MapStage.getInstance().gdxWorld.rayCast(callback, from, to);
+        return !rayCollided;
+    }
+}
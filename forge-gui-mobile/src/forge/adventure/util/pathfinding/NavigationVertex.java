@@ -10,6 +10,8 @@ public class NavigationVertex {
     public ObjectMap<NavigationVertex, NavigationEdge> incomingEdges = new ObjectMap<>();
     public ObjectMap<NavigationVertex, NavigationEdge> outgoingEdges = new ObjectMap<>();
     int index = -1;
+    // the outgoing edges as the path finder asks for them, until the edges change
+    private Array<Connection<NavigationVertex>> connections;
 
     public NavigationVertex(Vector2 position) {
         pos = position;
@@ -36,8 +38,25 @@ public class NavigationVertex {
         return ret;
     }
 
+    public Array<Connection<NavigationVertex>> getConnections() {
+        if (connections == null) {
+            connections = new Array<>(outgoingEdges.size);
+            for (NavigationEdge e : outgoingEdges.values()) {
+                connections.add(e);
+            }
+        }
+        return connections;
+    }
+
+    public void addEdges(NavigationVertex node, NavigationEdge outgoing, NavigationEdge incoming) {
+        outgoingEdges.put(node, outgoing);
+        incomingEdges.put(node, incoming);
+        connections = null;
+    }
+
     public void removeEdges(NavigationVertex node) {
         outgoingEdges.remove(node);
         incomingEdges.remove(node);
+        connections = null;
     }
 }
\ No newline at end of file
@@ -65,13 +65,23 @@ public class BiomeStructure {
         for (int i = 0; i < data.mappingInfo.length; i++) {
             colorIdMap.put(Integer.parseInt(data.mappingInfo[i].color, 16), i);
         }
+        //the patterns of the source image are only read once, and each size of model is made once
+        HashMap<Integer, OverlappingModel> models = new HashMap<>();
+        OverlappingModel source = null;
         for (int mx = 0; mx < targetWidth; mx += Math.min(targetWidth - mx, MAXIMUM_WAVEFUNCTIONSIZE)) {
             for (int my = 0; my < targetWidth; my += Math.min(targetHeight - my, MAXIMUM_WAVEFUNCTIONSIZE)) {
-                OverlappingModel model = new OverlappingModel(sourceImage, data.N, Math.min(targetWidth - mx, MAXIMUM_WAVEFUNCTIONSIZE), Math.min(targetHeight - my, MAXIMUM_WAVEFUNCTIONSIZE), data.periodicInput, data.periodicOutput, data.symmetry, data.ground);
+                int modelWidth = Math.min(targetWidth - mx, MAXIMUM_WAVEFUNCTIONSIZE);
+                int modelHeight = Math.min(targetHeight - my, MAXIMUM_WAVEFUNCTIONSIZE);
+                OverlappingModel model = models.get(modelWidth << 16 | modelHeight);
+                if (model == null) {
+                    if (source == null)
+                        model = source = new OverlappingModel(sourceImage, data.N, modelWidth, modelHeight, data.periodicInput, data.periodicOutput, data.symmetry, data.ground);
+                    else
+                        model = new OverlappingModel(source, modelWidth, modelHeight);
+                    models.put(modelWidth << 16 | modelHeight, model);
+                }
 
-                boolean suc = false;
-                for (int i = 0; i < 10 && !suc; i++)
-                    suc = model.run((int) seed + (i * 5355) + mx * my, 0);
+                boolean suc = model.run((int) seed + mx * my, 0, 9);
                 if (!suc) {
                     for (int x = 0; x < dataMap.length; x++)
                         for (int y = 0; y < dataMap[x].length; y++)
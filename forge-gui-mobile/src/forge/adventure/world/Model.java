@@ -1,5 +1,6 @@
 package forge.adventure.world;
 
+import java.util.Arrays;
 import java.util.Random;
 
 
@@ -7,13 +8,20 @@ import java.util.Random;
 
 
 abstract class Model {
-  protected boolean[][] wave;
+  // the patterns each cell can still be, as bits, words longs per cell
+  protected long[] wave;
+  protected int words;
   protected int[][][] propagator;
-  int[][][] compatible;
+  // per direction and pattern, the patterns the neighbour in that direction can be, as bits
+  private long[][] propagatorBits;
+  private long[] startingWave;
+  private long[] allowed;
   protected int[] observed;
 
+  // cells whose patterns changed, so their neighbours have to be checked again
   int[] stack;
   int stacksize;
+  private boolean[] onStack;
 
   protected Random random;
   protected int FMX, FMY, T;
@@ -26,6 +34,19 @@ abstract class Model {
   double[] sumsOfWeights, sumsOfWeightLogWeights, entropies;
   private double[] distribution;
 
+  // cells left to observe, as a heap by entropy plus a little noise to break ties
+  private boolean[] boundary;
+  private int[] heap;
+  private int[] heapPosition;
+  private double[] heapKey;
+  private double[] noise;
+  private int heapSize;
+  // cells whose entropy changed since the last observation, only put in place in the heap then
+  private int[] changed;
+  private boolean[] isChanged;
+  private int changedSize;
+  private boolean contradiction;
+
   protected Model(int width, int height) {
     this.FMX = width;
     this.FMY = height;
@@ -64,14 +85,21 @@ abstract class Model {
     return product;
   }
 
+  protected boolean isPossible(int i, int t) {
+    return (this.wave[i * this.words + (t >>> 6)] & (1L << t)) != 0;
+  }
+
   void init() {
-    this.wave = new boolean[this.FMX * this.FMY][];
-    this.compatible = new int[this.wave.length][][];
-    for (int i = 0; i < wave.length; i++) {
-      this.wave[i] = new boolean[this.T];
-      this.compatible[i] = new int[this.T][];
-      for (int t = 0; t < this.T; t++) this.compatible[i][t] = new int[4];
-    }
+    int cells = this.FMX * this.FMY;
+    this.words = (this.T + 63) >>> 6;
+    this.wave = new long[cells * this.words];
+
+    this.startingWave = new long[this.words];
+    for (int t = 0; t < this.T; t++) this.startingWave[t >>> 6] |= 1L << t;
+    this.propagatorBits = new long[4][this.T * this.words];
+    for (int d = 0; d < 4; d++) for (int t = 0; t < this.T; t++) for (int t2 : this.propagator[d][t])
+      this.propagatorBits[d][t * this.words + (t2 >>> 6)] |= 1L << t2;
+    this.allowed = new long[this.words];
 
     this.weightLogWeights = new double[this.T];
     this.distribution = new double[this.T];
@@ -89,68 +117,61 @@ abstract class Model {
                     this.sumOfWeightLogWeights /
                             this.sumOfWeights;
 
-    this.sumsOfOnes = new int[this.FMX * this.FMY];
-    this.sumsOfWeights = new double[this.FMX * this.FMY];
-    this.sumsOfWeightLogWeights = new double[this.FMX * this.FMY];
-    this.entropies = new double[this.FMX * this.FMY];
-
-    this.stack = new int[(this.wave.length * this.T)*2];
+    this.sumsOfOnes = new int[cells];
+    this.sumsOfWeights = new double[cells];
+    this.sumsOfWeightLogWeights = new double[cells];
+    this.entropies = new double[cells];
+
+    this.boundary = new boolean[cells];
+    for (int i = 0; i < cells; i++) this.boundary[i] = this.onBoundary(i % this.FMX, i / this.FMX);
+    this.heap = new int[cells];
+    this.heapPosition = new int[cells];
+    this.heapKey = new double[cells];
+    this.noise = new double[cells];
+    this.changed = new int[cells];
+    this.isChanged = new boolean[cells];
+
+    this.stack = new int[cells];
     this.stacksize = 0;
+    this.onStack = new boolean[cells];
   }
 
   Boolean observe() {
-    double min = 1e+3;
-    int argmin = -1;
-
-    for (int i = 0; i < this.wave.length; i++) {
-      if (this.onBoundary(i % this.FMX, i / this.FMX)) continue;
-
-      int amount = this.sumsOfOnes[i];
-      if (amount == 0) return false;
-
-
-      double entropy = this.entropies[i];
-
-      if (amount > 1 && entropy <= min) {
-        double noise = 1e-6 * this.random.nextDouble();
-        if (entropy + noise < min) {
-          min = entropy + noise;
-          argmin = i;
-        }
-      }
-    }
+    if (this.contradiction) return false;
+    this.updateHeap();
 
-
-    if (argmin == -1) {
+    if (this.heapSize == 0) {
       this.observed = new int[this.FMX * this.FMY];
-      for (int i = 0; i < this.wave.length; i++) for (int t = 0; t <
-              this.T; t++) if (this.wave[i][t]) {
-        this.observed[i] = t;
-        break;
+      for (int i = 0; i < this.observed.length; i++) {
+        for (int w = 0; w < this.words; w++) {
+          long bits = this.wave[i * this.words + w];
+          if (bits != 0) {
+            this.observed[i] = (w << 6) + Long.numberOfTrailingZeros(bits);
+            break;
+          }
+        }
       }
       return true;
     }
 
+    int argmin = this.heap[0];
     for (int t = 0; t < this.T; t++) distribution[t] =
-            this.wave[argmin][t] ? this.weights[t] : 0;
+            this.isPossible(argmin, t) ? this.weights[t] : 0;
 
     int r = Model.randomIndice(distribution, this.random.nextDouble());
 
-
-    boolean[] w = this.wave[argmin];
-    for (int t = 0; t < this.T; t++) if (w[t] != (t == r)) this.ban(argmin, t);
+    for (int t = 0; t < this.T; t++) if (t != r && this.isPossible(argmin, t)) this.ban(argmin, t);
 
     return null;
   }
 
   protected void ban(int i, int t) {
-    this.wave[i][t] = false;
+    this.wave[i * this.words + (t >>> 6)] &= ~(1L << t);
 
-    int[] comp = this.compatible[i][t];
-    for (int d = 0; d < 4; d++) comp[d] = 0;
-    this.stack[this.stacksize]=i;
-    this.stack[this.stacksize+1]=t;
-    this.stacksize+=2;
+    if (!this.onStack[i]) {
+      this.onStack[i] = true;
+      this.stack[this.stacksize++] = i;
+    }
 
     this.sumsOfOnes[i] -= 1;
     this.sumsOfWeights[i] -= this.weights[t];
@@ -158,16 +179,23 @@ abstract class Model {
 
     double sum = this.sumsOfWeights[i];
     this.entropies[i] = Math.log(sum) - this.sumsOfWeightLogWeights[i] / sum;
+
+    if (this.boundary[i]) return;
+    if (this.sumsOfOnes[i] == 0) this.contradiction = true;
+    if (!this.isChanged[i]) {
+      this.isChanged[i] = true;
+      this.changed[this.changedSize++] = i;
+    }
   }
 
   protected void propagate() {
-    while (this.stacksize >= 2) {
+    long[] allowed = this.allowed;
+    while (this.stacksize > 0 && !this.contradiction) {
 
-      int i1 = this.stack[this.stacksize - 2];
+      int i1 = this.stack[--this.stacksize];
+      this.onStack[i1] = false;
       int x1 = i1 % this.FMX;
       int y1 = i1 / this.FMX;
-      int stack2 = this.stack[this.stacksize - 1];
-      this.stacksize-=2;
       for (int d = 0; d < 4; d++) {
         int dx = Model.DX[d], dy = Model.DY[d];
         int x2 = x1 + dx, y2 = y1 + dy;
@@ -178,16 +206,32 @@ abstract class Model {
         if (y2 < 0) y2 += this.FMY; else if (y2 >= this.FMY) y2 -= this.FMY;
 
         int i2 = x2 + y2 * this.FMX;
-        int[] p = this.propagator[d][stack2];
-        int[][] compat = this.compatible[i2];
-
-        for (int l = 0; l < p.length; l++) {
-          int t2 = p[l];
-          int[] comp = compat[t2];
-
-          comp[d]--;
 
-          if (comp[d] == 0) this.ban(i2, t2);
+        // the patterns of the neighbour that one of the patterns left here agrees with
+        long[] bits = this.propagatorBits[d];
+        Arrays.fill(allowed, 0);
+        boolean all = false;
+        for (int w1 = 0; w1 < this.words && !all; w1++) {
+          long left = this.wave[i1 * this.words + w1];
+          while (left != 0 && !all) {
+            int t = (w1 << 6) + Long.numberOfTrailingZeros(left);
+            left &= left - 1;
+            all = true;
+            for (int w = 0; w < this.words; w++) {
+              allowed[w] |= bits[t * this.words + w];
+              all &= allowed[w] == this.startingWave[w];
+            }
+          }
+        }
+        if (all) continue;
+
+        for (int w = 0; w < this.words; w++) {
+          long banned = this.wave[i2 * this.words + w] & ~allowed[w];
+          while (banned != 0) {
+            int t2 = (w << 6) + Long.numberOfTrailingZeros(banned);
+            banned &= banned - 1;
+            this.ban(i2, t2);
+          }
         }
       }
     }
@@ -198,6 +242,7 @@ abstract class Model {
 
     this.Clear();
     this.random = new Random(seed);
+    this.buildHeap();
 
     for (int l = 0; l < limit || limit == 0; l++) {
       Boolean result = this.observe();
@@ -209,13 +254,27 @@ abstract class Model {
     return true;
   }
 
+  /**
+   * Run with the seed, and start again with other seeds after a contradiction, at most retries times.
+   */
+  public boolean run(int seed, int limit, int retries) {
+    for (int i = 0; i <= retries; i++)
+      if (this.run(seed + i * 5355, limit))
+        return true;
+    return false;
+  }
+
   protected void Clear() {
-    for (int i = 0; i < this.wave.length; i++) {
-      for (int t = 0; t < this.T; t++) {
-        this.wave[i][t] = true;
-        for (int d = 0; d < 4; d++) this.compatible[i][t][d] =
-                this.propagator[Model.oppposite[d]][t].length;
-      }
+    this.observed = null;
+    this.contradiction = false;
+    this.stacksize = 0;
+    Arrays.fill(this.onStack, false);
+    this.heapSize = 0;
+    this.changedSize = 0;
+    Arrays.fill(this.isChanged, false);
+    Arrays.fill(this.heapPosition, -1);
+    for (int i = 0; i < this.sumsOfOnes.length; i++) {
+      System.arraycopy(this.startingWave, 0, this.wave, i * this.words, this.words);
 
       this.sumsOfOnes[i] = this.weights.length;
       this.sumsOfWeights[i] = this.sumOfWeights;
@@ -223,4 +282,81 @@ abstract class Model {
       this.entropies[i] = this.startingEntropy;
     }
   }
+
+  private void buildHeap() {
+    this.changedSize = 0;
+    Arrays.fill(this.isChanged, false);
+    for (int i = 0; i < this.sumsOfOnes.length; i++) {
+      if (this.boundary[i]) continue;
+      if (this.sumsOfOnes[i] == 0) this.contradiction = true;
+      this.noise[i] = 1e-6 * this.random.nextDouble();
+      if (this.sumsOfOnes[i] > 1) {
+        this.heapKey[i] = this.entropies[i] + this.noise[i];
+        this.heap[this.heapSize] = i;
+        this.heapPosition[i] = this.heapSize;
+        this.siftUp(this.heapSize++);
+      }
+    }
+  }
+
+  private void updateHeap() {
+    for (int c = 0; c < this.changedSize; c++) {
+      int i = this.changed[c];
+      this.isChanged[i] = false;
+      int position = this.heapPosition[i];
+      if (position < 0) continue;
+      if (this.sumsOfOnes[i] <= 1) {
+        this.removeFromHeap(i);
+        continue;
+      }
+      double key = this.entropies[i] + this.noise[i];
+      double old = this.heapKey[i];
+      this.heapKey[i] = key;
+      if (key < old) this.siftUp(position);
+      else this.siftDown(position);
+    }
+    this.changedSize = 0;
+  }
+
+  private void removeFromHeap(int i) {
+    int position = this.heapPosition[i];
+    if (position < 0) return;
+    this.heapPosition[i] = -1;
+    int last = this.heap[--this.heapSize];
+    if (position == this.heapSize) return;
+    this.heap[position] = last;
+    this.heapPosition[last] = position;
+    this.siftUp(position);
+    this.siftDown(this.heapPosition[last]);
+  }
+
+  private void siftUp(int position) {
+    int cell = this.heap[position];
+    while (position > 0) {
+      int parent = (position - 1) >>> 1;
+      int other = this.heap[parent];
+      if (this.heapKey[other] <= this.heapKey[cell]) break;
+      this.heap[position] = other;
+      this.heapPosition[other] = position;
+      position = parent;
+    }
+    this.heap[position] = cell;
+    this.heapPosition[cell] = position;
+  }
+
+  private void siftDown(int position) {
+    int cell = this.heap[position];
+    while (true) {
+      int child = 2 * position + 1;
+      if (child >= this.heapSize) break;
+      if (child + 1 < this.heapSize && this.heapKey[this.heap[child + 1]] < this.heapKey[this.heap[child]]) child++;
+      int other = this.heap[child];
+      if (this.heapKey[cell] <= this.heapKey[other]) break;
+      this.heap[position] = other;
+      this.heapPosition[other] = position;
+      position = child;
+    }
+    this.heap[position] = cell;
+    this.heapPosition[cell] = position;
+  }
 }
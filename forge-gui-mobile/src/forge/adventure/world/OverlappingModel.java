@@ -201,6 +201,25 @@ public class OverlappingModel extends Model {
     }
   }
 
+  /**
+   * Creates a model of another size with the patterns of the given model, as they do not depend on
+   * the size of the generation.
+   * @param model The model to take the patterns from.
+   * @param width The width of the generation (in pixels).
+   * @param height The height of the generation (in pixels).
+   */
+  public OverlappingModel(OverlappingModel model, int width, int height) {
+    super(width, height);
+    this.N = model.N;
+    this.periodic = model.periodic;
+    this.colors = model.colors;
+    this.T = model.T;
+    this.ground = model.ground;
+    this.patterns = model.patterns;
+    this.weights = model.weights;
+    this.propagator = model.propagator;
+  }
+
   @Override
   protected boolean onBoundary(int x, int y) {
     return (
@@ -236,7 +255,7 @@ public class OverlappingModel extends Model {
         }
       }
     } else {
-      for (int i = 0; i < this.wave.length; i++) {
+      for (int i = 0; i < this.FMX * this.FMY; i++) {
         float contributors = 0, r = 0, g = 0, b = 0;
         int x = i % this.FMX, y = i / this.FMX;
 
@@ -250,7 +269,7 @@ public class OverlappingModel extends Model {
 
           int s = sx + sy * this.FMX;
           if (this.onBoundary(sx, sy)) continue;
-          for (int t = 0; t < this.T; t++) if (wave[s][t]) {
+          for (int t = 0; t < this.T; t++) if (this.isPossible(s, t)) {
             contributors++;
             Color color = this.colors.get(this.patterns[t][dx + dy * this.N]);
             r += color.r;
@@ -291,7 +291,8 @@ public class SimpleTiledModel extends Model {
       }
     } else {
       for (int x = 0; x < this.FMX; x++) for (int y = 0; y < this.FMY; y++) {
-        boolean[] a = this.wave[x + y * this.FMX];
+        boolean[] a = new boolean[this.T];
+        for (int t = 0; t < this.T; t++) a[t] = this.isPossible(x + y * this.FMX, t);
         int amount = IntStream
           .range(0, a.length)
           .map(idx -> a[idx] ? 1 : 0)
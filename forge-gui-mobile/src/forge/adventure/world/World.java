@@ -22,10 +22,16 @@ import forge.adventure.util.Config;
 import forge.adventure.util.Paths;
 import forge.adventure.util.SaveFileContent;
 import forge.adventure.util.SaveFileData;
+import forge.gui.FThreads;
 import forge.gui.GuiBase;
+import forge.util.ThreadUtil;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Class that will create the world from the configuration
@@ -35,6 +41,8 @@ public class World implements Disposable, SaveFileContent {
     private Pixmap biomeImage;
     private long[][] biomeMap;
     private int[][] terrainMap;
+    private WorldChunks chunks;
+    private byte[] biomeImageData;
     private static final int collisionBit = 0b10000000000000000000000000000000;
     private static final int isStructureBit = 0b01000000000000000000000000000000;
     private static final int terrainMask = collisionBit | isStructureBit;
@@ -46,6 +54,7 @@ public class World implements Disposable, SaveFileContent {
     private long seed;
     private final Random random = new Random();
     private boolean worldDataLoaded = false;
+    private volatile float generationProgress = 0;
     private Texture globalTexture = null;
 
     public Random getRandom() {
@@ -103,12 +112,17 @@ public class World implements Disposable, SaveFileContent {
         loadWorldData();
 
         biomeImage = saveFileData.readPixmap("biomeImage");
-        biomeMap = (long[][]) saveFileData.readObject("biomeMap");
-        terrainMap = (int[][]) saveFileData.readObject("terrainMap");
-
-
+        biomeImageData = saveFileData.readBytes("biomeImage");
         width = saveFileData.readInt("width");
         height = saveFileData.readInt("height");
+        if (WorldChunks.isChunked(saveFileData)) {
+            chunks = WorldChunks.load(saveFileData, width, height);
+        } else {
+            chunks = new WorldChunks((long[][]) saveFileData.readObject("biomeMap"), (int[][]) saveFileData.readObject("terrainMap"), getChunkSize());
+        }
+        biomeMap = chunks.getBiomeMap();
+        terrainMap = chunks.getTerrainMap();
+
         mapObjectIds = new SpritesDataMap(getChunkSize(), this.data.tileSize, this.data.width / getChunkSize());
         mapObjectIds.load(saveFileData.readSubData("mapObjectIds"));
         mapPoiIds = new PointOfInterestMap(getChunkSize(), this.data.tileSize, this.data.width / getChunkSize(), this.data.height / getChunkSize());
@@ -121,9 +135,14 @@ public class World implements Disposable, SaveFileContent {
 
         SaveFileData data = new SaveFileData();
 
-        data.store("biomeImage", biomeImage);
-        data.storeObject("biomeMap", biomeMap);
-        data.storeObject("terrainMap", terrainMap);
+        //the mini map and the chunks are only encoded once
+        if (biomeImageData == null) {
+            data.store("biomeImage", biomeImage);
+            biomeImageData = data.readBytes("biomeImage");
+        } else {
+            data.store("biomeImage", biomeImageData);
+        }
+        chunks.save(data);
         data.store("width", width);
         data.store("height", height);
         data.store("mapObjectIds", mapObjectIds.save());
@@ -227,6 +246,7 @@ public class World implements Disposable, SaveFileContent {
     }
 
     public int getTerrainIndex(int x, int y) {
+        chunks.loadChunkAt(x, y);
         try {
             return terrainMap[x][height - y - 1] & ~terrainMask;
         } catch (ArrayIndexOutOfBoundsException e) {
@@ -235,14 +255,17 @@ public class World implements Disposable, SaveFileContent {
     }
 
     public long getBiomeMapXY(int x, int y) {
+        chunks.loadChunkAt(x, y);
         try {
             return biomeMap[x][height - y - 1] & (~(0b1 << data.GetBiomes().size()));
         } catch (ArrayIndexOutOfBoundsException e) {
+            chunks.loadChunkAt(biomeMap.length - 1, 0);
             return biomeMap[biomeMap.length - 1][biomeMap[biomeMap.length - 1].length - 1];
         }
     }
 
     public boolean isStructure(int x, int y) {
+        chunks.loadChunkAt(x, y);
         try {
             return (terrainMap[x][height - y - 1] & ~isStructureBit) != 0;
         } catch (ArrayIndexOutOfBoundsException e) {
@@ -251,14 +274,17 @@ public class World implements Disposable, SaveFileContent {
     }
 
     public long getBiome(int x, int y) {
+        chunks.loadChunkAt(x, y);
         try {
             return biomeMap[x][height - y - 1];
         } catch (ArrayIndexOutOfBoundsException e) {
+            chunks.loadChunkAt(biomeMap.length - 1, 0);
             return biomeMap[biomeMap.length - 1][biomeMap[biomeMap.length - 1].length - 1];
         }
     }
 
     public boolean isColliding(int x, int y) {
+        chunks.loadChunkAt(x, y);
         try {
             return (terrainMap[x][height - y - 1] & collisionBit) != 0;
         } catch (ArrayIndexOutOfBoundsException e) {
@@ -289,66 +315,64 @@ public class World implements Disposable, SaveFileContent {
         return currentTime;
     }
 
-    public World generateNew(long seed) {
-        if (GuiBase.isAndroid())
-            GuiBase.getInterface().preventSystemSleep(true);
-        final long[] currentTime = {System.currentTimeMillis()};
-        long startTime = System.currentTimeMillis();
-
-        loadWorldData();
-//////////////////
-///////// initialize
-//////////////////
-
-        if (seed == 0) {
-            seed = random.nextLong();
-        }
-        this.seed = seed;
-        random.setSeed(seed);
-        OpenSimplexNoise noise = new OpenSimplexNoise(seed);
-
-        float noiseZoom = data.noiseZoomBiome;
-        width = data.width;
-        height = data.height;
-        //save at all data
-        biomeMap = new long[width][height];
-        terrainMap = new int[width][height];
-
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                biomeMap[x][y] = 0;
-                terrainMap[x][y] = 0;
+    private static void waitFor(List<Future<?>> tasks) {
+        for (Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
             }
         }
+    }
 
-        final int[] biomeIndex = {-1};
-        currentTime[0] = measureGenerationTime("loading data", currentTime[0]);
-        HashMap<BiomeStructureData, BiomeStructure> structureDataMap = new HashMap<>();
+    private void setGenerationProgress(float progress) {
+        generationProgress = progress;
+    }
 
-//////////////////
-///////// calculation structure position with wavefunctioncollapse
-//////////////////
+    /**
+     * How far the generation of the world is, from 0 to 1, to be polled while
+     * {@link #generateNew(long)} runs on another thread.
+     */
+    public float getGenerationProgress() {
+        return generationProgress;
+    }
+
+    /**
+     * Load the textures and files the generation of a world draws from. Textures can only be loaded
+     * on the render thread, so this is called there before {@link #generateNew(long)} runs on another one.
+     */
+    public void loadGenerationAssets() {
+        setGenerationProgress(0);
+        loadWorldData();
+        Config.instance().getAtlas(Paths.MAP_MARKER);
+        Config.instance().getAtlas(data.roadTileset.tilesetAtlas);
         for (BiomeData biome : data.GetBiomes()) {
+            Config.instance().getAtlas(biome.tilesetAtlas);
             if (biome.structures != null) {
-                int biomeWidth = (int) Math.round(biome.width * (double) width);
-                int biomeHeight = (int) Math.round(biome.height * (double) height);
-                for (BiomeStructureData data : biome.structures) {
-                    long localSeed = seed;
-                    long threadStartTime = System.currentTimeMillis();
-                    BiomeStructure structure = new BiomeStructure(data, localSeed, biomeWidth, biomeHeight);
-                    structure.initialize();
-                    structureDataMap.put(data, structure);
-                    measureGenerationTime("wavefunctioncollapse " + data.sourcePath, threadStartTime);
+                for (BiomeStructureData structureData : biome.structures) {
+                    Config.instance().getAtlas(structureData.structureAtlasPath);
+                    Config.instance().getFile(structureData.sourcePath);
+                    Config.instance().getFile(structureData.maskPath);
                 }
             }
+            for (PointOfInterestData poi : biome.getPointsOfInterest()) {
+                Config.instance().getPOISprites(poi);
+            }
         }
+    }
 
-//////////////////
-///////// calculation each biome position based on noise and radius
-//////////////////
+    /**
+     * Set the biomes and the terrain of the tiles from beginX, beginY to endX, endY (exclusive) in
+     * the maps. Each tile only depends on its position, so parts of the map can be done at the same time.
+     */
+    private void generateBiomes(int chunkBeginX, int chunkBeginY, int chunkEndX, int chunkEndY, OpenSimplexNoise noise, float noiseZoom, Map<BiomeStructureData, BiomeStructure> structureDataMap) {
+        int biomeIndex = -1;
         for (BiomeData biome : data.GetBiomes()) {
 
-            biomeIndex[0]++;
+            biomeIndex++;
             int biomeXStart = (int) Math.round(biome.startPointX * (double) width);
             int biomeYStart = (int) Math.round(biome.startPointY * (double) height);
             int biomeWidth = (int) Math.round(biome.width * (double) width);
@@ -364,6 +388,10 @@ public class World implements Disposable, SaveFileContent {
                 endX = width;
                 endY = height;
             }
+            beginX = Math.max(beginX, chunkBeginX);
+            beginY = Math.max(beginY, chunkBeginY);
+            endX = Math.min(endX, chunkEndX);
+            endY = Math.min(endY, chunkEndY);
             for (int x = beginX; x < endX; x++) {
                 for (int y = beginY; y < endY; y++) {
                     //value 0-1 based on noise
@@ -373,12 +401,7 @@ public class World implements Disposable, SaveFileContent {
                     float distanceValue = ((float) Math.sqrt((x - biomeXStart) * (x - biomeXStart) + (y - biomeYStart) * (y - biomeYStart))) / (Math.max(biomeWidth, biomeHeight) / 2f);
                     distanceValue *= biome.distWeight;
                     if (noiseValue + distanceValue < 1.0 || biome.invertHeight && (1 - noiseValue) + distanceValue < 1.0) {
-                        Color color = biome.GetColor();
-                        float[] hsv = new float[3];
-                        color.toHsv(hsv);
-                        int count = (int) ((noiseValue - 0.5) * 10 / 4);
-                        //hsv[2]+=(count*0.2);
-                        biomeMap[x][y] |= (1L << biomeIndex[0]);
+                        biomeMap[x][y] |= (1L << biomeIndex);
                         int terrainCounter = 1;
                         terrainMap[x][y] = 0;
                         if (biome.terrain != null) {
@@ -386,7 +409,6 @@ public class World implements Disposable, SaveFileContent {
                                 float terrainNoise = ((float) noise.eval(x / (float) width * (noiseZoom * terrain.resolution), y / (float) height * (noiseZoom * terrain.resolution)) + 1) / 2;
                                 if (terrainNoise >= terrain.min && terrainNoise <= terrain.max) {
                                     terrainMap[x][y] = terrainCounter;
-                                    //pix.fillRectangle(x*data.miniMapTileSize, y*data.miniMapTileSize,data.miniMapTileSize,data.miniMapTileSize);
                                 }
                                 terrainCounter++;
                             }
@@ -395,14 +417,6 @@ public class World implements Disposable, SaveFileContent {
                             terrainMap[x][y] |= collisionBit;
                         if (biome.structures != null) {
                             for (BiomeStructureData data : biome.structures) {
-                                while (!structureDataMap.containsKey(data)) {
-                                    try {
-                                        Thread.sleep(10);
-                                    } catch (InterruptedException e) {
-                                        throw new RuntimeException(e);
-                                    }
-                                }
-
                                 BiomeStructure structure = structureDataMap.get(data);
                                 int structureXStart = x - (biomeXStart - biomeWidth / 2) - (int) ((data.x * biomeWidth) - (data.width * biomeWidth / 2));
                                 int structureYStart = y - (biomeYStart - biomeHeight / 2) - (int) ((data.y * biomeHeight) - (data.height * biomeHeight / 2));
@@ -425,7 +439,87 @@ public class World implements Disposable, SaveFileContent {
                 }
             }
         }
+    }
+
+    public World generateNew(long seed) {
+        if (GuiBase.isAndroid())
+            GuiBase.getInterface().preventSystemSleep(true);
+        final long[] currentTime = {System.currentTimeMillis()};
+        setGenerationProgress(0);
+        long startTime = System.currentTimeMillis();
+
+        loadWorldData();
+//////////////////
+///////// initialize
+//////////////////
+
+        if (seed == 0) {
+            seed = random.nextLong();
+        }
+        this.seed = seed;
+        random.setSeed(seed);
+        OpenSimplexNoise noise = new OpenSimplexNoise(seed);
+
+        float noiseZoom = data.noiseZoomBiome;
+        width = data.width;
+        height = data.height;
+        //save at all data
+        biomeMap = new long[width][height];
+        terrainMap = new int[width][height];
+        chunks = new WorldChunks(biomeMap, terrainMap, getChunkSize());
+        biomeImageData = null;
+
+        currentTime[0] = measureGenerationTime("loading data", currentTime[0]);
+        setGenerationProgress(0.05f);
+        HashMap<BiomeStructureData, BiomeStructure> structureDataMap = new HashMap<>();
+        ExecutorService pool = ThreadUtil.getServicePool();
+
+//////////////////
+///////// calculation structure position with wavefunctioncollapse, each structure on its own
+//////////////////
+        List<Future<?>> tasks = new ArrayList<>();
+        for (BiomeData biome : data.GetBiomes()) {
+            if (biome.structures != null) {
+                int biomeWidth = (int) Math.round(biome.width * (double) width);
+                int biomeHeight = (int) Math.round(biome.height * (double) height);
+                for (BiomeStructureData structureData : biome.structures) {
+                    //the files are looked up here, as the cache of the config is not made for threads
+                    Config.instance().getFile(structureData.sourcePath);
+                    Config.instance().getFile(structureData.maskPath);
+                    BiomeStructure structure = new BiomeStructure(structureData, seed, biomeWidth, biomeHeight);
+                    structureDataMap.put(structureData, structure);
+                    tasks.add(pool.submit(() -> {
+                        long threadStartTime = System.currentTimeMillis();
+                        structure.initialize();
+                        measureGenerationTime("wavefunctioncollapse " + structureData.sourcePath, threadStartTime);
+                    }));
+                }
+            }
+        }
+        waitFor(tasks);
+        currentTime[0] = measureGenerationTime("structures in total", currentTime[0]);
+        setGenerationProgress(0.3f);
+
+//////////////////
+///////// calculation each biome position based on noise and radius, chunk by chunk
+//////////////////
+        //the noise only depends on the position, so the chunks come out the same in any order
+        tasks.clear();
+        int chunkSize = getChunkSize();
+        int chunkCount = ((width + chunkSize - 1) / chunkSize) * ((height + chunkSize - 1) / chunkSize);
+        AtomicInteger chunksDone = new AtomicInteger();
+        for (int chunkX = 0; chunkX < width; chunkX += chunkSize) {
+            for (int chunkY = 0; chunkY < height; chunkY += chunkSize) {
+                int beginX = chunkX, beginY = chunkY;
+                tasks.add(pool.submit(() -> {
+                    generateBiomes(beginX, beginY, Math.min(beginX + chunkSize, width), Math.min(beginY + chunkSize, height), noise, noiseZoom, structureDataMap);
+                    setGenerationProgress(0.3f + 0.4f * chunksDone.incrementAndGet() / chunkCount);
+                }));
+            }
+        }
+        waitFor(tasks);
         currentTime[0] = measureGenerationTime("biomes in total", currentTime[0]);
+        setGenerationProgress(0.7f);
 
 //////////////////
 ///////// set poi placement
@@ -543,6 +637,7 @@ public class World implements Disposable, SaveFileContent {
             }
         }
         currentTime[0] = measureGenerationTime("poi placement", currentTime[0]);
+        setGenerationProgress(0.8f);
 
 //////////////////
 ///////// sort towns and build roads in between
@@ -601,7 +696,7 @@ public class World implements Disposable, SaveFileContent {
                 continue;
             allPOIPathsToNextTown.add(Pair.of(poi, towns.get(smallestIndex)));
         }
-        biomeIndex[0]++;
+        int roadIndex = data.GetBiomes().size();
 
         //reset terrain path to the next town
         for (Pair<PointOfInterest, PointOfInterest> poiToTown : allPOIPathsToNextTown) {
@@ -643,7 +738,7 @@ public class World implements Disposable, SaveFileContent {
             for (int x = startX - 1; x < startX + 2; x++) {
                 for (int y = startY - 1; y < startY + 2; y++) {
                     if (x < 0 || y < 0 || x >= width || y >= height) continue;
-                    biomeMap[x][height - y - 1] |= (1L << biomeIndex[0]);
+                    biomeMap[x][height - y - 1] |= (1L << roadIndex);
                     terrainMap[x][height - y - 1] = 0;
                 }
             }
@@ -655,7 +750,7 @@ public class World implements Disposable, SaveFileContent {
             int e2;
             for (int i = 0; i < 1000; i++) {
                 if (startX < 0 || startY <= 0 || startX >= width || startY > height) continue;
-                biomeMap[startX][height - startY] |= (1L << biomeIndex[0]);
+                biomeMap[startX][height - startY] |= (1L << roadIndex);
                 terrainMap[startX][height - startY] = 0;
 
                 if (startX == x1 && startY == y1)
@@ -671,6 +766,7 @@ public class World implements Disposable, SaveFileContent {
             }
         }
         currentTime[0] = measureGenerationTime("roads", currentTime[0]);
+        setGenerationProgress(0.85f);
 
 //////////////////
 ///////// draw mini map
@@ -734,6 +830,7 @@ public class World implements Disposable, SaveFileContent {
             //e.printStackTrace();
         }
         currentTime[0] = measureGenerationTime("mini map", currentTime[0]);
+        setGenerationProgress(0.95f);
 
 
 //////////////////
@@ -772,8 +869,10 @@ public class World implements Disposable, SaveFileContent {
         mapMarkerPixmap.dispose();
         biomeImage = pix;
         measureGenerationTime("sprites", currentTime[0]);
+        setGenerationProgress(1);
         System.out.println("Generating world took :\t\t" + ((System.currentTimeMillis() - startTime) / 1000f) + " s");
-        WorldStage.getInstance().clearCache();
+        //the stage is drawn on the render thread, which this may not be
+        FThreads.invokeInEdtNowOrLater(() -> WorldStage.getInstance().clearCache());
 
         if (GuiBase.isAndroid())
             GuiBase.getInterface().preventSystemSleep(false);
@@ -901,6 +1000,13 @@ public class World implements Disposable, SaveFileContent {
         return mapPoiIds.getAllPointOfInterest();
     }
 
+    /**
+     * Read the terrain around a position in pixels, so walking there does not wait on it.
+     */
+    public void loadChunksAround(float x, float y) {
+        chunks.loadChunksAround((int) x / data.tileSize, (int) y / data.tileSize, 1);
+    }
+
     public int getChunkSize() {
         return (Scene.getIntendedWidth() > Scene.getIntendedHeight() ? Scene.getIntendedWidth() : Scene.getIntendedHeight()) / data.tileSize;
     }
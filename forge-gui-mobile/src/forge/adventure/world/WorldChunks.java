@@ -0,0 +1,185 @@
+package forge.adventure.world;
+
+import forge.adventure.util.SaveFileData;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Class that saves the biome and terrain maps of the world in chunks, laid out like the chunks of the
+ * world background. Each chunk is kept as plain longs and ints compressed on its own, so a loaded
+ * world only decodes the chunks that are looked at, and a save only encodes the chunks that are not
+ * encoded yet. The maps do not change after the world is generated, so once a world was saved or
+ * loaded the next saves reuse the bytes of every chunk.
+ */
+public class WorldChunks {
+    private static final int FORMAT_VERSION = 1;
+
+    private final long[][] biomeMap;
+    private final int[][] terrainMap;
+    private final int width;
+    private final int height;
+    private final int chunkSize;
+    private final int chunksX;
+    private final int chunksY;
+    private final byte[][] encoded;
+    private final boolean[] decoded;
+    private volatile int pending;
+
+    /**
+     * Chunks of maps that are all in memory, as after generating the world.
+     */
+    public WorldChunks(long[][] biomeMap, int[][] terrainMap, int chunkSize) {
+        this.biomeMap = biomeMap;
+        this.terrainMap = terrainMap;
+        this.width = biomeMap.length;
+        this.height = width == 0 ? 0 : biomeMap[0].length;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.chunksX = (width + this.chunkSize - 1) / this.chunkSize;
+        this.chunksY = (height + this.chunkSize - 1) / this.chunkSize;
+        this.encoded = new byte[chunksX * chunksY][];
+        this.decoded = new boolean[chunksX * chunksY];
+        Arrays.fill(decoded, true);
+        this.pending = 0;
+    }
+
+    public static boolean isChunked(SaveFileData data) {
+        return data.containsKey("chunkSize");
+    }
+
+    /**
+     * Read the chunks of a save into empty maps. The chunks are only decoded once they are needed.
+     */
+    public static WorldChunks load(SaveFileData data, int width, int height) {
+        if (data.readInt("chunkFormat") != FORMAT_VERSION)
+            throw new IllegalStateException("Unknown world chunk format " + data.readInt("chunkFormat"));
+        WorldChunks chunks = new WorldChunks(new long[width][height], new int[width][height], data.readInt("chunkSize"));
+        for (int i = 0; i < chunks.encoded.length; i++) {
+            chunks.encoded[i] = data.readBytes("chunk_" + i);
+            chunks.decoded[i] = chunks.encoded[i] == null;
+        }
+        int pending = 0;
+        for (boolean isDecoded : chunks.decoded) {
+            if (!isDecoded)
+                pending++;
+        }
+        chunks.pending = pending;
+        return chunks;
+    }
+
+    public long[][] getBiomeMap() {
+        return biomeMap;
+    }
+
+    public int[][] getTerrainMap() {
+        return terrainMap;
+    }
+
+    /**
+     * Make sure the chunk of the tile at x and y (counted from the bottom, as the world does) is in
+     * the maps.
+     */
+    public void loadChunkAt(int x, int y) {
+        if (pending == 0 || x < 0 || y < 0 || x >= width || y >= height)
+            return;
+        int index = (y / chunkSize) * chunksX + x / chunkSize;
+        if (!decoded[index])
+            decode(index);
+    }
+
+    /**
+     * Decode the chunks within the given number of chunks of the tile at x and y.
+     */
+    public void loadChunksAround(int x, int y, int radius) {
+        for (int cx = -radius; cx <= radius; cx++) {
+            for (int cy = -radius; cy <= radius; cy++) {
+                loadChunkAt(x + cx * chunkSize, y + cy * chunkSize);
+            }
+        }
+    }
+
+    public void save(SaveFileData data) {
+        data.store("chunkFormat", FORMAT_VERSION);
+        data.store("chunkSize", chunkSize);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            for (int i = 0; i < encoded.length; i++) {
+                if (encoded[i] == null)
+                    encoded[i] = encode(i, deflater);
+                data.store("chunk_" + i, encoded[i]);
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private int tilesOf(int index) {
+        int cx = index % chunksX, cy = index / chunksX;
+        return (Math.min(width, (cx + 1) * chunkSize) - cx * chunkSize) * (Math.min(height, (cy + 1) * chunkSize) - cy * chunkSize);
+    }
+
+    private byte[] encode(int index, Deflater deflater) {
+        int cx = index % chunksX, cy = index / chunksX;
+        int xEnd = Math.min(width, (cx + 1) * chunkSize), yEnd = Math.min(height, (cy + 1) * chunkSize);
+        ByteBuffer buffer = ByteBuffer.allocate(tilesOf(index) * (Long.BYTES + Integer.BYTES));
+        // all the biomes first, then all the terrain, as the same values are then close together
+        for (int x = cx * chunkSize; x < xEnd; x++) {
+            for (int y = cy * chunkSize; y < yEnd; y++) {
+                buffer.putLong(biomeMap[x][height - y - 1]);
+            }
+        }
+        for (int x = cx * chunkSize; x < xEnd; x++) {
+            for (int y = cy * chunkSize; y < yEnd; y++) {
+                buffer.putInt(terrainMap[x][height - y - 1]);
+            }
+        }
+        deflater.reset();
+        deflater.setInput(buffer.array());
+        deflater.finish();
+        ByteArrayOutputStream stream = new ByteArrayOutputStream(buffer.capacity() / 8);
+        byte[] block = new byte[4096];
+        while (!deflater.finished()) {
+            int count = deflater.deflate(block);
+            stream.write(block, 0, count);
+        }
+        return stream.toByteArray();
+    }
+
+    private synchronized void decode(int index) {
+        if (decoded[index])
+            return;
+        int cx = index % chunksX, cy = index / chunksX;
+        int xEnd = Math.min(width, (cx + 1) * chunkSize), yEnd = Math.min(height, (cy + 1) * chunkSize);
+        byte[] bytes = new byte[tilesOf(index) * (Long.BYTES + Integer.BYTES)];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(encoded[index]);
+            int read = 0;
+            while (read < bytes.length && !inflater.finished() && !inflater.needsInput()) {
+                read += inflater.inflate(bytes, read, bytes.length - read);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            for (int x = cx * chunkSize; x < xEnd; x++) {
+                for (int y = cy * chunkSize; y < yEnd; y++) {
+                    biomeMap[x][height - y - 1] = buffer.getLong();
+                }
+            }
+            for (int x = cx * chunkSize; x < xEnd; x++) {
+                for (int y = cy * chunkSize; y < yEnd; y++) {
+                    terrainMap[x][height - y - 1] = buffer.getInt();
+                }
+            }
+        } catch (DataFormatException e) {
+            System.err.println("Could not read world chunk " + index);
+            e.printStackTrace();
+        } finally {
+            inflater.end();
+        }
+        decoded[index] = true;
+        pending--;
+    }
+}
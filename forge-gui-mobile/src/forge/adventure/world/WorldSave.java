@@ -11,11 +11,13 @@ import forge.adventure.util.SignalList;
 import forge.card.CardEdition;
 import forge.card.ColorSet;
 import forge.deck.Deck;
+import forge.gui.FThreads;
 import forge.localinstance.properties.ForgeConstants;
 import forge.player.GamePlayerUtil;
 
 import java.io.*;
 import java.util.Date;
+import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
 import java.util.zip.InflaterInputStream;
 
@@ -73,6 +75,7 @@ public class WorldSave   {
                 GamePlayerUtil.getGuiPlayer().setName(currentSave.player.getName());
                 try {
                     currentSave.world.load(mainData.readSubData("world"));
+                    currentSave.world.loadChunksAround(currentSave.player.getWorldPosX(), currentSave.player.getWorldPosY());
                     currentSave.pointOfInterestChanges.load(mainData.readSubData("pointOfInterestChanges"));
                     WorldStage.getInstance().load(mainData.readSubData("worldStage"));
 
@@ -125,6 +128,26 @@ public class WorldSave   {
 
     public static WorldSave generateNewWorld(String name, boolean male, int race, int avatarIndex, ColorSet startingColorIdentity, DifficultyData diff, AdventureModes mode, int customDeckIndex, CardEdition starterEdition, long seed) {
         currentSave.world.generateNew(seed);
+        return startInNewWorld(name, male, race, avatarIndex, startingColorIdentity, diff, mode, customDeckIndex, starterEdition);
+    }
+
+    /**
+     * Like {@link #generateNewWorld}, but the world is generated on a background thread so the
+     * render thread can keep drawing its progress (see {@link World#getGenerationProgress()}).
+     * Called on the render thread, which the player is then created on before onGenerated runs.
+     */
+    public static void generateNewWorldInBackground(String name, boolean male, int race, int avatarIndex, ColorSet startingColorIdentity, DifficultyData diff, AdventureModes mode, int customDeckIndex, CardEdition starterEdition, long seed, Runnable onGenerated) {
+        currentSave.world.loadGenerationAssets();
+        FThreads.invokeInBackgroundThread(() -> {
+            currentSave.world.generateNew(seed);
+            FThreads.invokeInEdtLater(() -> {
+                startInNewWorld(name, male, race, avatarIndex, startingColorIdentity, diff, mode, customDeckIndex, starterEdition);
+                onGenerated.run();
+            });
+        });
+    }
+
+    private static WorldSave startInNewWorld(String name, boolean male, int race, int avatarIndex, ColorSet startingColorIdentity, DifficultyData diff, AdventureModes mode, int customDeckIndex, CardEdition starterEdition) {
         currentSave.pointOfInterestChanges.clear();
         boolean chaos=mode==AdventureModes.Chaos;
         boolean custom=mode==AdventureModes.Custom;
@@ -151,9 +174,11 @@ public class WorldSave   {
         String fileName = WorldSave.getSaveFile(currentSlot);
         new File(getSaveDir()).mkdirs();
 
+        //most of the save are the world chunks that are compressed already
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
         try {
             try(FileOutputStream fos =  new FileOutputStream(fileName);
-                DeflaterOutputStream def= new DeflaterOutputStream(fos);
+                DeflaterOutputStream def= new DeflaterOutputStream(fos, deflater);
                 ObjectOutputStream oos = new ObjectOutputStream(def))
             {
                 header.saveDate= new Date();
@@ -170,6 +195,8 @@ public class WorldSave   {
         } catch (IOException e) {
             e.printStackTrace();
             return false;
+        } finally {
+            deflater.end();
         }
 
         Config.instance().getSettingData().lastActiveSave = WorldSave.filename(currentSlot);
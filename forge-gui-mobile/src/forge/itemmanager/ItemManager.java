@@ -31,8 +31,6 @@ import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.utils.Align;
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
-import com.google.common.base.Predicates;
-import com.google.common.collect.Iterables;
 
 import forge.Forge;
 import forge.Graphics;
@@ -692,7 +690,7 @@ public abstract class ItemManager<T extends InventoryItem> extends FContainer im
             predicates.add(advancedSearchFilter.buildPredicate(genericType));
         }
 
-        Predicate<? super T> newFilterPredicate = predicates.size() == 0 ? null : Predicates.and(predicates);
+        Predicate<? super T> newFilterPredicate = predicates.size() == 0 ? null : SearchPlan.<T>and(predicates);
         if (filterPredicate == newFilterPredicate) { return false; }
 
         filterPredicate = newFilterPredicate;
@@ -762,8 +760,7 @@ public abstract class ItemManager<T extends InventoryItem> extends FContainer im
 
             Iterable<Entry<T, Integer>> items = pool;
             if (useFilter) {
-                Predicate<Entry<T, Integer>> pred = Predicates.compose(filterPredicate, pool.FN_GET_KEY);
-                items = Iterables.filter(pool, pred);
+                items = SearchPlan.filter(pool, filterPredicate);
             }
             model.addItems(items);
         }
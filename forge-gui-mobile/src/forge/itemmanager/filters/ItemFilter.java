@@ -5,6 +5,7 @@ import com.google.common.base.Predicate;
 import forge.assets.FSkinFont;
 import forge.item.InventoryItem;
 import forge.itemmanager.ItemManager;
+import forge.itemmanager.SearchPlan;
 import forge.toolbox.FContainer;
 import forge.toolbox.FDisplayObject;
 import forge.util.Utils;
@@ -45,7 +46,7 @@ public abstract class ItemFilter<T extends InventoryItem> {
 
     public final <U extends InventoryItem> Predicate<U> buildPredicate(Class<U> genericType) {
         final Predicate<T> predicate = buildPredicate();
-        return new Predicate<U>() {
+        final Predicate<U> guarded = new Predicate<U>() {
             @SuppressWarnings("unchecked")
             @Override
             public boolean apply(U item) {
@@ -57,6 +58,10 @@ public abstract class ItemFilter<T extends InventoryItem> {
                 }
             }
         };
+        if (predicate instanceof SearchPlan) { //keep cost and parallel evaluation info of compiled searches
+            return SearchPlan.wrap(guarded, (SearchPlan<?>) predicate);
+        }
+        return guarded;
     }
 
     protected <U extends InventoryItem> boolean showUnsupportedItem(U item) {
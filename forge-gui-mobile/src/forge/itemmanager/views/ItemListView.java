@@ -336,14 +336,8 @@ public final class ItemListView<T extends InventoryItem> extends ItemView<T> {
             return (row >= 0) && (row < orderedList.size()) ? orderedList.get(row) : null;
         }
 
-        public int itemToRow(final T item) { //TODO: Consider optimizing this if used frequently
-            final List<Entry<T, Integer>> orderedList = model.getOrderedList();
-            for (int i = 0; i < orderedList.size(); i++) {
-                if (orderedList.get(i).getKey() == item) {
-                    return i;
-                }
-            }
-            return -1;
+        public int itemToRow(final T item) {
+            return model.indexOf(item);
         }
     }
 }
@@ -12,6 +12,7 @@ import forge.adventure.scene.ArenaScene;
 import forge.adventure.util.Config;
 import forge.adventure.util.Controls;
 import forge.adventure.util.Current;
+import forge.adventure.world.World;
 import forge.animation.ForgeAnimation;
 import forge.assets.FSkin;
 import forge.assets.FSkinImage;
@@ -33,6 +34,7 @@ public class TransitionScreen extends FContainer {
     private String message = "", playerRecord = "", enemyRecord = "";
     boolean matchTransition, isloading, isIntro, isFadeMusic, isArenaScene;
     GlyphLayout layout;
+    World generatingWorld;
 
     public TransitionScreen(Runnable proc, TextureRegion screen, boolean enterMatch, boolean loading) {
         this(proc, screen, enterMatch, loading, false, false);
@@ -85,6 +87,13 @@ public class TransitionScreen extends FContainer {
         return progressBar;
     }
 
+    /**
+     * Once faded in, show how far the generation of the given world is instead of a full bar.
+     */
+    public void showGenerationOf(World world) {
+        generatingWorld = world;
+    }
+
     @Override
     protected void doLayout(float width, float height) {
 
@@ -137,16 +146,20 @@ public class TransitionScreen extends FContainer {
                     ymod = Forge.getScreenHeight() / 2f + (FSkinImage.LOGO.getHeight() * xmod) / 1.5f;
                     g.drawImage(FSkinImage.LOGO, Forge.getScreenWidth() / 2f - (FSkinImage.LOGO.getWidth() * xmod) / 2, Forge.getScreenHeight() / 2f - (FSkinImage.LOGO.getHeight() * xmod) / 1.5f, FSkinImage.LOGO.getWidth() * xmod, FSkinImage.LOGO.getHeight() * xmod);
                 }
-                //loading progressbar - todo make this accurate when generating world
+                //loading progressbar, polling the world while it's generated after fading in
                 if (Forge.isMobileAdventureMode) {
                     float w = Forge.isLandscapeMode() ? Forge.getScreenWidth() / 2f : Forge.getScreenHeight() / 2f;
                     float h = 57f / 450f * (w / 2);
                     float x = (Forge.getScreenWidth() - w) / 2;
                     float y = ymod + 10;
                     int multi = ((int) (percentage * 100)) < 97 ? (int) (percentage * 100) : 100;
+                    boolean fadedIn = multi == 100;
+                    if (fadedIn && generatingWorld != null) {
+                        multi = (int) (generatingWorld.getGenerationProgress() * 100);
+                    }
                     progressBar.setBounds(x, Forge.getScreenHeight() - h * 2f, w, h);
                     progressBar.setValue(multi);
-                    if (multi == 100 && !message.isEmpty()) {
+                    if (fadedIn && !message.isEmpty()) {
                         progressBar.setDescription(message);
                     }
                     g.draw(progressBar);
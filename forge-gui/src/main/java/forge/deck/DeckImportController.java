@@ -3,6 +3,8 @@ package forge.deck;
 import java.text.DateFormatSymbols;
 import java.util.*;
 
+import com.google.common.base.Splitter;
+
 import forge.StaticData;
 import forge.card.CardDb;
 import forge.card.CardEdition;
@@ -40,6 +42,8 @@ public class DeckImportController {
     private DeckFormat currentDeckFormat;
     private GameFormat currentGameFormat;
     private final List<DeckSection> allowedSections = new ArrayList<>();
+    // kept between parses, so that editing the input only recognises the lines that changed
+    private final DeckRecognizer recognizer = new DeckRecognizer();
 
     public DeckImportController(ICheckBox dateTimeCheck0,
                                 IComboBox<String> monthDropdown0, IComboBox<Integer> yearDropdown0,
@@ -168,29 +172,29 @@ public class DeckImportController {
     public List<Token> parseInput(String input) {
         tokens.clear();
         cardsInTokens.clear();
-        DeckRecognizer recognizer = new DeckRecognizer();
         // Set Art Preference first thing
         recognizer.setArtPreference(this.artPreference);
         // Edition Release Date Constraint
         if (dateTimeCheck.isSelected())
             recognizer.setDateConstraint(yearDropdown.getSelectedItem(), monthDropdown.getSelectedIndex());
+        else
+            recognizer.clearDateConstraint();
         // Game Format Constraint
         if (this.currentGameFormat != null){
             recognizer.setGameFormatConstraint(this.currentGameFormat.getAllowedSetCodes(),
                                                this.currentGameFormat.getBannedCardNames(),
                                                this.currentGameFormat.getRestrictedCards());
-        }
+        } else
+            recognizer.setGameFormatConstraint(null, null, null);
         // Deck Format Constraint
-        if (this.currentDeckFormat != null)
-            recognizer.setDeckFormatConstraint(this.currentDeckFormat);
+        recognizer.setDeckFormatConstraint(this.currentDeckFormat);
         // (Current Editor) Deck Sections Constraint
-        if (!this.allowedSections.isEmpty())
-            recognizer.setAllowedDeckSections(this.allowedSections);
+        recognizer.setAllowedDeckSections(this.allowedSections.isEmpty() ? null : this.allowedSections);
         // Banned and Restricted Card Policy
-        if (this.inlcludeBnRInDeck)
-            recognizer.forceImportBannedAndRestrictedCards();
+        recognizer.forceImportBannedAndRestrictedCards(this.inlcludeBnRInDeck);
 
-        String[] lines = input.split("\n");
+        // lines are split as they are parsed, with no array of all of them
+        Iterable<String> lines = Splitter.on('\n').split(input);
         List<Token> parsedTokens = recognizer.parseCardList(lines);
         if (parsedTokens != null)
             tokens.addAll(parsedTokens);
@@ -0,0 +1,509 @@
+package forge.deck.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import forge.StaticData;
+import forge.deck.CardPool;
+import forge.deck.Deck;
+import forge.deck.DeckFormat;
+import forge.deck.DeckSection;
+import forge.game.GameFormat;
+import forge.item.PaperCard;
+import forge.localinstance.properties.ForgePreferences.FPref;
+import forge.model.FModel;
+import forge.util.BuildInfo;
+import forge.util.FileSection;
+import forge.util.FileUtil;
+import forge.util.TextUtil;
+
+/**
+ * Loads and checks all the decks of a folder at the same time, reporting for each deck the cards
+ * Forge doesn't know, the problems with the deck format, the formats it is legal in and the cards
+ * making it illegal in the formats asked about.
+ * <br><br>
+ * Reports are kept by the hash of the deck file, so a deck is only checked again once its file
+ * changed, and files whose modification time didn't change aren't even read. The reports can be
+ * written to a file and read back in a later run, they are dropped when the version of Forge or
+ * the formats checked differ.
+ */
+public class BulkDeckValidator {
+    private final DeckFormat deckFormat;
+    private final List<GameFormat> formats;
+    private final String settings;
+
+    private final Map<String, Report> reportsByHash = new ConcurrentHashMap<>();
+    private final Map<String, Report> reportsByFile = new ConcurrentHashMap<>();
+
+    /**
+     * @param deckFormat0 the deck format to check the decks against, null for none
+     * @param formats0 the formats to list the illegal cards of for each deck
+     */
+    public BulkDeckValidator(final DeckFormat deckFormat0, final List<GameFormat> formats0) {
+        deckFormat = deckFormat0;
+        formats = new ArrayList<>(formats0);
+        final StringBuilder sb = new StringBuilder(BuildInfo.getVersionString());
+        sb.append('|').append(deckFormat == null ? "" : deckFormat.name());
+        for (final GameFormat format : formats) {
+            sb.append('|').append(format.getName());
+        }
+        settings = sb.toString();
+    }
+
+    /**
+     * The deck files of the folder and its subfolders, by path.
+     */
+    public static List<File> listDeckFiles(final File folder) {
+        final List<File> result = new ArrayList<>();
+        final File[] files = folder.listFiles();
+        if (files == null) {
+            return result;
+        }
+        Arrays.sort(files);
+        for (final File file : files) {
+            if (file.isDirectory()) {
+                result.addAll(listDeckFiles(file));
+            } else if (file.getName().endsWith(DeckStorage.FILE_EXTENSION)) {
+                result.add(file);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Load the decks of the files on up to the given number of threads.
+     * @return the decks in the order of the files, null for those that couldn't be read
+     */
+    public static List<Deck> loadDecks(final List<File> files, final int threads) {
+        return runInParallel(files, threads, new Task<Deck>() {
+            @Override
+            public Deck run(final File file) throws IOException {
+                final Deck deck = readDeck(Files.readAllBytes(file.toPath()));
+                if (deck != null) {
+                    // parse the cards here rather than on first use
+                    deck.getAllCardsInASinglePool();
+                }
+                return deck;
+            }
+        });
+    }
+
+    /**
+     * Check the deck files of the folder and its subfolders on up to the given number of threads.
+     * @return the reports in the order of the files
+     */
+    public List<Report> validateFolder(final File folder, final int threads) {
+        return validate(listDeckFiles(folder), threads);
+    }
+
+    /**
+     * Check the deck files on up to the given number of threads.
+     * @return the reports in the order of the files
+     */
+    public List<Report> validate(final List<File> files, final int threads) {
+        return runInParallel(files, threads, new Task<Report>() {
+            @Override
+            public Report run(final File file) throws IOException {
+                return validate(file);
+            }
+        });
+    }
+
+    /**
+     * Check a deck file, or look up the report of it if it didn't change.
+     */
+    public Report validate(final File file) throws IOException {
+        final String path = file.getAbsolutePath();
+        final long modified = file.lastModified();
+        final Report known = reportsByFile.get(path);
+        if (known != null && known.modified == modified) {
+            return known;
+        }
+
+        final byte[] content = Files.readAllBytes(file.toPath());
+        final String hash = hash(content);
+        Report report = reportsByHash.get(hash);
+        if (report != null) {
+            report = report.forFile(path, modified);
+        } else {
+            report = check(path, modified, hash, readDeck(content));
+            reportsByHash.put(hash, report);
+        }
+        reportsByFile.put(path, report);
+        return report;
+    }
+
+    /**
+     * The reports of all deck files checked so far, by path.
+     */
+    public Map<String, Report> getReports() {
+        return Collections.unmodifiableMap(new HashMap<>(reportsByFile));
+    }
+
+    private static Deck readDeck(final byte[] content) {
+        final List<String> lines = FileUtil.readAllLines(new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_8));
+        return DeckSerializer.fromSections(FileSection.parseSections(lines));
+    }
+
+    private Report check(final String path, final long modified, final String hash, final Deck deck) {
+        final Report report = new Report(path, modified, hash);
+        if (deck == null) {
+            report.loadProblem = "is not a deck file";
+            return report;
+        }
+        report.name = deck.getName();
+
+        final CardPool allCards = deck.getAllCardsInASinglePool();
+        for (final Entry<DeckSection, CardPool> section : deck) {
+            report.sectionCounts.put(section.getKey().name(), section.getValue().countAll());
+        }
+        for (final Entry<PaperCard, Integer> e : allCards) {
+            final String name = e.getKey().getName();
+            if (!StaticData.instance().getCommonCards().contains(name) && !StaticData.instance().getVariantCards().contains(name)) {
+                report.unsupportedCards.add(name);
+            }
+        }
+
+        if (deckFormat != null) {
+            report.deckFormatProblem = deckFormat.getDeckConformanceProblem(deck);
+        }
+        for (final GameFormat format : FModel.getFormats().getAllFormatsOfDeck(deck)) {
+            if (format != GameFormat.NoFormat) {
+                report.legalFormats.add(format.getName());
+            }
+        }
+        for (final GameFormat format : formats) {
+            final List<String> illegal = new ArrayList<>();
+            for (final Entry<PaperCard, Integer> e : allCards) {
+                if (!format.getFilterRules().apply(e.getKey())) {
+                    illegal.add(e.getKey().getName());
+                }
+            }
+            report.illegalCards.put(format.getName(), illegal);
+            report.formatProblems.put(format.getName(), format.getDeckConformanceProblem(deck));
+        }
+        return report;
+    }
+
+    private static String hash(final byte[] content) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-1").digest(content);
+            final StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (final byte b : digest) {
+                sb.append(String.format("%02x", b & 0xff));
+            }
+            return sb.toString();
+        } catch (final NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private interface Task<T> {
+        T run(File file) throws IOException;
+    }
+
+    private static <T> List<T> runInParallel(final List<File> files, final int threads, final Task<T> task) {
+        // cards loaded lazily change the card databases, which aren't safe to read meanwhile
+        final boolean lazily = FModel.getPreferences().getPrefBoolean(FPref.LOAD_CARD_SCRIPTS_LAZILY);
+        final ExecutorService executor = Executors.newFixedThreadPool(lazily ? 1 : Math.max(1, threads));
+        final List<Future<T>> futures = new ArrayList<>();
+        for (final File file : files) {
+            futures.add(executor.submit(() -> task.run(file)));
+        }
+        executor.shutdown();
+
+        final List<T> result = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            T value;
+            try {
+                value = futures.get(i).get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                executor.shutdownNow();
+                break;
+            } catch (final ExecutionException e) {
+                System.err.println("Could not read deck " + files.get(i) + ": " + e.getCause());
+                value = null;
+            }
+            result.add(value);
+        }
+        return result;
+    }
+
+    /**
+     * Read the reports written by {@link #writeCache(File)}, unless they were made by another
+     * version of Forge or for other formats.
+     * @return whether the reports were read
+     */
+    @SuppressWarnings("unchecked")
+    public boolean readCache(final File file) {
+        if (!file.exists()) {
+            return false;
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (!settings.equals(in.readUTF())) {
+                return false;
+            }
+            for (final Report report : (List<Report>) in.readObject()) {
+                reportsByHash.put(report.hash, report);
+                reportsByFile.put(report.file, report);
+            }
+            return true;
+        } catch (final IOException | ClassNotFoundException | ClassCastException e) {
+            System.err.println("Could not read deck reports from " + file + ": " + e);
+            return false;
+        }
+    }
+
+    /**
+     * Write the reports of the deck files checked so far.
+     */
+    public void writeCache(final File file) throws IOException {
+        final File folder = file.getAbsoluteFile().getParentFile();
+        if (folder != null) {
+            folder.mkdirs();
+        }
+        try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeUTF(settings);
+            out.writeObject(new ArrayList<>(reportsByFile.values()));
+        }
+    }
+
+    public static void writeCsv(final List<Report> reports, final Writer out) throws IOException {
+        out.write("file,name,cards,legal,problem,unsupported,formats,illegal\n");
+        for (final Report r : reports) {
+            final List<String> illegal = new ArrayList<>();
+            for (final Entry<String, List<String>> e : r.illegalCards.entrySet()) {
+                if (!e.getValue().isEmpty()) {
+                    illegal.add(e.getKey() + ": " + TextUtil.join(e.getValue(), "; "));
+                }
+            }
+            out.write(TextUtil.join(Arrays.asList(csv(r.file), csv(r.name == null ? "" : r.name),
+                    String.valueOf(r.getCardCount()), String.valueOf(r.isLegal()), csv(r.getProblem() == null ? "" : r.getProblem()),
+                    csv(TextUtil.join(r.unsupportedCards, "; ")), csv(TextUtil.join(r.legalFormats, "; ")),
+                    csv(TextUtil.join(illegal, " | "))), ","));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    public static void writeJson(final List<Report> reports, final Writer out) throws IOException {
+        out.write("[\n");
+        boolean first = true;
+        for (final Report r : reports) {
+            if (!first) {
+                out.write(",\n");
+            }
+            first = false;
+            out.write("  {\"file\": " + json(r.file) + ", \"hash\": " + json(r.hash) + ", \"name\": " + json(r.name));
+            out.write(", \"legal\": " + r.isLegal() + ", \"problem\": " + json(r.getProblem()));
+            out.write(", \"counts\": {");
+            boolean firstCount = true;
+            for (final Entry<String, Integer> e : r.sectionCounts.entrySet()) {
+                out.write((firstCount ? "" : ", ") + json(e.getKey()) + ": " + e.getValue());
+                firstCount = false;
+            }
+            out.write("}, \"unsupported\": " + json(r.unsupportedCards) + ", \"formats\": " + json(r.legalFormats));
+            out.write(", \"illegal\": {");
+            boolean firstFormat = true;
+            for (final Entry<String, List<String>> e : r.illegalCards.entrySet()) {
+                out.write((firstFormat ? "" : ", ") + json(e.getKey()) + ": " + json(e.getValue()));
+                firstFormat = false;
+            }
+            out.write("}}");
+        }
+        out.write("\n]\n");
+        out.flush();
+    }
+
+    private static String csv(final String s) {
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0) {
+            return s;
+        }
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+    private static String json(final List<String> list) {
+        final StringBuilder sb = new StringBuilder("[");
+        for (final String s : list) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(json(s));
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String json(final String s) {
+        if (s == null) {
+            return "null";
+        }
+        final StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < ' ') {
+                sb.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * What was found out about a deck file.
+     */
+    public static final class Report implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String file;
+        private final long modified;
+        private final String hash;
+        private String name;
+        private String loadProblem;
+        private final Map<String, Integer> sectionCounts = new LinkedHashMap<>();
+        private final List<String> unsupportedCards = new ArrayList<>();
+        private String deckFormatProblem;
+        private final List<String> legalFormats = new ArrayList<>();
+        private final Map<String, List<String>> illegalCards = new LinkedHashMap<>();
+        private final Map<String, String> formatProblems = new LinkedHashMap<>();
+
+        private Report(final String file0, final long modified0, final String hash0) {
+            file = file0;
+            modified = modified0;
+            hash = hash0;
+        }
+
+        // the same report for another file with the same content
+        private Report forFile(final String file0, final long modified0) {
+            final Report copy = new Report(file0, modified0, hash);
+            copy.name = name;
+            copy.loadProblem = loadProblem;
+            copy.sectionCounts.putAll(sectionCounts);
+            copy.unsupportedCards.addAll(unsupportedCards);
+            copy.deckFormatProblem = deckFormatProblem;
+            copy.legalFormats.addAll(legalFormats);
+            copy.illegalCards.putAll(illegalCards);
+            copy.formatProblems.putAll(formatProblems);
+            return copy;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        /** The SHA-1 hash of the deck file, in hex. */
+        public String getHash() {
+            return hash;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /** Why the file couldn't be read as a deck, null if it could. */
+        public String getLoadProblem() {
+            return loadProblem;
+        }
+
+        /** The number of cards in each section of the deck, by the name of the section. */
+        public Map<String, Integer> getSectionCounts() {
+            return Collections.unmodifiableMap(sectionCounts);
+        }
+
+        public int getCardCount() {
+            int count = 0;
+            for (final int n : sectionCounts.values()) {
+                count += n;
+            }
+            return count;
+        }
+
+        /** The names of the cards Forge doesn't know. */
+        public List<String> getUnsupportedCards() {
+            return Collections.unmodifiableList(unsupportedCards);
+        }
+
+        /** What is wrong with the deck in the deck format checked, null if nothing. */
+        public String getDeckFormatProblem() {
+            return deckFormatProblem;
+        }
+
+        /** The names of the formats the deck is legal in, as listed by the deck manager. */
+        public List<String> getLegalFormats() {
+            return Collections.unmodifiableList(legalFormats);
+        }
+
+        /** The names of the cards not legal in each format checked, by the name of the format. */
+        public Map<String, List<String>> getIllegalCards() {
+            return Collections.unmodifiableMap(illegalCards);
+        }
+
+        /** What is wrong with the deck in each format checked, null if nothing, by the name of the format. */
+        public Map<String, String> getFormatProblems() {
+            return Collections.unmodifiableMap(formatProblems);
+        }
+
+        /**
+         * The first problem found with the deck: it couldn't be read, has unknown cards, doesn't
+         * fit the deck format or isn't legal in one of the formats checked. Null if none.
+         */
+        public String getProblem() {
+            if (loadProblem != null) {
+                return loadProblem;
+            }
+            if (!unsupportedCards.isEmpty()) {
+                return "has unsupported cards: " + TextUtil.join(unsupportedCards, ", ");
+            }
+            if (deckFormatProblem != null) {
+                return deckFormatProblem;
+            }
+            for (final Entry<String, String> e : formatProblems.entrySet()) {
+                if (e.getValue() != null) {
+                    return "is not legal in " + e.getKey() + ": " + e.getValue();
+                }
+            }
+            return null;
+        }
+
+        public boolean isLegal() {
+            return getProblem() == null;
+        }
+
+        @Override
+        public String toString() {
+            final String problem = getProblem();
+            return (name == null ? file : name) + (problem == null ? " is legal" : " " + problem);
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.w3c.dom.NodeList;
 
 import forge.deck.DeckProxy;
 import forge.deck.DeckType;
+import forge.itemmanager.ItemManagerModel;
 import forge.localinstance.properties.ForgeConstants;
 import forge.util.XmlUtil;
 
@@ -207,6 +208,7 @@ public class DeckPreferences {
     public void setStarCount(int starCount0) {
         if (this.starCount == starCount0) { return; }
         this.starCount = starCount0;
+        ItemManagerModel.onSortValuesChanged();
         save();
     }
 }
\ No newline at end of file
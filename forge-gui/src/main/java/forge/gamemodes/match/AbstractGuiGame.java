@@ -210,6 +210,16 @@ public abstract class AbstractGuiGame implements IGuiGame, IMayViewCards {
         //not needed for base game implementation
     }
 
+    @Override
+    public void beginUpdateBatch() {
+        //not needed for base game implementation
+    }
+
+    @Override
+    public void endUpdateBatch() {
+        //not needed for base game implementation
+    }
+
     @Override
     public boolean mayView(final CardView c) {
         if (!hasLocalPlayers()) {
@@ -31,6 +31,8 @@ import forge.util.ITriggerEvent;
 public class NetGuiGame extends AbstractGuiGame {
 
     private final GameProtocolSender sender;
+    private int updateBatchDepth = 0;
+    private boolean gameViewSentInBatch = false;
     public NetGuiGame(final IToClient client) {
         this.sender = new GameProtocolSender(client);
     }
@@ -44,15 +46,35 @@ public class NetGuiGame extends AbstractGuiGame {
     }
 
     public void updateGameView() {
+        if (updateBatchDepth > 0) {
+            //the game view only needs to go out once for all updates of a batch
+            if (gameViewSentInBatch) { return; }
+            gameViewSentInBatch = true;
+        }
         send(ProtocolMethod.setGameView, getGameView());
     }
 
     @Override
     public void setGameView(final GameView gameView) {
         super.setGameView(gameView);
+        gameViewSentInBatch = false;
         updateGameView();
     }
 
+    @Override
+    public void beginUpdateBatch() {
+        if (updateBatchDepth++ == 0) {
+            gameViewSentInBatch = false;
+        }
+    }
+
+    @Override
+    public void endUpdateBatch() {
+        if (updateBatchDepth > 0) {
+            updateBatchDepth--;
+        }
+    }
+
     @Override
     public void openView(final TrackableCollection<PlayerView> myPlayers) {
         send(ProtocolMethod.openView, myPlayers);
@@ -37,6 +37,7 @@ import forge.item.PaperCard;
 import forge.itemmanager.ColumnDef;
 import forge.itemmanager.ItemColumn;
 import forge.itemmanager.ItemManagerConfig;
+import forge.itemmanager.ItemManagerModel;
 import forge.localinstance.achievements.PlaneswalkerAchievements;
 import forge.localinstance.properties.ForgeConstants;
 import forge.localinstance.skin.ISkinImage;
@@ -241,6 +242,7 @@ public final class ConquestData {
     public void unlockCard(PaperCard card) {
         if (unlockedCards.add(card)) {
             newCards.add(card);
+            ItemManagerModel.onSortValuesChanged(card.getName());
 
             //add card to available commanders if eligible
             if (card.getRules().canBeCommander()) {
@@ -528,6 +530,7 @@ public final class ConquestData {
 
     public void resetNewCards() {
         newCards.clear();
+        ItemManagerModel.onSortValuesChanged();
     }
 
     private static final Function<Entry<InventoryItem, Integer>, Comparable<?>> fnNewCompare =
@@ -29,6 +29,7 @@ import forge.item.PreconDeck;
 import forge.item.SealedProduct;
 import forge.item.TournamentPack;
 import forge.itemmanager.IItemManager;
+import forge.itemmanager.ItemManagerModel;
 import forge.itemmanager.SItemManagerUtil;
 import forge.localinstance.properties.ForgePreferences.FPref;
 import forge.model.FModel;
@@ -427,6 +428,7 @@ public class QuestSpellShop {
                 }
             }
         }
+        ItemManagerModel.onSortValuesChanged();
     }
 
     public static double updateMultiplier() {
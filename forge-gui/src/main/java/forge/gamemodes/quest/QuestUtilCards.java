@@ -57,6 +57,7 @@ import forge.item.SealedProduct.Template;
 import forge.item.TournamentPack;
 import forge.item.generation.BoosterSlots;
 import forge.item.generation.UnOpenedProduct;
+import forge.itemmanager.ItemManagerModel;
 import forge.localinstance.properties.ForgePreferences.FPref;
 import forge.model.FModel;
 import forge.util.Aggregates;
@@ -213,6 +214,7 @@ public final class QuestUtilCards {
 
         // register card into that list so that it would appear as a new one.
         questAssets.getNewCardList().add(card, qty);
+        ItemManagerModel.onSortValuesChanged(card.getName());
     }
 
     /**
@@ -458,6 +460,7 @@ public final class QuestUtilCards {
     public void removeCard(final PaperCard card, int qty) {
 
         questAssets.getCardPool().remove(card, qty);
+        ItemManagerModel.onSortValuesChanged(card.getName());
 
         final int leftInPool = questAssets.getCardPool().count(card);
 
@@ -839,6 +842,7 @@ public final class QuestUtilCards {
      */
     public void resetNewList() {
         questAssets.getNewCardList().clear();
+        ItemManagerModel.onSortValuesChanged();
     }
 
     public Function<Entry<InventoryItem, Integer>, Comparable<?>> getFnNewCompare() {
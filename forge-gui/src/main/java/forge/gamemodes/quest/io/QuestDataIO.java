@@ -17,7 +17,13 @@
  */
 package forge.gamemodes.quest.io;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -25,14 +31,23 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.StringReader;
 import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -95,6 +110,13 @@ import forge.util.XmlUtil;
  * QuestDataIO class.
  * </p>
  *
+ * Quests are saved in sections: the quest itself, its assets, its achievements, its cards and its
+ * decks. The cards and decks, which make up most of a long quest, are written as compact binary
+ * data, the other sections as XML. Each section is compressed on its own, and a section that has
+ * not changed since the last save is written again as it was, with no need to write its contents
+ * out again. Quests saved as a single XML file by older versions are still read, and are saved in
+ * sections from then on.
+ *
  * @author Forge
  * @version $Id$
  */
@@ -104,6 +126,34 @@ public class QuestDataIO {
         FileUtil.ensureDirectoryExists(ForgeConstants.QUEST_SAVE_DIR);
     }
 
+    // Quest saves in sections start with this, XML saves start with the GZIP header
+    private static final int SECTIONS_MAGIC = 0x46515344; // "FQSD"
+    private static final int SECTIONS_VERSION = 1;
+
+    private static final String SECTION_QUEST = "quest";
+    private static final String SECTION_ASSETS = "assets";
+    private static final String SECTION_ACHIEVEMENTS = "achievements";
+    private static final String SECTION_CARDS = "cards";
+    private static final String SECTION_DECKS = "decks";
+
+    // by save file, the sections as last saved
+    private static final Map<String, Map<String, SavedSection>> savedSections = new HashMap<>();
+
+    private static class SavedSection {
+        // the XML of the section, or a copy of its cards
+        private final Object contents;
+        private final byte[] compressed;
+
+        private SavedSection(final Object contents0, final byte[] data) throws IOException {
+            contents = contents0;
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length / 4 + 64);
+            try (DeflaterOutputStream out = new DeflaterOutputStream(bytes)) {
+                out.write(data);
+            }
+            compressed = bytes.toByteArray();
+        }
+    }
+
     /**
      * Gets the serializer.
      *
@@ -145,6 +195,21 @@ public class QuestDataIO {
         return xStream;
     }
 
+    /**
+     * The serializer for the sections of quest data saved as XML, which leaves out the fields
+     * saved in their own sections.
+     */
+    private static XStream getSectionSerializer(final boolean isIgnoring) {
+        final XStream xStream = getSerializer(isIgnoring);
+        xStream.omitField(QuestData.class, "assets");
+        xStream.omitField(QuestData.class, "achievements");
+        xStream.omitField(QuestAssets.class, "cardPool");
+        xStream.omitField(QuestAssets.class, "newCardList");
+        xStream.omitField(QuestAssets.class, "shopList");
+        xStream.omitField(QuestAssets.class, "myDecks");
+        return xStream;
+    }
+
     /**
      * <p>
      * loadData.
@@ -155,6 +220,10 @@ public class QuestDataIO {
      * @return {@link forge.gamemodes.quest.data.QuestData}
      */
     public static QuestData loadData(final File xmlSaveFile) throws IOException {
+        if (isSavedInSections(xmlSaveFile)) {
+            return loadSections(xmlSaveFile);
+        }
+
         QuestData data;
         final StringBuilder xml = new StringBuilder();
 
@@ -190,6 +259,100 @@ public class QuestDataIO {
         return data;
     }
 
+    private static boolean isSavedInSections(final File saveFile) throws IOException {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(saveFile))) {
+            return in.readInt() == SECTIONS_MAGIC;
+        } catch (final EOFException e) {
+            return false;
+        }
+    }
+
+    private static QuestData loadSections(final File saveFile) throws IOException {
+        final Map<String, byte[]> sections = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(saveFile)))) {
+            in.readInt(); // magic
+            final int version = in.readInt();
+            if (version > SECTIONS_VERSION) {
+                throw new IOException("Quest save " + saveFile.getName() + " was made by a newer version of Forge");
+            }
+            final int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                final String name = in.readUTF();
+                final byte[] compressed = new byte[in.readInt()];
+                in.readFully(compressed);
+                sections.put(name, inflate(compressed));
+            }
+        }
+
+        try {
+            final XStream xStream = QuestDataIO.getSectionSerializer(true);
+            final QuestData data = (QuestData) fromXml(xStream, sections.get(SECTION_QUEST));
+            final QuestAssets assets = (QuestAssets) fromXml(xStream, sections.get(SECTION_ASSETS));
+            QuestDataIO.setFinalField(QuestData.class, "assets", data, assets);
+            QuestDataIO.setFinalField(QuestData.class, "achievements", data, fromXml(xStream, sections.get(SECTION_ACHIEVEMENTS)));
+
+            final DataInputStream cards = new DataInputStream(new ByteArrayInputStream(sections.get(SECTION_CARDS)));
+            QuestDataIO.setFinalField(QuestAssets.class, "cardPool", assets, ItemPoolToBinary.readPool(cards, PaperCard.class));
+            QuestDataIO.setFinalField(QuestAssets.class, "newCardList", assets, ItemPoolToBinary.readPool(cards, InventoryItem.class));
+            QuestDataIO.setFinalField(QuestAssets.class, "shopList", assets, ItemPoolToBinary.readPool(cards, InventoryItem.class));
+            final DataInputStream decks = new DataInputStream(new ByteArrayInputStream(sections.get(SECTION_DECKS)));
+            QuestDataIO.setFinalField(QuestAssets.class, "myDecks", assets, ItemPoolToBinary.readDecks(decks));
+
+            if (data.getVersionNumber() != QuestData.CURRENT_VERSION_NUMBER) {
+                // the migrations read the XML of the whole quest, as it would have been saved before sections
+                QuestDataIO.updateSaveFile(data, QuestDataIO.getSerializer(false).toXML(data), saveFile.getName().replace(".dat", ""));
+            }
+            return data;
+        } catch (final Exception ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static byte[] getSectionData(final String name, final Object contents) throws IOException {
+        if (contents instanceof byte[]) {
+            return (byte[]) contents;
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            if (SECTION_CARDS.equals(name)) {
+                for (final Map<InventoryItem, Integer> pool : (List<Map<InventoryItem, Integer>>) contents) {
+                    ItemPoolToBinary.writePool(pool, out);
+                }
+            } else {
+                ItemPoolToBinary.writeDecks((Map<String, List<Object>>) contents, out);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] inflate(final byte[] compressed) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(compressed.length * 4);
+        try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+            final byte[] buf = new byte[8192];
+            int len;
+            while ((len = in.read(buf)) != -1) {
+                bytes.write(buf, 0, len);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object fromXml(final XStream xStream, final byte[] section) {
+        return xStream.fromXML(new String(section, StandardCharsets.UTF_8));
+    }
+
+    private static byte[] toXml(final XStream xStream, final Object obj) {
+        return xStream.toXML(obj).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static <T> Object getFinalField(final Class<T> clasz, final String fieldName, final T instance)
+            throws IllegalAccessException, NoSuchFieldException {
+        final Field field = clasz.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        return field.get(instance);
+    }
+
     private static <T> void setFinalField(final Class<T> clasz, final String fieldName, final T instance,
             final Object newValue) throws IllegalAccessException, NoSuchFieldException {
         final Field field = clasz.getDeclaredField(fieldName);
@@ -437,13 +600,11 @@ public class QuestDataIO {
      */
     public static synchronized void saveData(final QuestData qd) {
         try {
-            final XStream xStream = QuestDataIO.getSerializer(false);
-
             final File f = new File(ForgeConstants.QUEST_SAVE_DIR, qd.getName());
             //Copy the save file in case the save fails
             FileUtil.copyFile(f + ".dat", f + ".dat.bak");
-            QuestDataIO.savePacked(f + ".dat", xStream, qd);
-            //QuestDataIO.saveUnpacked(f + ".xml", xStream, qd);
+            QuestDataIO.saveSections(new File(f + ".dat"), qd);
+            //QuestDataIO.saveUnpacked(f + ".xml", QuestDataIO.getSerializer(false), qd);
         }
         catch (final Exception ex) {
             //BugReporter.reportException(ex, "Error saving Quest Data.");
@@ -451,12 +612,56 @@ public class QuestDataIO {
         }
     }
 
-    private static void savePacked(final String f, final XStream xStream, final QuestData qd) throws IOException {
-        final BufferedOutputStream bout = new BufferedOutputStream(new FileOutputStream(f));
-        final GZIPOutputStream zout = new GZIPOutputStream(bout);
-        xStream.toXML(qd, zout);
-        zout.flush();
-        zout.close();
+    /**
+     * Save the quest in sections to the given file. Sections that are the same as when last saved
+     * to this file are not written out and compressed again. The sections are written to a
+     * temporary file first, which then replaces the save, so a save that fails leaves the previous
+     * one as it was.
+     */
+    public static synchronized void saveSections(final File saveFile, final QuestData qd) throws IOException {
+        final XStream xStream = QuestDataIO.getSectionSerializer(false);
+        final QuestAssets assets = qd.getAssets();
+        final Map<String, Object> sections = new LinkedHashMap<>();
+        sections.put(SECTION_QUEST, toXml(xStream, qd));
+        sections.put(SECTION_ASSETS, toXml(xStream, assets));
+        sections.put(SECTION_ACHIEVEMENTS, toXml(xStream, qd.getAchievements()));
+        sections.put(SECTION_CARDS, Arrays.asList(ItemPoolToBinary.copyOf(assets.getCardPool()),
+                ItemPoolToBinary.copyOf(assets.getNewCardList()), ItemPoolToBinary.copyOf(assets.getShopList())));
+        try {
+            @SuppressWarnings("unchecked")
+            final Map<String, Deck> myDecks = (Map<String, Deck>) QuestDataIO.getFinalField(QuestAssets.class, "myDecks", assets);
+            sections.put(SECTION_DECKS, ItemPoolToBinary.copyOf(myDecks));
+        } catch (IllegalAccessException | NoSuchFieldException e) {
+            throw new IOException(e);
+        }
+
+        final String key = saveFile.getAbsolutePath();
+        Map<String, SavedSection> saved = savedSections.get(key);
+        if (saved == null) {
+            saved = new HashMap<>();
+            savedSections.put(key, saved);
+        }
+        final File tempFile = new File(saveFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            out.writeInt(SECTIONS_MAGIC);
+            out.writeInt(SECTIONS_VERSION);
+            out.writeInt(sections.size());
+            for (final Entry<String, Object> e : sections.entrySet()) {
+                SavedSection section = saved.get(e.getKey());
+                if (section == null || !Objects.deepEquals(section.contents, e.getValue())) {
+                    section = new SavedSection(e.getValue(), getSectionData(e.getKey(), e.getValue()));
+                    saved.put(e.getKey(), section);
+                }
+                out.writeUTF(e.getKey());
+                out.writeInt(section.compressed.length);
+                out.write(section.compressed);
+            }
+        }
+        try {
+            Files.move(tempFile.toPath(), saveFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), saveFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
     }
 
     @SuppressWarnings("unused") // used only for debug purposes
@@ -831,11 +1036,7 @@ public class QuestDataIO {
 
         protected void write(final BoosterPack booster, final Integer count, final HierarchicalStreamWriter writer) {
             writer.startNode("booster");
-            if (booster.getEdition().equals("?")) {
-                writer.addAttribute("s", booster.getName().substring(0, booster.getName().indexOf(booster.getItemType()) - 1));
-            } else {
-                writer.addAttribute("s", booster.getEdition());
-            }
+            writer.addAttribute("s", getBoosterSet(booster));
             writer.addAttribute("n", count.toString());
             writer.endNode();
         }
@@ -929,17 +1130,11 @@ public class QuestDataIO {
             if (name == null) {
                 name = reader.getAttribute("s");
             }
-            return QuestController.getPrecons().get(name);
+            return getPreconDeck(name);
         }
 
         protected BoosterPack readBooster(final HierarchicalStreamReader reader) {
-            String s = reader.getAttribute("s");
-            if (SealedProduct.specialSets.contains(s) || s.equals("?")) {
-                return BoosterPack.FN_FROM_COLOR.apply(s);
-            } else {
-                final CardEdition ed = FModel.getMagicDb().getEditions().get(s);
-                return BoosterPack.FN_FROM_SET.apply(ed);
-            }
+            return getBooster(reader.getAttribute("s"));
         }
 
         protected TournamentPack readTournamentPack(final HierarchicalStreamReader reader) {
@@ -958,11 +1153,32 @@ public class QuestDataIO {
         }
 
         protected PaperCard readCardPrinted(final HierarchicalStreamReader reader) {
-            final String name = reader.getAttribute("c");
-            final String set = reader.getAttribute("s");
             final String sIndex = reader.getAttribute("i");
             final short index = StringUtils.isNumeric(sIndex) ? Short.parseShort(sIndex) : 0;
-            final boolean foil = "1".equals(reader.getAttribute("foil"));
+            return getCard(reader.getAttribute("c"), reader.getAttribute("s"), index, "1".equals(reader.getAttribute("foil")));
+        }
+
+        static PreconDeck getPreconDeck(final String name) {
+            return QuestController.getPrecons().get(name);
+        }
+
+        static BoosterPack getBooster(final String s) {
+            if (SealedProduct.specialSets.contains(s) || s.equals("?")) {
+                return BoosterPack.FN_FROM_COLOR.apply(s);
+            } else {
+                final CardEdition ed = FModel.getMagicDb().getEditions().get(s);
+                return BoosterPack.FN_FROM_SET.apply(ed);
+            }
+        }
+
+        static String getBoosterSet(final BoosterPack booster) {
+            if (booster.getEdition().equals("?")) {
+                return booster.getName().substring(0, booster.getName().indexOf(booster.getItemType()) - 1);
+            }
+            return booster.getEdition();
+        }
+
+        static PaperCard getCard(final String name, final String set, final int index, final boolean foil) {
             PaperCard card = FModel.getMagicDb().getOrLoadCommonCard(name, set, index, foil);
             if (null == card) {
                 System.err.println("Warning: Unsupported card found in quest save: " + name + " from edition " + set +". It will be removed from the quest save.");
@@ -970,4 +1186,164 @@ public class QuestDataIO {
             return card;
         }
     }
+
+    /**
+     * Writes and reads item pools and decks as binary data, with the same items as
+     * {@link ItemPoolToXml} and {@link DeckToXml}.
+     */
+    private static class ItemPoolToBinary {
+        private static final byte CARD = 0;
+        private static final byte BOOSTER = 1;
+        private static final byte TOURNAMENT_PACK = 2;
+        private static final byte FAT_PACK = 3;
+        private static final byte BOOSTER_BOX = 4;
+        private static final byte PRECON = 5;
+
+        /**
+         * The items of the pool and their counts, which stay as they are when the pool changes.
+         */
+        static Map<InventoryItem, Integer> copyOf(final ItemPool<? extends InventoryItem> pool) {
+            final Map<InventoryItem, Integer> result = new HashMap<>();
+            for (final Entry<? extends InventoryItem, Integer> e : pool) {
+                if (getType(e.getKey()) >= 0) {
+                    result.put(e.getKey(), e.getValue());
+                }
+            }
+            return result;
+        }
+
+        /**
+         * By key, the name of each deck and the copies of its sections.
+         */
+        static Map<String, List<Object>> copyOf(final Map<String, Deck> decks) {
+            final Map<String, List<Object>> result = new HashMap<>();
+            for (final Entry<String, Deck> e : decks.entrySet()) {
+                final Map<DeckSection, Map<InventoryItem, Integer>> sections = new EnumMap<>(DeckSection.class);
+                for (final Entry<DeckSection, CardPool> ds : e.getValue()) {
+                    sections.put(ds.getKey(), copyOf(ds.getValue()));
+                }
+                result.put(e.getKey(), Arrays.<Object>asList(e.getValue().getName(), sections));
+            }
+            return result;
+        }
+
+        static void writePool(final Map<InventoryItem, Integer> pool, final DataOutputStream out) throws IOException {
+            out.writeInt(pool.size());
+            for (final Entry<InventoryItem, Integer> e : pool.entrySet()) {
+                final InventoryItem item = e.getKey();
+                final byte type = getType(item);
+                out.writeByte(type);
+                switch (type) {
+                    case CARD:
+                        final PaperCard card = (PaperCard) item;
+                        out.writeUTF(card.getName());
+                        out.writeUTF(card.getEdition());
+                        out.writeInt(card.getArtIndex());
+                        out.writeBoolean(card.isFoil());
+                        break;
+                    case BOOSTER:
+                        out.writeUTF(ItemPoolToXml.getBoosterSet((BoosterPack) item));
+                        break;
+                    case PRECON:
+                        out.writeUTF(item.getName());
+                        break;
+                    default:
+                        out.writeUTF(((SealedProduct) item).getEdition());
+                        break;
+                }
+                out.writeInt(e.getValue());
+            }
+        }
+
+        private static byte getType(final InventoryItem item) {
+            if (item instanceof PaperCard) {
+                return CARD;
+            } else if (item instanceof BoosterPack) {
+                return BOOSTER;
+            } else if (item instanceof TournamentPack) {
+                return TOURNAMENT_PACK;
+            } else if (item instanceof FatPack) {
+                return FAT_PACK;
+            } else if (item instanceof BoosterBox) {
+                return BOOSTER_BOX;
+            } else if (item instanceof PreconDeck) {
+                return PRECON;
+            }
+            return -1;
+        }
+
+        static <T extends InventoryItem> ItemPool<T> readPool(final DataInputStream in, final Class<T> cls) throws IOException {
+            final ItemPool<T> result = new ItemPool<>(cls);
+            final int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                final byte type = in.readByte();
+                final InventoryItem item;
+                switch (type) {
+                    case CARD:
+                        final String name = in.readUTF();
+                        final String set = in.readUTF();
+                        final int index = in.readInt();
+                        item = ItemPoolToXml.getCard(name, set, index, in.readBoolean());
+                        break;
+                    case BOOSTER:
+                        item = ItemPoolToXml.getBooster(in.readUTF());
+                        break;
+                    case TOURNAMENT_PACK:
+                        item = TournamentPack.FN_FROM_SET.apply(FModel.getMagicDb().getEditions().get(in.readUTF()));
+                        break;
+                    case FAT_PACK:
+                        item = FatPack.FN_FROM_SET.apply(FModel.getMagicDb().getEditions().get(in.readUTF()));
+                        break;
+                    case BOOSTER_BOX:
+                        item = BoosterBox.FN_FROM_SET.apply(FModel.getMagicDb().getEditions().get(in.readUTF()));
+                        break;
+                    case PRECON:
+                        item = ItemPoolToXml.getPreconDeck(in.readUTF());
+                        break;
+                    default:
+                        throw new IOException("Unknown item type in quest save: " + type);
+                }
+                final int cnt = in.readInt();
+                if (cls.isInstance(item)) {
+                    result.add(cls.cast(item), cnt);
+                }
+            }
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        static void writeDecks(final Map<String, List<Object>> decks, final DataOutputStream out) throws IOException {
+            out.writeInt(decks.size());
+            for (final Entry<String, List<Object>> e : decks.entrySet()) {
+                out.writeUTF(e.getKey());
+                out.writeUTF((String) e.getValue().get(0));
+                final Map<DeckSection, Map<InventoryItem, Integer>> sections = (Map<DeckSection, Map<InventoryItem, Integer>>) e.getValue().get(1);
+                out.writeInt(sections.size());
+                for (final Entry<DeckSection, Map<InventoryItem, Integer>> ds : sections.entrySet()) {
+                    out.writeUTF(ds.getKey().name());
+                    writePool(ds.getValue(), out);
+                }
+            }
+        }
+
+        static HashMap<String, Deck> readDecks(final DataInputStream in) throws IOException {
+            final HashMap<String, Deck> result = new HashMap<>();
+            final int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                final String key = in.readUTF();
+                final Deck deck = new Deck(in.readUTF());
+                final int sections = in.readInt();
+                for (int j = 0; j < sections; j++) {
+                    final String sectionName = in.readUTF();
+                    final DeckSection section = DeckSection.smartValueOf(sectionName);
+                    if (null == section) {
+                        throw new IOException("Quest deck has unknown section: " + sectionName);
+                    }
+                    deck.getOrCreate(section).addAll(readPool(in, PaperCard.class));
+                }
+                result.put(key, deck);
+            }
+            return result;
+        }
+    }
 }
@@ -9,6 +9,7 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 
 import forge.card.CardDb;
+import forge.itemmanager.ItemManagerModel;
 import forge.util.TextUtil;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -102,6 +103,7 @@ public class CardPreferences {
 
     public void setStarCount(int starCount0) {
         starCount = starCount0;
+        ItemManagerModel.onSortValuesChanged(cardName);
     }
 
     public String getPreferredArt() {
@@ -0,0 +1,48 @@
+package forge.gui.control;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Views marked dirty by game events since the last batch was sent to the GUI.
+ * Each view is kept once with a set of flags telling which of its parts need updating,
+ * no matter how many events touched it.
+ */
+final class DirtyViews<V> {
+    private Map<V, Integer> dirty = new HashMap<>();
+
+    synchronized void mark(final V view, final int flags) {
+        final Integer old = dirty.get(view);
+        dirty.put(view, old == null ? flags : old | flags);
+    }
+
+    synchronized boolean isEmpty() {
+        return dirty.isEmpty();
+    }
+
+    /**
+     * Take all views marked so far, leaving this empty for the next batch.
+     */
+    synchronized Map<V, Integer> drain() {
+        if (dirty.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final Map<V, Integer> result = dirty;
+        dirty = new HashMap<>();
+        return result;
+    }
+
+    static <V> Set<V> select(final Map<V, Integer> drained, final int flag) {
+        final Set<V> result = new HashSet<>();
+        for (final Entry<V, Integer> e : drained.entrySet()) {
+            if ((e.getValue() & flag) != 0) {
+                result.add(e.getKey());
+            }
+        }
+        return result;
+    }
+}
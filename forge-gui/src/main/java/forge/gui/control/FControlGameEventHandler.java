@@ -16,6 +16,7 @@ import forge.game.player.Player;
 import forge.game.player.PlayerView;
 import forge.game.zone.Zone;
 import forge.game.zone.ZoneType;
+import forge.gui.FThreads;
 import forge.gui.GuiBase;
 import forge.gui.interfaces.IGuiGame;
 import forge.localinstance.properties.ForgePreferences.FPref;
@@ -27,151 +28,216 @@ import forge.util.Lang;
 import forge.util.maps.MapOfLists;
 
 public class FControlGameEventHandler extends IGameEventVisitor.Base<Void> {
+    // minimum time between two batches of view updates, about one frame
+    private static final int BATCH_INTERVAL_MS = 16;
+    // longest a batch is held back while the game has its views frozen
+    private static final int FROZEN_BATCH_DELAY_MS = 250;
+
+    // dirty flags of card views
+    private static final int CARD_UPDATE = 1;
+    private static final int CARD_DETAILS = 2;
+    // dirty flags of player views
+    private static final int PLAYER_LIVES = 1;
+    private static final int PLAYER_SHARDS = 2;
+    private static final int PLAYER_MANA_POOL = 4;
+
     private final PlayerControllerHuman humanController;
     private final IGuiGame matchController;
-    private final Set<CardView> cardsUpdate = new HashSet<>();
-    private final Set<CardView> cardsRefreshDetails = new HashSet<>();
-    private final Set<PlayerView> livesUpdate = new HashSet<>();
-    private final Set<PlayerView> shardsUpdate = new HashSet<>();
-    private final Set<PlayerView> manaPoolUpdate = new HashSet<>();
+    private final DirtyViews<CardView> cardsUpdate = new DirtyViews<>();
+    private final DirtyViews<PlayerView> playersUpdate = new DirtyViews<>();
     private final PlayerZoneUpdates zonesUpdate = new PlayerZoneUpdates();
     private final Map<PlayerView, Object> playersWithValidTargets = Maps.newHashMap();
 
-    private boolean processEventsQueued, needPhaseUpdate, needCombatUpdate, needStackUpdate, needPlayerControlUpdate, refreshFieldUpdate, showExileUpdate;
+    private volatile boolean processEventsQueued;
+    private boolean needPhaseUpdate, needCombatUpdate, needStackUpdate, needPlayerControlUpdate, refreshFieldUpdate, showExileUpdate;
     private boolean gameOver, gameFinished;
     private boolean needSaveState = false;
     private PlayerView turnUpdate, activatingPlayer;
 
+    private volatile long lastBatchTime;
+    private volatile long eventsReceived, batchesSent;
+
     public FControlGameEventHandler(final PlayerControllerHuman humanController0) {
         humanController = humanController0;
         matchController = humanController.getGui();
+        final Game game = humanController.getGame();
+        if (game != null) {
+            game.getTracker().addUnfreezeListener(new Runnable() {
+                @Override
+                public void run() {
+                    if (processEventsQueued) {
+                        //send what was held back while frozen instead of waiting for the delayed batch
+                        GuiBase.getInterface().invokeInEdtLater(processEvents);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Number of game events received so far.
+     */
+    public long getEventsReceived() {
+        return eventsReceived;
+    }
+
+    /**
+     * Number of batches of view updates sent to the GUI so far.
+     */
+    public long getBatchesSent() {
+        return batchesSent;
     }
 
     private final Runnable processEvents = new Runnable() {
         @Override
         public void run() {
+            if (!processEventsQueued) { return; } //batch already sent by an earlier run
             processEventsQueued = false;
-
-            synchronized (cardsUpdate) {
-                if (!cardsUpdate.isEmpty()) {
-                    matchController.updateCards(cardsUpdate);
-                    cardsUpdate.clear();
-                }
+            lastBatchTime = System.currentTimeMillis();
+            batchesSent++;
+
+            matchController.beginUpdateBatch();
+            try {
+                sendBatch();
+            } finally {
+                matchController.endUpdateBatch();
             }
-            synchronized (cardsRefreshDetails) {
-                if (!cardsRefreshDetails.isEmpty()) {
-                    matchController.refreshCardDetails(cardsRefreshDetails);
-                    cardsRefreshDetails.clear();
-                }
-            }
-            synchronized (livesUpdate) {
-                if (!livesUpdate.isEmpty()) {
-                    matchController.updateLives(livesUpdate);
-                    livesUpdate.clear();
-                }
-            }
-            synchronized (shardsUpdate) {
-                if (!shardsUpdate.isEmpty()) {
-                    matchController.updateShards(shardsUpdate);
-                    shardsUpdate.clear();
-                }
-            }
-            synchronized (manaPoolUpdate) {
-                if (!manaPoolUpdate.isEmpty()) {
-                    matchController.updateManaPool(manaPoolUpdate);
-                    manaPoolUpdate.clear();
-                }
-            }
-            if (turnUpdate != null) {
-                matchController.updateTurn(turnUpdate);
-                turnUpdate = null;
-            }
-            if (needPhaseUpdate) {
-                needPhaseUpdate = false;
-                if (needSaveState) {
-                    needSaveState = false;
-                    matchController.updatePhase(true);
-                } else {
-                    matchController.updatePhase(false);
-                }
-            }
-            if (needCombatUpdate) {
-                needCombatUpdate = false;
-                matchController.showCombat();
-            }
-            if (needStackUpdate) {
-                needStackUpdate = false;
-                matchController.updateStack();
+        }
+    };
+
+    private void sendBatch() {
+        final Map<CardView, Integer> cards = cardsUpdate.drain();
+        if (!cards.isEmpty()) {
+            final Set<CardView> cardsToUpdate = DirtyViews.select(cards, CARD_UPDATE);
+            if (!cardsToUpdate.isEmpty()) {
+                matchController.updateCards(cardsToUpdate);
             }
-            if (needPlayerControlUpdate) {
-                needPlayerControlUpdate = false;
-                matchController.updatePlayerControl();
+            final Set<CardView> cardsToRefresh = DirtyViews.select(cards, CARD_DETAILS);
+            if (!cardsToRefresh.isEmpty()) {
+                matchController.refreshCardDetails(cardsToRefresh);
             }
-            synchronized (zonesUpdate) {
-                if (!zonesUpdate.isEmpty()) {
-                    // Copy to prevent concurrency issues
-                    matchController.updateZones(new PlayerZoneUpdates(zonesUpdate));
-                    zonesUpdate.clear();
-                }
+        }
+        final Map<PlayerView, Integer> players = playersUpdate.drain();
+        if (!players.isEmpty()) {
+            final Set<PlayerView> livesUpdate = DirtyViews.select(players, PLAYER_LIVES);
+            if (!livesUpdate.isEmpty()) {
+                matchController.updateLives(livesUpdate);
             }
-            if (refreshFieldUpdate) {
-                refreshFieldUpdate = false;
-                matchController.refreshField();
+            final Set<PlayerView> shardsUpdate = DirtyViews.select(players, PLAYER_SHARDS);
+            if (!shardsUpdate.isEmpty()) {
+                matchController.updateShards(shardsUpdate);
             }
-            if (showExileUpdate) {
-                showExileUpdate = false;
-                matchController.openZones(activatingPlayer, Collections.singleton(ZoneType.Exile), playersWithValidTargets, false);
-                activatingPlayer = null;
-                playersWithValidTargets.clear();
+            final Set<PlayerView> manaPoolUpdate = DirtyViews.select(players, PLAYER_MANA_POOL);
+            if (!manaPoolUpdate.isEmpty()) {
+                matchController.updateManaPool(manaPoolUpdate);
             }
-            if (gameOver) {
-                gameOver = false;
-                humanController.getInputQueue().onGameOver(true); // this will unlock any game threads waiting for inputs to complete
+        }
+        if (turnUpdate != null) {
+            matchController.updateTurn(turnUpdate);
+            turnUpdate = null;
+        }
+        if (needPhaseUpdate) {
+            needPhaseUpdate = false;
+            if (needSaveState) {
+                needSaveState = false;
+                matchController.updatePhase(true);
+            } else {
+                matchController.updatePhase(false);
             }
-            if (gameFinished) {
-                gameFinished = false;
-                final PlayerView localPlayer = humanController.getLocalPlayerView();
-                humanController.cancelAwaitNextInput(); //ensure "Waiting for opponent..." doesn't appear behind WinLo
-                matchController.showPromptMessage(localPlayer, ""); //clear prompt behind WinLose overlay
-                matchController.updateButtons(localPlayer, "", "", false, false, false);
-                matchController.finishGame();
-                humanController.updateAchievements();
+        }
+        if (needCombatUpdate) {
+            needCombatUpdate = false;
+            matchController.showCombat();
+        }
+        if (needStackUpdate) {
+            needStackUpdate = false;
+            matchController.updateStack();
+        }
+        if (needPlayerControlUpdate) {
+            needPlayerControlUpdate = false;
+            matchController.updatePlayerControl();
+        }
+        synchronized (zonesUpdate) {
+            if (!zonesUpdate.isEmpty()) {
+                // Copy to prevent concurrency issues
+                matchController.updateZones(new PlayerZoneUpdates(zonesUpdate));
+                zonesUpdate.clear();
             }
         }
-    };
+        if (refreshFieldUpdate) {
+            refreshFieldUpdate = false;
+            matchController.refreshField();
+        }
+        if (showExileUpdate) {
+            showExileUpdate = false;
+            matchController.openZones(activatingPlayer, Collections.singleton(ZoneType.Exile), playersWithValidTargets, false);
+            activatingPlayer = null;
+            playersWithValidTargets.clear();
+        }
+        if (gameOver) {
+            gameOver = false;
+            humanController.getInputQueue().onGameOver(true); // this will unlock any game threads waiting for inputs to complete
+        }
+        if (gameFinished) {
+            gameFinished = false;
+            final PlayerView localPlayer = humanController.getLocalPlayerView();
+            humanController.cancelAwaitNextInput(); //ensure "Waiting for opponent..." doesn't appear behind WinLo
+            matchController.showPromptMessage(localPlayer, ""); //clear prompt behind WinLose overlay
+            matchController.updateButtons(localPlayer, "", "", false, false, false);
+            matchController.finishGame();
+            humanController.updateAchievements();
+        }
+    }
 
     @Subscribe
     public void receiveGameEvent(final GameEvent ev) {
+        eventsReceived++;
         ev.visit(this);
     }
 
+    /**
+     * Queue sending the updates collected so far. Updates from all events received until the
+     * batch runs are merged, batches are at least a frame apart, and while the game has its
+     * views frozen the batch is held back until they are unfrozen.
+     */
     private Void processEvent() {
         if (processEventsQueued) { return null; } //avoid queuing event processing multiple times
         processEventsQueued = true;
-        GuiBase.getInterface().invokeInEdtLater(processEvents);
+
+        final Game game = humanController.getGame();
+        long delay;
+        if (gameOver || gameFinished || needPlayerControlUpdate) {
+            delay = 0;
+        }
+        else if (game != null && game.getTracker().isFrozen()) {
+            delay = FROZEN_BATCH_DELAY_MS;
+        }
+        else {
+            delay = lastBatchTime + BATCH_INTERVAL_MS - System.currentTimeMillis();
+        }
+        if (delay <= 0) {
+            GuiBase.getInterface().invokeInEdtLater(processEvents);
+        }
+        else {
+            FThreads.delayInEDT((int) delay, processEvents);
+        }
         return null;
     }
 
-    private Void processCard(final Card card, final Set<CardView> list) {
-        synchronized (list) {
-            list.add(card.getView());
-        }
+    private Void processCard(final Card card, final int flags) {
+        cardsUpdate.mark(card.getView(), flags);
         return processEvent();
     }
-    private Void processCards(final Collection<Card> cards, final Set<CardView> list) {
+    private Void processCards(final Collection<Card> cards, final int flags) {
         if (cards.isEmpty()) { return null; }
 
-        synchronized (list) {
-            for (final Card c : cards) {
-                list.add(c.getView());
-            }
+        for (final Card c : cards) {
+            cardsUpdate.mark(c.getView(), flags);
         }
         return processEvent();
     }
-    private Void processPlayer(final Player player, final Set<PlayerView> list) {
-        synchronized (list) {
-            list.add(player.getView());
-        }
+    private Void processPlayer(final Player player, final int flags) {
+        playersUpdate.mark(player.getView(), flags);
         return processEvent();
     }
     private Void updateZone(final Zone z) {
@@ -207,7 +273,7 @@ public class FControlGameEventHandler extends IGameEventVisitor.Base<Void> {
     @Override
     public Void visit(final GameEventTurnBegan event) {
         turnUpdate = event.turnOwner.getView();
-        processPlayer(event.turnOwner, livesUpdate);
+        processPlayer(event.turnOwner, PLAYER_LIVES);
         if (FModel.getPreferences().getPrefBoolean(FPref.UI_STACK_CREATURES) && event.turnOwner != null) {
             // anything except stack will get here
             updateZone(event.turnOwner, ZoneType.Battlefield);
@@ -339,25 +405,25 @@ public class FControlGameEventHandler extends IGameEventVisitor.Base<Void> {
     @Override
     public Void visit(final GameEventCardTapped event) {
         refreshFieldUpdate = true; //update all players field when event un/tapped
-        processCard(event.card, cardsUpdate);
+        processCard(event.card, CARD_UPDATE);
         return processEvent();
     }
 
     @Override
     public Void visit(final GameEventCardPhased event) {
-        processCard(event.card, cardsUpdate);
+        processCard(event.card, CARD_UPDATE);
         return processEvent();
     }
 
     @Override
     public Void visit(final GameEventCardDamaged event) {
-        processCard(event.card, cardsUpdate);
+        processCard(event.card, CARD_UPDATE);
         return processEvent();
     }
 
     @Override
     public Void visit(final GameEventCardCounters event) {
-        processCard(event.card, cardsUpdate);
+        processCard(event.card, CARD_UPDATE);
         return processEvent();
     }
 
@@ -369,12 +435,12 @@ public class FControlGameEventHandler extends IGameEventVisitor.Base<Void> {
                 cards.addAll(blockers);
             }
         }
-        return processCards(cards, cardsUpdate);
+        return processCards(cards, CARD_UPDATE);
     }
 
     @Override
     public Void visit(final GameEventAttackersDeclared event) {
-        return processCards(event.attackersMap.values(), cardsUpdate);
+        return processCards(event.attackersMap.values(), CARD_UPDATE);
     }
 
     @Override
@@ -388,8 +454,8 @@ public class FControlGameEventHandler extends IGameEventVisitor.Base<Void> {
         needCombatUpdate = true;
 
         // This should remove sword/shield icons from combatants by the time game moves to M2
-        processCards(event.attackers, cardsUpdate);
-        return processCards(event.blockers, cardsUpdate);
+        processCards(event.attackers, CARD_UPDATE);
+        return processCards(event.blockers, CARD_UPDATE);
     }
 
     @Override
@@ -403,8 +469,7 @@ public class FControlGameEventHandler extends IGameEventVisitor.Base<Void> {
 
         refreshFieldUpdate = true;
 
-        processCards(cards, cardsRefreshDetails);
-        return processCards(cards, cardsUpdate);
+        return processCards(cards, CARD_UPDATE | CARD_DETAILS);
     }
 
     @Override
@@ -420,8 +485,7 @@ public class FControlGameEventHandler extends IGameEventVisitor.Base<Void> {
     @Override
     public Void visit(final GameEventCardStatsChanged event) {
         refreshFieldUpdate = true;
-        processCards(event.cards, cardsRefreshDetails);
-        return processCards(event.cards, cardsUpdate);
+        return processCards(event.cards, CARD_UPDATE | CARD_DETAILS);
     }
 
     @Override
@@ -439,30 +503,28 @@ public class FControlGameEventHandler extends IGameEventVisitor.Base<Void> {
             if (event.updateCards) {
                 cards.addAll(p.getAllCards());
             }
-            processPlayer(p, livesUpdate);
+            processPlayer(p, PLAYER_LIVES);
         }
 
-        return processCards(cards, cardsRefreshDetails);
+        return processCards(cards, CARD_DETAILS);
     }
 
     public Void visit(final GameEventLandPlayed event) {
-        processPlayer(event.player, livesUpdate);
+        processPlayer(event.player, PLAYER_LIVES);
         matchController.handleLandPlayed(event.land);
-        return processCard(event.land, cardsRefreshDetails);
+        return processCard(event.land, CARD_DETAILS);
     }
 
     @Override
     public Void visit(final GameEventTokenStateUpdate event) {
         refreshFieldUpdate = true;
-        processCards(event.cards, cardsRefreshDetails);
-        return processCards(event.cards, cardsUpdate);
+        return processCards(event.cards, CARD_UPDATE | CARD_DETAILS);
     }
 
     @Override
     public Void visit(final GameEventCardRegenerated event) {
         refreshFieldUpdate = true;
-        processCards(event.cards, cardsRefreshDetails);
-        return processCards(event.cards, cardsUpdate);
+        return processCards(event.cards, CARD_UPDATE | CARD_DETAILS);
     }
 
     @Override
@@ -482,27 +544,27 @@ public class FControlGameEventHandler extends IGameEventVisitor.Base<Void> {
 
     @Override
     public Void visit(final GameEventManaPool event) {
-        return processPlayer(event.player, manaPoolUpdate);
+        return processPlayer(event.player, PLAYER_MANA_POOL);
     }
 
     @Override
     public Void visit(final GameEventPlayerLivesChanged event) {
-        return processPlayer(event.player, livesUpdate);
+        return processPlayer(event.player, PLAYER_LIVES);
     }
 
     @Override
     public Void visit(final GameEventPlayerShardsChanged event) {
-        return processPlayer(event.player, shardsUpdate);
+        return processPlayer(event.player, PLAYER_SHARDS);
     }
 
     @Override
     public Void visit(GameEventManaBurn event) {
-        return processPlayer(event.player, livesUpdate);
+        return processPlayer(event.player, PLAYER_LIVES);
     }
 
     @Override
     public Void visit(final GameEventPlayerPoisoned event) {
-        return processPlayer(event.receiver, livesUpdate);
+        return processPlayer(event.receiver, PLAYER_LIVES);
     }
 
     @Override
@@ -512,6 +574,6 @@ public class FControlGameEventHandler extends IGameEventVisitor.Base<Void> {
 
     @Override
     public Void visit(final GameEventPlayerCounters event) {
-        return processPlayer(event.receiver, livesUpdate);
+        return processPlayer(event.receiver, PLAYER_LIVES);
     }
 }
@@ -97,6 +97,14 @@ public interface IGuiGame {
 
     void refreshCardDetails(Iterable<CardView> cards);
 
+    /**
+     * Called before and after a batch of view updates sent for several game events at once,
+     * so the GUI may merge work shared by the updates in between.
+     */
+    void beginUpdateBatch();
+
+    void endUpdateBatch();
+
     void refreshField();
 
     GameState getGamestate();
@@ -714,6 +714,56 @@ public class AdvancedSearch {
             evaluator = evaluator0;
         }
 
+        /**
+         * Relative cost of evaluating this option on an item, used to order the clauses of a compiled search.
+         */
+        private int getCost() {
+            switch (this) {
+            case CARD_SET:
+            case CARD_COLOR:
+            case CARD_COLOR_IDENTITY:
+            case CARD_COLOR_COUNT:
+            case CARD_TYPE:
+            case CARD_CMC:
+            case CARD_GENERIC_COST:
+            case CARD_POWER:
+            case CARD_TOUGHNESS:
+            case CARD_RARITY:
+            case INVITEM_SET:
+            case INVITEM_COLOR:
+            case INVITEM_COLOR_IDENTITY:
+            case INVITEM_COLOR_COUNT:
+            case INVITEM_TYPE:
+            case INVITEM_CMC:
+            case INVITEM_GENERIC_COST:
+            case INVITEM_POWER:
+            case INVITEM_TOUGHNESS:
+            case INVITEM_RARITY:
+                return SearchPlan.COST_CHEAP;
+            case CARD_SUB_TYPE:
+            case CARD_MANA_COST:
+            case CARD_ARTIST:
+            case INVITEM_SUB_TYPE:
+            case INVITEM_MANA_COST:
+                return SearchPlan.COST_LOOKUP;
+            case CARD_NAME:
+            case INVITEM_NAME:
+                return SearchPlan.COST_TEXT;
+            case CARD_RULES_TEXT:
+            case INVITEM_RULES_TEXT:
+                return SearchPlan.COST_TEXT * 4;
+            default:
+                return SearchPlan.COST_UNKNOWN;
+            }
+        }
+
+        /**
+         * Options that only read immutable card data can be evaluated from several threads at once.
+         */
+        private boolean isParallelSafe() {
+            return getCost() != SearchPlan.COST_UNKNOWN;
+        }
+
         @Override
         public String toString() {
             return name;
@@ -822,7 +872,7 @@ public class AdvancedSearch {
             @Override
             public boolean apply(String input, List<String> values) {
                 if (input != null) {
-                    return input.toLowerCase().indexOf(values.get(0).toLowerCase()) != -1;
+                    return input.toLowerCase().indexOf(values.get(0)) != -1;
                 }
                 return false;
             }
@@ -843,7 +893,7 @@ public class AdvancedSearch {
             @Override
             public boolean apply(String input, List<String> values) {
                 if (input != null) {
-                    return input.toLowerCase().startsWith(values.get(0).toLowerCase());
+                    return input.toLowerCase().startsWith(values.get(0));
                 }
                 return false;
             }
@@ -864,7 +914,7 @@ public class AdvancedSearch {
             @Override
             public boolean apply(String input, List<String> values) {
                 if (input != null) {
-                    return input.toLowerCase().endsWith(values.get(0).toLowerCase());
+                    return input.toLowerCase().endsWith(values.get(0));
                 }
                 return false;
             }
@@ -1096,12 +1146,13 @@ public class AdvancedSearch {
     private static abstract class FilterEvaluator<T extends InventoryItem, V> {
         @SuppressWarnings("unchecked")
         public final Filter<T> createFilter(FilterOption option, FilterOperator operator) {
-            final List<V> values = getValues(option, operator);
-            if (values == null || values.isEmpty()) {
+            final List<V> rawValues = getValues(option, operator);
+            if (rawValues == null || rawValues.isEmpty()) {
                 return null;
             }
 
-            String caption = getCaption(values, option, operator);
+            String caption = getCaption(rawValues, option, operator);
+            final List<V> values = normalizeValues(rawValues);
 
             final OperatorEvaluator<V> evaluator = (OperatorEvaluator<V>) operator.evaluator;
             Predicate<T> predicate = new Predicate<T>() {
@@ -1134,6 +1185,10 @@ public class AdvancedSearch {
         protected Set<V> getItemValues(T input) { //available for options that have multiple inputs
             return null;
         }
+
+        protected List<V> normalizeValues(List<V> values) { //prepare values once rather than for every item compared
+            return values;
+        }
     }
 
     private static abstract class BooleanEvaluator<T extends InventoryItem> extends FilterEvaluator<T, Boolean> {
@@ -1222,6 +1277,15 @@ public class AdvancedSearch {
         protected String getCaption(List<String> values, FilterOption option, FilterOperator operator) {
             return String.format(operator.formatStr, option.name, values.get(0));
         }
+
+        @Override
+        protected List<String> normalizeValues(List<String> values) {
+            List<String> lowerValues = new ArrayList<>();
+            for (String value : values) {
+                lowerValues.add(value.toLowerCase()); //string operators compare lower case
+            }
+            return lowerValues;
+        }
     }
 
     private static abstract class CustomListEvaluator<T extends InventoryItem, V> extends FilterEvaluator<T, V> {
@@ -1450,13 +1514,13 @@ public class AdvancedSearch {
             if (isEmpty()) {
                 return Predicates.alwaysTrue();
             }
-            return getPredicatePiece(new ExpressionIterator());
+            return SearchPlan.compile(getPredicatePiece(new ExpressionIterator()));
         }
 
         @SuppressWarnings("unchecked")
-        private Predicate<T> getPredicatePiece(ExpressionIterator iterator) {
-            Predicate<T> pred = null;
-            Predicate<T> predPiece = null;
+        private SearchPlan.Node<T> getPredicatePiece(ExpressionIterator iterator) {
+            SearchPlan.Node<T> pred = null;
+            SearchPlan.Node<T> predPiece = null;
             Operator operator = null;
             boolean applyNot = false;
 
@@ -1481,20 +1545,21 @@ public class AdvancedSearch {
                     continue;
                 }
                 else {
-                    predPiece = ((AdvancedSearch.Filter<T>) piece).getPredicate();
+                    AdvancedSearch.Filter<T> filter = (AdvancedSearch.Filter<T>) piece;
+                    predPiece = SearchPlan.leaf(filter.getPredicate(), filter.getOption().getCost(), filter.getOption().isParallelSafe());
                 }
                 if (applyNot) {
-                    predPiece = Predicates.not(predPiece);
+                    predPiece = SearchPlan.not(predPiece);
                     applyNot = false;
                 }
                 if (pred == null) {
                     pred = predPiece;
                 }
                 else if (operator == Operator.AND) {
-                    pred = Predicates.and(pred, predPiece);
+                    pred = SearchPlan.and(pred, predPiece);
                 }
                 else if (operator == Operator.OR) {
-                    pred = Predicates.or(pred, predPiece);
+                    pred = SearchPlan.or(pred, predPiece);
                 }
                 operator = null;
             }
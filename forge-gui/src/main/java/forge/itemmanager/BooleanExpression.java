@@ -1,20 +1,15 @@
 package forge.itemmanager;
 
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Stack;
 
-import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
 
 import forge.card.CardRules;
-import forge.card.CardRulesPredicates;
-import forge.util.PredicateString.StringOp;
 
 public class BooleanExpression {
     private Stack<Operator> operators = new Stack<>();
-    private Stack<Predicate<CardRules>> operands = new Stack<>();
+    private Stack<SearchPlan.Node<CardRules>> operands = new Stack<>();
 
     private StringTokenizer expression;
 
@@ -44,7 +39,7 @@ public class BooleanExpression {
         this.inCost = inCost;
     }
 
-    public Predicate<CardRules> evaluate() {
+    public SearchPlan<CardRules> evaluate() {
 
         StringBuilder currentValue = new StringBuilder();
         boolean escapeNext = false;
@@ -109,32 +104,32 @@ public class BooleanExpression {
             resolve(true);
         }
 
-        return operands.get(0);
+        return SearchPlan.compile(operands.get(0));
 
     }
 
     private void resolve(final boolean alwaysPopOperator) {
 
-        Predicate<CardRules> right;
-        Predicate<CardRules> left;
+        SearchPlan.Node<CardRules> right;
+        SearchPlan.Node<CardRules> left;
 
         switch (operators.peek()) {
             case AND:
                 operators.pop();
                 right = operands.pop();
                 left = operands.pop();
-                operands.push(Predicates.and(left, right));
+                operands.push(SearchPlan.and(left, right));
                 break;
             case OR:
                 operators.pop();
                 right = operands.pop();
                 left = operands.pop();
-                operands.push(Predicates.or(left, right));
+                operands.push(SearchPlan.or(left, right));
                 break;
             case NOT:
                 operators.pop();
                 left = operands.pop();
-                operands.push(Predicates.not(left));
+                operands.push(SearchPlan.not(left));
                 break;
             default:
                 if (alwaysPopOperator) {
@@ -145,25 +140,13 @@ public class BooleanExpression {
 
     }
 
-    private Predicate<CardRules> valueOf(final String value) {
+    private SearchPlan.Node<CardRules> valueOf(final String value) {
 
-        List<Predicate<CardRules>> predicates = new ArrayList<>();
-        if (inName) {
-            predicates.add(CardRulesPredicates.name(StringOp.CONTAINS_IC, value));
+        SearchPlan.Node<CardRules> node = CardSearchText.contains(value, inName, inType, inText, inCost);
+        if (node != null) {
+            return node;
         }
-        if (inType) {
-            predicates.add(CardRulesPredicates.joinedType(StringOp.CONTAINS_IC, value));
-        }
-        if (inText) {
-            predicates.add(CardRulesPredicates.rules(StringOp.CONTAINS_IC, value));
-        }
-        if (inCost) {
-            predicates.add(CardRulesPredicates.cost(StringOp.CONTAINS_IC, value));
-        }
-        if (!predicates.isEmpty()) {
-            return Predicates.or(predicates);
-        }
-        return Predicates.alwaysTrue();
+        return SearchPlan.leaf(Predicates.alwaysTrue(), SearchPlan.COST_CHEAP, true);
 
     }
 
@@ -0,0 +1,124 @@
+package forge.itemmanager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.base.Predicate;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import forge.card.CardRules;
+import forge.util.CardTranslation;
+
+/**
+ * Lower-cased text of a card that text searches look at, extracted once per {@link CardRules}
+ * so a search only has to do plain substring checks instead of rebuilding type and cost
+ * strings and translating them for every card and every search term.
+ */
+final class CardSearchText {
+    private static final LoadingCache<CardRules, CardSearchText> CACHE = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build(new CacheLoader<CardRules, CardSearchText>() {
+                @Override
+                public CardSearchText load(CardRules rules) {
+                    return new CardSearchText(rules);
+                }
+            });
+
+    private final String[] names;
+    private final String[] types;
+    private final String[] texts;
+    private final String cost;
+
+    private CardSearchText(CardRules rules) {
+        List<String> names0 = new ArrayList<>();
+        if (rules.getOtherPart() != null) {
+            add(names0, CardTranslation.getTranslatedName(rules.getOtherPart().getName()));
+            add(names0, rules.getOtherPart().getName());
+        }
+        add(names0, CardTranslation.getTranslatedName(rules.getName()));
+        add(names0, rules.getName());
+        names = names0.toArray(new String[0]);
+
+        String type = rules.getType().toString();
+        List<String> types0 = new ArrayList<>();
+        add(types0, CardTranslation.getTranslatedType(rules.getName(), type));
+        add(types0, type);
+        types = types0.toArray(new String[0]);
+
+        List<String> texts0 = new ArrayList<>();
+        add(texts0, CardTranslation.getTranslatedOracle(rules.getName()));
+        add(texts0, rules.getOracleText());
+        texts = texts0.toArray(new String[0]);
+
+        cost = rules.getManaCost().toString().toLowerCase();
+    }
+
+    private static void add(List<String> values, String value) {
+        if (value != null) {
+            value = value.toLowerCase();
+            if (!values.contains(value)) {
+                values.add(value);
+            }
+        }
+    }
+
+    private static boolean contains(String[] values, String what) {
+        for (String value : values) {
+            if (value.contains(what)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static CardSearchText of(CardRules rules) {
+        return CACHE.getUnchecked(rules);
+    }
+
+    /**
+     * Build a plan clause matching cards that contain the given value in any of the selected fields.
+     */
+    static SearchPlan.Node<CardRules> contains(String value, boolean inName, boolean inType, boolean inText, boolean inCost) {
+        final String what = value.toLowerCase();
+        List<SearchPlan.Node<CardRules>> nodes = new ArrayList<>();
+        if (inName) {
+            nodes.add(SearchPlan.leaf(new Predicate<CardRules>() {
+                @Override
+                public boolean apply(CardRules rules) {
+                    return contains(of(rules).names, what);
+                }
+            }, SearchPlan.COST_TEXT, true));
+        }
+        if (inType) {
+            nodes.add(SearchPlan.leaf(new Predicate<CardRules>() {
+                @Override
+                public boolean apply(CardRules rules) {
+                    return contains(of(rules).types, what);
+                }
+            }, SearchPlan.COST_TEXT, true));
+        }
+        if (inText) {
+            //rules text is far longer than the other fields
+            nodes.add(SearchPlan.leaf(new Predicate<CardRules>() {
+                @Override
+                public boolean apply(CardRules rules) {
+                    return contains(of(rules).texts, what);
+                }
+            }, SearchPlan.COST_TEXT * 4, true));
+        }
+        if (inCost) {
+            nodes.add(SearchPlan.leaf(new Predicate<CardRules>() {
+                @Override
+                public boolean apply(CardRules rules) {
+                    return of(rules).cost.contains(what);
+                }
+            }, SearchPlan.COST_LOOKUP, true));
+        }
+        if (nodes.isEmpty()) {
+            return null;
+        }
+        return SearchPlan.or(nodes);
+    }
+}
@@ -588,6 +588,25 @@ public enum ColumnDef {
         return this.longName;
     }
 
+    /**
+     * Whether the sort value of an item in this column only depends on the item and its count. Stars,
+     * owned counts, deck usage and the new flag are kept outside the item and may change while it's
+     * listed, so their cached values are dropped on {@link ItemManagerModel#onSortValuesChanged}.
+     * Prices come from the price list and don't change.
+     */
+    public boolean isSortValueOfItem() {
+        switch (this) {
+            case NEW:
+            case OWNED:
+            case DECKS:
+            case FAVORITE:
+            case DECK_FAVORITE:
+                return false;
+            default:
+                return true;
+        }
+    }
+
     private static String toType(final InventoryItem i) {
         return i instanceof IPaperCard ? ((IPaperCard) i).getRules().getType().toString() : i.getItemType();
     }
@@ -17,12 +17,18 @@
  */
 package forge.itemmanager;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.PriorityQueue;
+import java.util.Set;
 
 import forge.item.InventoryItem;
 import forge.itemmanager.ItemColumnConfig.SortState;
@@ -32,6 +38,15 @@ import forge.util.ItemPoolSorter;
 
 public final class ItemManagerModel<T extends InventoryItem> {
     private static final int maxSortDepth = 3;
+    // beyond this many pending item changes a rebuild and full sort is cheaper than inserting each one
+    private static final int maxIncrementalChanges = 64;
+    // beyond this many names changed, the models that haven't caught up drop all values kept outside the items
+    private static final int maxSortValueChanges = 256;
+
+    // names of the items whose values kept outside the items changed since version sortValueChangesBase,
+    // null for all items, see onSortValuesChanged
+    private static final List<String> sortValueChanges = new ArrayList<>();
+    private static int sortValueChangesBase = 0;
 
     private final ItemPool<T> data;
     private boolean infiniteSupply;
@@ -39,10 +54,34 @@ public final class ItemManagerModel<T extends InventoryItem> {
 
     public ItemManagerModel(final Class<T> genericType0) {
         data = new ItemPool<>(genericType0);
+        synchronized (ItemManagerModel.class) {
+            seenSortValuesVersion = sortValueChangesBase + sortValueChanges.size();
+        }
+    }
+
+    /**
+     * Tell the item managers that a value kept outside the items of the given name changed, such as
+     * the stars or owned count of a card (see {@link ColumnDef#isSortValueOfItem()}). The cached sort
+     * values of those items are computed again on the next sort.
+     */
+    public static synchronized void onSortValuesChanged(final String itemName) {
+        if (sortValueChanges.size() >= maxSortValueChanges) {
+            sortValueChangesBase += sortValueChanges.size();
+            sortValueChanges.clear();
+        }
+        sortValueChanges.add(itemName);
     }
 
-    public void clear() {
+    /**
+     * Tell the item managers that values kept outside the items changed for any number of items.
+     */
+    public static void onSortValuesChanged() {
+        onSortValuesChanged(null);
+    }
+
+    public synchronized void clear() {
         data.clear();
+        isListInSync = false;
     }
 
     // same thing as above, it was copied to provide sorting (needed by table
@@ -51,23 +90,121 @@ public final class ItemManagerModel<T extends InventoryItem> {
 
     protected transient boolean isListInSync = false;
 
+    // items added or removed since the ordered list was last in sync, applied without resorting the list
+    private final transient Set<T> changedItems = new HashSet<>();
+
+    // columns whose sort values are cached on each entry, and the cascade currently applied to the list
+    private final transient List<ItemColumn> keyColumns = new ArrayList<>();
+    private transient int[] sortSlots = null;
+    private transient boolean[] sortAscending = null;
+    private transient int sortedCount = 0;
+    private transient int nextOrdinal = 0;
+    private transient int seenSortValuesVersion;
+
     public synchronized List<Entry<T, Integer>> getOrderedList() {
+        return getOrderedList(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the ordered list, where at least the first rowCount entries are in their final sort order.
+     */
+    public synchronized List<Entry<T, Integer>> getOrderedList(final int rowCount) {
+        syncOrderedList();
+        if (sortSlots != null && sortedCount < Math.min(rowCount, itemsOrdered.size())) {
+            sortAll();
+        }
+        return itemsOrdered;
+    }
+
+    /**
+     * Row of the given item in the ordered list, or -1 if it isn't in the list.
+     * Only finishes a partial sort if the item isn't among the rows already sorted.
+     */
+    public synchronized int indexOf(final T item) {
+        syncOrderedList();
+        final int sorted = sortSlots == null ? itemsOrdered.size() : sortedCount;
+        for (int i = 0; i < sorted; i++) {
+            if (itemsOrdered.get(i).getKey() == item) {
+                return i;
+            }
+        }
+        if (sorted < itemsOrdered.size()) {
+            sortAll();
+            for (int i = sorted; i < itemsOrdered.size(); i++) {
+                if (itemsOrdered.get(i).getKey() == item) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void syncOrderedList() {
         if (!isListInSync) {
             rebuildOrderedList();
         }
-        return itemsOrdered;
+        else if (!changedItems.isEmpty()) {
+            applyChangedItems();
+        }
     }
 
     private void rebuildOrderedList() {
         itemsOrdered.clear();
+        changedItems.clear();
+        keyColumns.clear();
+        sortSlots = null; //new entries have no cached sort values, so the cascade is mapped again on the next sort
+        sortAscending = null;
+        nextOrdinal = 0;
         if (data != null) {
             for (final Entry<T, Integer> e : data) {
-                itemsOrdered.add(e);
+                itemsOrdered.add(new SortedEntry<>(e.getKey(), e.getValue(), nextOrdinal++));
             }
         }
+        sortedCount = 0;
         isListInSync = true;
     }
 
+    private void onItemChanged(final T item) {
+        if (!isListInSync) { return; }
+
+        if (sortSlots == null || sortedCount < itemsOrdered.size() || changedItems.size() >= maxIncrementalChanges) {
+            isListInSync = false;
+            changedItems.clear();
+            return;
+        }
+        changedItems.add(item);
+    }
+
+    // move each changed item to its place in the sorted list, keeping cached sort values of the others
+    private void applyChangedItems() {
+        if (sortSlots == null || sortedCount < itemsOrdered.size()) {
+            rebuildOrderedList();
+            return;
+        }
+
+        final Comparator<SortedEntry<T>> comparator = new EntryComparator();
+        final List<SortedEntry<T>> entries = getSortedEntries();
+        for (final T item : changedItems) {
+            for (int i = 0; i < entries.size(); i++) {
+                if (entries.get(i).getKey() == item) {
+                    entries.remove(i);
+                    break;
+                }
+            }
+            final int count = data.count(item);
+            if (count > 0) {
+                final SortedEntry<T> entry = new SortedEntry<>(item, count, nextOrdinal++);
+                int index = Collections.binarySearch(entries, entry, comparator);
+                if (index < 0) {
+                    index = -index - 1;
+                }
+                entries.add(index, entry);
+            }
+        }
+        changedItems.clear();
+        setSortedEntries(entries, entries.size());
+    }
+
     public int countDistinct() {
         return data.countDistinct();
     }
@@ -76,34 +213,40 @@ public final class ItemManagerModel<T extends InventoryItem> {
         return data.getView();
     }
 
-    public void removeItem(final T item0, final int qty) {
+    public synchronized void removeItem(final T item0, final int qty) {
         if (data.count(item0) > 0) {
             if (isInfinite()) {
                 data.removeAll(item0);
             } else {
                 data.remove(item0, qty);
             }
-            isListInSync = false;
+            onItemChanged(item0);
         }
     }
 
-    public void replaceAll(final T item0, final T replacement0) {
+    public synchronized void replaceAll(final T item0, final T replacement0) {
         final int count = data.count(item0);
         if (count > 0) {
             data.removeAll(item0);
             data.add(replacement0, count);
-            isListInSync = false;
+            onItemChanged(item0);
+            onItemChanged(replacement0);
         }
     }
 
-    public void addItem(final T item0, final int qty) {
+    public synchronized void addItem(final T item0, final int qty) {
         data.add(item0, qty);
-        isListInSync = false;
+        onItemChanged(item0);
     }
 
-    public void addItems(final Iterable<Entry<T, Integer>> items0) {
+    public synchronized void addItems(final Iterable<Entry<T, Integer>> items0) {
         data.addAll(items0);
-        isListInSync = false;
+        if (isListInSync) {
+            for (final Entry<T, Integer> e : items0) {
+                onItemChanged(e.getKey());
+                if (!isListInSync) { break; }
+            }
+        }
     }
 
     /**
@@ -123,11 +266,130 @@ public final class ItemManagerModel<T extends InventoryItem> {
     }
 
     public void refreshSort() {
-        final List<Entry<T, Integer>> list = getOrderedList();
-        if (list.isEmpty()) { return; }
-        try { Collections.sort(list, new MyComparator()); }
+        refreshSort(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Sort the list by the current cascade. If only the first rowCount rows are shown, only those
+     * are put in order now and the rest is sorted once a row past them is requested.
+     */
+    public synchronized void refreshSort(final int rowCount) {
+        syncOrderedList();
+
+        final List<ItemColumn> cols;
+        synchronized (cascadeManager.colsToSort) {
+            cols = new ArrayList<>(cascadeManager.colsToSort);
+        }
+        final int[] slots = new int[cols.size()];
+        final boolean[] ascending = new boolean[cols.size()];
+        for (int i = 0; i < slots.length; i++) {
+            final ItemColumn col = cols.get(i);
+            int slot = keyColumns.indexOf(col);
+            if (slot < 0) {
+                slot = keyColumns.size();
+                keyColumns.add(col);
+            }
+            slots[i] = slot;
+            ascending[i] = col.getConfig().getSortState().equals(SortState.ASC);
+        }
+        final boolean sortValuesChanged = clearChangedSortValues(slots);
+        if (sortSlots == null || !Arrays.equals(slots, sortSlots) || !Arrays.equals(ascending, sortAscending)) {
+            sortSlots = slots;
+            sortAscending = ascending;
+            sortedCount = 0;
+        }
+        else if (sortValuesChanged) {
+            sortedCount = 0;
+        }
+
+        final int size = itemsOrdered.size();
+        if (sortedCount >= Math.min(rowCount, size)) { return; }
+
+        if (rowCount < size / 4) {
+            sortTop(rowCount);
+        }
+        else {
+            sortAll();
+        }
+    }
+
+    /**
+     * Drop the cached values kept outside the items of the entries whose items changed since the
+     * last sort, and tell whether one of the given slots had one.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean clearChangedSortValues(final int[] slots) {
+        final Set<String> names = new HashSet<>();
+        final boolean all;
+        synchronized (ItemManagerModel.class) {
+            final int version = sortValueChangesBase + sortValueChanges.size();
+            if (seenSortValuesVersion == version) { return false; }
+            all = seenSortValuesVersion < sortValueChangesBase;
+            if (!all) {
+                names.addAll(sortValueChanges.subList(seenSortValuesVersion - sortValueChangesBase, sortValueChanges.size()));
+            }
+            seenSortValuesVersion = version;
+        }
+
+        final boolean[] outsideSlots = new boolean[keyColumns.size()];
+        for (final int slot : slots) {
+            outsideSlots[slot] = !keyColumns.get(slot).getConfig().getDef().isSortValueOfItem();
+        }
+        boolean cleared = false;
+        for (final Entry<T, Integer> e : itemsOrdered) {
+            if (all || names.contains(null) || names.contains(e.getKey().getName())) {
+                cleared |= ((SortedEntry<T>) e).clearSortKeys(keyColumns, outsideSlots);
+            }
+        }
+        return cleared;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<SortedEntry<T>> getSortedEntries() {
+        final List<SortedEntry<T>> entries = new ArrayList<>(itemsOrdered.size());
+        for (final Entry<T, Integer> e : itemsOrdered) {
+            entries.add((SortedEntry<T>) e);
+        }
+        return entries;
+    }
+
+    private void setSortedEntries(final List<SortedEntry<T>> entries, final int sortedCount0) {
+        itemsOrdered.clear();
+        itemsOrdered.addAll(entries);
+        sortedCount = sortedCount0;
+    }
+
+    private void sortAll() {
+        final List<SortedEntry<T>> entries = getSortedEntries();
+        try {
+            Collections.sort(entries, new EntryComparator());
+        }
         //fix NewDeck editor not loading on Android if a user deleted unwanted sets on edition folder
         catch (IllegalArgumentException ex) {}
+        setSortedEntries(entries, entries.size());
+    }
+
+    // partial sort: select the first rowCount entries with a bounded heap, leaving the rest in list order
+    private void sortTop(final int rowCount) {
+        final EntryComparator comparator = new EntryComparator();
+        final PriorityQueue<SortedEntry<T>> top = new PriorityQueue<>(rowCount + 1, Collections.reverseOrder(comparator));
+        final List<SortedEntry<T>> entries = getSortedEntries();
+        for (final SortedEntry<T> entry : entries) {
+            top.add(entry);
+            if (top.size() > rowCount) {
+                top.poll();
+            }
+        }
+        final List<SortedEntry<T>> sorted = new ArrayList<>(top);
+        Collections.sort(sorted, comparator);
+        final Set<SortedEntry<T>> inTop = Collections.newSetFromMap(new IdentityHashMap<>());
+        inTop.addAll(sorted);
+        for (final SortedEntry<T> entry : entries) {
+            if (!inTop.contains(entry)) {
+                sorted.add(entry);
+            }
+        }
+        setSortedEntries(sorted, rowCount);
     }
 
     //Manages sorting orders for multiple depths of sorting
@@ -226,11 +488,72 @@ public final class ItemManagerModel<T extends InventoryItem> {
         }
     }
 
-    private final class MyComparator implements Comparator<Entry<T, Integer>> {
+    // entry of the ordered list that caches the sort value of each column it has been sorted by
+    private static final class SortedEntry<T> extends AbstractMap.SimpleImmutableEntry<T, Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final int ordinal;
+        private Comparable<?>[] keys;
+
+        private SortedEntry(final T item, final Integer count, final int ordinal0) {
+            super(item, count);
+            ordinal = ordinal0;
+        }
+
         @SuppressWarnings("unchecked")
+        private Comparable<?> getSortKey(final int slot, final ItemColumn col) {
+            if (keys == null || keys.length <= slot) {
+                final int oldLength = keys == null ? 0 : keys.length;
+                keys = keys == null ? new Comparable<?>[slot + 1] : Arrays.copyOf(keys, slot + 1);
+                for (int i = oldLength; i < keys.length; i++) {
+                    keys[i] = KeyState.NOT_COMPUTED;
+                }
+            }
+            if (keys[slot] == KeyState.NOT_COMPUTED) {
+                keys[slot] = col.getFnSort().apply((Entry<InventoryItem, Integer>) (Entry<?, Integer>) this);
+            }
+            return keys[slot];
+        }
+
+        // drop the values of the columns whose values are kept outside the item, telling whether one was in a marked slot
+        private boolean clearSortKeys(final List<ItemColumn> columns, final boolean[] markedSlots) {
+            if (keys == null) { return false; }
+            boolean cleared = false;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != KeyState.NOT_COMPUTED && !columns.get(i).getConfig().getDef().isSortValueOfItem()) {
+                    keys[i] = KeyState.NOT_COMPUTED;
+                    cleared |= i < markedSlots.length && markedSlots[i];
+                }
+            }
+            return cleared;
+        }
+    }
+
+    private enum KeyState {
+        NOT_COMPUTED
+    }
+
+    // compares cached sort values through the cascade, falling back to list order for ties
+    private final class EntryComparator implements Comparator<SortedEntry<T>> {
+        @SuppressWarnings({ "unchecked", "rawtypes" })
         @Override
-        public int compare(final Entry<T, Integer> o1, final Entry<T, Integer> o2) {
-            return cascadeManager.getSorter().compare((Entry<InventoryItem, Integer>)o1, (Entry<InventoryItem, Integer>)o2);
+        public int compare(final SortedEntry<T> o1, final SortedEntry<T> o2) {
+            for (int i = 0; i < sortSlots.length; i++) {
+                final ItemColumn col = keyColumns.get(sortSlots[i]);
+                final Comparable obj1 = o1.getSortKey(sortSlots[i], col);
+                final Comparable obj2 = o2.getSortKey(sortSlots[i], col);
+                int result;
+                if (obj1 == null || obj2 == null) {
+                    result = obj1 == obj2 ? 0 : obj1 == null ? -1 : 1;
+                }
+                else {
+                    result = sortAscending[i] ? obj1.compareTo(obj2) : obj2.compareTo(obj1);
+                }
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return Integer.compare(o1.ordinal, o2.ordinal);
         }
     }
 }
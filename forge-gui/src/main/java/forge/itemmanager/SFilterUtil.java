@@ -12,7 +12,6 @@ import com.google.common.base.Predicates;
 import forge.StaticData;
 import forge.card.CardEdition;
 import forge.card.CardRules;
-import forge.card.CardRulesPredicates;
 import forge.card.ColorSet;
 import forge.card.MagicColor;
 import forge.deck.DeckProxy;
@@ -25,7 +24,6 @@ import forge.itemmanager.SItemManagerUtil.StatTypes;
 import forge.localinstance.properties.ForgePreferences;
 import forge.model.FModel;
 import forge.util.BinaryUtil;
-import forge.util.PredicateString.StringOp;
 
 /** 
  * Static factory; holds blocks of form elements and predicates
@@ -49,9 +47,9 @@ public class SFilterUtil {
             BooleanExpression expression = new BooleanExpression(text, inName, inType, inText, inCost);
             
             try {
-                Predicate<CardRules> filter = expression.evaluate();
+                SearchPlan<CardRules> filter = expression.evaluate();
                 if (filter != null) {
-                    return Predicates.compose(invert ? Predicates.not(filter) : filter, PaperCard.FN_GET_RULES);
+                    return (invert ? filter.negate() : filter).compose(PaperCard.FN_GET_RULES);
                 }
             }
             catch (Exception ignored) {
@@ -61,20 +59,28 @@ public class SFilterUtil {
         }
 
         List<String> splitText = getSplitText(text);
-        List<Predicate<CardRules>> terms = new ArrayList<>();
+        SearchPlan.Node<CardRules> terms = null;
         for (String s : splitText) {
-            List<Predicate<CardRules>> subands = new ArrayList<>();
-
-            if (inName) { subands.add(CardRulesPredicates.name(StringOp.CONTAINS_IC, s));       }
-            if (inType) { subands.add(CardRulesPredicates.joinedType(StringOp.CONTAINS_IC, s)); }
-            if (inText) { subands.add(CardRulesPredicates.rules(StringOp.CONTAINS_IC, s));      }
-            if (inCost) { subands.add(CardRulesPredicates.cost(StringOp.CONTAINS_IC, s));       }
-
-            terms.add(Predicates.or(subands));
+            SearchPlan.Node<CardRules> term = CardSearchText.contains(s, inName, inType, inText, inCost);
+            if (term == null) {
+                term = SearchPlan.leaf(Predicates.alwaysFalse(), SearchPlan.COST_CHEAP, true);
+            }
+            if (terms == null) {
+                terms = term;
+            }
+            else {
+                terms = invert ? SearchPlan.or(terms, term) : SearchPlan.and(terms, term);
+            }
+        }
+        if (terms == null) {
+            return Predicates.alwaysTrue();
+        }
+        SearchPlan<CardRules> textFilter = SearchPlan.compile(terms);
+        if (invert) {
+            textFilter = textFilter.negate();
         }
-        Predicate<CardRules> textFilter = invert ? Predicates.not(Predicates.or(terms)) : Predicates.and(terms);
 
-        return Predicates.compose(textFilter, PaperCard.FN_GET_RULES);
+        return textFilter.compose(PaperCard.FN_GET_RULES);
     }
 
     private static List<String> getSplitText(String text) {
@@ -390,9 +396,12 @@ public class SFilterUtil {
     }
 
     public static Predicate<PaperCard> buildFormatFilter(Set<GameFormat> formats, boolean allowReprints) {
+        if (allowReprints) {
+            return FModel.getFormats().getFilterRules(formats);
+        }
         List<Predicate<PaperCard>> predicates = new ArrayList<>();
         for (GameFormat f : formats) {
-            predicates.add(allowReprints ? f.getFilterRules() : f.getFilterPrinted());
+            predicates.add(f.getFilterPrinted());
         }
         return Predicates.or(predicates);
     }
@@ -0,0 +1,390 @@
+package forge.itemmanager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.stream.Collectors;
+
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+
+import forge.item.InventoryItem;
+import forge.util.ItemPool;
+
+/**
+ * Compiled form of a search expression.
+ * <br><br>
+ * Nested AND/OR clauses are flattened and their operands are ordered so that cheap and
+ * selective clauses are evaluated first. Clauses are pure predicates, so reordering them
+ * never changes the result. Before scanning a large pool the plan measures how many items
+ * each clause lets through on a small sample and reorders again by observed selectivity,
+ * then scans with a parallel stream if every clause allows it.
+ */
+public final class SearchPlan<T> implements Predicate<T> {
+    /** Clause backed by a primitive or a bit mask on the item, e.g. color, type, rarity, set or CMC. */
+    public static final int COST_CHEAP = 1;
+    /** Clause backed by a lookup or a small collection on the item. */
+    public static final int COST_LOOKUP = 4;
+    /** Clause doing a substring search over cached text. */
+    public static final int COST_TEXT = 16;
+    /** Clause whose cost isn't known, assumed to be expensive. */
+    public static final int COST_UNKNOWN = 64;
+
+    private static final int PARALLEL_THRESHOLD = 4096;
+    private static final int SAMPLE_SIZE = 256;
+
+    private final Node<T> root;
+    private boolean calibrated;
+
+    private SearchPlan(Node<T> root0) {
+        root = root0;
+        root.optimize();
+    }
+
+    public static <T> SearchPlan<T> compile(Node<T> root) {
+        if (root == null) {
+            return new SearchPlan<>(SearchPlan.<T>leaf(Predicates.alwaysTrue(), COST_CHEAP, true));
+        }
+        return new SearchPlan<>(root);
+    }
+
+    /**
+     * Combine predicates with AND. Predicates that are already plans are merged into the
+     * new plan, others are treated as opaque clauses of unknown cost.
+     */
+    public static <T> SearchPlan<T> and(Iterable<? extends Predicate<? super T>> predicates) {
+        List<Node<T>> nodes = new ArrayList<>();
+        for (Predicate<? super T> predicate : predicates) {
+            nodes.add(SearchPlan.<T>of(predicate));
+        }
+        return compile(new Junction<>(true, nodes));
+    }
+
+    /**
+     * Wrap a predicate that delegates to the given plan, keeping the plan's cost and
+     * whether it may be evaluated in parallel.
+     */
+    public static <T> SearchPlan<T> wrap(Predicate<? super T> predicate, SearchPlan<?> plan) {
+        return compile(SearchPlan.<T>leaf(predicate, plan.root.cost(), plan.isParallelSafe()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Node<T> of(Predicate<? super T> predicate) {
+        if (predicate instanceof SearchPlan) {
+            return ((SearchPlan<T>) predicate).root;
+        }
+        return leaf(predicate, COST_UNKNOWN, false);
+    }
+
+    public static <T> Node<T> leaf(Predicate<? super T> predicate, int cost, boolean parallelSafe) {
+        return new Leaf<>(predicate, cost, parallelSafe);
+    }
+
+    public static <T> Node<T> and(Node<T> left, Node<T> right) {
+        List<Node<T>> nodes = new ArrayList<>();
+        nodes.add(left);
+        nodes.add(right);
+        return new Junction<>(true, nodes);
+    }
+
+    public static <T> Node<T> or(Node<T> left, Node<T> right) {
+        List<Node<T>> nodes = new ArrayList<>();
+        nodes.add(left);
+        nodes.add(right);
+        return new Junction<>(false, nodes);
+    }
+
+    public static <T> Node<T> or(List<Node<T>> nodes) {
+        return new Junction<>(false, nodes);
+    }
+
+    public static <T> Node<T> not(Node<T> node) {
+        if (node instanceof Not) {
+            return ((Not<T>) node).node;
+        }
+        return new Not<>(node);
+    }
+
+    public SearchPlan<T> negate() {
+        return new SearchPlan<>(not(root));
+    }
+
+    public <F> SearchPlan<F> compose(Function<F, ? extends T> function) {
+        return new SearchPlan<>(new Composed<>(root, function));
+    }
+
+    public boolean isParallelSafe() {
+        return root.isParallelSafe();
+    }
+
+    @Override
+    public boolean apply(T input) {
+        return root.test(input);
+    }
+
+    /**
+     * Return the items matching this plan, in their original order.
+     */
+    public List<T> filter(Collection<? extends T> items) {
+        if (items.size() < PARALLEL_THRESHOLD) {
+            return Lists.newArrayList(Iterables.filter(items, this));
+        }
+        calibrate(items);
+        if (!isParallelSafe()) {
+            return Lists.newArrayList(Iterables.filter(items, this));
+        }
+        return items.parallelStream().filter(root::test).collect(Collectors.toList());
+    }
+
+    /**
+     * Filter the entries of a pool, using a compiled scan when the predicate is a plan.
+     */
+    public static <T extends InventoryItem> Iterable<Entry<T, Integer>> filter(ItemPool<T> pool, Predicate<? super T> predicate) {
+        if (predicate instanceof SearchPlan && pool.countDistinct() >= PARALLEL_THRESHOLD) {
+            return filterEntries(pool, (SearchPlan<? super T>) predicate);
+        }
+        return Iterables.filter(pool, Predicates.compose(predicate, pool.FN_GET_KEY));
+    }
+
+    private static <T extends InventoryItem> List<Entry<T, Integer>> filterEntries(ItemPool<T> pool, SearchPlan<? super T> plan) {
+        return plan.compose(pool.FN_GET_KEY).filter(Lists.newArrayList(pool));
+    }
+
+    private synchronized void calibrate(Collection<? extends T> items) {
+        if (calibrated) { return; }
+
+        List<T> sample = new ArrayList<>(SAMPLE_SIZE);
+        int step = Math.max(1, items.size() / SAMPLE_SIZE);
+        int index = 0;
+        for (T item : items) {
+            if (index++ % step == 0) {
+                sample.add(item);
+            }
+        }
+        root.calibrate(sample);
+        calibrated = true;
+    }
+
+    public static abstract class Node<T> {
+        //written by the calibration of any plan sharing this node, read by the others' scans
+        private volatile double passRate = 0.5;
+
+        abstract boolean test(T input);
+        abstract int cost();
+        abstract boolean isParallelSafe();
+
+        void optimize() {
+        }
+
+        void calibrate(List<? extends T> sample) {
+            int passed = 0;
+            for (T item : sample) {
+                if (test(item)) {
+                    passed++;
+                }
+            }
+            //smooth the rate so a clause that matched nothing in the sample still ranks by cost
+            passRate = (passed + 0.5) / (sample.size() + 1.0);
+        }
+
+        double getPassRate() {
+            return passRate;
+        }
+    }
+
+    private static final class Leaf<T> extends Node<T> {
+        private final Predicate<? super T> predicate;
+        private final int cost;
+        private final boolean parallelSafe;
+
+        private Leaf(Predicate<? super T> predicate0, int cost0, boolean parallelSafe0) {
+            predicate = predicate0;
+            cost = cost0;
+            parallelSafe = parallelSafe0;
+        }
+
+        @Override
+        boolean test(T input) {
+            return predicate.apply(input);
+        }
+
+        @Override
+        int cost() {
+            return cost;
+        }
+
+        @Override
+        boolean isParallelSafe() {
+            return parallelSafe;
+        }
+    }
+
+    private static final class Not<T> extends Node<T> {
+        private final Node<T> node;
+
+        private Not(Node<T> node0) {
+            node = node0;
+        }
+
+        @Override
+        boolean test(T input) {
+            return !node.test(input);
+        }
+
+        @Override
+        int cost() {
+            return node.cost();
+        }
+
+        @Override
+        boolean isParallelSafe() {
+            return node.isParallelSafe();
+        }
+
+        @Override
+        void optimize() {
+            node.optimize();
+        }
+
+        @Override
+        void calibrate(List<? extends T> sample) {
+            node.calibrate(sample);
+            super.calibrate(sample);
+        }
+    }
+
+    private static final class Junction<T> extends Node<T> {
+        private final boolean isAnd;
+        //never changed in place, other plans sharing this node may be scanning it while it's sorted
+        private volatile List<Node<T>> nodes;
+        private int cost;
+        private boolean parallelSafe = true;
+
+        private Junction(boolean isAnd0, List<Node<T>> nodes0) {
+            isAnd = isAnd0;
+            List<Node<T>> nodes = new ArrayList<>();
+            for (Node<T> node : nodes0) {
+                //flatten nested clauses using the same operator
+                if (node instanceof Junction && ((Junction<T>) node).isAnd == isAnd) {
+                    nodes.addAll(((Junction<T>) node).nodes);
+                }
+                else {
+                    nodes.add(node);
+                }
+            }
+            for (Node<T> node : nodes) {
+                cost += node.cost();
+                parallelSafe &= node.isParallelSafe();
+            }
+            this.nodes = Collections.unmodifiableList(nodes);
+        }
+
+        @Override
+        boolean test(T input) {
+            for (Node<T> node : nodes) {
+                if (node.test(input) != isAnd) {
+                    return !isAnd;
+                }
+            }
+            return isAnd;
+        }
+
+        @Override
+        int cost() {
+            return cost;
+        }
+
+        @Override
+        boolean isParallelSafe() {
+            return parallelSafe;
+        }
+
+        @Override
+        void optimize() {
+            for (Node<T> node : nodes) {
+                node.optimize();
+            }
+            sortNodes();
+        }
+
+        private void sortNodes() {
+            //an AND clause stops at the first failure and an OR clause at the first match,
+            //so rank each operand by its cost per short-circuit
+            //and take the ranks first, the pass rates may change while sorting
+            List<Node<T>> sorted = new ArrayList<>(nodes);
+            final Map<Node<T>, Double> ranks = new IdentityHashMap<>();
+            for (Node<T> node : sorted) {
+                ranks.put(node, rank(node));
+            }
+            Collections.sort(sorted, new Comparator<Node<T>>() {
+                @Override
+                public int compare(Node<T> a, Node<T> b) {
+                    return Double.compare(ranks.get(a), ranks.get(b));
+                }
+            });
+            nodes = Collections.unmodifiableList(sorted);
+        }
+
+        private double rank(Node<T> node) {
+            double stopRate = isAnd ? 1 - node.getPassRate() : node.getPassRate();
+            return node.cost() / stopRate;
+        }
+
+        @Override
+        void calibrate(List<? extends T> sample) {
+            for (Node<T> node : nodes) {
+                node.calibrate(sample);
+            }
+            sortNodes();
+            super.calibrate(sample);
+        }
+    }
+
+    private static final class Composed<F, T> extends Node<F> {
+        private final Node<T> node;
+        private final Function<F, ? extends T> function;
+
+        private Composed(Node<T> node0, Function<F, ? extends T> function0) {
+            node = node0;
+            function = function0;
+        }
+
+        @Override
+        boolean test(F input) {
+            return node.test(function.apply(input));
+        }
+
+        @Override
+        int cost() {
+            return node.cost();
+        }
+
+        @Override
+        boolean isParallelSafe() {
+            return node.isParallelSafe();
+        }
+
+        @Override
+        void optimize() {
+            node.optimize();
+        }
+
+        @Override
+        void calibrate(List<? extends F> sample) {
+            List<T> mapped = new ArrayList<>(sample.size());
+            for (F item : sample) {
+                mapped.add(function.apply(item));
+            }
+            node.calibrate(mapped);
+            super.calibrate(sample);
+        }
+    }
+}